@@ -0,0 +1,50 @@
+package group17.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import genius.core.Bid;
+import genius.core.Domain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Seeded fixtures shared by the benchmarks, so every run measures the same domains, bids and rankings.
+ */
+public final class BenchmarkFixtures {
+
+	public static final long SEED = 17L;
+
+	private BenchmarkFixtures() {
+		// Static helpers only.
+	}
+
+	/**
+	 * Generate a synthetic domain, utility space and user model.
+	 * @param issues Number of issues
+	 * @param values Number of values per issue
+	 * @param rankingLength Number of bids in the user model's ranking
+	 * @return Scenario
+	 */
+	public static SyntheticScenario createScenario(final int issues, final int values, final int rankingLength) {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(issues, values).withRankingLength(rankingLength).withSeed(SEED);
+		return new SyntheticDomainGenerator(spec).generate();
+	}
+
+	/**
+	 * Generate random bids.
+	 * @param domain Domain
+	 * @param numBids Number of bids
+	 * @param random Random number generator
+	 * @return Bids
+	 */
+	public static List<Bid> createBids(final Domain domain, final int numBids, final Random random) {
+		final List<Bid> bids = new ArrayList<>(numBids);
+		for (int i = 0; i < numBids; i++) {
+			bids.add(domain.getRandomBid(random));
+		}
+		return bids;
+	}
+}
@@ -0,0 +1,28 @@
+package group17.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with the GC profiler, so every result reports allocation rate alongside throughput.
+ * Accepts the usual JMH command line options, e.g. a benchmark regex or {@code -p issues=8}.
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final Options options = new OptionsBuilder()
+			.parent(new CommandLineOptions(args))
+			.addProfiler(GCProfiler.class)
+			.build();
+		new Runner(options).run();
+	}
+}
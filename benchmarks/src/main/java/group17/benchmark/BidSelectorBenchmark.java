@@ -0,0 +1,75 @@
+package group17.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+import genius.core.parties.NegotiationInfo;
+import genius.core.uncertainty.UserModel;
+import genius.core.utility.AbstractUtilitySpace;
+import group17.domain.BidSelector;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Candidate bid generation by {@link BidSelector}, from the utility space and from a bid ranking.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BidSelectorBenchmark {
+
+	@Param({ "4", "8", "16" })
+	public int issues;
+
+	@Param({ "5", "20" })
+	public int values;
+
+	@Param({ "100", "1000" })
+	public int rankingLength;
+
+	@Param({ "330" })
+	public int maxListSize;
+
+	@Param({ "0.6" })
+	public double minimumUtility;
+
+	private NegotiationInfo certainInfo;
+	private NegotiationInfo uncertainInfo;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final SyntheticScenario scenario = BenchmarkFixtures.createScenario(this.issues, this.values, this.rankingLength);
+		final AbstractUtilitySpace space = scenario.utilitySpace();
+		final UserModel userModel = scenario.userModel();
+		final AgentID agent = new AgentID("Benchmark");
+		this.certainInfo = new NegotiationInfo(space, null, null, null, null, BenchmarkFixtures.SEED, agent, null);
+		this.uncertainInfo = new NegotiationInfo(space, userModel, null, null, null, BenchmarkFixtures.SEED, agent, null);
+	}
+
+	@Benchmark
+	public List<Bid> fromUtilitySpace() {
+		return new BidSelector(this.certainInfo, this.maxListSize, this.minimumUtility).getBids();
+	}
+
+	@Benchmark
+	public List<Bid> fromRanking() {
+		return new BidSelector(this.uncertainInfo, this.maxListSize, this.minimumUtility).getBids();
+	}
+}
@@ -0,0 +1,106 @@
+package group17.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genius.core.Bid;
+import genius.core.utility.AbstractUtilitySpace;
+import group17.domain.CandidateIndex;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.opponent.CandidateScores;
+import group17.opponent.utility.EnsembleOpponentModel;
+
+/**
+ * The candidate search in {@code Agent17.biddingStrategy}: the best candidate for the opponent above our threshold,
+ * from a {@link CandidateIndex}, on its own and after an opponent offer. After an offer, the candidates are
+ * rescored either by the {@link CandidateScores} delta, as for an additive estimate, or through the model for
+ * every candidate, as for any other; both include the model update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateScanBenchmark {
+
+	private static final int PRIOR_OPPONENT_BIDS = 50;
+	private static final int OPPONENT_BIDS = 1000;
+	private static final int RECENT_BID_WINDOW = 10;
+
+	@Param({ "4", "8", "16" })
+	public int issues;
+
+	@Param({ "5", "20" })
+	public int values;
+
+	@Param({ "330", "3000" })
+	public int candidates;
+
+	@Param({ "0.6" })
+	public double threshold;
+
+	private CandidateIndex index;
+	private EnsembleOpponentModel opponentModel;
+	private CandidateScores scores;
+	private List<Bid> opponentBids;
+	private int nextBid = 0;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		final Random random = new Random(BenchmarkFixtures.SEED);
+		final SyntheticScenario scenario = BenchmarkFixtures.createScenario(this.issues, this.values, 1);
+		final SyntheticDomain domain = scenario.domain();
+		final AbstractUtilitySpace space = scenario.utilitySpace();
+		this.index = new CandidateIndex(BenchmarkFixtures.createBids(domain, this.candidates, random), space::getUtility);
+		this.opponentModel = new EnsembleOpponentModel(domain, RECENT_BID_WINDOW, EnsembleOpponentModel.Estimate.AGENT17);
+		for (final Bid bid : BenchmarkFixtures.createBids(domain, PRIOR_OPPONENT_BIDS, random)) {
+			this.opponentModel.update(bid, true);
+		}
+		this.opponentBids = BenchmarkFixtures.createBids(domain, OPPONENT_BIDS, random);
+		this.scores = new CandidateScores(this.index, this.opponentModel.getEncoder());
+		this.scores.update(this.opponentModel);
+		this.index.rebuild(this.scores.getScores());
+	}
+
+	@Benchmark
+	public int bestAbove() {
+		return this.index.bestAbove(this.threshold);
+	}
+
+	@Benchmark
+	public int deltaRescore() {
+		this.opponentModel.update(this.nextOpponentBid(), true);
+		this.scores.update(this.opponentModel);
+		this.index.rebuild(this.scores.getScores());
+		return this.index.bestAbove(this.threshold);
+	}
+
+	@Benchmark
+	public int fullRescore() {
+		this.opponentModel.update(this.nextOpponentBid(), true);
+		this.index.rebuild(this.opponentModel::calculateRecentUtility);
+		return this.index.bestAbove(this.threshold);
+	}
+
+	private Bid nextOpponentBid() {
+		final Bid bid = this.opponentBids.get(this.nextBid);
+		this.nextBid = (this.nextBid + 1) % this.opponentBids.size();
+		return bid;
+	}
+}
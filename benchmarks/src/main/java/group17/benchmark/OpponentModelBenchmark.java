@@ -0,0 +1,136 @@
+package group17.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genius.core.Bid;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.opponent.OpponentModel;
+import group17.opponent.utility.Agent17OpponentModel;
+import group17.opponent.utility.AsyncOpponentModel;
+import group17.opponent.utility.DecayedOpponentModel;
+import group17.opponent.utility.EnsembleOpponentModel;
+import group17.opponent.utility.JonnyBlackOpponentModel;
+
+/**
+ * Opponent model updates and utility estimates, over domains of increasing size, for each model the agent can use.
+ * Updates to the asynchronous model are waited for, so its figures include handing each bid to the worker and
+ * publishing the snapshot, rather than just queueing it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpponentModelBenchmark {
+
+	private static final int NUM_BIDS = 1024;
+	private static final int RECENT_BID_WINDOW = 10;
+
+	@Param({ "4", "8", "16" })
+	public int issues;
+
+	@Param({ "5", "20" })
+	public int values;
+
+	@Param({ "agent17", "jonnyBlack", "ensemble", "async", "decayed" })
+	public String model;
+
+	private SyntheticDomain domain;
+	private List<Bid> bids;
+	private OpponentModel opponentModel;
+	private OpponentModel trainedModel;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		final Random random = new Random(BenchmarkFixtures.SEED);
+		this.domain = BenchmarkFixtures.createScenario(this.issues, this.values, 1).domain();
+		this.bids = BenchmarkFixtures.createBids(this.domain, NUM_BIDS, random);
+		this.trainedModel = this.createModel();
+		for (final Bid bid : this.bids) {
+			this.trainedModel.update(bid, true);
+		}
+		this.awaitUpdates(this.trainedModel);
+	}
+
+	/**
+	 * Start every iteration from an empty model, so the history doesn't grow without bound.
+	 */
+	@Setup(Level.Iteration)
+	public void setupIteration() {
+		this.opponentModel = this.createModel();
+		this.next = 0;
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDownIteration() {
+		this.close(this.opponentModel);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownTrial() {
+		this.close(this.trainedModel);
+	}
+
+	@Benchmark
+	public OpponentModel update() {
+		this.opponentModel.update(this.nextBid(), true);
+		this.awaitUpdates(this.opponentModel);
+		return this.opponentModel;
+	}
+
+	@Benchmark
+	public double calculateRecentUtility() {
+		return this.trainedModel.calculateRecentUtility(this.nextBid());
+	}
+
+	@Benchmark
+	public double calculateUtility() {
+		return this.trainedModel.calculateUtility(this.nextBid());
+	}
+
+	private Bid nextBid() {
+		final Bid bid = this.bids.get(this.next);
+		this.next = (this.next + 1) % NUM_BIDS;
+		return bid;
+	}
+
+	private OpponentModel createModel() {
+		return switch (this.model) {
+			case "jonnyBlack" -> new JonnyBlackOpponentModel(this.domain, RECENT_BID_WINDOW);
+			case "ensemble" -> new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, EnsembleOpponentModel.Estimate.AGENT17);
+			case "async" -> new AsyncOpponentModel<>(new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, EnsembleOpponentModel.Estimate.AGENT17));
+			case "decayed" -> new DecayedOpponentModel(this.domain, RECENT_BID_WINDOW);
+			default -> new Agent17OpponentModel(this.domain, RECENT_BID_WINDOW);
+		};
+	}
+
+	private void awaitUpdates(final OpponentModel model) {
+		if (model instanceof AsyncOpponentModel) {
+			((AsyncOpponentModel<?>) model).awaitUpdates();
+		}
+	}
+
+	private void close(final OpponentModel model) {
+		if (model instanceof AsyncOpponentModel) {
+			((AsyncOpponentModel<?>) model).close();
+		}
+	}
+}
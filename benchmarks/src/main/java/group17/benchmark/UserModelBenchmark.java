@@ -0,0 +1,58 @@
+package group17.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import genius.core.uncertainty.UserModel;
+import group17.user.LPSolver;
+import group17.user.UserPreferences;
+
+/**
+ * Preference elicitation from a bid ranking: the {@link LPSolver} and {@link UserPreferences}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserModelBenchmark {
+
+	@Param({ "4", "8" })
+	public int issues;
+
+	@Param({ "5", "10" })
+	public int values;
+
+	@Param({ "10", "50", "200" })
+	public int rankingLength;
+
+	private UserModel userModel;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.userModel = BenchmarkFixtures.createScenario(this.issues, this.values, this.rankingLength).userModel();
+	}
+
+	@Benchmark
+	public LPSolver.LPSolverResult solve() {
+		return new LPSolver(this.userModel).solve();
+	}
+
+	@Benchmark
+	public UserPreferences userPreferences() {
+		return new UserPreferences(this.userModel);
+	}
+}
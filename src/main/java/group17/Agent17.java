@@ -1,7 +1,6 @@
 package group17;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import genius.core.issue.Issue;
 import genius.core.issue.IssueDiscrete;
@@ -21,12 +20,28 @@ import genius.core.actions.Offer;
 import genius.core.parties.AbstractNegotiationParty;
 import genius.core.parties.NegotiationInfo;
 import genius.core.utility.AbstractUtilitySpace;
+import group17.analytics.AnalyticsChannel;
+import group17.domain.BidEncoder;
+import group17.domain.BidPool;
 import group17.domain.BidSelector;
-import group17.domain.BidValue;
+import group17.domain.CandidateIndex;
+import group17.domain.CandidateValueIndex;
 import group17.domain.HyperparameterProperties;
+import group17.domain.HyperparameterProvider;
+import group17.domain.OutcomeUtilityTable;
+import group17.domain.Speculation;
+import group17.domain.TradeOffSearch;
+import group17.opponent.AdditiveEstimate;
+import group17.opponent.CandidateScores;
 import group17.opponent.OpponentModel;
-import group17.opponent.utility.Agent17OpponentModel;
-import group17.opponent.utility.JonnyBlackOpponentModel;
+import group17.opponent.OpponentRegistry;
+import group17.opponent.OpponentTracker;
+import group17.opponent.utility.AsyncOpponentModel;
+import group17.opponent.utility.DecayedOpponentModel;
+import group17.opponent.utility.EnsembleOpponentModel;
+import group17.opponent.utility.EnsembleSnapshot;
+import group17.opponent.utility.EnsembleUtility;
+import group17.opponent.utility.PairSketch;
 
 /**
  * Negotiation Agent for COMP6203 Group 17.
@@ -40,14 +55,33 @@ public class Agent17 extends AbstractNegotiationParty {
 	// Bids
 	private Bid myLastOffer;
 	private Bid lastOffer;
+	private AgentID lastSender;
 	private List<Bid> opponentBids = new ArrayList<>();
+	// Canonical bids for the domain, and the pool ids of the distinct bids in opponentBids.
+	private transient BidEncoder encoder;
+	private transient BidPool bidPool;
+	private final BitSet opponentBidIds = new BitSet();
 	
 	// Models
-	private OpponentModel jbOpponentModel;
-	private OpponentModel opponentModel;
+	private OpponentRegistry opponents;
 	
 	private List<Bid> orderBids = new ArrayList<>();
 	
+	// Our utility for every outcome, cached across sessions; null unless the cache is on and the domain is small.
+	private transient OutcomeUtilityTable outcomes;
+	private transient Bid maxUtilityBid;
+	
+	// Candidate bids by our utility, indexed by opponent utility; rebuilt when an opponent model changes.
+	private CandidateIndex candidates;
+	private boolean candidatesStale = true;
+	// Each opponent's cached candidate scores, and the scores of every opponent combined.
+	private final Map<AgentID, CandidateScores> candidateScores = new HashMap<>();
+	private double[] combinedScores;
+	// Counts rebuilds of the candidate index, so speculative results can be checked against it.
+	private long candidatesVersion = 0;
+	// Finds the candidates most similar to the opponent's last offer; null unless trade-off search is enabled.
+	private transient TradeOffSearch tradeOff;
+	
 	// Hyper-parameters
 	private double boulwareBeta;
 	private double finishTime;
@@ -57,12 +91,52 @@ public class Agent17 extends AbstractNegotiationParty {
 	protected double reservationValue;
 	private double transitionTime;
 	private double maxElicitationPenalty;
+	private boolean asyncOpponentModel;
+	private boolean diagnostics;
+	private boolean speculativePrecompute;
+	private boolean decayedOpponentModel;
+	private boolean tradeOffSearch;
+	private double pairInteractionWeight;
+	
+	// Supplies the hyper-parameters at init
+	private final transient HyperparameterProvider hyperparameterProvider;
+	
+	// Analytics, and the codes of the bid being recorded, reused for every event
+	private transient AnalyticsChannel analytics = AnalyticsChannel.DISABLED;
+	private transient int[] analyticsCodes;
+	
+	// Prepares our next action while the opponents deliberate, if enabled
+	private transient Speculation<NextRound> speculation;
+	private double lastActionTime = 0.0;
 	
 	// Variables
 	private double minT;
 	private boolean placedBid = false;	
 	private int round = 0;
 	
+	/**
+	 * Create an agent that uses the hyperparameters from the properties file, as Genius does.
+	 */
+	public Agent17() {
+		this(HyperparameterProvider.classpath());
+	}
+	
+	/**
+	 * Create an agent with in-memory hyperparameters, e.g. when tuning.
+	 * @param properties Hyperparameters, or null to use the properties file
+	 */
+	public Agent17(final HyperparameterProperties properties) {
+		this((properties != null) ? HyperparameterProvider.of(properties) : HyperparameterProvider.classpath());
+	}
+	
+	/**
+	 * Create an agent whose hyperparameters are chosen when it is initialised.
+	 * @param hyperparameterProvider Hyperparameter provider
+	 */
+	public Agent17(final HyperparameterProvider hyperparameterProvider) {
+		this.hyperparameterProvider = hyperparameterProvider;
+	}
+	
 	/**
 	 * Initialises a new instance of the agent.
 	 */
@@ -70,7 +144,13 @@ public class Agent17 extends AbstractNegotiationParty {
 	public void init(NegotiationInfo info) 
 	{
 		super.init(info);
-		this.hyperparameters();
+		this.hyperparameters(info);
+		this.encoder = new BidEncoder(this.getDomain());
+		this.bidPool = new BidPool(this.encoder);
+		if (this.diagnostics) {
+			this.analytics = AnalyticsChannel.open(String.valueOf(this.getPartyId()), this.encoder);
+			this.analyticsCodes = new int[this.encoder.getNumberOfIssues()];
+		}
 
 		if (hasPreferenceUncertainty()) {
 			System.out.println("Preference uncertainty is enabled.");
@@ -81,18 +161,30 @@ public class Agent17 extends AbstractNegotiationParty {
 	    	orderBids.addAll(getUserModel().getBidRanking().getBidOrder());
 		}
 		else {
+			this.outcomes = OutcomeUtilityTable.load(this.utilitySpace);
 			this.generateBids(info);
 		}
-		this.jbOpponentModel = new JonnyBlackOpponentModel(this.getDomain(), this.recentBidWindow);
-		this.opponentModel = new Agent17OpponentModel(this.getDomain(), this.recentBidWindow);
+		this.candidates = new CandidateIndex(this.orderBids, this::getUtility);
+		this.combinedScores = new double[this.candidates.size()];
+		if (this.tradeOffSearch) {
+			this.tradeOff = new TradeOffSearch(this.candidates, new CandidateValueIndex(this.candidates, this.encoder));
+		}
+		this.opponents = new OpponentRegistry(this::createOpponentModel);
+		if (this.speculativePrecompute) {
+			this.speculation = new Speculation<>("agent17-speculation");
+		}
 	}
 		
 	/**
-	 * Load our hyperparameters from a properties file.
+	 * Get our hyperparameters from the provider.
+	 * @param info Negotiation information
 	 */
-	private void hyperparameters() {
-		final HyperparameterProperties hyperparameters = new HyperparameterProperties();
-		hyperparameters.diagnostics();
+	private void hyperparameters(final NegotiationInfo info) {
+		final HyperparameterProperties hyperparameters = this.hyperparameterProvider.getHyperparameters(info);
+		this.diagnostics = hyperparameters.isDiagnostics();
+		if (this.diagnostics) {
+			hyperparameters.diagnostics();
+		}
 		this.boulwareBeta = hyperparameters.getBoulwareBeta();
 		this.finishTime = hyperparameters.getFinishTime();
 		this.giveUpTime = hyperparameters.getGiveUpTime();
@@ -100,6 +192,34 @@ public class Agent17 extends AbstractNegotiationParty {
 		this.recentBidWindow = hyperparameters.getRecentBidWindow();
 		this.transitionTime = hyperparameters.getTransitionTime();
 		this.maxElicitationPenalty = hyperparameters.getMaxElicitationPenalty();
+		this.asyncOpponentModel = hyperparameters.isAsyncOpponentModel();
+		this.speculativePrecompute = hyperparameters.isSpeculativePrecompute();
+		this.decayedOpponentModel = hyperparameters.isDecayedOpponentModel();
+		this.tradeOffSearch = hyperparameters.isTradeOffSearch();
+		this.pairInteractionWeight = hyperparameters.getPairInteractionWeight();
+	}
+	
+	/**
+	 * Create the opponent model for a newly seen opponent. By default this is an ensemble that tracks both the 
+	 * Agent 17 and Jonny Black estimates, reporting the Agent 17 estimate, which may be updated asynchronously. 
+	 * A decayed model is cheap enough to update that it takes precedence over updating asynchronously.
+	 * The ensemble tracks pairs of values offered together if they have any weight.
+	 * @return Opponent model, updated on a background thread if configured
+	 */
+	private OpponentModel createOpponentModel() {
+		if (this.decayedOpponentModel) {
+			return new DecayedOpponentModel(this.getDomain(), this.recentBidWindow);
+		}
+		final EnsembleOpponentModel ensemble = new EnsembleOpponentModel(this.getDomain(), this.recentBidWindow, 
+			EnsembleOpponentModel.Estimate.AGENT17);
+		if (this.pairInteractionWeight != 0.0) {
+			final int[] numValues = new int[this.encoder.getNumberOfIssues()];
+			for (int i = 0; i < numValues.length; i++) {
+				numValues[i] = this.encoder.getNumberOfValues(i);
+			}
+			ensemble.setPairInteraction(new PairSketch(numValues), this.pairInteractionWeight);
+		}
+		return this.asyncOpponentModel ? new AsyncOpponentModel<>(ensemble) : ensemble;
 	}
 	
     /*
@@ -108,7 +228,7 @@ public class Agent17 extends AbstractNegotiationParty {
      */
 	private void generateBids(final NegotiationInfo info) { 
     	final double reservation = utilitySpace.getReservationValue();
-    	final BidSelector selector = new BidSelector(info, this.maxListSize, reservation);
+    	final BidSelector selector = new BidSelector(info, this.maxListSize, reservation, this.bidPool);
     	final List<Bid> bids = selector.getBids();
     	LOG.info("Candidate bids = {}", bids.size());
     	orderBids.addAll(bids);
@@ -122,8 +242,17 @@ public class Agent17 extends AbstractNegotiationParty {
      */
     @Override
     public Action chooseAction(List<Class<? extends Action>> possibleActions) {
-    	
-    	
+    	this.joinSpeculation();
+    	final Action action = this.decideAction();
+    	this.speculate();
+    	return action;
+    }
+    
+    /**
+     * Decide how to respond to the last offer, or make our first offer.
+     * @return Action
+     */
+    private Action decideAction() {
         if (lastOffer != null && myLastOffer != null) {
         	// If we have preference uncertainty, I think we update our user model here
 
@@ -161,6 +290,50 @@ public class Agent17 extends AbstractNegotiationParty {
         return this.createOfferFromBid(biddingStrategy(minTarget()));	
     }
     
+    /**
+     * Wait for any speculative work to finish, so we can safely change the candidates ourselves. It has normally
+     * finished long before, while the opponents deliberated.
+     */
+    private void joinSpeculation() {
+    	if (this.speculation != null) {
+    		this.speculation.join();
+    	}
+    }
+    
+    /**
+     * The speculative precompute, for its statistics.
+     * @return Speculation, or null if disabled
+     */
+    Speculation<?> getSpeculation() {
+    	return this.speculation;
+    }
+    
+    /**
+     * If speculative precompute is enabled, start finding the best candidate for the predicted target of our next 
+     * action on the worker thread, once we have acted, so it runs while the opponents deliberate. The result is 
+     * only used if the candidates are not rescored in the meantime, i.e. if no offer we receive changes the models. 
+     * The time we next act is predicted, generously, as long after this action as this was after the last one, so 
+     * the predicted target is no higher than the actual one. Tit for tat only lowers the target, so after the 
+     * transition the current target is used as an upper bound. Trade-off search does not use the best candidate, 
+     * so with it enabled nothing is prepared.
+     * <p>
+     * The task only reads the candidate index, which only this thread changes, in {@link #chooseAction(List)} after
+     * joining the task; the models it does not touch, so offers can update them while it runs. Its result comes
+     * back only through the {@link NextRound} it returns.
+     */
+    private void speculate() {
+    	final double time = getTime();
+    	final double predictedTime = Math.min(1.0, time + Math.max(0.0, time - this.lastActionTime));
+    	this.lastActionTime = time;
+    	if (this.speculation == null || this.tradeOff != null || this.candidatesStale) {
+    		return;
+    	}
+    	final double target = (predictedTime < this.transitionTime) ? this.boulwareTarget(predictedTime) : minT;
+    	final CandidateIndex index = this.candidates;
+    	final long version = this.candidatesVersion;
+    	this.speculation.submit(() -> new NextRound(version, target, index.bestAbove(target)));
+    }
+    
     /**
      * Create an offer from a bid and add it to the diagnostics.
      * @param bid Bid
@@ -173,18 +346,33 @@ public class Agent17 extends AbstractNegotiationParty {
     }
     
 	/**
-	 * Dump a CSV representation of our bid to the log file.
+	 * Record our bid in the analytics and log it, in diagnostics mode only.
 	 * @param bid Our bid
 	 */
-	private void generateAnalytics(final Bid bid) {
+	void generateAnalytics(final Bid bid) {
+		if (!this.diagnostics) {
+			return;
+		}
 		final double utility = this.getUtility(bid);
-		final BidValue bidValue = BidValue.createAgentBidValue(bid, utility);
-		if (!this.placedBid && !this.hadOffer()) {
-			LOG.debug("{}", bidValue.toStringLabels());
+		if (this.analytics.isEnabled()) {
+			final double opponentUtility = this.hadOffer() ? this.calculateOpponentUtility(bid) : Double.NaN;
+			this.analytics.record(AnalyticsChannel.AGENT, this.round, this.getTime(), utility, opponentUtility, 
+				this.encoder.encode(bid, this.analyticsCodes));
 		}
-		LOG.debug("{}", bidValue);
 		LOG.info("Placing random bid with utility {}: {}", utility, bid);	
 	}
+
+	/**
+	 * Record an opponent's offer in the analytics, in diagnostics mode only.
+	 * @param tracker The sender's tracker
+	 * @param bid Offered bid
+	 */
+	void generateOpponentAnalytics(final OpponentTracker tracker, final Bid bid) {
+		if (this.diagnostics && this.analytics.isEnabled() && bid != null) {
+			this.analytics.record(AnalyticsChannel.OPPONENT, this.round, this.getTime(), this.getUtility(bid), 
+				tracker.getModel().calculateUtility(bid), this.encoder.encode(bid, this.analyticsCodes));
+		}
+	}
 	
 	/**
 	 * Have we received an offer from another party?
@@ -247,42 +435,163 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * the labs. Either we randomly generate bids or look at the ordered bids list. The latter seems 
 	 * better to me so will use this but if we generated random bids in a more cleaver way then maybe 
 	 * that approach would be best.
+	 * Every candidate above the threshold is considered, through the {@link CandidateIndex}, rather than a 
+	 * random subset of them. With trade-off search enabled, only those nearest the opponent's last offer are.
 	 */
     private Bid biddingStrategy(double threshold) {
-    	// Now we are interested in the sublist of bids which have utility above our threshold.
-    	
-    	List<Bid> bidsAboveThresholdUtility = orderBids.stream().filter(bid -> getUtility(bid)>threshold).collect(Collectors.toList());
+    	this.refreshCandidates();
     	
     	// If there is no bid in my range I will resort back to a strategy of placing the bid with the 
     	// highest possible utility.
-		if (bidsAboveThresholdUtility.size() == 0) {
-			myLastOffer = getMaxUtilityBid();
-		}
-		
-		// Else I find the bid from this list which maximises my opponents utility. 
-		else {
-			
-			// If the list of possible bids above our utility is too large then I consider a random subset.
-			if (bidsAboveThresholdUtility.size() > this.maxListSize) {
-				Collections.shuffle(bidsAboveThresholdUtility);
-				bidsAboveThresholdUtility = bidsAboveThresholdUtility.subList(0, this.maxListSize);
-			}
-			
-			myLastOffer = getMaxUtilityBid();
-			double lastOfferUtility = this.calculateOpponentUtility(myLastOffer);
-			
-			for (final Bid bid : bidsAboveThresholdUtility) {
-				
-				double potentialUtility = this.calculateOpponentUtility(bid);
-				if (potentialUtility>lastOfferUtility) {
-					
-					lastOfferUtility = potentialUtility;
-					myLastOffer = bid;
-				}
-			}
-		}
+    	myLastOffer = getMaxUtilityBid();
+    	
+    	// Else I find the bid in my range which maximises my opponents utility. 
+    	final int best;
+    	if (this.tradeOff != null && lastOffer != null) {
+    		best = this.tradeOffCandidate(threshold);
+    	} else {
+    		// A speculative result is only used if the candidates have not been rescored since it was computed, i.e. 
+    		// if no model has changed since our last action.
+    		final NextRound next = (this.speculation != null) 
+    				? this.speculation.take(round -> round.candidatesVersion() == this.candidatesVersion) : null;
+    		best = (next != null) ? next.bestAbove(this.candidates, threshold) : this.candidates.bestAbove(threshold);
+    	}
+    	if (best != CandidateIndex.NONE 
+    			&& this.candidates.getOpponentUtility(best) > this.calculateOpponentUtility(myLastOffer)) {
+    		myLastOffer = this.candidates.getBid(best);
+    	}
         return myLastOffer;
     }
+
+    /**
+     * A trade-off move: of the candidates above the threshold nearest to the opponent's last offer, weighting the
+     * issues by the opponents' recent issue weights, the one the opponents like most.
+     * @param threshold Threshold
+     * @return Candidate index, or {@link CandidateIndex#NONE} if no candidate is above the threshold
+     */
+    private int tradeOffCandidate(final double threshold) {
+    	final int[] nearest = this.tradeOff.nearest(this.encoder.encode(lastOffer), this.tradeOffWeights(), threshold, 
+    		TradeOffSearch.DEFAULT_NEIGHBOURS);
+    	int best = CandidateIndex.NONE;
+    	for (final int candidate : nearest) {
+    		if (best == CandidateIndex.NONE || this.candidates.getOpponentUtility(candidate) > this.candidates.getOpponentUtility(best)) {
+    			best = candidate;
+    		}
+    	}
+    	return best;
+    }
+    
+    /**
+     * The opponents' recent issue weights, summed, for the trade-off distance. Where no opponent's model gives
+     * usable weights, every issue counts the same.
+     * @return Weight of each issue, by issue position
+     */
+    private double[] tradeOffWeights() {
+    	final double[] weights = new double[this.encoder.getNumberOfIssues()];
+    	double total = 0.0;
+    	for (final OpponentTracker tracker : this.opponents.getTrackers()) {
+    		final AdditiveEstimate estimate = additiveEstimate(tracker.getModel());
+    		if (estimate != null) {
+    			for (int i = 0; i < weights.length; i++) {
+    				weights[i] += estimate.getRecentWeight(i);
+    				total += estimate.getRecentWeight(i);
+    			}
+    		}
+    	}
+    	if (!(total > 0.0) || Double.isInfinite(total)) {
+    		Arrays.fill(weights, 1.0);
+    	}
+    	return weights;
+    }
+    
+    /**
+     * Bring the candidates' opponent utilities up to date, if they could have changed. They only change when a 
+     * model is updated; an async model may catch up at any time.
+     */
+    private void refreshCandidates() {
+    	if (this.candidatesStale || this.asyncOpponentModel) {
+    		this.rescoreCandidates();
+    		this.candidatesStale = false;
+    	}
+    }
+    
+    /**
+     * Re-evaluate the candidates' opponent utilities. Where every opponent's recent estimate is additive, each 
+     * opponent's {@link CandidateScores} are brought up to date for just the issues that changed, and combined as
+     * the {@link OpponentRegistry} would; otherwise every candidate is rescored through the models.
+     */
+    private void rescoreCandidates() {
+    	final List<OpponentTracker> trackers = this.opponents.getTrackers();
+    	double[] combined = null;
+    	boolean changed = false;
+    	for (int t = 0; t < trackers.size(); t++) {
+    		final OpponentTracker tracker = trackers.get(t);
+    		final AdditiveEstimate estimate = additiveEstimate(tracker.getModel());
+    		if (estimate == null) {
+    			combined = null;
+    			break;
+    		}
+    		CandidateScores scores = this.candidateScores.get(tracker.getAgent());
+    		if (scores == null) {
+    			scores = new CandidateScores(this.candidates, estimate.getEncoder());
+    			this.candidateScores.put(tracker.getAgent(), scores);
+    			changed = true;
+    		}
+    		changed |= (scores.update(estimate) > 0);
+    		combined = (t == 0) ? scores.getScores() : this.combine(combined, scores.getScores());
+    	}
+    	if (combined == null) {
+    		this.candidates.rebuild(this::calculateOpponentUtility);
+    		this.candidatesVersion++;
+    	} else if (changed) {
+    		this.candidates.rebuild(combined);
+    		this.candidatesVersion++;
+    	}
+    }
+    
+    /**
+     * Combine the next opponent's scores into the combined scores so far.
+     * @param combined Combined scores so far, which may be the first opponent's own scores
+     * @param scores Next opponent's scores
+     * @return Combined scores
+     */
+    private double[] combine(final double[] combined, final double[] scores) {
+    	if (combined != this.combinedScores) {
+    		System.arraycopy(combined, 0, this.combinedScores, 0, combined.length);
+    	}
+    	final OpponentRegistry.Combination combination = this.opponents.getCombination();
+    	for (int c = 0; c < scores.length; c++) {
+    		this.combinedScores[c] = combination.combine(this.combinedScores[c], scores[c]);
+    	}
+    	return this.combinedScores;
+    }
+    
+    /**
+     * Get the additive form of a model's recent estimate, i.e. the one {@link #calculateOpponentUtility(Bid)} uses.
+     * @param model Opponent model
+     * @return Estimate, or null if the model's estimate is not additive
+     */
+    private static AdditiveEstimate additiveEstimate(final OpponentModel model) {
+    	if (model instanceof AsyncOpponentModel) {
+    		return ((AsyncOpponentModel<?>) model).getSnapshot();
+    	}
+    	return (model instanceof AdditiveEstimate) ? (AdditiveEstimate) model : null;
+    }
+    
+    /**
+     * Remember a bid an opponent offered us, unless it has been offered before. A repeated bid can never be the 
+     * first best one, so {@link #bestBidFromOpponent()} only needs to look at each distinct bid.
+     * @param id Pool id of the bid, or {@link BidPool#NO_ID}
+     * @param bid Canonical bid
+     */
+    private void addOpponentBid(final int id, final Bid bid) {
+    	if (id == BidPool.NO_ID) {
+    		opponentBids.add(bid);
+    	} else if (!this.opponentBidIds.get(id)) {
+    		this.opponentBidIds.set(id);
+    		opponentBids.add(bid);
+    	}
+    }
     
     /**
 	 * Function which finds which bid from the opponent we liked the most
@@ -317,12 +626,20 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * Generates best possible bid.
 	 */
     private Bid getMaxUtilityBid() {
+    	// Our utility space doesn't change once we are initialised, so neither does the best bid.
+    	if (this.maxUtilityBid != null) {
+    		return this.maxUtilityBid;
+    	}
+    	if (this.outcomes != null) {
+    		this.maxUtilityBid = this.outcomes.getMaxUtilityBid();
+    		return this.maxUtilityBid;
+    	}
 	    try {
-	        return utilitySpace.getMaxUtilityBid();
+	        this.maxUtilityBid = utilitySpace.getMaxUtilityBid();
 	    } catch (Exception e) {
 	        e.printStackTrace();
 	    }
-	    return null;
+	    return this.maxUtilityBid;
 	}
     
     /**
@@ -353,11 +670,22 @@ public class Agent17 extends AbstractNegotiationParty {
 	 */
     private double Boulware() {
     	double time = getTime();
+		minT = this.boulwareTarget(time);
+		if (this.diagnostics) {
+			LOG.info("Round {}, Time = {}, FT = {}, Boulware target = {}", this.round, time, Math.pow(time, 1 / this.boulwareBeta), minT);
+		}
+		return minT;
+    }
+    
+    /**
+     * Boulware target at a time, without changing any state.
+     * @param time Normalised time
+     * @return Target utility
+     */
+    private double boulwareTarget(final double time) {
     	double ft = Math.pow(time,(1/this.boulwareBeta));
 		double minU = utilitySpace.getReservationValue();
-		minT = minU + (1-ft)*(getUtility(getMaxUtilityBid())-minU);
-		LOG.info("Round {}, Time = {}, FT = {}, Boulware target = {}", this.round, time, ft, minT);
-		return minT;
+		return minU + (1-ft)*(getUtility(getMaxUtilityBid())-minU);
     }
     
     /**
@@ -365,8 +693,14 @@ public class Agent17 extends AbstractNegotiationParty {
 	 */
     private double titForTat() {
     	
-    	Bid penultimateBid = opponentBids.get(opponentBids.size() - 2);
-		double difOfOpponentsLastTwo = this.calculateOpponentUtility(penultimateBid) - this.calculateOpponentUtility(lastOffer);
+    	// Each opponent's concession is measured against its own model and its own last two bids.
+    	final OpponentTracker tracker = this.opponents.getTracker(this.lastSender);
+    	if (tracker == null || tracker.getPenultimateBid() == null) {
+    		return minT;
+    	}
+    	final OpponentModel senderModel = tracker.getModel();
+		double difOfOpponentsLastTwo = senderModel.calculateRecentUtility(tracker.getPenultimateBid()) 
+				- senderModel.calculateRecentUtility(tracker.getLastBid());
 		
 		// It's possible that under our model of the opponent, we belive the opponent has actually
 		// increased their utility from one bid to another. To avoid problems with this we set a 
@@ -378,7 +712,9 @@ public class Agent17 extends AbstractNegotiationParty {
 		// away we are. This gives a value between 0 and 1.
 		double distFromNE = optimalNash() - currentNash(lastOffer);
 		minT -= (1-distFromNE)*tatValue;
-		LOG.info("Round {}, Tit for Tat target = {}", this.round, minT);
+		if (this.diagnostics) {
+			LOG.info("Round {}, Tit for Tat target = {}", this.round, minT);
+		}
 		return minT;
     }
     
@@ -410,12 +746,16 @@ public class Agent17 extends AbstractNegotiationParty {
 
         if (action instanceof Offer) 
 		{
-			lastOffer = ((Offer) action).getBid();
-			opponentModel.update(lastOffer, this.placedBid);
-			// Store bids for tit_for_tat method. 
-			// This can be improved by only storing the penultimate bid but for now I will
-			// store all of them incase I need this later.
-			opponentBids.add(lastOffer);
+			final Bid offered = ((Offer) action).getBid();
+			final int id = this.bidPool.idOf(offered);
+			lastOffer = (id != BidPool.NO_ID) ? this.bidPool.getBid(id) : offered;
+			lastSender = sender;
+			// Only the sender's model is updated, so other opponents' estimates are untouched.
+			final OpponentTracker tracker = opponents.update(sender, lastOffer, this.placedBid);
+			this.generateOpponentAnalytics(tracker, lastOffer);
+			// Every distinct bid is kept so we can find the best bid any opponent has offered us.
+			this.addOpponentBid(id, lastOffer);
+			this.candidatesStale = true;
 		}
     }
 
@@ -439,7 +779,25 @@ public class Agent17 extends AbstractNegotiationParty {
 			userModel = user.elicitRank(generateRandomBid(), userModel);
 		}
 	}
-  
+
+	/**
+	 * Stop any background opponent model updates once the negotiation is over.
+	 */
+	@Override
+	public Map<String, String> negotiationEnded(final Bid acceptedBid) {
+		if (this.speculation != null) {
+			this.speculation.join();
+			this.speculation.close();
+			if (this.diagnostics) {
+				LOG.info("{}", this.speculation);
+			}
+		}
+		if (this.opponents != null) {
+			this.opponents.close();
+		}
+		return super.negotiationEnded(acceptedBid);
+	}
+
     /**
      * A human-readable description for this party.
      */
@@ -479,30 +837,31 @@ public class Agent17 extends AbstractNegotiationParty {
 	// Options for calculating opponent utility.
 	
 	/**
-	 * Opponent utility from across every offer received, using the Agent 17 model.
+	 * Opponent utility from across every offer received, using the Agent 17 model of every opponent.
 	 * @param bid Bid
 	 * @return Utility
 	 */
 	private double getOpponentUtility(final Bid bid) {
-		return this.opponentModel.calculateUtility(bid);
+		return this.opponents.calculateUtility(bid);
 	}
 	
 	/**
-	 * Opponent utility from recent offers only, using the Agent 17 model.
+	 * Opponent utility from recent offers only, using the Agent 17 model of every opponent.
 	 * @param bid Bid
 	 * @return Utility
 	 */
 	private double getRecentOpponentUtility(final Bid bid) {
-		return this.opponentModel.calculateRecentUtility(bid);
+		return this.opponents.calculateRecentUtility(bid);
 	}
 	
 	/**
-	 * Mean opponent utility (both total and recent) from across every offer received, using the Agent 17 model.
+	 * Mean opponent utility (both total and recent) from across every offer received, using the Agent 17 
+	 * model of every opponent.
 	 * @param bid Bid
 	 * @return Utility
 	 */
 	private double getMeanOpponentUtility(final Bid bid) {
-		return this.opponentModel.calculateMeanUtility(bid);
+		return this.opponents.calculateMeanUtility(bid);
 	}
 	
 	/**
@@ -511,7 +870,7 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getOpponentUtilityFromJB(final Bid bid) {
-		return this.jbOpponentModel.calculateUtility(bid);
+		return this.opponents.combine(model -> this.evaluate(model, bid).jonnyBlack());
 	}
 	
 	/**
@@ -520,7 +879,7 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getOpponentRecentUtilityFromJB(final Bid bid) {
-		return this.jbOpponentModel.calculateRecentUtility(bid);
+		return this.opponents.combine(model -> this.evaluate(model, bid).recentJonnyBlack());
 	}
 	
 	/**
@@ -529,7 +888,7 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getMeanOpponentUtilityFromJB(final Bid bid) {
-		return this.jbOpponentModel.calculateMeanUtility(bid);
+		return this.opponents.combine(model -> this.evaluate(model, bid).meanJonnyBlack());
 	}
 	
 	
@@ -539,9 +898,7 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getOpponentUtilityFromBothModels(final Bid bid) {
-		final double jb = this.jbOpponentModel.calculateUtility(bid);
-		final double a17 = this.opponentModel.calculateUtility(bid);
-		return (jb + a17) / 2.0;
+		return this.opponents.combine(model -> this.evaluate(model, bid).average());
 	}
 	
 	/**
@@ -550,9 +907,7 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getRecentOpponentUtilityFromBothModels(final Bid bid) {
-		final double jb = this.jbOpponentModel.calculateRecentUtility(bid);
-		final double a17 = this.opponentModel.calculateRecentUtility(bid);
-		return (jb + a17) / 2.0;
+		return this.opponents.combine(model -> this.evaluate(model, bid).recentAverage());
 	}
 	
 	/**
@@ -561,8 +916,47 @@ public class Agent17 extends AbstractNegotiationParty {
 	 * @return Utility
 	 */
 	private double getMeanOpponentUtilityFromBothModels(final Bid bid) {
-		final double jb = this.jbOpponentModel.calculateMeanUtility(bid);
-		final double a17 = this.opponentModel.calculateMeanUtility(bid);
-		return (jb + a17) / 2.0;
+		return this.opponents.combine(model -> this.evaluate(model, bid).meanAverage());
+	}
+	
+	/**
+	 * Score a bid against both models of an opponent in a single pass. Only an ensemble, whether updated directly
+	 * or asynchronously, tracks both.
+	 * @param model Opponent model
+	 * @param bid Bid
+	 * @return Every estimate for the bid
+	 * @throws IllegalStateException If the model does not track both estimates, e.g. a decayed model
+	 */
+	private EnsembleUtility evaluate(final OpponentModel model, final Bid bid) {
+		if (model instanceof EnsembleOpponentModel) {
+			return ((EnsembleOpponentModel) model).evaluate(bid);
+		}
+		if (model instanceof AsyncOpponentModel && ((AsyncOpponentModel<?>) model).getSnapshot() instanceof EnsembleSnapshot) {
+			return ((EnsembleSnapshot) ((AsyncOpponentModel<?>) model).getSnapshot()).evaluate(bid);
+		}
+		throw new IllegalStateException("Opponent model does not track both estimates: " + model);
+	}
+
+	/**
+	 * The next round, prepared speculatively: the best candidate for a predicted target.
+	 * @param candidatesVersion Version of the candidate index it was computed from
+	 * @param threshold Predicted target
+	 * @param best Best candidate above the predicted target, or {@link CandidateIndex#NONE}
+	 */
+	private record NextRound(long candidatesVersion, double threshold, int best) {
+		
+		/**
+		 * Find the best candidate above the actual target. If the target is no lower than predicted, the best 
+		 * candidate above the prediction is still best as long as it is above the target; otherwise search again.
+		 * @param candidates Candidate index, unchanged since this was computed
+		 * @param target Actual target
+		 * @return Index, or {@link CandidateIndex#NONE}
+		 */
+		int bestAbove(final CandidateIndex candidates, final double target) {
+			if (target >= this.threshold && (this.best == CandidateIndex.NONE || candidates.getOwnUtility(this.best) > target)) {
+				return this.best;
+			}
+			return candidates.bestAbove(target);
+		}
 	}
-}
\ No newline at end of file
+}
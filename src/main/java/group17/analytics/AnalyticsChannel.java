@@ -0,0 +1,82 @@
+package group17.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import group17.domain.BidEncoder;
+
+/**
+ * Publishes the analytics events of one negotiation to an {@link AnalyticsSink}.
+ * Recording an event copies its fields into the sink's ring buffer, without allocating or blocking.
+ */
+public final class AnalyticsChannel {
+
+	/** A bid we placed. */
+	public static final byte AGENT = 0;
+
+	/** A bid an opponent placed. */
+	public static final byte OPPONENT = 1;
+
+	/** A channel that records nothing, e.g. when analytics are disabled. */
+	public static final AnalyticsChannel DISABLED = new AnalyticsChannel(null, -1);
+
+	private final AnalyticsRingBuffer buffer;
+	private final int id;
+
+	AnalyticsChannel(final AnalyticsRingBuffer buffer, final int id) {
+		this.buffer = buffer;
+		this.id = id;
+	}
+
+	/**
+	 * Open a channel on the {@link AnalyticsSink#global() shared sink}, describing the domain by its issues and values.
+	 * @param name Channel name, e.g. the party id
+	 * @param encoder Bid encoder for the domain
+	 * @return Channel, or {@link #DISABLED} if analytics are disabled
+	 */
+	public static AnalyticsChannel open(final String name, final BidEncoder encoder) {
+		final AnalyticsSink sink = AnalyticsSink.global();
+		return (sink == null) ? DISABLED : open(sink, name, encoder);
+	}
+
+	/**
+	 * Open a channel on a sink, describing the domain by its issues and values.
+	 * @param sink Sink
+	 * @param name Channel name, e.g. the party id
+	 * @param encoder Bid encoder for the domain
+	 * @return Channel
+	 */
+	public static AnalyticsChannel open(final AnalyticsSink sink, final String name, final BidEncoder encoder) {
+		final List<String> issues = new ArrayList<>();
+		final List<List<String>> values = new ArrayList<>();
+		for (int i = 0; i < encoder.getNumberOfIssues(); i++) {
+			issues.add(encoder.getIssueName(i));
+			final List<String> names = new ArrayList<>();
+			for (int code = 0; code < encoder.getNumberOfValues(i); code++) {
+				names.add(encoder.getValueName(i, code));
+			}
+			values.add(names);
+		}
+		return sink.register(name, issues, values);
+	}
+
+	public boolean isEnabled() {
+		return this.buffer != null;
+	}
+
+	/**
+	 * Record an event, or drop it if the sink is full.
+	 * @param type {@link #AGENT} or {@link #OPPONENT}
+	 * @param round Round
+	 * @param time Negotiation time, or NaN if unknown
+	 * @param ownUtility Our utility for the bid, or NaN if unknown
+	 * @param opponentUtility Estimated opponent utility for the bid, or NaN if unknown
+	 * @param codes Encoded bid, by issue position
+	 */
+	public void record(final byte type, final int round, final double time, final double ownUtility, final double opponentUtility, 
+		final int[] codes) {
+		if (this.buffer != null) {
+			this.buffer.offer(this.id, type, round, time, ownUtility, opponentUtility, codes);
+		}
+	}
+}
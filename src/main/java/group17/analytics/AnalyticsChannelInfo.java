@@ -0,0 +1,13 @@
+package group17.analytics;
+
+import java.util.List;
+
+/**
+ * A channel, as described in an analytics file.
+ * @param id Channel id
+ * @param name Channel name
+ * @param issues Issue names, by issue position
+ * @param values Value names for each issue, by value code
+ */
+public record AnalyticsChannelInfo(int id, String name, List<String> issues, List<List<String>> values) {
+}
@@ -0,0 +1,143 @@
+package group17.analytics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import group17.domain.BidValue;
+
+/**
+ * Converts an analytics file to the CSV layout that {@link BidValue} used to write to {@code log/test.log}, so
+ * offline tools keep working: a label line the first time each channel has an event, then one line per bid with
+ * its type, quoted values in issue name order and utility (ours for our bids, estimated for opponent bids).
+ * The extended layout adds the round, time and both utilities.
+ * <p>
+ * Usage: {@code AnalyticsConverter analytics.bin [--out file.csv] [--layout bidvalue|extended]}.
+ */
+public final class AnalyticsConverter {
+
+	private final boolean extended;
+	private final Map<Integer, Integer[]> issueOrders = new HashMap<>();
+
+	/**
+	 * Create a converter.
+	 * @param extended Whether to add the round, time and both utilities
+	 */
+	public AnalyticsConverter(final boolean extended) {
+		this.extended = extended;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Usage: AnalyticsConverter analytics.bin [options]");
+		}
+		final Path file = Paths.get(args[0]);
+		Path out = null;
+		boolean extended = false;
+		for (int a = 1; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--out" -> out = Paths.get(value);
+				case "--layout" -> extended = "extended".equals(value);
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+		try (Writer writer = (out != null) ? Files.newBufferedWriter(out, StandardCharsets.UTF_8) 
+			: new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+			new AnalyticsConverter(extended).convert(file, writer);
+		}
+	}
+
+	/**
+	 * Convert every event in a file.
+	 * @param file Analytics file
+	 * @param writer CSV output
+	 * @return Number of events converted
+	 * @throws IOException If the file can't be read or the CSV written
+	 */
+	public int convert(final Path file, final Writer writer) throws IOException {
+		int count = 0;
+		try (AnalyticsReader reader = new AnalyticsReader(file)) {
+			for (AnalyticsEvent event = reader.next(); event != null; event = reader.next()) {
+				final AnalyticsChannelInfo channel = event.channel();
+				if (!this.issueOrders.containsKey(channel.id())) {
+					this.issueOrders.put(channel.id(), this.issueOrder(channel));
+					writer.write(this.toCSVLabels(channel));
+					writer.write(System.lineSeparator());
+				}
+				writer.write(this.toCSV(event));
+				writer.write(System.lineSeparator());
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * CSV representation of the field names for a channel.
+	 * @param channel Channel
+	 * @return CSV representation
+	 */
+	public String toCSVLabels(final AnalyticsChannelInfo channel) {
+		final StringBuilder builder = new StringBuilder("Type");
+		for (final int position : this.issueOrders.computeIfAbsent(channel.id(), id -> this.issueOrder(channel))) {
+			builder.append(",").append(quoted(channel.issues().get(position)));
+		}
+		builder.append(",Utility");
+		if (this.extended) {
+			builder.append(",Round,Time,Own Utility,Opponent Utility");
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * CSV representation of an event.
+	 * @param event Event
+	 * @return CSV representation
+	 */
+	public String toCSV(final AnalyticsEvent event) {
+		final boolean agent = event.type() == AnalyticsChannel.AGENT;
+		final StringBuilder builder = new StringBuilder(agent ? BidValue.AGENT : BidValue.OPPONENT);
+		for (final int position : this.issueOrders.computeIfAbsent(event.channel().id(), id -> this.issueOrder(event.channel()))) {
+			builder.append(",").append(quoted(event.getValueName(position)));
+		}
+		builder.append(",").append(agent ? event.ownUtility() : event.opponentUtility());
+		if (this.extended) {
+			builder.append(",").append(event.round())
+				.append(",").append(event.time())
+				.append(",").append(event.ownUtility())
+				.append(",").append(event.opponentUtility());
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Issue positions in issue name order, as {@link BidValue} sorts them.
+	 */
+	private Integer[] issueOrder(final AnalyticsChannelInfo channel) {
+		final List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i < channel.issues().size(); i++) {
+			positions.add(i);
+		}
+		positions.sort(Comparator.comparing(channel.issues()::get));
+		return positions.toArray(new Integer[0]);
+	}
+
+	private static String quoted(final String string) {
+		return "\"" + string + "\"";
+	}
+}
@@ -0,0 +1,25 @@
+package group17.analytics;
+
+/**
+ * An analytics event read back from a file.
+ * @param channel Channel
+ * @param type {@link AnalyticsChannel#AGENT} or {@link AnalyticsChannel#OPPONENT}
+ * @param round Round
+ * @param time Negotiation time, or NaN if unknown
+ * @param ownUtility Our utility for the bid, or NaN if unknown
+ * @param opponentUtility Estimated opponent utility for the bid, or NaN if unknown
+ * @param codes Encoded bid, by issue position
+ */
+public record AnalyticsEvent(AnalyticsChannelInfo channel, byte type, int round, double time, double ownUtility, 
+	double opponentUtility, int[] codes) {
+
+	/**
+	 * Name of the value for an issue.
+	 * @param position Issue position
+	 * @return Value name, or null if the bid has no value for the issue
+	 */
+	public String getValueName(final int position) {
+		final int code = this.codes[position];
+		return (code >= 0) ? this.channel.values().get(position).get(code) : null;
+	}
+}
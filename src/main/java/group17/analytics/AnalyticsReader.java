@@ -0,0 +1,119 @@
+package group17.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the events in a file written by an {@link AnalyticsSink}.
+ */
+public final class AnalyticsReader implements AutoCloseable {
+
+	private final Path file;
+	private final DataInputStream input;
+	private final Map<Integer, AnalyticsChannelInfo> channels = new HashMap<>();
+
+	/**
+	 * Open a file and check its header.
+	 * @param file Analytics file
+	 * @throws IOException If the file can't be read, or wasn't written by an {@link AnalyticsSink}
+	 */
+	public AnalyticsReader(final Path file) throws IOException {
+		this.file = file;
+		this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+		try {
+			if (this.input.readInt() != AnalyticsSink.MAGIC) {
+				throw new IOException(file + " is not an analytics file");
+			}
+			final int version = this.input.readInt();
+			if (version != AnalyticsSink.VERSION) {
+				throw new IOException("Unsupported analytics version " + version + " in " + file);
+			}
+		} catch (IOException ioe) {
+			this.input.close();
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Read the next event, reading any channel descriptions before it.
+	 * @return Event, or null at the end of the file (including after an incomplete final record)
+	 * @throws IOException If the file can't be read, or is corrupt
+	 */
+	public AnalyticsEvent next() throws IOException {
+		try {
+			while (true) {
+				final int kind = this.input.read();
+				if (kind < 0) {
+					return null;
+				}
+				if (kind == AnalyticsSink.CHANNEL_RECORD) {
+					this.readChannel();
+				} else if (kind == AnalyticsSink.EVENT_RECORD) {
+					return this.readEvent();
+				} else {
+					throw new IOException("Unknown record " + kind + " in " + this.file);
+				}
+			}
+		} catch (EOFException eofe) {
+			// The writer stopped part way through a record.
+			return null;
+		}
+	}
+
+	/**
+	 * Every channel described so far.
+	 * @return Channels, by id
+	 */
+	public Map<Integer, AnalyticsChannelInfo> getChannels() {
+		return this.channels;
+	}
+
+	private void readChannel() throws IOException {
+		final int id = this.input.readInt();
+		final String name = this.input.readUTF();
+		final int numIssues = this.input.readInt();
+		final List<String> issues = new ArrayList<>(numIssues);
+		final List<List<String>> values = new ArrayList<>(numIssues);
+		for (int i = 0; i < numIssues; i++) {
+			issues.add(this.input.readUTF());
+			final int numValues = this.input.readInt();
+			final List<String> names = new ArrayList<>(numValues);
+			for (int v = 0; v < numValues; v++) {
+				names.add(this.input.readUTF());
+			}
+			values.add(names);
+		}
+		this.channels.put(id, new AnalyticsChannelInfo(id, name, issues, values));
+	}
+
+	private AnalyticsEvent readEvent() throws IOException {
+		final int id = this.input.readInt();
+		final byte type = this.input.readByte();
+		final int round = this.input.readInt();
+		final double time = this.input.readDouble();
+		final double ownUtility = this.input.readDouble();
+		final double opponentUtility = this.input.readDouble();
+		final int[] codes = new int[this.input.readInt()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = this.input.readInt();
+		}
+		final AnalyticsChannelInfo channel = this.channels.get(id);
+		if (channel == null) {
+			throw new IOException("Event for undescribed channel " + id + " in " + this.file);
+		}
+		return new AnalyticsEvent(channel, type, round, time, ownUtility, opponentUtility, codes);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.input.close();
+	}
+}
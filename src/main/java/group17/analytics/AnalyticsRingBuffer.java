@@ -0,0 +1,193 @@
+package group17.analytics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free ring buffer of fixed-layout analytics events, for any number of producers and one consumer.
+ * Every field is held in a preallocated primitive array, by slot, so publishing an event doesn't allocate (unless a
+ * bid has more issues than any bid before it in the same slot). Producers claim a sequence number by CAS, write the
+ * slot and then publish it; the consumer reads published slots in sequence order. When the buffer is full, events
+ * are dropped and counted rather than blocking the negotiation.
+ * <p>
+ * The consumer can block in {@link #awaitEvent()} until the next event is published, rather than polling; a
+ * producer only unparks it if it is waiting, so publishing stays a few volatile writes otherwise.
+ */
+public final class AnalyticsRingBuffer {
+
+	/**
+	 * Receives each event as it is drained. The codes array belongs to the buffer, and must not be kept.
+	 */
+	@FunctionalInterface
+	public interface EventHandler {
+
+		/**
+		 * Handle an event.
+		 * @param channel Channel id
+		 * @param type Event type
+		 * @param round Round
+		 * @param time Negotiation time
+		 * @param ownUtility Our utility for the bid
+		 * @param opponentUtility Estimated opponent utility for the bid
+		 * @param codes Encoded bid, by issue position
+		 * @param issues Number of codes
+		 */
+		void onEvent(int channel, byte type, int round, double time, double ownUtility, double opponentUtility, int[] codes, int issues);
+	}
+
+	private final int mask;
+	private final int[] channels;
+	private final byte[] types;
+	private final int[] rounds;
+	private final double[] times;
+	private final double[] ownUtilities;
+	private final double[] opponentUtilities;
+	private final int[][] codes;
+	private final int[] issues;
+	private final AtomicLongArray published;
+	private final AtomicLong tail = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private volatile long head = 0L;
+	private volatile Thread waiting;
+
+	/**
+	 * Create a ring buffer.
+	 * @param capacity Number of slots, rounded up to a power of two
+	 */
+	public AnalyticsRingBuffer(final int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		final int size = (capacity == 1) ? 1 : Integer.highestOneBit((capacity - 1) << 1);
+		this.mask = size - 1;
+		this.channels = new int[size];
+		this.types = new byte[size];
+		this.rounds = new int[size];
+		this.times = new double[size];
+		this.ownUtilities = new double[size];
+		this.opponentUtilities = new double[size];
+		this.codes = new int[size][];
+		this.issues = new int[size];
+		this.published = new AtomicLongArray(size);
+		for (int slot = 0; slot < size; slot++) {
+			this.codes[slot] = new int[0];
+			this.published.set(slot, slot - size);
+		}
+	}
+
+	public int capacity() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * Number of events waiting to be drained.
+	 * @return Number of events
+	 */
+	public int size() {
+		return (int) (this.tail.get() - this.head);
+	}
+
+	/**
+	 * Number of events dropped because the buffer was full.
+	 * @return Number of events
+	 */
+	public long getDropped() {
+		return this.dropped.sum();
+	}
+
+	/**
+	 * Publish an event, unless the buffer is full.
+	 * @param channel Channel id
+	 * @param type Event type
+	 * @param round Round
+	 * @param time Negotiation time
+	 * @param ownUtility Our utility for the bid
+	 * @param opponentUtility Estimated opponent utility for the bid
+	 * @param bidCodes Encoded bid, by issue position; copied
+	 * @return True if the event was published, false if it was dropped
+	 */
+	public boolean offer(final int channel, final byte type, final int round, final double time, final double ownUtility, 
+		final double opponentUtility, final int[] bidCodes) {
+		long sequence;
+		do {
+			sequence = this.tail.get();
+			if (sequence - this.head > this.mask) {
+				this.dropped.increment();
+				return false;
+			}
+		} while (!this.tail.compareAndSet(sequence, sequence + 1));
+		final int slot = (int) (sequence & this.mask);
+		this.channels[slot] = channel;
+		this.types[slot] = type;
+		this.rounds[slot] = round;
+		this.times[slot] = time;
+		this.ownUtilities[slot] = ownUtility;
+		this.opponentUtilities[slot] = opponentUtility;
+		if (this.codes[slot].length < bidCodes.length) {
+			this.codes[slot] = new int[bidCodes.length];
+		}
+		System.arraycopy(bidCodes, 0, this.codes[slot], 0, bidCodes.length);
+		this.issues[slot] = bidCodes.length;
+		this.published.set(slot, sequence);
+		final Thread consumer = this.waiting;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	/**
+	 * Block the consumer thread until the next event in sequence has been published: while the buffer is empty, or
+	 * while the next slot has been claimed but not yet published. It may also return early, e.g. if the thread is
+	 * unparked or interrupted, so callers should check what they are waiting for again.
+	 */
+	public void awaitEvent() {
+		this.waiting = Thread.currentThread();
+		// The producer publishes and then reads the waiting thread, so either it sees us or we see its event.
+		if (!this.isPublished(this.head)) {
+			LockSupport.park(this);
+		}
+		this.waiting = null;
+	}
+
+	/**
+	 * Drain published events, in order, from the single consumer thread. Stops at the first slot that has been
+	 * claimed but not yet published.
+	 * @param handler Event handler
+	 * @param max Maximum number of events to drain
+	 * @return Number of events drained
+	 */
+	public int drain(final EventHandler handler, final int max) {
+		long sequence = this.head;
+		int count = 0;
+		while (count < max) {
+			if (!this.isPublished(sequence)) {
+				break;
+			}
+			final int slot = (int) (sequence & this.mask);
+			handler.onEvent(this.channels[slot], this.types[slot], this.rounds[slot], this.times[slot], this.ownUtilities[slot], 
+				this.opponentUtilities[slot], this.codes[slot], this.issues[slot]);
+			sequence++;
+			count++;
+			this.head = sequence;
+		}
+		return count;
+	}
+
+	private boolean isPublished(final long sequence) {
+		return this.published.get((int) (sequence & this.mask)) == sequence;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("AnalyticsRingBuffer: capacity=")
+			.append(this.capacity())
+			.append(", size=")
+			.append(this.size())
+			.append(", dropped=")
+			.append(this.getDropped())
+			.toString();
+	}
+}
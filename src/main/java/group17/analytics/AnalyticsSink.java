@@ -0,0 +1,255 @@
+package group17.analytics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes analytics events to a binary file on a background thread, so the negotiation only pays for copying a few
+ * primitives into an {@link AnalyticsRingBuffer}. Each negotiation (or model) registers an {@link AnalyticsChannel},
+ * described once in the file by its issue and value names; its events then only hold value codes. 
+ * {@link AnalyticsConverter} turns the file back into the CSV layout of {@link group17.domain.BidValue}.
+ * <p>
+ * File layout, big-endian: magic and version ints, then records that each start with a kind byte. A channel
+ * record holds the channel id, name, and every issue name with its value names. An event record holds the 
+ * channel id, event type, round, time, our utility, estimated opponent utility and the value code for each issue.
+ * <p>
+ * One sink is shared by every agent in the JVM (see {@link #global()}). It writes to
+ * {@code log/analytics-<pid>.bin} unless the {@value #FILE_PROPERTY} system property names another file, and is
+ * disabled by setting {@value #ENABLED_PROPERTY} to false.
+ */
+public final class AnalyticsSink implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AnalyticsSink.class);
+
+	public static final int MAGIC = 0x41313741;
+	public static final int VERSION = 1;
+	public static final byte CHANNEL_RECORD = 1;
+	public static final byte EVENT_RECORD = 2;
+
+	public static final String ENABLED_PROPERTY = "group17.analytics.enabled";
+	public static final String FILE_PROPERTY = "group17.analytics.file";
+	public static final int DEFAULT_CAPACITY = 1 << 14;
+
+	private static final int BATCH_SIZE = 1024;
+
+	private final Path file;
+	private final AnalyticsRingBuffer buffer;
+	private final Queue<ChannelDescription> registrations = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger nextChannel = new AtomicInteger();
+	private final DataOutputStream output;
+	private final Thread drainer;
+	private volatile boolean running = true;
+	private IOException failure;
+
+	/**
+	 * A registered channel, waiting to be written.
+	 */
+	private record ChannelDescription(int id, String name, List<String> issues, List<List<String>> values) {
+	}
+
+	/**
+	 * Create a sink, and start draining it to a file.
+	 * @param file File to write, replacing any existing file
+	 * @param capacity Ring buffer capacity
+	 * @throws IOException If the file can't be created
+	 */
+	public AnalyticsSink(final Path file, final int capacity) throws IOException {
+		this.file = file;
+		this.buffer = new AnalyticsRingBuffer(capacity);
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+		this.output.writeInt(MAGIC);
+		this.output.writeInt(VERSION);
+		this.drainer = new Thread(this::drainLoop, "analytics-sink");
+		this.drainer.setDaemon(true);
+		this.drainer.start();
+	}
+
+	/**
+	 * The sink shared by every agent in the JVM, created when first used and closed when the JVM exits.
+	 * @return Sink, or null if analytics are disabled or the file can't be created
+	 */
+	public static AnalyticsSink global() {
+		return GlobalSink.SINK;
+	}
+
+	/**
+	 * Register a channel, e.g. for one negotiation.
+	 * @param name Channel name, e.g. the party id
+	 * @param issues Issue names, by issue position
+	 * @param values Value names for each issue, by value code
+	 * @return Channel
+	 */
+	public AnalyticsChannel register(final String name, final List<String> issues, final List<List<String>> values) {
+		final int id = this.nextChannel.getAndIncrement();
+		this.registrations.add(new ChannelDescription(id, name, List.copyOf(issues), List.copyOf(values)));
+		return new AnalyticsChannel(this.buffer, id);
+	}
+
+	public Path getFile() {
+		return this.file;
+	}
+
+	public AnalyticsRingBuffer getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * Stop draining once every published event has been written, and close the file.
+	 * @throws IOException If writing failed
+	 */
+	@Override
+	public void close() throws IOException {
+		this.running = false;
+		LockSupport.unpark(this.drainer);
+		try {
+			this.drainer.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.buffer.getDropped() > 0) {
+			LOG.warn("{} analytics events were dropped", this.buffer.getDropped());
+		}
+		if (this.failure != null) {
+			throw this.failure;
+		}
+	}
+
+	private void drainLoop() {
+		try {
+			while (true) {
+				final boolean stopping = !this.running;
+				// Any channel an event belongs to was registered before the event was published.
+				final int available = this.buffer.size();
+				this.writeRegistrations();
+				int drained = 0;
+				while (drained < available) {
+					final int batch = this.buffer.drain(this::writeEvent, Math.min(BATCH_SIZE, available - drained));
+					if (batch == 0) {
+						// The next slot has been claimed, but not yet published: block until it is.
+						this.buffer.awaitEvent();
+					}
+					drained += batch;
+				}
+				if (stopping) {
+					break;
+				}
+				if (available == 0) {
+					// Idle: block until an event is published, or close() wakes us.
+					this.output.flush();
+					this.buffer.awaitEvent();
+				}
+			}
+			this.output.close();
+		} catch (IOException | UncheckedWriteException e) {
+			this.failure = (e instanceof UncheckedWriteException uwe) ? uwe.getCause() : (IOException) e;
+			LOG.error("Error writing analytics to " + this.file + ": ", this.failure);
+		}
+	}
+
+	private void writeRegistrations() throws IOException {
+		for (ChannelDescription channel = this.registrations.poll(); channel != null; channel = this.registrations.poll()) {
+			this.output.writeByte(CHANNEL_RECORD);
+			this.output.writeInt(channel.id());
+			this.output.writeUTF(channel.name());
+			this.output.writeInt(channel.issues().size());
+			for (int i = 0; i < channel.issues().size(); i++) {
+				this.output.writeUTF(channel.issues().get(i));
+				final List<String> values = channel.values().get(i);
+				this.output.writeInt(values.size());
+				for (final String value : values) {
+					this.output.writeUTF(value);
+				}
+			}
+		}
+	}
+
+	private void writeEvent(final int channel, final byte type, final int round, final double time, final double ownUtility, 
+		final double opponentUtility, final int[] codes, final int issues) {
+		try {
+			this.output.writeByte(EVENT_RECORD);
+			this.output.writeInt(channel);
+			this.output.writeByte(type);
+			this.output.writeInt(round);
+			this.output.writeDouble(time);
+			this.output.writeDouble(ownUtility);
+			this.output.writeDouble(opponentUtility);
+			this.output.writeInt(issues);
+			for (int i = 0; i < issues; i++) {
+				this.output.writeInt(codes[i]);
+			}
+		} catch (IOException ioe) {
+			throw new UncheckedWriteException(ioe);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("AnalyticsSink: file=")
+			.append(this.file)
+			.append(", channels=")
+			.append(this.nextChannel.get())
+			.append(", buffer=")
+			.append(this.buffer)
+			.toString();
+	}
+
+	/**
+	 * Carries a write failure out of the event handler.
+	 */
+	private static final class UncheckedWriteException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		UncheckedWriteException(final IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+
+	/**
+	 * The shared sink, created when first used.
+	 */
+	private static final class GlobalSink {
+		private static final AnalyticsSink SINK = create();
+
+		private static AnalyticsSink create() {
+			if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+				return null;
+			}
+			final Path file = Paths.get(System.getProperty(FILE_PROPERTY, "log/analytics-" + ProcessHandle.current().pid() + ".bin"));
+			try {
+				final AnalyticsSink sink = new AnalyticsSink(file, DEFAULT_CAPACITY);
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+					try {
+						sink.close();
+					} catch (IOException ioe) {
+						// Already logged by the drainer.
+					}
+				}, "analytics-sink-shutdown"));
+				return sink;
+			} catch (IOException ioe) {
+				LOG.error("Analytics disabled, as " + file + " can't be created: ", ioe);
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package group17.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.parties.NegotiationInfo;
+
+/**
+ * Provides hyperparameters tuned for the features of each domain, so e.g. large domains get cheaper search
+ * settings and small domains exhaustive ones. Profiles are read from properties with keys of the form
+ * {@code profile.<name>.<key>}, where the key is either a feature ({@code possibleBids}, {@code issues},
+ * {@code uncertainty} or {@code elicitationCost}) or a hyperparameter overriding the top level value.
+ * <p>
+ * The hyperparameters for a negotiation are interpolated between the profiles that match its uncertainty,
+ * weighted by inverse squared {@link HyperparameterProfile#distance(DomainFeatures) distance}, so a domain
+ * with the same features as a profile gets exactly its hyperparameters. Without profiles the top level
+ * hyperparameters are used for every domain.
+ */
+public class AdaptiveHyperparameters implements HyperparameterProvider {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AdaptiveHyperparameters.class);
+
+	public static final String PROFILE_PREFIX = "profile.";
+	public static final String ISSUES = "issues";
+	public static final String POSSIBLE_BIDS = "possibleBids";
+	public static final String UNCERTAINTY = "uncertainty";
+	public static final String ELICITATION_COST = "elicitationCost";
+
+	private final HyperparameterProperties defaults;
+	private final List<HyperparameterProfile> profiles;
+
+	/**
+	 * Create a provider from tuned profiles.
+	 * @param defaults Hyperparameters used when no profile matches
+	 * @param profiles Profiles
+	 */
+	public AdaptiveHyperparameters(final HyperparameterProperties defaults, final List<HyperparameterProfile> profiles) {
+		this.defaults = defaults;
+		this.profiles = List.copyOf(profiles);
+	}
+
+	/**
+	 * Read the top level hyperparameters and any profiles from properties.
+	 * @param properties Properties
+	 * @return Provider
+	 */
+	public static AdaptiveHyperparameters fromProperties(final Properties properties) {
+		final Map<String, Properties> overrides = new TreeMap<>();
+		for (final String key : properties.stringPropertyNames()) {
+			if (key.startsWith(PROFILE_PREFIX)) {
+				final int dot = key.indexOf('.', PROFILE_PREFIX.length());
+				if (dot < 0) {
+					throw new IllegalArgumentException("Profile property has no key: " + key);
+				}
+				overrides.computeIfAbsent(key.substring(PROFILE_PREFIX.length(), dot), name -> new Properties())
+					.setProperty(key.substring(dot + 1), properties.getProperty(key));
+			}
+		}
+		final List<HyperparameterProfile> profiles = new ArrayList<>();
+		for (final Map.Entry<String, Properties> entry : overrides.entrySet()) {
+			profiles.add(createProfile(entry.getKey(), entry.getValue(), properties));
+		}
+		return new AdaptiveHyperparameters(new HyperparameterProperties(properties), profiles);
+	}
+
+	/**
+	 * The hyperparameters and profiles from the properties file on the classpath, read once per JVM.
+	 * @return Provider
+	 */
+	public static AdaptiveHyperparameters fromClasspath() {
+		return ClasspathProfiles.PROFILES;
+	}
+
+	public HyperparameterProperties getDefaults() {
+		return this.defaults;
+	}
+
+	public List<HyperparameterProfile> getProfiles() {
+		return this.profiles;
+	}
+
+	@Override
+	public HyperparameterProperties getHyperparameters(final NegotiationInfo info) {
+		if (this.profiles.isEmpty()) {
+			return this.defaults;
+		}
+		final DomainFeatures features = DomainFeatures.of(info);
+		final HyperparameterProperties hyperparameters = this.resolve(features);
+		LOG.debug("Resolved hyperparameters for {}: {}", features, hyperparameters);
+		return hyperparameters;
+	}
+
+	/**
+	 * Interpolate the hyperparameters for a negotiation between the matching profiles.
+	 * @param features Negotiation features
+	 * @return Hyperparameters
+	 */
+	public HyperparameterProperties resolve(final DomainFeatures features) {
+		final List<HyperparameterProfile> matching = new ArrayList<>();
+		final List<Double> weights = new ArrayList<>();
+		HyperparameterProfile nearest = null;
+		double nearestDistance = Double.POSITIVE_INFINITY;
+		for (final HyperparameterProfile profile : this.profiles) {
+			if (profile.matches(features)) {
+				final double distance = profile.distance(features);
+				if (distance == 0.0) {
+					return profile.hyperparameters();
+				}
+				matching.add(profile);
+				weights.add(1.0 / (distance * distance));
+				if (distance < nearestDistance) {
+					nearest = profile;
+					nearestDistance = distance;
+				}
+			}
+		}
+		if (nearest == null) {
+			return this.defaults;
+		}
+		final Properties nearestProperties = nearest.hyperparameters().toProperties();
+		final Map<String, Double> totals = new TreeMap<>();
+		double totalWeight = 0.0;
+		for (int p = 0; p < matching.size(); p++) {
+			final double weight = weights.get(p);
+			final Properties properties = matching.get(p).hyperparameters().toProperties();
+			for (final String key : properties.stringPropertyNames()) {
+				if (isNumeric(properties.getProperty(key))) {
+					totals.merge(key, weight * Double.parseDouble(properties.getProperty(key)), Double::sum);
+				}
+			}
+			totalWeight += weight;
+		}
+		final Properties interpolated = new Properties();
+		interpolated.putAll(nearestProperties);
+		for (final Map.Entry<String, Double> total : totals.entrySet()) {
+			final double value = total.getValue() / totalWeight;
+			final boolean integer = HyperparameterProperties.MAX_LIST_SIZE.equals(total.getKey()) 
+				|| HyperparameterProperties.RECENT_BID_WINDOW.equals(total.getKey());
+			interpolated.setProperty(total.getKey(), integer ? String.valueOf(Math.round(value)) : String.valueOf(value));
+		}
+		return new HyperparameterProperties(interpolated);
+	}
+
+	/**
+	 * Create a profile from its own properties, with any hyperparameters it doesn't set taken from the top level.
+	 */
+	private static HyperparameterProfile createProfile(final String name, final Properties overrides, final Properties properties) {
+		if (overrides.getProperty(POSSIBLE_BIDS) == null) {
+			throw new IllegalArgumentException("Profile " + name + " has no " + POSSIBLE_BIDS);
+		}
+		final Properties merged = new Properties();
+		for (final String key : properties.stringPropertyNames()) {
+			if (!key.startsWith(PROFILE_PREFIX)) {
+				merged.setProperty(key, properties.getProperty(key));
+			}
+		}
+		for (final String key : overrides.stringPropertyNames()) {
+			merged.setProperty(key, overrides.getProperty(key));
+		}
+		final String uncertainty = overrides.getProperty(UNCERTAINTY);
+		return new HyperparameterProfile(name, 
+			(int) Double.parseDouble(overrides.getProperty(ISSUES, "-1")),
+			(long) Double.parseDouble(overrides.getProperty(POSSIBLE_BIDS)),
+			(uncertainty == null) ? null : Boolean.valueOf(uncertainty),
+			Double.parseDouble(overrides.getProperty(ELICITATION_COST, "-1")),
+			new HyperparameterProperties(merged));
+	}
+
+	private static boolean isNumeric(final String value) {
+		try {
+			Double.parseDouble(value);
+			return true;
+		} catch (NumberFormatException nfe) {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		final List<String> names = new ArrayList<>();
+		for (final HyperparameterProfile profile : this.profiles) {
+			names.add(profile.name());
+		}
+		return new StringBuilder("AdaptiveHyperparameters: profiles=")
+			.append(names)
+			.append(", defaults=")
+			.append(this.defaults)
+			.toString();
+	}
+
+	/**
+	 * The profiles on the classpath, read when first used.
+	 */
+	private static final class ClasspathProfiles {
+		private static final AdaptiveHyperparameters PROFILES = fromProperties(HyperparameterProperties.classpathProperties());
+	}
+}
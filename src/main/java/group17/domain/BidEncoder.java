@@ -0,0 +1,245 @@
+package group17.domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import genius.core.Bid;
+import genius.core.Domain;
+import genius.core.issue.Issue;
+import genius.core.issue.IssueDiscrete;
+import genius.core.issue.Value;
+import genius.core.issue.ValueDiscrete;
+
+/**
+ * A compact, index based encoding of the bids in a domain.
+ * Each discrete issue is given a position (in domain order) and each of its values an index (in issue order),
+ * so a {@link Bid} can be represented as an array of value indices, or as a single mixed-radix outcome index.
+ * As elsewhere, only {@link IssueDiscrete} issues are handled.
+ */
+public class BidEncoder {
+
+	public static final long NO_INDEX = -1L;
+	public static final int NO_CODE = -1;
+
+	private final Domain domain;
+	private final IssueDiscrete[] issues;
+	private final String[] issueNames;
+	private final String[][] valueNames;
+	private final Map<String, Integer> issuePositions = new HashMap<>();
+	private final List<Map<String, Integer>> valueIndices = new ArrayList<>();
+	private final long[] multipliers;
+	private final long numberOfOutcomes;
+
+	/**
+	 * Create an encoder for all of the discrete issues in a domain.
+	 * @param domain Domain
+	 */
+	public BidEncoder(final Domain domain) {
+		this.domain = domain;
+		final List<IssueDiscrete> discreteIssues = new ArrayList<>();
+		for (final Issue issue : domain.getIssues()) {
+			if (issue instanceof IssueDiscrete) {
+				discreteIssues.add((IssueDiscrete) issue);
+			}
+		}
+		final int numIssues = discreteIssues.size();
+		this.issues = discreteIssues.toArray(new IssueDiscrete[numIssues]);
+		this.issueNames = new String[numIssues];
+		this.valueNames = new String[numIssues][];
+		this.multipliers = new long[numIssues];
+		long outcomes = 1L;
+		for (int i = 0; i < numIssues; i++) {
+			final IssueDiscrete issue = this.issues[i];
+			this.issueNames[i] = DomainTranslator.issueName(issue);
+			this.issuePositions.put(this.issueNames[i], i);
+			final List<ValueDiscrete> values = issue.getValues();
+			final Map<String, Integer> indices = new HashMap<>();
+			this.valueNames[i] = new String[values.size()];
+			for (int v = 0; v < values.size(); v++) {
+				this.valueNames[i][v] = DomainTranslator.valueName(values.get(v));
+				indices.put(this.valueNames[i][v], v);
+			}
+			this.valueIndices.add(indices);
+			this.multipliers[i] = outcomes;
+			outcomes = (outcomes > 0L) ? this.multiply(outcomes, values.size()) : outcomes;
+		}
+		this.numberOfOutcomes = outcomes;
+	}
+
+	public Domain getDomain() {
+		return this.domain;
+	}
+
+	public int getNumberOfIssues() {
+		return this.issues.length;
+	}
+
+	public IssueDiscrete getIssue(final int position) {
+		return this.issues[position];
+	}
+
+	public String getIssueName(final int position) {
+		return this.issueNames[position];
+	}
+
+	public int getNumberOfValues(final int position) {
+		return this.valueNames[position].length;
+	}
+
+	public String getValueName(final int position, final int code) {
+		return this.valueNames[position][code];
+	}
+
+	/**
+	 * The largest number of values of any issue.
+	 * @return Maximum number of values
+	 */
+	public int getMaxNumberOfValues() {
+		int max = 0;
+		for (final String[] values : this.valueNames) {
+			max = Math.max(max, values.length);
+		}
+		return max;
+	}
+
+	/**
+	 * Total number of outcomes in the domain.
+	 * @return Number of outcomes, or {@link #NO_INDEX} if it doesn't fit in a long
+	 */
+	public long getNumberOfOutcomes() {
+		return this.numberOfOutcomes;
+	}
+
+	/**
+	 * Get the position of an issue.
+	 * @param issueName Issue name
+	 * @return Position, or {@link #NO_CODE} if the issue isn't known
+	 */
+	public int issuePosition(final String issueName) {
+		final Integer position = this.issuePositions.get(issueName);
+		return (position != null) ? position : NO_CODE;
+	}
+
+	/**
+	 * Get the index (code) of a value within an issue.
+	 * @param position Issue position
+	 * @param valueName Value name
+	 * @return Value code, or {@link #NO_CODE} if the value isn't known
+	 */
+	public int valueCode(final int position, final String valueName) {
+		final Integer code = this.valueIndices.get(position).get(valueName);
+		return (code != null) ? code : NO_CODE;
+	}
+
+	/**
+	 * Encode a bid as an array of value codes, one per issue position.
+	 * @param bid Bid
+	 * @return Value codes
+	 */
+	public int[] encode(final Bid bid) {
+		return this.encode(bid, new int[this.issues.length]);
+	}
+
+	/**
+	 * Encode a bid into an existing array of value codes.
+	 * @param bid Bid
+	 * @param codes Array to fill, at least as long as the number of issues
+	 * @return The supplied array
+	 */
+	public int[] encode(final Bid bid, final int[] codes) {
+		for (int i = 0; i < this.issues.length; i++) {
+			final Value value = bid.getValue(this.issues[i]);
+			codes[i] = (value != null) ? this.valueCode(i, DomainTranslator.valueName(value)) : NO_CODE;
+		}
+		return codes;
+	}
+
+	/**
+	 * Get the mixed-radix outcome index of a bid.
+	 * @param bid Bid
+	 * @return Outcome index, or {@link #NO_INDEX} if the bid can't be indexed
+	 */
+	public long index(final Bid bid) {
+		return this.index(this.encode(bid));
+	}
+
+	/**
+	 * Get the mixed-radix outcome index of an array of value codes.
+	 * @param codes Value codes
+	 * @return Outcome index, or {@link #NO_INDEX} if the codes can't be indexed
+	 */
+	public long index(final int[] codes) {
+		if (this.numberOfOutcomes == NO_INDEX) {
+			return NO_INDEX;
+		}
+		long index = 0L;
+		for (int i = 0; i < this.issues.length; i++) {
+			if (codes[i] < 0) {
+				return NO_INDEX;
+			}
+			index += codes[i] * this.multipliers[i];
+		}
+		return index;
+	}
+
+	/**
+	 * Unpack an outcome index into value codes.
+	 * @param index Outcome index
+	 * @param codes Array to fill, at least as long as the number of issues
+	 * @return The supplied array
+	 */
+	public int[] codes(final long index, final int[] codes) {
+		long remainder = index;
+		for (int i = 0; i < this.issues.length; i++) {
+			final int numValues = this.valueNames[i].length;
+			codes[i] = (int) (remainder % numValues);
+			remainder /= numValues;
+		}
+		return codes;
+	}
+
+	/**
+	 * Create a {@link Bid} from an array of value codes.
+	 * @param codes Value codes
+	 * @return Bid
+	 */
+	public Bid decode(final int[] codes) {
+		final HashMap<Integer, Value> values = new HashMap<>();
+		for (int i = 0; i < this.issues.length; i++) {
+			values.put(this.issues[i].getNumber(), this.issues[i].getValue(codes[i]));
+		}
+		return new Bid(this.domain, values);
+	}
+
+	/**
+	 * Create a {@link Bid} from a mixed-radix outcome index.
+	 * @param index Outcome index
+	 * @return Bid
+	 */
+	public Bid decode(final long index) {
+		return this.decode(this.codes(index, new int[this.issues.length]));
+	}
+
+	/**
+	 * Multiply without overflowing.
+	 * @return Product, or {@link #NO_INDEX} on overflow
+	 */
+	private long multiply(final long outcomes, final int numValues) {
+		try {
+			return Math.multiplyExact(outcomes, (long) numValues);
+		} catch (ArithmeticException ae) {
+			return NO_INDEX;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("BidEncoder: issues=")
+			.append(this.issues.length)
+			.append(", outcomes=")
+			.append(this.numberOfOutcomes)
+			.toString();
+	}
+}
@@ -0,0 +1,155 @@
+package group17.domain;
+
+import java.util.Arrays;
+
+import genius.core.Bid;
+
+/**
+ * An interning pool of canonical {@link Bid} instances, keyed by {@link BidEncoder} outcome index. Each distinct
+ * outcome is represented by one {@link Bid}, with a dense int id (0, 1, 2, ... in the order outcomes are first
+ * seen), so bids can be compared by identity and kept in int keyed structures, such as a {@link java.util.BitSet}
+ * of ids, rather than hashed through their values.
+ * <p>
+ * The pool is an open addressing hash table from outcome index to id, with no boxing. It is not thread safe.
+ */
+public class BidPool {
+
+	public static final int NO_ID = -1;
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final long EMPTY = -1L;
+
+	private final BidEncoder encoder;
+	private final int[] scratch;
+	private long[] keys;
+	private int[] ids;
+	private Bid[] bids;
+	private int size = 0;
+
+	/**
+	 * Create an empty pool.
+	 * @param encoder Bid encoder for the domain
+	 */
+	public BidPool(final BidEncoder encoder) {
+		this.encoder = encoder;
+		this.scratch = new int[encoder.getNumberOfIssues()];
+		this.keys = new long[INITIAL_CAPACITY];
+		this.ids = new int[INITIAL_CAPACITY];
+		this.bids = new Bid[INITIAL_CAPACITY / 2];
+		Arrays.fill(this.keys, EMPTY);
+	}
+
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	/**
+	 * Number of distinct bids in the pool.
+	 * @return Size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get the canonical instance of a bid, adding the bid itself to the pool if it is new.
+	 * @param bid Bid
+	 * @return Canonical bid, or the bid itself if it can't be encoded (or is null)
+	 */
+	public Bid intern(final Bid bid) {
+		final int id = this.idOf(bid);
+		return (id != NO_ID) ? this.bids[id] : bid;
+	}
+
+	/**
+	 * Get the id of a bid, adding the bid to the pool if it is new.
+	 * @param bid Bid
+	 * @return Id, or {@link #NO_ID} if the bid can't be encoded (or is null)
+	 */
+	public int idOf(final Bid bid) {
+		if (bid == null) {
+			return NO_ID;
+		}
+		return this.idOf(this.encoder.index(this.encoder.encode(bid, this.scratch)), bid);
+	}
+
+	/**
+	 * Get the id of an encoded bid, creating its canonical {@link Bid} if it is new.
+	 * @param codes Value codes
+	 * @return Id, or {@link #NO_ID} if the codes can't be indexed
+	 */
+	public int idOf(final int[] codes) {
+		return this.idOf(this.encoder.index(codes), null);
+	}
+
+	/**
+	 * Get the canonical bid with an id.
+	 * @param id Id
+	 * @return Bid
+	 */
+	public Bid getBid(final int id) {
+		return this.bids[id];
+	}
+
+	/**
+	 * Find or add an outcome.
+	 * @param index Outcome index
+	 * @param bid Bid to add if the outcome is new, or null to decode one
+	 */
+	private int idOf(final long index, final Bid bid) {
+		if (index == BidEncoder.NO_INDEX) {
+			return NO_ID;
+		}
+		final int mask = this.keys.length - 1;
+		int slot = this.slot(index, mask);
+		while (this.keys[slot] != EMPTY) {
+			if (this.keys[slot] == index) {
+				return this.ids[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		final int id = this.size++;
+		this.keys[slot] = index;
+		this.ids[slot] = id;
+		if (id == this.bids.length) {
+			this.bids = Arrays.copyOf(this.bids, id * 2);
+		}
+		this.bids[id] = (bid != null) ? bid : this.encoder.decode(index);
+		// Keep the table at most half full.
+		if (this.size * 2 > this.keys.length) {
+			this.grow();
+		}
+		return id;
+	}
+
+	private int slot(final long index, final int mask) {
+		final long mixed = index * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32)) & mask;
+	}
+
+	private void grow() {
+		final long[] oldKeys = this.keys;
+		final int[] oldIds = this.ids;
+		this.keys = new long[oldKeys.length * 2];
+		this.ids = new int[oldKeys.length * 2];
+		Arrays.fill(this.keys, EMPTY);
+		final int mask = this.keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = this.slot(oldKeys[i], mask);
+				while (this.keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.ids[slot] = oldIds[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("BidPool: size=")
+			.append(this.size)
+			.toString();
+	}
+}
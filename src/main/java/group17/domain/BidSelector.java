@@ -1,7 +1,7 @@
 package group17.domain;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
@@ -11,7 +11,6 @@ import genius.core.Bid;
 import genius.core.Domain;
 import genius.core.issue.Issue;
 import genius.core.issue.IssueDiscrete;
-import genius.core.issue.Value;
 import genius.core.parties.NegotiationInfo;
 import genius.core.uncertainty.BidRanking;
 import genius.core.uncertainty.UserModel;
@@ -19,6 +18,10 @@ import genius.core.utility.AbstractUtilitySpace;
 
 /**
  * A bid selector which maintains a list of bids over a given utility threshold and 
+ * <p>
+ * The list is kept free of duplicates by a set of pool ids rather than a set of bids: both random bids and bids
+ * from the ranking are interned in a {@link BidPool}, so each distinct outcome is only created and listed once.
+ * Only bids the pool can't encode fall back to a set of bids.
  */
 public class BidSelector {
 	
@@ -28,6 +31,9 @@ public class BidSelector {
 	private final AbstractUtilitySpace space;
 	private final boolean uncertainty;
 	
+	private final BidPool pool;
+	private final BitSet selected = new BitSet();
+	private final Set<Bid> unencodable = new HashSet<>();
 	private List<Bid> bids = new ArrayList<>();
 	private int bidLimit;
 	private Domain domain;
@@ -43,6 +49,18 @@ public class BidSelector {
 	 * @param minimumUtility
 	 */
 	public BidSelector(final NegotiationInfo info, final int bidLimit, final double minimumUtility) {
+		this(info, bidLimit, minimumUtility, new BidPool(new BidEncoder(info.getUtilitySpace().getDomain())));
+	}
+
+	/**
+	 * Create a Bid Selector that shares a pool of bids, e.g. with the agent using it.
+	 * @param info Negotiation information
+	 * @param bidLimit
+	 * @param minimumUtility
+	 * @param pool Pool of canonical bids for the domain
+	 */
+	public BidSelector(final NegotiationInfo info, final int bidLimit, final double minimumUtility, final BidPool pool) {
+		this.pool = pool;
 		this.random = new Random(info.getRandomSeed());
 		this.bidLimit = bidLimit;
 		this.minimumUtility = minimumUtility;
@@ -122,17 +140,17 @@ public class BidSelector {
 	 */
 	private void addBidsFromRanking() {
 		if (this.ranking != null) {
-			final Set<Bid> bidSet = this.createBidSetFromBidList();
-			for (final Bid bid : this.ranking.getBidOrder()) {
+			final List<Bid> order = this.ranking.getBidOrder();
+			for (final Bid bid : order) {
 				final double utility = this.getUtility(bid);
 				if (utility >= this.minimumUtility && utility <= this.previousMinimumUtility) {
-					bidSet.add(bid);
+					final int id = this.pool.idOf(bid);
+					this.add(id, (id != BidPool.NO_ID) ? this.pool.getBid(id) : bid);
 				}
-				if (bidSet.size() >= this.bidLimit) {
+				if (this.bids.size() >= this.bidLimit) {
 					break;
 				}
 			}
-			this.createNewBidListFrom(bidSet);
 		}
 	}
 	
@@ -153,48 +171,47 @@ public class BidSelector {
 	 */
 	private void addBidsFromDomain() {
 		if (this.issues != null) {
-			final Set<Bid> bidSet = this.createBidSetFromBidList();
+			final int[] codes = new int[this.issues.size()];
 			for (int i = 0; i < MAX_ATTEMPTS; i++) {
-				final Bid bid = this.generateRandomBid();
+				final int id = this.generateRandomBid(codes);
+				final Bid bid = (id != BidPool.NO_ID) ? this.pool.getBid(id) : this.pool.getEncoder().decode(codes);
 				final double utility = this.getUtility(bid);
 				if (utility >= this.minimumUtility && utility <= this.previousMinimumUtility) {
-					bidSet.add(bid);
+					this.add(id, bid);
 				}
-				if (bidSet.size() >= this.bidLimit) {
+				if (this.bids.size() >= this.bidLimit) {
 					break;
 				}
 			}
-			this.createNewBidListFrom(bidSet);
 		}		
 	}
 		
 	/**
-	 * Generate a random {@link Bid} based on the same algorithm used by {@link AbstractNegotiationParty}.
-	 * @return A random bid
+	 * Generate a random bid based on the same algorithm used by {@link AbstractNegotiationParty}, as pool codes.
+	 * The {@link Bid} itself is only created the first time an outcome is drawn.
+	 * @param codes Array to fill with the value codes, one per issue
+	 * @return Pool id of the random bid
 	 */
-	private Bid generateRandomBid() {
-		final HashMap<Integer, Value> values = new HashMap<>();
+	private int generateRandomBid(final int[] codes) {
+		int position = 0;
 		for (final Issue issue : this.issues) {
 			if (issue != null) {
-				final int number = issue.getNumber();
-				final Value value = this.randomValueFrom(issue);
-				values.put(number, value);
+				codes[position++] = this.randomValueFrom(issue);
 			}
 		}
-		return new Bid(this.domain, values);
+		return this.pool.idOf(codes);
 	}
 
 	/**
 	 * Pick a random value from the supplied Issue.
 	 * Note that we only handle {@link DiscreteIssue} issues here.
 	 * @param issue Discrete issue
-	 * @return Random value
+	 * @return Random value code
 	 */
-	private Value randomValueFrom(final Issue issue) {
+	private int randomValueFrom(final Issue issue) {
 		final IssueDiscrete discrete = (IssueDiscrete) issue;
 		final int numValues = discrete.getNumberOfValues();
-		final int index = this.random.nextInt(numValues);
-		return discrete.getValue(index);
+		return this.random.nextInt(numValues);
 	}
 
 	/**
@@ -213,21 +230,18 @@ public class BidSelector {
 	}
 	
 	/**
-	 * Create a new list of bids from the supplied set.
-	 * @param bidSet New set of bids
-	 */
-	private void createNewBidListFrom(final Set<Bid> bidSet) {
-		this.bids = new ArrayList<>();
-		this.bids.addAll(bidSet);
-	}
-	
-	/**
-	 * Transform the current list of bids into a set.
-	 * @return Bid set
+	 * Add a bid to the list, unless it is already there.
+	 * @param id Pool id of the bid, or {@link BidPool#NO_ID} if it can't be encoded
+	 * @param bid Bid
 	 */
-	private Set<Bid> createBidSetFromBidList() {
-		final Set<Bid> bidSet = new HashSet<>();
-		bidSet.addAll(this.bids);
-		return bidSet;
+	private void add(final int id, final Bid bid) {
+		if (id == BidPool.NO_ID) {
+			if (this.unencodable.add(bid)) {
+				this.bids.add(bid);
+			}
+		} else if (!this.selected.get(id)) {
+			this.selected.set(id);
+			this.bids.add(bid);
+		}
 	}
 }
@@ -0,0 +1,163 @@
+package group17.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import genius.core.Bid;
+
+/**
+ * Candidate bids sorted by our utility, with a segment tree holding the candidate with the highest estimated 
+ * opponent utility in each range. The bidding strategy's query, "the bid the opponent likes most among those
+ * above our threshold", is then a binary search for the threshold and a range query, both O(log n), over every
+ * candidate. The opponent utilities are re-evaluated by {@link #rebuild(ToDoubleFunction)} in O(n) whenever 
+ * the opponent model changes.
+ * <p>
+ * Ties on opponent utility go to the candidate with the higher utility for us.
+ */
+public class CandidateIndex {
+
+	public static final int NONE = -1;
+
+	private final Bid[] bids;
+	private final double[] ownUtilities;
+	private final double[] opponentUtilities;
+	private final int[] tree;
+	private final int size;
+
+	/**
+	 * Sort the candidates by our utility. Opponent utilities start at zero, until the index is rebuilt.
+	 * @param candidates Candidate bids
+	 * @param ownUtility Our utility for a bid; it must not change afterwards
+	 */
+	public CandidateIndex(final List<Bid> candidates, final ToDoubleFunction<Bid> ownUtility) {
+		this.size = candidates.size();
+		final Integer[] order = new Integer[this.size];
+		final double[] utilities = new double[this.size];
+		for (int i = 0; i < this.size; i++) {
+			order[i] = i;
+			utilities[i] = ownUtility.applyAsDouble(candidates.get(i));
+		}
+		Arrays.sort(order, Comparator.comparingDouble(i -> utilities[i]));
+		this.bids = new Bid[this.size];
+		this.ownUtilities = new double[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.bids[i] = candidates.get(order[i]);
+			this.ownUtilities[i] = utilities[order[i]];
+		}
+		this.opponentUtilities = new double[this.size];
+		this.tree = new int[2 * this.size];
+		this.buildTree();
+	}
+
+	/**
+	 * Re-evaluate every candidate's opponent utility and rebuild the tree, in O(n).
+	 * @param opponentUtility Estimated opponent utility for a bid
+	 */
+	public void rebuild(final ToDoubleFunction<Bid> opponentUtility) {
+		for (int i = 0; i < this.size; i++) {
+			this.opponentUtilities[i] = opponentUtility.applyAsDouble(this.bids[i]);
+		}
+		this.buildTree();
+	}
+
+	/**
+	 * Rebuild the tree from opponent utilities already worked out for every candidate, e.g. by cached scores.
+	 * @param opponentUtilities Opponent utilities, aligned with this index; they are copied
+	 */
+	public void rebuild(final double[] opponentUtilities) {
+		System.arraycopy(opponentUtilities, 0, this.opponentUtilities, 0, this.size);
+		this.buildTree();
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public Bid getBid(final int index) {
+		return this.bids[index];
+	}
+
+	public double getOwnUtility(final int index) {
+		return this.ownUtilities[index];
+	}
+
+	public double getOpponentUtility(final int index) {
+		return this.opponentUtilities[index];
+	}
+
+	/**
+	 * Find the first candidate with our utility strictly above a threshold.
+	 * @param threshold Threshold
+	 * @return Index, or {@link #size()} if there is none
+	 */
+	public int firstAbove(final double threshold) {
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.ownUtilities[middle] > threshold) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Find the candidate with the highest opponent utility in a range.
+	 * @param from First index, inclusive
+	 * @param to Last index, exclusive
+	 * @return Index, or {@link #NONE} if the range is empty
+	 */
+	public int argmax(final int from, final int to) {
+		int best = NONE;
+		for (int low = from + this.size, high = to + this.size; low < high; low >>= 1, high >>= 1) {
+			if ((low & 1) == 1) {
+				best = this.better(best, this.tree[low++]);
+			}
+			if ((high & 1) == 1) {
+				best = this.better(best, this.tree[--high]);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Find the candidate with the highest opponent utility among those with our utility strictly above a threshold.
+	 * @param threshold Threshold
+	 * @return Index, or {@link #NONE} if no candidate is above the threshold
+	 */
+	public int bestAbove(final double threshold) {
+		return this.argmax(this.firstAbove(threshold), this.size);
+	}
+
+	/**
+	 * Build the tree bottom up: leaves are at {@code size + i}, and each parent holds the better of its children.
+	 */
+	private void buildTree() {
+		for (int i = 0; i < this.size; i++) {
+			this.tree[this.size + i] = i;
+		}
+		for (int node = this.size - 1; node > 0; node--) {
+			this.tree[node] = this.better(this.tree[2 * node], this.tree[2 * node + 1]);
+		}
+	}
+
+	private int better(final int first, final int second) {
+		if (first == NONE) {
+			return second;
+		}
+		final double difference = this.opponentUtilities[second] - this.opponentUtilities[first];
+		return (difference > 0.0 || (difference == 0.0 && second > first)) ? second : first;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("CandidateIndex: size=")
+			.append(this.size)
+			.toString();
+	}
+}
@@ -0,0 +1,245 @@
+package group17.domain;
+
+import java.util.Arrays;
+
+/**
+ * An inverted index from each value to the candidates that include it: for every {@link BidEncoder} issue position
+ * and value code, a bitset over the candidates of a {@link CandidateIndex}, bit i standing for candidate i. Value
+ * centric filters, such as "candidates that keep the opponent's last offer on these issues", are then word-wise
+ * AND / OR / AND NOT and popcount operations over a few kilobytes, rather than comparing each bid's values in turn.
+ * <p>
+ * Candidates are held in ascending order of our utility, so the candidates above a threshold are those from
+ * {@link CandidateIndex#firstAbove(double)} on; {@link #retainFrom(long[], int)} applies that to a set.
+ * Sets are plain {@code long[]} arrays of {@link #words()} words, created by {@link #emptySet()} or
+ * {@link #allCandidates()}, and the operations change them in place.
+ */
+public final class CandidateValueIndex {
+
+	private final BidEncoder encoder;
+	private final int size;
+	private final int words;
+	private final long[][][] sets;
+
+	/**
+	 * Index the candidates' values.
+	 * @param candidates Candidate index
+	 * @param encoder Bid encoder for the domain
+	 */
+	public CandidateValueIndex(final CandidateIndex candidates, final BidEncoder encoder) {
+		this.encoder = encoder;
+		this.size = candidates.size();
+		this.words = (this.size + Long.SIZE - 1) / Long.SIZE;
+		final int numIssues = encoder.getNumberOfIssues();
+		this.sets = new long[numIssues][][];
+		for (int i = 0; i < numIssues; i++) {
+			this.sets[i] = new long[encoder.getNumberOfValues(i)][this.words];
+		}
+		final int[] codes = new int[numIssues];
+		for (int c = 0; c < this.size; c++) {
+			encoder.encode(candidates.getBid(c), codes);
+			for (int i = 0; i < numIssues; i++) {
+				if (codes[i] >= 0) {
+					this.sets[i][codes[i]][c >>> 6] |= 1L << c;
+				}
+			}
+		}
+	}
+
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	/**
+	 * Number of candidates indexed.
+	 * @return Size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Number of words in each set.
+	 * @return Words
+	 */
+	public int words() {
+		return this.words;
+	}
+
+	/**
+	 * Create a set with no candidates.
+	 * @return Empty set
+	 */
+	public long[] emptySet() {
+		return new long[this.words];
+	}
+
+	/**
+	 * Create a set of every candidate.
+	 * @return Full set
+	 */
+	public long[] allCandidates() {
+		final long[] set = new long[this.words];
+		Arrays.fill(set, -1L);
+		if (this.size % Long.SIZE != 0) {
+			set[this.words - 1] = (1L << this.size) - 1L;
+		}
+		return set;
+	}
+
+	/**
+	 * Count the candidates that include a value.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Number of candidates
+	 */
+	public int countWith(final int position, final int code) {
+		return count(this.sets[position][code]);
+	}
+
+	/**
+	 * Does a candidate include a value?
+	 * @param position Issue position
+	 * @param code Value code
+	 * @param candidate Candidate index
+	 * @return True if it does
+	 */
+	public boolean includes(final int position, final int code, final int candidate) {
+		return contains(this.sets[position][code], candidate);
+	}
+
+	/**
+	 * Keep only the candidates in a set that include a value.
+	 * @param set Set, changed in place
+	 * @param position Issue position
+	 * @param code Value code; a negative code empties the set
+	 * @return The set
+	 */
+	public long[] retainWith(final long[] set, final int position, final int code) {
+		if (code < 0) {
+			Arrays.fill(set, 0L);
+			return set;
+		}
+		final long[] values = this.sets[position][code];
+		for (int w = 0; w < this.words; w++) {
+			set[w] &= values[w];
+		}
+		return set;
+	}
+
+	/**
+	 * Remove the candidates that include a value from a set.
+	 * @param set Set, changed in place
+	 * @param position Issue position
+	 * @param code Value code; a negative code removes nothing
+	 * @return The set
+	 */
+	public long[] removeWith(final long[] set, final int position, final int code) {
+		if (code >= 0) {
+			final long[] values = this.sets[position][code];
+			for (int w = 0; w < this.words; w++) {
+				set[w] &= ~values[w];
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Add the candidates that include a value to a set.
+	 * @param set Set, changed in place
+	 * @param position Issue position
+	 * @param code Value code; a negative code adds nothing
+	 * @return The set
+	 */
+	public long[] addWith(final long[] set, final int position, final int code) {
+		if (code >= 0) {
+			final long[] values = this.sets[position][code];
+			for (int w = 0; w < this.words; w++) {
+				set[w] |= values[w];
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Keep only the candidates in a set that match an encoded bid on every one of some issues, e.g. the
+	 * candidates that keep the opponent's last offer on those issues.
+	 * @param set Set, changed in place
+	 * @param codes Value codes of the bid to match
+	 * @param positions Issue positions to match on
+	 * @return The set
+	 */
+	public long[] retainMatching(final long[] set, final int[] codes, final int... positions) {
+		for (final int position : positions) {
+			this.retainWith(set, position, codes[position]);
+		}
+		return set;
+	}
+
+	/**
+	 * Keep only the candidates in a set from an index on, e.g. from {@link CandidateIndex#firstAbove(double)}.
+	 * @param set Set, changed in place
+	 * @param from First candidate to keep
+	 * @return The set
+	 */
+	public long[] retainFrom(final long[] set, final int from) {
+		final int word = Math.min(from >>> 6, this.words);
+		Arrays.fill(set, 0, word, 0L);
+		if (word < this.words) {
+			set[word] &= -1L << from;
+		}
+		return set;
+	}
+
+	/**
+	 * Count the candidates in a set.
+	 * @param set Set
+	 * @return Number of candidates
+	 */
+	public static int count(final long[] set) {
+		int count = 0;
+		for (final long word : set) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Is a candidate in a set?
+	 * @param set Set
+	 * @param candidate Candidate index
+	 * @return True if it is
+	 */
+	public static boolean contains(final long[] set, final int candidate) {
+		return (set[candidate >>> 6] & (1L << candidate)) != 0L;
+	}
+
+	/**
+	 * Find the next candidate in a set, in ascending order of our utility.
+	 * @param set Set
+	 * @param from First candidate index to look at
+	 * @return Candidate index, or {@link CandidateIndex#NONE} if there are none
+	 */
+	public static int nextCandidate(final long[] set, final int from) {
+		int w = from >>> 6;
+		if (w >= set.length) {
+			return CandidateIndex.NONE;
+		}
+		long word = set[w] & (-1L << from);
+		while (word == 0L) {
+			if (++w == set.length) {
+				return CandidateIndex.NONE;
+			}
+			word = set[w];
+		}
+		return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("CandidateValueIndex: size=")
+			.append(this.size)
+			.append(", words=")
+			.append(this.words)
+			.toString();
+	}
+}
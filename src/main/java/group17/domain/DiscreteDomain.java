@@ -0,0 +1,91 @@
+package group17.domain;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import genius.core.Bid;
+import genius.core.Domain;
+import genius.core.issue.Issue;
+import genius.core.issue.IssueDiscrete;
+import genius.core.issue.Objective;
+import genius.core.issue.Value;
+
+/**
+ * A {@link Domain} made up of a fixed list of discrete issues, for domains built outside Genius, e.g. generated or
+ * read from a profile.
+ */
+public class DiscreteDomain implements Domain {
+
+	private final String name;
+	private final List<Issue> issues;
+	private final long numberOfOutcomes;
+
+	/**
+	 * Create a domain.
+	 * @param name Domain name
+	 * @param issues Discrete issues
+	 */
+	public DiscreteDomain(final String name, final List<? extends IssueDiscrete> issues) {
+		this.name = name;
+		this.issues = Collections.unmodifiableList(issues);
+		long outcomes = 1L;
+		for (final IssueDiscrete issue : issues) {
+			final int numValues = issue.getNumberOfValues();
+			outcomes = (outcomes > 0L && outcomes <= Long.MAX_VALUE / numValues) ? outcomes * numValues : -1L;
+		}
+		this.numberOfOutcomes = outcomes;
+	}
+
+	@Override
+	public List<Objective> getObjectives() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Objective getObjectivesRoot() {
+		return null;
+	}
+
+	@Override
+	public List<Issue> getIssues() {
+		return this.issues;
+	}
+
+	@Override
+	public Bid getRandomBid(final Random random) {
+		final HashMap<Integer, Value> values = new HashMap<>();
+		for (final Issue issue : this.issues) {
+			final IssueDiscrete discrete = (IssueDiscrete) issue;
+			values.put(issue.getNumber(), discrete.getValue(random.nextInt(discrete.getNumberOfValues())));
+		}
+		return new Bid(this, values);
+	}
+
+	/**
+	 * Number of outcomes.
+	 * @return Number of outcomes, or -1 if it doesn't fit in a long
+	 */
+	@Override
+	public long getNumberOfPossibleBids() {
+		return this.numberOfOutcomes;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder(this.getClass().getSimpleName())
+			.append(": name=")
+			.append(this.name)
+			.append(", issues=")
+			.append(this.issues.size())
+			.append(", outcomes=")
+			.append(this.numberOfOutcomes)
+			.toString();
+	}
+}
@@ -0,0 +1,31 @@
+package group17.domain;
+
+import genius.core.Domain;
+import genius.core.issue.Issue;
+import genius.core.parties.NegotiationInfo;
+
+/**
+ * Features of a negotiation that hyperparameters are tuned against.
+ * @param issues Number of issues
+ * @param possibleBids Number of possible bids
+ * @param uncertainty Whether we have preference uncertainty
+ * @param elicitationCost Cost of eliciting a bid ranking, or zero without uncertainty
+ */
+public record DomainFeatures(int issues, long possibleBids, boolean uncertainty, double elicitationCost) {
+
+	/**
+	 * Get the features of a negotiation.
+	 * @param info Negotiation information
+	 * @return Features
+	 */
+	public static DomainFeatures of(final NegotiationInfo info) {
+		final Domain domain = (info.getUtilitySpace() != null) ? info.getUtilitySpace().getDomain() : info.getUserModel().getDomain();
+		int issues = 0;
+		for (final Issue issue : domain.getIssues()) {
+			issues += (issue != null) ? 1 : 0;
+		}
+		final boolean uncertainty = info.getUserModel() != null;
+		final double elicitationCost = (uncertainty && info.getUser() != null) ? info.getUser().getElicitationCost() : 0.0;
+		return new DomainFeatures(issues, domain.getNumberOfPossibleBids(), uncertainty, elicitationCost);
+	}
+}
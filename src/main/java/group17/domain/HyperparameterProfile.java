@@ -0,0 +1,42 @@
+package group17.domain;
+
+/**
+ * Hyperparameters tuned for domains with particular features.
+ * @param name Profile name
+ * @param issues Number of issues, or -1 if it doesn't matter
+ * @param possibleBids Number of possible bids
+ * @param uncertainty Whether the profile is for preference uncertainty, or null for both
+ * @param elicitationCost Elicitation cost, or -1 if it doesn't matter
+ * @param hyperparameters Hyperparameters
+ */
+public record HyperparameterProfile(String name, int issues, long possibleBids, Boolean uncertainty, double elicitationCost, 
+	HyperparameterProperties hyperparameters) {
+
+	/** Number of issues that counts as much as a factor of 10 in the number of bids. */
+	private static final double ISSUE_SCALE = 5.0;
+
+	/** Elicitation cost that counts as much as a factor of 10 in the number of bids. */
+	private static final double ELICITATION_COST_SCALE = 0.01;
+
+	/**
+	 * Does the profile apply to a negotiation with or without uncertainty?
+	 * @param features Negotiation features
+	 * @return True if it applies
+	 */
+	public boolean matches(final DomainFeatures features) {
+		return this.uncertainty == null || this.uncertainty == features.uncertainty();
+	}
+
+	/**
+	 * Distance from a negotiation's features, mainly by order of magnitude of the number of bids.
+	 * @param features Negotiation features
+	 * @return Distance
+	 */
+	public double distance(final DomainFeatures features) {
+		final double bids = Math.log10(Math.max(1L, this.possibleBids)) - Math.log10(Math.max(1L, features.possibleBids()));
+		final double issueCount = (this.issues >= 0) ? (this.issues - features.issues()) / ISSUE_SCALE : 0.0;
+		final double cost = (this.elicitationCost >= 0.0 && features.uncertainty()) 
+			? (this.elicitationCost - features.elicitationCost()) / ELICITATION_COST_SCALE : 0.0;
+		return Math.sqrt(bids * bids + issueCount * issueCount + cost * cost);
+	}
+}
@@ -11,21 +11,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Hyperparameter Properties, loaded from file at startup.
+ * Hyperparameter Properties, loaded from file at startup or created in memory (e.g. when tuning).
  * @author Martin Ingram
  */
 public class HyperparameterProperties {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(HyperparameterProperties.class);
 
-	protected static final String BOULWARE_BETA = "boulwareBeta";
-	protected static final String FILE_NAME = "hyperparameter.properties";
-	protected static final String FINISH_TIME = "finishTime";
-	protected static final String GIVE_UP_TIME = "giveUpTime";
-	protected static final String MAX_LIST_SIZE = "maxListSize";
-	protected static final String RECENT_BID_WINDOW = "recentBidWindow";
-	protected static final String TRANSITION_TIME = "transitionTime";
-	protected static final String MAX_ELICITATION_PENALTY = "maxElicitationPenalty";
+	public static final String BOULWARE_BETA = "boulwareBeta";
+	public static final String FILE_NAME = "hyperparameter.properties";
+	public static final String FINISH_TIME = "finishTime";
+	public static final String GIVE_UP_TIME = "giveUpTime";
+	public static final String MAX_LIST_SIZE = "maxListSize";
+	public static final String RECENT_BID_WINDOW = "recentBidWindow";
+	public static final String TRANSITION_TIME = "transitionTime";
+	public static final String MAX_ELICITATION_PENALTY = "maxElicitationPenalty";
+	public static final String ASYNC_OPPONENT_MODEL = "asyncOpponentModel";
+	public static final String DIAGNOSTICS = "diagnostics";
+	public static final String SPECULATIVE_PRECOMPUTE = "speculativePrecompute";
+	public static final String DECAYED_OPPONENT_MODEL = "decayedOpponentModel";
+	public static final String TRADE_OFF_SEARCH = "tradeOffSearch";
+	public static final String PAIR_INTERACTION_WEIGHT = "pairInteractionWeight";
 
 
 	private final double boulwareBeta;
@@ -35,23 +41,79 @@ public class HyperparameterProperties {
 	private final int recentBidWindow;
 	private final double transitionTime;
 	private final double maxElicitationPenalty;
+	private final boolean asyncOpponentModel;
+	private final boolean diagnostics;
+	private final boolean speculativePrecompute;
+	private final boolean decayedOpponentModel;
+	private final boolean tradeOffSearch;
+	private final double pairInteractionWeight;
 	
 	/**
-	 * Create Hyperparameter properties from a file on the classpath.
+	 * Create Hyperparameter properties from the file on the classpath. The file is only read once per JVM;
+	 * {@link #fromClasspath()} avoids creating a new instance as well.
 	 */
 	public HyperparameterProperties() {
-		this(FILE_NAME);
+		this(ClasspathProperties.PROPERTIES);
 	}
 		
 	protected HyperparameterProperties(final String fileName) {
-		final Properties properties = this.getPropertiesFromFile(fileName);
-		this.boulwareBeta = Double.parseDouble(properties.getProperty(BOULWARE_BETA, "0.1"));
-		this.finishTime = Double.parseDouble(properties.getProperty(FINISH_TIME, "0.4"));
-		this.giveUpTime = Double.parseDouble(properties.getProperty(GIVE_UP_TIME, "1.0"));
-		this.maxListSize = (int) Double.parseDouble(properties.getProperty(MAX_LIST_SIZE, "330"));
-		this.recentBidWindow = (int) Double.parseDouble(properties.getProperty(RECENT_BID_WINDOW, "10"));
-		this.transitionTime = Double.parseDouble(properties.getProperty(TRANSITION_TIME, "0.5"));
-		this.maxElicitationPenalty = Double.parseDouble(properties.getProperty(MAX_ELICITATION_PENALTY, "0.05"));
+		this(getPropertiesFromFile(fileName));
+	}
+
+	/**
+	 * Create Hyperparameter properties from in-memory properties. Missing properties take their default values.
+	 * @param properties Properties, keyed by the names used in the properties file
+	 */
+	public HyperparameterProperties(final Properties properties) {
+		this(new Builder(properties));
+	}
+
+	private HyperparameterProperties(final Builder builder) {
+		this.boulwareBeta = builder.boulwareBeta;
+		this.finishTime = builder.finishTime;
+		this.giveUpTime = builder.giveUpTime;
+		this.maxListSize = builder.maxListSize;
+		this.recentBidWindow = builder.recentBidWindow;
+		this.transitionTime = builder.transitionTime;
+		this.maxElicitationPenalty = builder.maxElicitationPenalty;
+		this.asyncOpponentModel = builder.asyncOpponentModel;
+		this.diagnostics = builder.diagnostics;
+		this.speculativePrecompute = builder.speculativePrecompute;
+		this.decayedOpponentModel = builder.decayedOpponentModel;
+		this.tradeOffSearch = builder.tradeOffSearch;
+		this.pairInteractionWeight = builder.pairInteractionWeight;
+	}
+
+	/**
+	 * The hyperparameters from the file on the classpath, read once per JVM and shared.
+	 * @return Hyperparameters
+	 */
+	public static HyperparameterProperties fromClasspath() {
+		return ClasspathProperties.HYPERPARAMETERS;
+	}
+
+	/**
+	 * The properties file on the classpath, read once per JVM, e.g. to read domain profiles from it.
+	 * @return Properties, which must not be changed
+	 */
+	static Properties classpathProperties() {
+		return ClasspathProperties.PROPERTIES;
+	}
+
+	/**
+	 * Start building hyperparameters from the hardcoded defaults.
+	 * @return Builder
+	 */
+	public static Builder builder() {
+		return new Builder(new Properties());
+	}
+
+	/**
+	 * Start building hyperparameters from these ones.
+	 * @return Builder
+	 */
+	public Builder toBuilder() {
+		return new Builder(this.toProperties());
 	}
 	
 	public double getBoulwareBeta() {
@@ -82,6 +144,61 @@ public class HyperparameterProperties {
 		return maxElicitationPenalty;
 	}
 
+	/**
+	 * Should opponent models be updated on a background thread?
+	 * This is a runtime switch rather than a tuned hyperparameter, so is not part of the CSV output.
+	 * @return True to update opponent models asynchronously
+	 */
+	public boolean isAsyncOpponentModel() {
+		return this.asyncOpponentModel;
+	}
+
+	/**
+	 * Should the agent record analytics and log its targets? This is resolved once when the agent is initialised;
+	 * in production mode none of that work is done. Like {@link #isAsyncOpponentModel()}, this is a runtime switch.
+	 * @return True for diagnostics mode, false for production mode
+	 */
+	public boolean isDiagnostics() {
+		return this.diagnostics;
+	}
+
+	/**
+	 * Should the agent prepare the next round on a background thread while the opponents take their turns?
+	 * Like {@link #isAsyncOpponentModel()}, this is a runtime switch.
+	 * @return True to precompute speculatively
+	 */
+	public boolean isSpeculativePrecompute() {
+		return this.speculativePrecompute;
+	}
+
+	/**
+	 * Should the recent opponent estimates decay exponentially, rather than use a window of recent bids?
+	 * Like {@link #isAsyncOpponentModel()}, this is a runtime switch.
+	 * @return True to model opponents with exponentially decayed counts
+	 */
+	public boolean isDecayedOpponentModel() {
+		return this.decayedOpponentModel;
+	}
+
+	/**
+	 * Should the agent make trade-off moves, offering the candidate most similar to the opponent's last offer?
+	 * Like {@link #isAsyncOpponentModel()}, this is a runtime switch.
+	 * @return True to search for trade-off bids
+	 */
+	public boolean isTradeOffSearch() {
+		return this.tradeOffSearch;
+	}
+
+	/**
+	 * Weight of the opponent models' pair interaction score, how much more often the opponent offers values together
+	 * than independent issues would predict. Zero turns it off, so no pairs are tracked; like 
+	 * {@link #isAsyncOpponentModel()}, it is not part of the CSV output.
+	 * @return Weight of the pair interaction score
+	 */
+	public double getPairInteractionWeight() {
+		return this.pairInteractionWeight;
+	}
+
 	/**
 	 * Dump the properties to the console and log file.
 	 */
@@ -132,16 +249,44 @@ public class HyperparameterProperties {
 			.append(MAX_LIST_SIZE).append("=").append(this.maxListSize).append(", ")
 			.append(RECENT_BID_WINDOW).append("=").append(this.recentBidWindow).append(", ")
 			.append(TRANSITION_TIME).append("=").append(this.transitionTime).append(",")
-			.append(MAX_ELICITATION_PENALTY).append("=").append(this.maxElicitationPenalty)
+			.append(MAX_ELICITATION_PENALTY).append("=").append(this.maxElicitationPenalty).append(", ")
+			.append(ASYNC_OPPONENT_MODEL).append("=").append(this.asyncOpponentModel).append(", ")
+			.append(DIAGNOSTICS).append("=").append(this.diagnostics).append(", ")
+			.append(SPECULATIVE_PRECOMPUTE).append("=").append(this.speculativePrecompute).append(", ")
+			.append(DECAYED_OPPONENT_MODEL).append("=").append(this.decayedOpponentModel).append(", ")
+			.append(TRADE_OFF_SEARCH).append("=").append(this.tradeOffSearch).append(", ")
+			.append(PAIR_INTERACTION_WEIGHT).append("=").append(this.pairInteractionWeight)
 			.append("]")
 			.toString();
 	}
 
+	/**
+	 * Convert back to properties, e.g. to save tuned values to the properties file.
+	 * @return Properties
+	 */
+	public Properties toProperties() {
+		final Properties properties = new Properties();
+		properties.setProperty(BOULWARE_BETA, String.valueOf(this.boulwareBeta));
+		properties.setProperty(FINISH_TIME, String.valueOf(this.finishTime));
+		properties.setProperty(GIVE_UP_TIME, String.valueOf(this.giveUpTime));
+		properties.setProperty(MAX_LIST_SIZE, String.valueOf(this.maxListSize));
+		properties.setProperty(RECENT_BID_WINDOW, String.valueOf(this.recentBidWindow));
+		properties.setProperty(TRANSITION_TIME, String.valueOf(this.transitionTime));
+		properties.setProperty(MAX_ELICITATION_PENALTY, String.valueOf(this.maxElicitationPenalty));
+		properties.setProperty(ASYNC_OPPONENT_MODEL, String.valueOf(this.asyncOpponentModel));
+		properties.setProperty(DIAGNOSTICS, String.valueOf(this.diagnostics));
+		properties.setProperty(SPECULATIVE_PRECOMPUTE, String.valueOf(this.speculativePrecompute));
+		properties.setProperty(DECAYED_OPPONENT_MODEL, String.valueOf(this.decayedOpponentModel));
+		properties.setProperty(TRADE_OFF_SEARCH, String.valueOf(this.tradeOffSearch));
+		properties.setProperty(PAIR_INTERACTION_WEIGHT, String.valueOf(this.pairInteractionWeight));
+		return properties;
+	}
+
 	/**
 	 * Load the properties file from the classpath.
 	 * @return Properties
 	 */
-	private Properties getPropertiesFromFile(final String fileName) {
+	private static Properties getPropertiesFromFile(final String fileName) {
 		final Properties properties = new Properties();
 		final ClassLoader loader = HyperparameterProperties.class.getClassLoader();
 		try (final InputStream input = loader.getResourceAsStream(fileName)) {
@@ -152,4 +297,117 @@ public class HyperparameterProperties {
 		}
 		return properties;
 	}
+
+	/**
+	 * The file on the classpath, loaded when first used.
+	 */
+	private static final class ClasspathProperties {
+		private static final Properties PROPERTIES = getPropertiesFromFile(FILE_NAME);
+		private static final HyperparameterProperties HYPERPARAMETERS = new HyperparameterProperties(PROPERTIES);
+	}
+
+	/**
+	 * Builds immutable {@link HyperparameterProperties}, e.g. for tuning, without any file I/O.
+	 */
+	public static final class Builder {
+
+		private double boulwareBeta;
+		private double finishTime;
+		private double giveUpTime;
+		private int maxListSize;
+		private int recentBidWindow;
+		private double transitionTime;
+		private double maxElicitationPenalty;
+		private boolean asyncOpponentModel;
+		private boolean diagnostics;
+		private boolean speculativePrecompute;
+		private boolean decayedOpponentModel;
+		private boolean tradeOffSearch;
+		private double pairInteractionWeight;
+
+		private Builder(final Properties properties) {
+			this.boulwareBeta = Double.parseDouble(properties.getProperty(BOULWARE_BETA, "0.1"));
+			this.finishTime = Double.parseDouble(properties.getProperty(FINISH_TIME, "0.4"));
+			this.giveUpTime = Double.parseDouble(properties.getProperty(GIVE_UP_TIME, "1.0"));
+			this.maxListSize = (int) Double.parseDouble(properties.getProperty(MAX_LIST_SIZE, "330"));
+			this.recentBidWindow = (int) Double.parseDouble(properties.getProperty(RECENT_BID_WINDOW, "10"));
+			this.transitionTime = Double.parseDouble(properties.getProperty(TRANSITION_TIME, "0.5"));
+			this.maxElicitationPenalty = Double.parseDouble(properties.getProperty(MAX_ELICITATION_PENALTY, "0.05"));
+			this.asyncOpponentModel = Boolean.parseBoolean(properties.getProperty(ASYNC_OPPONENT_MODEL, "false"));
+			this.diagnostics = Boolean.parseBoolean(properties.getProperty(DIAGNOSTICS, "false"));
+			this.speculativePrecompute = Boolean.parseBoolean(properties.getProperty(SPECULATIVE_PRECOMPUTE, "false"));
+			this.decayedOpponentModel = Boolean.parseBoolean(properties.getProperty(DECAYED_OPPONENT_MODEL, "false"));
+			this.tradeOffSearch = Boolean.parseBoolean(properties.getProperty(TRADE_OFF_SEARCH, "false"));
+			this.pairInteractionWeight = Double.parseDouble(properties.getProperty(PAIR_INTERACTION_WEIGHT, "0.0"));
+		}
+
+		public Builder boulwareBeta(final double value) {
+			this.boulwareBeta = value;
+			return this;
+		}
+
+		public Builder finishTime(final double value) {
+			this.finishTime = value;
+			return this;
+		}
+
+		public Builder giveUpTime(final double value) {
+			this.giveUpTime = value;
+			return this;
+		}
+
+		public Builder maxListSize(final int value) {
+			this.maxListSize = value;
+			return this;
+		}
+
+		public Builder recentBidWindow(final int value) {
+			this.recentBidWindow = value;
+			return this;
+		}
+
+		public Builder transitionTime(final double value) {
+			this.transitionTime = value;
+			return this;
+		}
+
+		public Builder maxElicitationPenalty(final double value) {
+			this.maxElicitationPenalty = value;
+			return this;
+		}
+
+		public Builder asyncOpponentModel(final boolean value) {
+			this.asyncOpponentModel = value;
+			return this;
+		}
+
+		public Builder diagnostics(final boolean value) {
+			this.diagnostics = value;
+			return this;
+		}
+
+		public Builder speculativePrecompute(final boolean value) {
+			this.speculativePrecompute = value;
+			return this;
+		}
+
+		public Builder decayedOpponentModel(final boolean value) {
+			this.decayedOpponentModel = value;
+			return this;
+		}
+
+		public Builder tradeOffSearch(final boolean value) {
+			this.tradeOffSearch = value;
+			return this;
+		}
+
+		public Builder pairInteractionWeight(final double value) {
+			this.pairInteractionWeight = value;
+			return this;
+		}
+
+		public HyperparameterProperties build() {
+			return new HyperparameterProperties(this);
+		}
+	}
 }
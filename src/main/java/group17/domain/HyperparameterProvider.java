@@ -0,0 +1,36 @@
+package group17.domain;
+
+import genius.core.parties.NegotiationInfo;
+
+/**
+ * Supplies an agent's hyperparameters when it is initialised, so they can be injected rather than always read
+ * from the properties file, e.g. to run concurrent sessions with different hyperparameters.
+ */
+@FunctionalInterface
+public interface HyperparameterProvider {
+
+	/**
+	 * Get the hyperparameters for a negotiation.
+	 * @param info Negotiation information
+	 * @return Hyperparameters
+	 */
+	HyperparameterProperties getHyperparameters(NegotiationInfo info);
+
+	/**
+	 * The hyperparameters from the properties file on the classpath, read once per JVM, adapted to each domain
+	 * by any profiles in the file (see {@link AdaptiveHyperparameters}).
+	 * @return Provider
+	 */
+	static HyperparameterProvider classpath() {
+		return AdaptiveHyperparameters.fromClasspath();
+	}
+
+	/**
+	 * The same hyperparameters for every negotiation.
+	 * @param hyperparameters Hyperparameters
+	 * @return Provider
+	 */
+	static HyperparameterProvider of(final HyperparameterProperties hyperparameters) {
+		return info -> hyperparameters;
+	}
+}
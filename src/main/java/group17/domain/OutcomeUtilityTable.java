@@ -0,0 +1,300 @@
+package group17.domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.Bid;
+import genius.core.utility.AbstractUtilitySpace;
+import genius.core.utility.AdditiveUtilitySpace;
+
+/**
+ * Our utility for every outcome of a domain, as a float by {@link BidEncoder} outcome index, with the outcome
+ * indices sorted by utility alongside. Tables are cached on disk, keyed by a hash of the domain and the utility
+ * profile, and memory mapped read-only, so later sessions (and other JVMs in the same tournament) don't evaluate
+ * the whole outcome space again.
+ * <p>
+ * The profile is identified by the utility of the first outcome, and of each outcome that differs from it in one
+ * issue. This identifies an additive profile exactly, without evaluating every outcome, but not any other kind, so
+ * only additive utility spaces are tabulated.
+ * <p>
+ * A cache file holds a header (magic, version, key and number of outcomes), the utilities, then the outcome indices
+ * in descending order of utility, ties in ascending index order. It is written to a temporary file and moved into
+ * place, so a reader never sees a partial table, and a file that another JVM has mapped is never truncated.
+ * The cache is off unless {@code -Dgroup17.outcomes.enabled=true} is set, as each file can be tens of megabytes.
+ * Files go in a directory under {@code java.io.tmpdir}, unless {@code -Dgroup17.outcomes.dir=...} chooses another.
+ */
+public final class OutcomeUtilityTable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OutcomeUtilityTable.class);
+
+	public static final String ENABLED_PROPERTY = "group17.outcomes.enabled";
+	public static final String DIRECTORY_PROPERTY = "group17.outcomes.dir";
+	/** The cache directory under {@code java.io.tmpdir}, unless another is chosen. */
+	public static final String DEFAULT_DIRECTORY = "group17-outcomes";
+
+	/** The largest outcome space that is tabulated: 32 MB of utilities and indices. */
+	public static final long MAX_OUTCOMES = 1L << 22;
+
+	static final int MAGIC = 0x4F555437;
+	static final int VERSION = 1;
+	private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final BidEncoder encoder;
+	private final long key;
+	private final int size;
+	private final ByteBuffer buffer;
+	private final boolean cached;
+
+	private OutcomeUtilityTable(final BidEncoder encoder, final long key, final ByteBuffer buffer, final boolean cached) {
+		this.encoder = encoder;
+		this.key = key;
+		this.size = (int) encoder.getNumberOfOutcomes();
+		this.buffer = buffer;
+		this.cached = cached;
+	}
+
+	/**
+	 * Load the table for a utility space from the cache directory set by the system properties, tabulating and
+	 * caching it if it isn't there.
+	 * @param space Our utility space
+	 * @return Table, or null if the cache is not turned on, the space is not additive, or the outcome space is too
+	 *         large to tabulate
+	 */
+	public static OutcomeUtilityTable load(final AbstractUtilitySpace space) {
+		if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+			return null;
+		}
+		final String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return load(space, (directory != null) ? Paths.get(directory) : Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_DIRECTORY));
+	}
+
+	/**
+	 * Load the table for a utility space from a cache directory, tabulating and caching it if it isn't there.
+	 * If the cache can't be written, the table is kept in memory instead.
+	 * @param space Our utility space
+	 * @param directory Cache directory
+	 * @return Table, or null if the space is not additive or the outcome space is too large to tabulate
+	 */
+	public static OutcomeUtilityTable load(final AbstractUtilitySpace space, final Path directory) {
+		if (!(space instanceof AdditiveUtilitySpace)) {
+			return null;
+		}
+		final BidEncoder encoder = new BidEncoder(space.getDomain());
+		final long outcomes = encoder.getNumberOfOutcomes();
+		if (outcomes <= 0L || outcomes > MAX_OUTCOMES) {
+			return null;
+		}
+		final long key = key((AdditiveUtilitySpace) space, encoder);
+		final Path file = directory.resolve(String.format("outcomes-%016x.bin", key));
+		if (Files.isRegularFile(file)) {
+			try {
+				final ByteBuffer mapped = map(file);
+				if (isValid(mapped, key, outcomes)) {
+					return new OutcomeUtilityTable(encoder, key, mapped, true);
+				}
+				LOG.warn("Ignoring invalid outcome utility table {}", file);
+			} catch (IOException ioe) {
+				LOG.warn("Error reading outcome utility table " + file + ": ", ioe);
+			}
+		}
+		final ByteBuffer table = tabulate(space, encoder, key);
+		try {
+			Files.createDirectories(directory);
+			final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				while (table.hasRemaining()) {
+					channel.write(table);
+				}
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return new OutcomeUtilityTable(encoder, key, map(file), false);
+		} catch (IOException ioe) {
+			LOG.warn("Error caching outcome utility table " + file + ": ", ioe);
+			return new OutcomeUtilityTable(encoder, key, table.rewind(), false);
+		}
+	}
+
+	/**
+	 * Hash the domain and the additive utility profile into a cache key.
+	 * @param space Utility space
+	 * @param encoder Bid encoder for its domain
+	 * @return Key
+	 */
+	static long key(final AdditiveUtilitySpace space, final BidEncoder encoder) {
+		long hash = hash(FNV_OFFSET, space.getClass().getName());
+		final int[] codes = new int[encoder.getNumberOfIssues()];
+		hash = hash(hash, Double.doubleToLongBits(utility(space, encoder.decode(codes))));
+		for (int i = 0; i < codes.length; i++) {
+			hash = hash(hash, encoder.getIssueName(i));
+			for (int v = 0; v < encoder.getNumberOfValues(i); v++) {
+				hash = hash(hash, encoder.getValueName(i, v));
+				codes[i] = v;
+				hash = hash(hash, Double.doubleToLongBits(utility(space, encoder.decode(codes))));
+			}
+			codes[i] = 0;
+		}
+		return hash;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public long getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Was the table read from the cache, rather than tabulated in this session?
+	 * @return True if cached
+	 */
+	public boolean isCached() {
+		return this.cached;
+	}
+
+	/**
+	 * Get our utility for an outcome.
+	 * @param index Outcome index
+	 * @return Utility
+	 */
+	public float getUtility(final long index) {
+		return this.buffer.getFloat(HEADER_BYTES + (int) index * Float.BYTES);
+	}
+
+	/**
+	 * Get the outcome with a rank.
+	 * @param rank Rank, from 0 (highest utility) to {@code size() - 1}
+	 * @return Outcome index
+	 */
+	public int getIndexAtRank(final int rank) {
+		return this.buffer.getInt(HEADER_BYTES + (this.size + rank) * Integer.BYTES);
+	}
+
+	/**
+	 * Get the outcome with a rank as a bid.
+	 * @param rank Rank, from 0 (highest utility) to {@code size() - 1}
+	 * @return Bid
+	 */
+	public Bid getBidAtRank(final int rank) {
+		return this.encoder.decode(this.getIndexAtRank(rank));
+	}
+
+	/**
+	 * Get the outcome with the highest utility.
+	 * @return Bid
+	 */
+	public Bid getMaxUtilityBid() {
+		return this.getBidAtRank(0);
+	}
+
+	/**
+	 * Count the outcomes with at least a utility, i.e. the ranks above it.
+	 * @param utility Utility
+	 * @return Number of outcomes
+	 */
+	public int countAtLeast(final double utility) {
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.getUtility(this.getIndexAtRank(middle)) >= utility) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Evaluate every outcome and sort them, into the cache file layout.
+	 * @return Buffer holding the whole file, positioned at the start
+	 */
+	private static ByteBuffer tabulate(final AbstractUtilitySpace space, final BidEncoder encoder, final long key) {
+		final int size = (int) encoder.getNumberOfOutcomes();
+		final ByteBuffer table = ByteBuffer.allocate(HEADER_BYTES + size * (Float.BYTES + Integer.BYTES));
+		table.putInt(MAGIC).putInt(VERSION).putLong(key).putLong(size);
+		final int[] codes = new int[encoder.getNumberOfIssues()];
+		// Sort on the float's bits, flipped so that ascending keys give descending utility, then on the index.
+		final long[] keys = new long[size];
+		for (int index = 0; index < size; index++) {
+			final float utility = (float) utility(space, encoder.decode(encoder.codes(index, codes)));
+			table.putFloat(utility);
+			final int bits = Float.floatToIntBits(utility);
+			final int sortable = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+			keys[index] = ((long) ~sortable << 32) | index;
+		}
+		Arrays.sort(keys);
+		for (final long sorted : keys) {
+			table.putInt((int) sorted);
+		}
+		return table.flip();
+	}
+
+	private static ByteBuffer map(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(MapMode.READ_ONLY, 0L, channel.size());
+		}
+	}
+
+	private static boolean isValid(final ByteBuffer buffer, final long key, final long outcomes) {
+		return buffer.capacity() == HEADER_BYTES + outcomes * (Float.BYTES + Integer.BYTES)
+			&& buffer.getInt(0) == MAGIC
+			&& buffer.getInt(Integer.BYTES) == VERSION
+			&& buffer.getLong(2 * Integer.BYTES) == key
+			&& buffer.getLong(2 * Integer.BYTES + Long.BYTES) == outcomes;
+	}
+
+	/**
+	 * Get the utility for a bid, or zero if anything goes wrong, as {@link BidSelector} does.
+	 */
+	private static double utility(final AbstractUtilitySpace space, final Bid bid) {
+		try {
+			return space.getUtility(bid);
+		} catch (Exception e) {
+			return 0.0;
+		}
+	}
+
+	private static long hash(final long hash, final String value) {
+		long result = hash;
+		for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			result = (result ^ (b & 0xff)) * FNV_PRIME;
+		}
+		return (result ^ 0xff) * FNV_PRIME;
+	}
+
+	private static long hash(final long hash, final long value) {
+		long result = hash;
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+			result = (result ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("OutcomeUtilityTable: size=")
+			.append(this.size)
+			.append(", key=")
+			.append(Long.toHexString(this.key))
+			.append(", cached=")
+			.append(this.cached)
+			.toString();
+	}
+}
@@ -0,0 +1,115 @@
+package group17.domain;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs speculative work on a background thread while we are otherwise idle, e.g. during the opponents' turns.
+ * A result should record the version of the state it was computed from; it is only used if it is still valid
+ * for the current state when it is taken, and is otherwise discarded.
+ * <p>
+ * Only one task runs at a time. The task may read and write the owner's state, so the owner must call
+ * {@link #join()} before touching that state itself; this also makes the task's writes visible to the owner.
+ * @param <T> Result type
+ */
+public class Speculation<T> implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(Speculation.class);
+
+	private final ExecutorService worker;
+	private Future<T> pending;
+	private T result;
+	private int used = 0;
+	private int discarded = 0;
+
+	/**
+	 * Create a speculation stage with its own daemon worker thread.
+	 * @param threadName Name of the worker thread
+	 */
+	public Speculation(final String threadName) {
+		this.worker = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Start a task, once any previous task has finished. Any result not yet taken is replaced.
+	 * @param task Task
+	 */
+	public void submit(final Callable<T> task) {
+		this.join();
+		this.result = null;
+		this.pending = this.worker.submit(task);
+	}
+
+	/**
+	 * Wait for the running task, if any, to finish. A task that failed leaves no result.
+	 */
+	public void join() {
+		if (this.pending == null) {
+			return;
+		}
+		try {
+			this.result = this.pending.get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ee) {
+			LOG.error("Error in speculative task: ", ee);
+		}
+		this.pending = null;
+	}
+
+	/**
+	 * Wait for the running task and take its result, if it is still valid.
+	 * @param valid Is the result still valid for the current state?
+	 * @return Result, or null if there is none or it is out of date
+	 */
+	public T take(final Predicate<? super T> valid) {
+		this.join();
+		final T taken = this.result;
+		this.result = null;
+		if (taken == null) {
+			return null;
+		}
+		if (!valid.test(taken)) {
+			this.discarded++;
+			return null;
+		}
+		this.used++;
+		return taken;
+	}
+
+	public int getUsed() {
+		return this.used;
+	}
+
+	public int getDiscarded() {
+		return this.discarded;
+	}
+
+	/**
+	 * Stop the worker thread, abandoning any running task.
+	 */
+	@Override
+	public void close() {
+		this.worker.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("Speculation: used=")
+			.append(this.used)
+			.append(", discarded=")
+			.append(this.discarded)
+			.toString();
+	}
+}
@@ -0,0 +1,175 @@
+package group17.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the candidates above a utility threshold that are most similar to a bid, typically the opponent's last
+ * offer, for a trade-off move. Similarity is a weighted Hamming distance: the sum of the weights (e.g. the
+ * opponent's estimated issue weights) of the issues on which a candidate differs from the bid.
+ * <p>
+ * The search works on sets of candidates from a {@link CandidateValueIndex}, rather than on one candidate at a time.
+ * Issues are decided in descending order of weight; deciding an issue splits a set into the candidates that match
+ * the bid on it, at no cost, and those that don't, at the issue's weight. The partial distance of a set is a lower
+ * bound for every candidate in it, so sets are expanded best first, and the search stops as soon as the k nearest
+ * candidates are found; sets that could only hold further candidates are never expanded. Each expansion is a few
+ * word-wise operations, and on typical domains, where the heavy issues split the candidates early, only a small
+ * fraction of the possible sets is ever expanded.
+ * <p>
+ * Candidates at the same distance are returned in descending order of our utility.
+ */
+public final class TradeOffSearch {
+
+	public static final int DEFAULT_NEIGHBOURS = 5;
+
+	private final CandidateIndex candidates;
+	private final CandidateValueIndex values;
+	private final int numIssues;
+	private int expanded = 0;
+
+	/**
+	 * Create a search over candidates.
+	 * @param candidates Candidate index
+	 * @param values Value index over the same candidates
+	 */
+	public TradeOffSearch(final CandidateIndex candidates, final CandidateValueIndex values) {
+		this.candidates = candidates;
+		this.values = values;
+		this.numIssues = values.getEncoder().getNumberOfIssues();
+	}
+
+	/**
+	 * Number of sets expanded by the last search.
+	 * @return Sets expanded
+	 */
+	public int getExpanded() {
+		return this.expanded;
+	}
+
+	/**
+	 * Find the candidates nearest to a bid among those with our utility strictly above a threshold.
+	 * @param codes Value codes of the bid
+	 * @param weights Weight of each issue, by issue position; none may be negative
+	 * @param threshold Threshold
+	 * @param k Number of candidates to find
+	 * @return Candidate indices, nearest first; fewer than k if there are fewer above the threshold
+	 */
+	public int[] nearest(final int[] codes, final double[] weights, final double threshold, final int k) {
+		this.expanded = 0;
+		final long[] above = this.values.retainFrom(this.values.allCandidates(), this.candidates.firstAbove(threshold));
+		if (k <= 0 || CandidateValueIndex.count(above) == 0) {
+			return new int[0];
+		}
+		final int[] found = new int[k];
+		int size = 0;
+		final int[] order = this.issueOrder(weights);
+		final PriorityQueue<Node> queue = new PriorityQueue<>(
+			Comparator.comparingDouble(Node::distance).thenComparingLong(Node::sequence));
+		long sequence = 0L;
+		queue.add(new Node(0.0, 0, above, sequence++));
+		// Every set at the same distance is expanded before any candidates at that distance are taken.
+		long[] tied = null;
+		double tiedDistance = 0.0;
+		while (!queue.isEmpty() && size < k) {
+			if (tied != null && queue.peek().distance() > tiedDistance) {
+				size = this.addDescending(tied, found, size);
+				tied = null;
+				continue;
+			}
+			final Node node = queue.poll();
+			this.expanded++;
+			if (node.depth() == this.numIssues) {
+				if (tied == null) {
+					tied = node.set();
+					tiedDistance = node.distance();
+				} else {
+					for (int w = 0; w < tied.length; w++) {
+						tied[w] |= node.set()[w];
+					}
+				}
+				continue;
+			}
+			final int position = order[node.depth()];
+			final int code = codes[position];
+			final long[] match = node.set().clone();
+			this.values.retainWith(match, position, code);
+			final long[] differ = this.values.removeWith(node.set(), position, code);
+			if (CandidateValueIndex.count(match) > 0) {
+				queue.add(new Node(node.distance(), node.depth() + 1, match, sequence++));
+			}
+			if (CandidateValueIndex.count(differ) > 0) {
+				queue.add(new Node(node.distance() + weights[position], node.depth() + 1, differ, sequence++));
+			}
+		}
+		if (tied != null && size < k) {
+			size = this.addDescending(tied, found, size);
+		}
+		return (size == k) ? found : Arrays.copyOf(found, size);
+	}
+
+	/**
+	 * Weighted Hamming distance between a candidate and a bid.
+	 * @param candidate Candidate index
+	 * @param codes Value codes of the bid
+	 * @param weights Weight of each issue, by issue position
+	 * @return Distance
+	 */
+	public double distance(final int candidate, final int[] codes, final double[] weights) {
+		double distance = 0.0;
+		for (int i = 0; i < this.numIssues; i++) {
+			if (codes[i] < 0 || !this.values.includes(i, codes[i], candidate)) {
+				distance += weights[i];
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * Issue positions in descending order of weight, ties in position order.
+	 */
+	private int[] issueOrder(final double[] weights) {
+		final Integer[] order = new Integer[this.numIssues];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer i) -> weights[i]).reversed());
+		return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Add the candidates in a set, all at the same distance, in descending order of our utility (i.e. index).
+	 * @return New number of candidates found
+	 */
+	private int addDescending(final long[] set, final int[] found, final int size) {
+		int added = size;
+		for (int w = set.length - 1; w >= 0 && added < found.length; w--) {
+			long word = set[w];
+			while (word != 0L && added < found.length) {
+				final int bit = Long.SIZE - 1 - Long.numberOfLeadingZeros(word);
+				found[added++] = w * Long.SIZE + bit;
+				word &= ~(1L << bit);
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * A set of candidates that match the bid on the first {@code depth} issues decided as the path to it says.
+	 * @param distance Partial distance: the weight of the issues decided so far on which they differ
+	 * @param depth Number of issues decided
+	 * @param set Candidates
+	 * @param sequence Order of creation, to break ties
+	 */
+	private record Node(double distance, int depth, long[] set, long sequence) {
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("TradeOffSearch: candidates=")
+			.append(this.candidates.size())
+			.append(", issues=")
+			.append(this.numIssues)
+			.toString();
+	}
+}
@@ -0,0 +1,36 @@
+package group17.domain.synthetic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import genius.core.issue.IssueDiscrete;
+import group17.domain.DiscreteDomain;
+
+/**
+ * A generated domain of discrete issues, for tests, benchmarks and simulation.
+ * Issues are numbered from 1 and named "Issue i"; values are named "Value i.v".
+ */
+public class SyntheticDomain extends DiscreteDomain {
+
+	/**
+	 * Create a domain with the same number of values for every issue.
+	 * @param name Domain name
+	 * @param numIssues Number of issues
+	 * @param numValues Number of values per issue
+	 */
+	public SyntheticDomain(final String name, final int numIssues, final int numValues) {
+		super(name, createIssues(numIssues, numValues));
+	}
+
+	private static List<IssueDiscrete> createIssues(final int numIssues, final int numValues) {
+		final List<IssueDiscrete> issues = new ArrayList<>(numIssues);
+		for (int i = 1; i <= numIssues; i++) {
+			final String[] values = new String[numValues];
+			for (int v = 1; v <= numValues; v++) {
+				values[v - 1] = "Value " + i + "." + v;
+			}
+			issues.add(new IssueDiscrete("Issue " + i, i, values));
+		}
+		return issues;
+	}
+}
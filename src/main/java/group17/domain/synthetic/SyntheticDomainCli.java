@@ -0,0 +1,60 @@
+package group17.domain.synthetic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point for the {@link SyntheticDomainGenerator}. Prints a summary of the generated scenario,
+ * and optionally writes the domain and profile as Genius XML.
+ * <p>
+ * Usage: {@code SyntheticDomainCli [--issues n] [--values n] [--skew s] [--noise s] [--ranking n] [--seed n] [--out dir]}
+ */
+public final class SyntheticDomainCli {
+
+	private SyntheticDomainCli() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) throws IOException {
+		int issues = SyntheticDomainSpec.DEFAULT_ISSUES;
+		int values = SyntheticDomainSpec.DEFAULT_VALUES;
+		double skew = SyntheticDomainSpec.DEFAULT_WEIGHT_SKEW;
+		double noise = SyntheticDomainSpec.DEFAULT_RANKING_NOISE;
+		int ranking = SyntheticDomainSpec.DEFAULT_RANKING_LENGTH;
+		long seed = SyntheticDomainSpec.DEFAULT_SEED;
+		Path out = null;
+		for (int a = 0; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--issues" -> issues = Integer.parseInt(value);
+				case "--values" -> values = Integer.parseInt(value);
+				case "--skew" -> skew = Double.parseDouble(value);
+				case "--noise" -> noise = Double.parseDouble(value);
+				case "--ranking" -> ranking = Integer.parseInt(value);
+				case "--seed" -> seed = Long.parseLong(value);
+				case "--out" -> out = Paths.get(value);
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		final SyntheticDomainSpec spec = new SyntheticDomainSpec(issues, values, skew, noise, ranking, seed);
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(spec).generate();
+		System.out.println(scenario.domain());
+		System.out.println("Ranking: " + scenario.ranking().getSize() + " bids, utility " 
+			+ scenario.ranking().getLowUtility() + " to " + scenario.ranking().getHighUtility());
+		if (out != null) {
+			Files.createDirectories(out);
+			final SyntheticDomainWriter writer = new SyntheticDomainWriter(scenario.profile());
+			final String name = scenario.domain().getName();
+			writer.writeDomain(out.resolve(name + ".xml"));
+			writer.writeProfile(out.resolve(name + "_utility.xml"));
+			System.out.println("Wrote " + out.resolve(name + ".xml") + " and " + out.resolve(name + "_utility.xml"));
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package group17.domain.synthetic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import genius.core.Bid;
+import genius.core.uncertainty.BidRanking;
+import genius.core.uncertainty.UserModel;
+import group17.domain.BidEncoder;
+
+/**
+ * Generates domains, preference profiles and bid rankings from a {@link SyntheticDomainSpec}, for scale testing.
+ * Every part is drawn from its own random stream derived from the seed, so the same spec always gives the same
+ * scenario, and e.g. changing the ranking noise doesn't change the profile.
+ * Rankings are sampled without enumerating the outcome space, so domains with millions of outcomes are cheap.
+ */
+public class SyntheticDomainGenerator {
+
+	private static final long PROFILE_STREAM = 0x5DEECE66DL;
+	private static final long RANKING_STREAM = 0x9E3779B97F4A7C15L;
+
+	private final SyntheticDomainSpec spec;
+
+	/**
+	 * Create a generator.
+	 * @param spec Spec to generate from
+	 */
+	public SyntheticDomainGenerator(final SyntheticDomainSpec spec) {
+		this.spec = spec;
+	}
+
+	public SyntheticDomainSpec getSpec() {
+		return this.spec;
+	}
+
+	/**
+	 * Generate the domain, profile, utility space, ranking and user model.
+	 * @return Scenario
+	 */
+	public SyntheticScenario generate() {
+		final SyntheticDomain domain = this.generateDomain();
+		final SyntheticProfile profile = this.generateProfile(domain);
+		final BidRanking ranking = this.generateRanking(profile);
+		return new SyntheticScenario(this.spec, domain, profile, profile.toUtilitySpace(), ranking, new UserModel(ranking));
+	}
+
+	/**
+	 * Generate the domain.
+	 * @return Domain
+	 */
+	public SyntheticDomain generateDomain() {
+		final String name = "synthetic_" + this.spec.issues() + "x" + this.spec.values() + "_" + this.spec.seed();
+		return new SyntheticDomain(name, this.spec.issues(), this.spec.values());
+	}
+
+	/**
+	 * Generate a preference profile. Issue weights follow a Zipf-like distribution, weight(r) = r^-skew for the
+	 * r'th most important issue, shuffled across the issues. Each issue's evaluations are uniform random, scaled so
+	 * the best value is 1.
+	 * @param domain Domain
+	 * @return Profile
+	 */
+	public SyntheticProfile generateProfile(final SyntheticDomain domain) {
+		final Random random = new Random(this.spec.seed() ^ PROFILE_STREAM);
+		final BidEncoder encoder = new BidEncoder(domain);
+		final int numIssues = encoder.getNumberOfIssues();
+
+		final double[] weights = new double[numIssues];
+		double total = 0.0;
+		for (int r = 0; r < numIssues; r++) {
+			weights[r] = Math.pow(r + 1, -this.spec.weightSkew());
+			total += weights[r];
+		}
+		for (int i = numIssues - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final double swap = weights[i];
+			weights[i] = weights[j];
+			weights[j] = swap;
+		}
+		for (int i = 0; i < numIssues; i++) {
+			weights[i] /= total;
+		}
+
+		final double[][] evaluations = new double[numIssues][];
+		for (int i = 0; i < numIssues; i++) {
+			final int numValues = encoder.getNumberOfValues(i);
+			evaluations[i] = new double[numValues];
+			double max = 0.0;
+			for (int v = 0; v < numValues; v++) {
+				evaluations[i][v] = random.nextDouble();
+				max = Math.max(max, evaluations[i][v]);
+			}
+			for (int v = 0; v < numValues; v++) {
+				evaluations[i][v] = (max > 0.0) ? evaluations[i][v] / max : 1.0;
+			}
+		}
+		return new SyntheticProfile(encoder, weights, evaluations);
+	}
+
+	/**
+	 * Generate a ranking of distinct bids, ordered from lowest to highest utility after adding Gaussian noise
+	 * with the spec's standard deviation. The ranking's low and high utilities are the true utilities of the
+	 * first and last bids.
+	 * @param profile Profile to rank by
+	 * @return Bid ranking
+	 */
+	public BidRanking generateRanking(final SyntheticProfile profile) {
+		final Random random = new Random(this.spec.seed() ^ RANKING_STREAM);
+		final BidEncoder encoder = profile.getEncoder();
+		final List<int[]> outcomes = this.sampleOutcomes(encoder, random);
+
+		final int size = outcomes.size();
+		final double[] utilities = new double[size];
+		final double[] noisyUtilities = new double[size];
+		final Integer[] order = new Integer[size];
+		for (int k = 0; k < size; k++) {
+			utilities[k] = profile.getUtility(outcomes.get(k));
+			noisyUtilities[k] = utilities[k] + (this.spec.rankingNoise() * random.nextGaussian());
+			order[k] = k;
+		}
+		Arrays.sort(order, Comparator.comparingDouble(k -> noisyUtilities[k]));
+
+		final List<Bid> bids = new ArrayList<>(size);
+		for (final int k : order) {
+			bids.add(encoder.decode(outcomes.get(k)));
+		}
+		return new BidRanking(bids, utilities[order[0]], utilities[order[size - 1]]);
+	}
+
+	/**
+	 * Sample distinct outcomes for the ranking. Small or densely sampled outcome spaces are shuffled; otherwise
+	 * outcomes are drawn at random and duplicates rejected. Outcome spaces too large to index can't realistically
+	 * produce duplicates, so aren't checked.
+	 */
+	private List<int[]> sampleOutcomes(final BidEncoder encoder, final Random random) {
+		final long numOutcomes = encoder.getNumberOfOutcomes();
+		final int length = (numOutcomes == BidEncoder.NO_INDEX) ? this.spec.rankingLength() 
+			: (int) Math.min(this.spec.rankingLength(), numOutcomes);
+		final List<int[]> outcomes = new ArrayList<>(length);
+
+		if (numOutcomes != BidEncoder.NO_INDEX && numOutcomes <= 2L * length) {
+			final long[] indices = new long[(int) numOutcomes];
+			for (int k = 0; k < indices.length; k++) {
+				indices[k] = k;
+			}
+			for (int k = 0; k < length; k++) {
+				final int j = k + random.nextInt(indices.length - k);
+				final long swap = indices[k];
+				indices[k] = indices[j];
+				indices[j] = swap;
+				outcomes.add(encoder.codes(indices[k], new int[encoder.getNumberOfIssues()]));
+			}
+			return outcomes;
+		}
+
+		final Set<Long> seen = new HashSet<>();
+		while (outcomes.size() < length) {
+			final int[] codes = new int[encoder.getNumberOfIssues()];
+			for (int i = 0; i < codes.length; i++) {
+				codes[i] = random.nextInt(encoder.getNumberOfValues(i));
+			}
+			final long index = encoder.index(codes);
+			if (index == BidEncoder.NO_INDEX || seen.add(index)) {
+				outcomes.add(codes);
+			}
+		}
+		return outcomes;
+	}
+
+	@Override
+	public String toString() {
+		return "SyntheticDomainGenerator: spec=" + this.spec;
+	}
+}
@@ -0,0 +1,55 @@
+package group17.domain.synthetic;
+
+/**
+ * Parameters for a generated domain, its utility space and a bid ranking.
+ * @param issues Number of discrete issues
+ * @param values Number of values per issue
+ * @param weightSkew Skew of the issue weights: 0 for equal weights, larger for a few dominant issues
+ * @param rankingNoise Standard deviation of the noise added to utilities when ranking bids, 0 for a perfect ranking
+ * @param rankingLength Number of bids in the ranking (capped at the number of outcomes)
+ * @param seed Random seed; the same spec always generates the same scenario
+ */
+public record SyntheticDomainSpec(int issues, int values, double weightSkew, double rankingNoise, int rankingLength, long seed) {
+
+	public static final int DEFAULT_ISSUES = 5;
+	public static final int DEFAULT_VALUES = 5;
+	public static final double DEFAULT_WEIGHT_SKEW = 1.0;
+	public static final double DEFAULT_RANKING_NOISE = 0.0;
+	public static final int DEFAULT_RANKING_LENGTH = 20;
+	public static final long DEFAULT_SEED = 17L;
+
+	public SyntheticDomainSpec {
+		if (issues < 1 || values < 1) {
+			throw new IllegalArgumentException("A domain needs at least one issue and one value, not " + issues + "x" + values);
+		}
+		if (weightSkew < 0.0 || rankingNoise < 0.0 || rankingLength < 1) {
+			throw new IllegalArgumentException("Weight skew and ranking noise can't be negative, and rankings need at least one bid");
+		}
+	}
+
+	/**
+	 * A spec with default skew, noise, ranking length and seed.
+	 * @param issues Number of issues
+	 * @param values Number of values per issue
+	 * @return Spec
+	 */
+	public static SyntheticDomainSpec of(final int issues, final int values) {
+		return new SyntheticDomainSpec(issues, values, DEFAULT_WEIGHT_SKEW, DEFAULT_RANKING_NOISE, DEFAULT_RANKING_LENGTH, DEFAULT_SEED);
+	}
+
+	public SyntheticDomainSpec withWeightSkew(final double skew) {
+		return new SyntheticDomainSpec(this.issues, this.values, skew, this.rankingNoise, this.rankingLength, this.seed);
+	}
+
+	public SyntheticDomainSpec withRankingNoise(final double noise) {
+		return new SyntheticDomainSpec(this.issues, this.values, this.weightSkew, noise, this.rankingLength, this.seed);
+	}
+
+	public SyntheticDomainSpec withRankingLength(final int length) {
+		return new SyntheticDomainSpec(this.issues, this.values, this.weightSkew, this.rankingNoise, length, this.seed);
+	}
+
+	public SyntheticDomainSpec withSeed(final long newSeed) {
+		return new SyntheticDomainSpec(this.issues, this.values, this.weightSkew, this.rankingNoise, this.rankingLength, newSeed);
+	}
+}
@@ -0,0 +1,87 @@
+package group17.domain.synthetic;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import group17.domain.BidEncoder;
+
+/**
+ * Writes a generated domain and profile as Genius domain and utility space XML, so they can be used in
+ * Genius tournaments as well as in-process.
+ */
+public class SyntheticDomainWriter {
+
+	private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	private final SyntheticProfile profile;
+
+	/**
+	 * Create a writer.
+	 * @param profile Profile, along with its domain
+	 */
+	public SyntheticDomainWriter(final SyntheticProfile profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Write the domain, i.e. the issues and values.
+	 * @param path File to write
+	 * @throws IOException If the file can't be written
+	 */
+	public void writeDomain(final Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			final BidEncoder encoder = this.profile.getEncoder();
+			writer.write(HEADER);
+			writer.write("<negotiation_template>\n");
+			writer.write("  <utility_space number_of_issues=\"" + encoder.getNumberOfIssues() + "\">\n");
+			this.writeObjective(writer, "    ", false);
+			writer.write("  </utility_space>\n");
+			writer.write("</negotiation_template>\n");
+		}
+	}
+
+	/**
+	 * Write the profile, i.e. the issue weights and value evaluations.
+	 * @param path File to write
+	 * @throws IOException If the file can't be written
+	 */
+	public void writeProfile(final Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.write("<utility_space type=\"additive\">\n");
+			this.writeObjective(writer, "  ", true);
+			writer.write("  <reservation value=\"0.0\" />\n");
+			writer.write("  <discount_factor value=\"1.0\" />\n");
+			writer.write("</utility_space>\n");
+		}
+	}
+
+	/**
+	 * Write the objective and its issues, optionally with evaluations and weights.
+	 */
+	private void writeObjective(final Writer writer, final String indent, final boolean preferences) throws IOException {
+		final BidEncoder encoder = this.profile.getEncoder();
+		writer.write(indent + "<objective index=\"0\" etype=\"objective\" type=\"objective\" description=\"\" name=\"" 
+			+ encoder.getDomain().getName() + "\">\n");
+		for (int i = 0; i < encoder.getNumberOfIssues(); i++) {
+			final int number = encoder.getIssue(i).getNumber();
+			writer.write(indent + "  <issue index=\"" + number + "\" etype=\"discrete\" type=\"discrete\" vtype=\"discrete\" name=\"" 
+				+ encoder.getIssueName(i) + "\">\n");
+			for (int v = 0; v < encoder.getNumberOfValues(i); v++) {
+				writer.write(indent + "    <item index=\"" + (v + 1) + "\" value=\"" + encoder.getValueName(i, v) + "\"");
+				if (preferences) {
+					writer.write(" evaluation=\"" + this.profile.getEvaluation(i, v) + "\"");
+				}
+				writer.write(" />\n");
+			}
+			writer.write(indent + "  </issue>\n");
+			if (preferences) {
+				writer.write(indent + "  <weight index=\"" + number + "\" value=\"" + this.profile.getWeight(i) + "\" />\n");
+			}
+		}
+		writer.write(indent + "</objective>\n");
+	}
+}
@@ -0,0 +1,80 @@
+package group17.domain.synthetic;
+
+import genius.core.Bid;
+import genius.core.issue.IssueDiscrete;
+import genius.core.uncertainty.AdditiveUtilitySpaceFactory;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.domain.BidEncoder;
+
+/**
+ * A generated additive preference profile: issue weights and value evaluations, by {@link BidEncoder} issue
+ * position and value code. Utilities can be calculated directly, or through a Genius {@link AdditiveUtilitySpace}.
+ */
+public class SyntheticProfile {
+
+	private final BidEncoder encoder;
+	private final double[] weights;
+	private final double[][] evaluations;
+
+	/**
+	 * Create a profile. The arrays are owned by the profile.
+	 * @param encoder Encoder for the domain
+	 * @param weights Normalized issue weights
+	 * @param evaluations Value evaluations in [0, 1], by issue and value
+	 */
+	public SyntheticProfile(final BidEncoder encoder, final double[] weights, final double[][] evaluations) {
+		this.encoder = encoder;
+		this.weights = weights;
+		this.evaluations = evaluations;
+	}
+
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	public double getWeight(final int position) {
+		return this.weights[position];
+	}
+
+	public double getEvaluation(final int position, final int code) {
+		return this.evaluations[position][code];
+	}
+
+	/**
+	 * Utility of a bid.
+	 * @param bid Bid
+	 * @return Utility
+	 */
+	public double getUtility(final Bid bid) {
+		return this.getUtility(this.encoder.encode(bid));
+	}
+
+	/**
+	 * Utility of an encoded bid.
+	 * @param codes Value codes
+	 * @return Utility
+	 */
+	public double getUtility(final int[] codes) {
+		double utility = 0.0;
+		for (int i = 0; i < this.weights.length; i++) {
+			utility += this.weights[i] * this.evaluations[i][codes[i]];
+		}
+		return utility;
+	}
+
+	/**
+	 * Create the equivalent Genius utility space.
+	 * @return Additive utility space
+	 */
+	public AdditiveUtilitySpace toUtilitySpace() {
+		final AdditiveUtilitySpaceFactory factory = new AdditiveUtilitySpaceFactory(this.encoder.getDomain());
+		for (int i = 0; i < this.weights.length; i++) {
+			final IssueDiscrete issue = this.encoder.getIssue(i);
+			factory.setWeight(issue, this.weights[i]);
+			for (int v = 0; v < this.evaluations[i].length; v++) {
+				factory.setUtility(issue, issue.getValue(v), this.evaluations[i][v]);
+			}
+		}
+		return factory.getUtilitySpace();
+	}
+}
@@ -0,0 +1,18 @@
+package group17.domain.synthetic;
+
+import genius.core.uncertainty.BidRanking;
+import genius.core.uncertainty.UserModel;
+import genius.core.utility.AdditiveUtilitySpace;
+
+/**
+ * Everything generated from one {@link SyntheticDomainSpec}.
+ * @param spec Spec the scenario was generated from
+ * @param domain Domain
+ * @param profile Preference profile
+ * @param utilitySpace Genius utility space for the profile
+ * @param ranking Bid ranking, ordered from lowest to highest (noisy) utility
+ * @param userModel User model for the ranking
+ */
+public record SyntheticScenario(SyntheticDomainSpec spec, SyntheticDomain domain, SyntheticProfile profile, 
+	AdditiveUtilitySpace utilitySpace, BidRanking ranking, UserModel userModel) {
+}
@@ -0,0 +1,52 @@
+package group17.opponent;
+
+import group17.domain.BidEncoder;
+
+/**
+ * A recent opponent utility estimate that is a weighted sum over issues: the weight of each issue times the
+ * preference of the bid's value for it, indexed by {@link BidEncoder} issue position and value code.
+ * This lets candidate bids be scored from their codes, and rescored issue by issue, by {@link CandidateScores}.
+ * <p>
+ * An estimate may add a pair interaction term to the sum, which depends on pairs of values so can't be rescored
+ * issue by issue. By default there is none.
+ */
+public interface AdditiveEstimate {
+
+	/**
+	 * Get the encoder whose issue positions and value codes index the weights and preferences.
+	 * @return Bid encoder
+	 */
+	public BidEncoder getEncoder();
+
+	/**
+	 * Get the weight of an issue, from recent offers only.
+	 * @param position Issue position
+	 * @return Normalized weight
+	 */
+	public double getRecentWeight(final int position);
+
+	/**
+	 * Get the preference for a value, from recent offers only.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Preference value
+	 */
+	public double getRecentPreference(final int position, final int code);
+
+	/**
+	 * Does the estimate add a pair interaction term to the weighted sum?
+	 * @return True if {@link #getInteraction(int[])} can be non-zero
+	 */
+	public default boolean hasInteraction() {
+		return false;
+	}
+
+	/**
+	 * Get the pair interaction term the estimate adds to the weighted sum for a bid, weight included.
+	 * @param codes Value codes
+	 * @return Weighted interaction score, or zero if there is none
+	 */
+	public default double getInteraction(final int[] codes) {
+		return 0.0;
+	}
+}
@@ -0,0 +1,227 @@
+package group17.opponent;
+
+import java.util.Arrays;
+
+import group17.domain.BidEncoder;
+import group17.domain.CandidateIndex;
+
+/**
+ * Cached estimated opponent utilities of every candidate in a {@link CandidateIndex}, for one opponent.
+ * The candidates are held as columns of value codes, one per issue, aligned with the index. Each issue's
+ * contribution to a candidate's score (weight times preference) depends only on the candidate's value for it, so
+ * it is held as a table by value code. When the model changes, only the issues whose weight or value preferences
+ * actually changed are rescored, by adding each value's change in contribution to the candidates with that value.
+ * <p>
+ * Adding deltas lets floating point error build up, so every {@code fullRecomputeInterval} updates the scores are
+ * summed afresh from the contribution tables instead.
+ * <p>
+ * If the estimate adds a pair interaction term, it is added on top of the sums. It depends on pairs of values,
+ * and changes with every offer, so while there is one every candidate is rescored for it on each update.
+ */
+public class CandidateScores {
+
+	public static final int DEFAULT_FULL_RECOMPUTE_INTERVAL = 32;
+
+	private final int size;
+	private final int[][] codes;
+	private final double[] weights;
+	private final double[][] preferences;
+	private final double[][] contributions;
+	private final double[][] deltas;
+	private final double[] scores;
+	private final int[] candidateCodes;
+	private double[] interactionScores;
+	private final int fullRecomputeInterval;
+	private int updates = 0;
+	private int lastChangedIssues = 0;
+
+	/**
+	 * Create scores for the default interval between full recomputes. Every score starts at zero, as for a model
+	 * that has seen no offers.
+	 * @param candidates Candidate index
+	 * @param encoder Bid encoder of the estimates that will update the scores
+	 */
+	public CandidateScores(final CandidateIndex candidates, final BidEncoder encoder) {
+		this(candidates, encoder, DEFAULT_FULL_RECOMPUTE_INTERVAL);
+	}
+
+	/**
+	 * Create scores. Every score starts at zero, as for a model that has seen no offers.
+	 * @param candidates Candidate index
+	 * @param encoder Bid encoder of the estimates that will update the scores
+	 * @param fullRecomputeInterval Number of updates between full recomputes
+	 */
+	public CandidateScores(final CandidateIndex candidates, final BidEncoder encoder, final int fullRecomputeInterval) {
+		this.size = candidates.size();
+		this.fullRecomputeInterval = Math.max(1, fullRecomputeInterval);
+		final int numIssues = encoder.getNumberOfIssues();
+		this.codes = new int[numIssues][this.size];
+		final int[] bidCodes = new int[numIssues];
+		for (int c = 0; c < this.size; c++) {
+			encoder.encode(candidates.getBid(c), bidCodes);
+			for (int i = 0; i < numIssues; i++) {
+				this.codes[i][c] = bidCodes[i];
+			}
+		}
+		this.weights = new double[numIssues];
+		this.preferences = new double[numIssues][];
+		this.contributions = new double[numIssues][];
+		this.deltas = new double[numIssues][];
+		for (int i = 0; i < numIssues; i++) {
+			final int numValues = encoder.getNumberOfValues(i);
+			this.preferences[i] = new double[numValues];
+			this.contributions[i] = new double[numValues];
+			this.deltas[i] = new double[numValues];
+		}
+		this.scores = new double[this.size];
+		this.candidateCodes = new int[numIssues];
+	}
+
+	/**
+	 * Bring the scores up to date with an estimate, rescoring only the issues that changed since the last update,
+	 * then adding any pair interaction.
+	 * @param estimate Latest estimate of the opponent's utility
+	 * @return Number of issues that changed, plus one if the pair interaction changed any score
+	 */
+	public int update(final AdditiveEstimate estimate) {
+		this.updates++;
+		final boolean fullRecompute = (this.updates % this.fullRecomputeInterval == 0);
+		int changed = 0;
+		for (int i = 0; i < this.weights.length; i++) {
+			if (this.updateIssue(estimate, i)) {
+				changed++;
+				if (!fullRecompute) {
+					this.applyDeltas(i);
+				}
+			}
+		}
+		if (fullRecompute) {
+			this.recompute();
+		}
+		if (estimate.hasInteraction()) {
+			if (this.addInteractions(estimate)) {
+				changed++;
+			}
+		} else if (this.interactionScores != null) {
+			this.interactionScores = null;
+			changed++;
+		}
+		this.lastChangedIssues = changed;
+		return changed;
+	}
+
+	/**
+	 * Read an issue's weight and preferences from the estimate, and work out the change in contribution by value.
+	 * @return True if the issue changed
+	 */
+	private boolean updateIssue(final AdditiveEstimate estimate, final int issue) {
+		final double weight = estimate.getRecentWeight(issue);
+		final double[] issuePreferences = this.preferences[issue];
+		boolean changed = (weight != this.weights[issue]);
+		for (int v = 0; v < issuePreferences.length && !changed; v++) {
+			changed = (estimate.getRecentPreference(issue, v) != issuePreferences[v]);
+		}
+		if (!changed) {
+			return false;
+		}
+		this.weights[issue] = weight;
+		final double[] issueContributions = this.contributions[issue];
+		final double[] issueDeltas = this.deltas[issue];
+		for (int v = 0; v < issuePreferences.length; v++) {
+			issuePreferences[v] = estimate.getRecentPreference(issue, v);
+			final double contribution = weight * issuePreferences[v];
+			issueDeltas[v] = contribution - issueContributions[v];
+			issueContributions[v] = contribution;
+		}
+		return true;
+	}
+
+	/**
+	 * Add an issue's change in contribution to every candidate's score.
+	 */
+	private void applyDeltas(final int issue) {
+		final int[] issueCodes = this.codes[issue];
+		final double[] issueDeltas = this.deltas[issue];
+		for (int c = 0; c < this.size; c++) {
+			final int code = issueCodes[c];
+			if (code >= 0) {
+				this.scores[c] += issueDeltas[code];
+			}
+		}
+	}
+
+	/**
+	 * Sum every candidate's score afresh from the contribution tables, discarding any accumulated error.
+	 */
+	private void recompute() {
+		Arrays.fill(this.scores, 0.0);
+		for (int i = 0; i < this.codes.length; i++) {
+			final int[] issueCodes = this.codes[i];
+			final double[] issueContributions = this.contributions[i];
+			for (int c = 0; c < this.size; c++) {
+				final int code = issueCodes[c];
+				if (code >= 0) {
+					this.scores[c] += issueContributions[code];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add the estimate's pair interaction term to every candidate's summed score.
+	 * @return True if any score changed
+	 */
+	private boolean addInteractions(final AdditiveEstimate estimate) {
+		if (this.interactionScores == null) {
+			this.interactionScores = new double[this.size];
+		}
+		boolean changed = false;
+		for (int c = 0; c < this.size; c++) {
+			for (int i = 0; i < this.codes.length; i++) {
+				this.candidateCodes[i] = this.codes[i][c];
+			}
+			final double score = this.scores[c] + estimate.getInteraction(this.candidateCodes);
+			changed |= (score != this.interactionScores[c]);
+			this.interactionScores[c] = score;
+		}
+		return changed;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get a candidate's estimated opponent utility, as of the last update.
+	 * @param candidate Candidate index
+	 * @return Utility
+	 */
+	public double getScore(final int candidate) {
+		return this.getScores()[candidate];
+	}
+
+	/**
+	 * Get the scores, aligned with the candidate index.
+	 * @return Scores, which must not be changed
+	 */
+	public double[] getScores() {
+		return (this.interactionScores != null) ? this.interactionScores : this.scores;
+	}
+
+	public int getLastChangedIssues() {
+		return this.lastChangedIssues;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("CandidateScores: size=")
+			.append(this.size)
+			.append(", issues=")
+			.append(this.weights.length)
+			.append(", updates=")
+			.append(this.updates)
+			.append(", lastChangedIssues=")
+			.append(this.lastChangedIssues)
+			.toString();
+	}
+}
@@ -11,6 +11,9 @@ public class EstimatedUtility {
 	public static final double NO_CONFIDENCE = 0.0;
 	public static final EstimatedUtility NO_MEANINGFUL_ESTIMATE = new EstimatedUtility(NO_UTILITY, NO_CONFIDENCE);
 	
+	/** Standard errors either side of the estimate that the confidence level allows for, roughly 95%. */
+	public static final double CONFIDENCE_INTERVAL_Z = 2.0;
+	
 	private final double utility;
 	private final double confidenceLevel;
 	
@@ -24,6 +27,19 @@ public class EstimatedUtility {
 		this.confidenceLevel = confidenceLevel;
 	}
 
+	/**
+	 * Create an estimate whose confidence level reflects the variance of the utility: one less the half-width
+	 * of its approximate 95% interval, {@link #CONFIDENCE_INTERVAL_Z} standard errors, so an estimate known to
+	 * within 0.05 either way has a confidence level of 0.95. Utilities are from 0 to 1, so the level is too.
+	 * @param utility Estimated utility value
+	 * @param variance Variance of the estimate
+	 * @return Estimated utility
+	 */
+	public static EstimatedUtility fromVariance(final double utility, final double variance) {
+		final double confidenceLevel = 1.0 - CONFIDENCE_INTERVAL_Z * Math.sqrt(Math.max(variance, 0.0));
+		return new EstimatedUtility(utility, Math.max(confidenceLevel, NO_CONFIDENCE));
+	}
+
 	/**
 	 * Get the estimated utility value
 	 * @return Estimated utility
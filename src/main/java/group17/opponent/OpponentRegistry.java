@@ -0,0 +1,190 @@
+package group17.opponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+
+/**
+ * A registry of {@link OpponentTracker} instances, one per opponent, for multilateral negotiations.
+ * Each offer only updates the model of the party that sent it; the combined view of every opponent's
+ * estimated utility is calculated on demand.
+ */
+public class OpponentRegistry {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(OpponentRegistry.class);
+	
+	/**
+	 * How the estimated utilities of each opponent are combined into one value.
+	 */
+	public enum Combination {
+		
+		/** The least satisfied opponent decides. */
+		MIN,
+		
+		/** Product of every opponent's utility, i.e. the Nash product of the opponents. */
+		PRODUCT;
+		
+		/**
+		 * Combine the utility so far with the next opponent's utility.
+		 * @param combined Combined utility so far
+		 * @param utility Next utility
+		 * @return Combined utility
+		 */
+		public double combine(final double combined, final double utility) {
+			return (this == MIN) ? Math.min(combined, utility) : combined * utility;
+		}
+	}
+	
+	private final Supplier<? extends OpponentModel> modelFactory;
+	private final Combination combination;
+	private final Map<AgentID, OpponentTracker> trackers = new HashMap<>();
+	private final List<OpponentTracker> trackerList = new ArrayList<>();
+	
+	/**
+	 * Create a registry that combines opponents using {@link Combination#MIN}.
+	 * @param modelFactory Creates a new opponent model for each opponent
+	 */
+	public OpponentRegistry(final Supplier<? extends OpponentModel> modelFactory) {
+		this(modelFactory, Combination.MIN);
+	}
+	
+	/**
+	 * Create a registry.
+	 * @param modelFactory Creates a new opponent model for each opponent
+	 * @param combination How the opponents' utilities are combined
+	 */
+	public OpponentRegistry(final Supplier<? extends OpponentModel> modelFactory, final Combination combination) {
+		this.modelFactory = modelFactory;
+		this.combination = combination;
+	}
+	
+	/**
+	 * Update the tracker for the sender of a bid, creating it if this is the sender's first bid.
+	 * @param sender Sender of the bid
+	 * @param bid Bid
+	 * @param placedBid Have we placed a bid yet?
+	 * @return The sender's tracker
+	 */
+	public OpponentTracker update(final AgentID sender, final Bid bid, final boolean placedBid) {
+		final OpponentTracker tracker = this.getOrCreateTracker(sender);
+		tracker.update(bid, placedBid);
+		return tracker;
+	}
+	
+	/**
+	 * Get the tracker for an opponent.
+	 * @param agent Opponent
+	 * @return Tracker, or null if we haven't heard from this opponent
+	 */
+	public OpponentTracker getTracker(final AgentID agent) {
+		return this.trackers.get(agent);
+	}
+	
+	/**
+	 * Get every tracker, in the order the opponents were first seen.
+	 * @return Trackers
+	 */
+	public List<OpponentTracker> getTrackers() {
+		return Collections.unmodifiableList(this.trackerList);
+	}
+	
+	public int size() {
+		return this.trackerList.size();
+	}
+	
+	public Combination getCombination() {
+		return this.combination;
+	}
+	
+	/**
+	 * Combined estimate of opponent utility for a bid, from across every offer received.
+	 * @param bid Bid
+	 * @return Combined utility, or {@link EstimatedUtility#NO_UTILITY} if no opponent has bid yet
+	 */
+	public double calculateUtility(final Bid bid) {
+		return this.combine(model -> model.calculateUtility(bid));
+	}
+	
+	/**
+	 * Combined estimate of opponent utility for a bid, from recent offers only.
+	 * @param bid Bid
+	 * @return Combined utility, or {@link EstimatedUtility#NO_UTILITY} if no opponent has bid yet
+	 */
+	public double calculateRecentUtility(final Bid bid) {
+		return this.combine(model -> model.calculateRecentUtility(bid));
+	}
+	
+	/**
+	 * Combined estimate of mean (total and recent) opponent utility for a bid.
+	 * @param bid Bid
+	 * @return Combined utility, or {@link EstimatedUtility#NO_UTILITY} if no opponent has bid yet
+	 */
+	public double calculateMeanUtility(final Bid bid) {
+		return this.combine(model -> model.calculateMeanUtility(bid));
+	}
+	
+	/**
+	 * Combine any per-opponent estimate across every opponent.
+	 * @param estimate Estimate to take from each opponent's model
+	 * @return Combined estimate, or {@link EstimatedUtility#NO_UTILITY} if no opponent has bid yet
+	 */
+	public double combine(final ToDoubleFunction<OpponentModel> estimate) {
+		if (this.trackerList.isEmpty()) {
+			return EstimatedUtility.NO_UTILITY;
+		}
+		double combined = estimate.applyAsDouble(this.trackerList.get(0).getModel());
+		for (int i = 1; i < this.trackerList.size(); i++) {
+			combined = this.combination.combine(combined, estimate.applyAsDouble(this.trackerList.get(i).getModel()));
+		}
+		return combined;
+	}
+	
+	/**
+	 * Release any resources held by the opponent models, such as background update threads.
+	 */
+	public void close() {
+		for (final OpponentTracker tracker : this.trackerList) {
+			if (tracker.getModel() instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) tracker.getModel()).close();
+				} catch (Exception e) {
+					LOG.error("Error closing opponent model: ", e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Get an existing tracker, or create one for a new opponent.
+	 * @param agent Opponent
+	 * @return Tracker
+	 */
+	private OpponentTracker getOrCreateTracker(final AgentID agent) {
+		OpponentTracker tracker = this.trackers.get(agent);
+		if (tracker == null) {
+			tracker = new OpponentTracker(agent, this.modelFactory.get());
+			this.trackers.put(agent, tracker);
+			this.trackerList.add(tracker);
+		}
+		return tracker;
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder("OpponentRegistry: combination=")
+			.append(this.combination)
+			.append(", opponents=")
+			.append(this.trackerList)
+			.toString();
+	}
+}
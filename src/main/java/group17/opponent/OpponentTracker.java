@@ -0,0 +1,70 @@
+package group17.opponent;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+
+/**
+ * Tracks a single opponent in a (possibly multilateral) negotiation: its own {@link OpponentModel} 
+ * plus the last two bids it offered.
+ */
+public class OpponentTracker {
+	
+	private final AgentID agent;
+	private final OpponentModel model;
+	private Bid lastBid;
+	private Bid penultimateBid;
+	private int numberOfBids = 0;
+	
+	/**
+	 * Create a tracker for an opponent.
+	 * @param agent Opponent identifier
+	 * @param model Opponent model used for this opponent only
+	 */
+	public OpponentTracker(final AgentID agent, final OpponentModel model) {
+		this.agent = agent;
+		this.model = model;
+	}
+	
+	/**
+	 * Update the model and bid history from a bid offered by this opponent.
+	 * @param bid Offered bid
+	 * @param placedBid Have we placed a bid yet?
+	 */
+	public void update(final Bid bid, final boolean placedBid) {
+		if (bid != null) {
+			this.model.update(bid, placedBid);
+			this.penultimateBid = this.lastBid;
+			this.lastBid = bid;
+			this.numberOfBids++;
+		}
+	}
+
+	public AgentID getAgent() {
+		return this.agent;
+	}
+
+	public OpponentModel getModel() {
+		return this.model;
+	}
+
+	public Bid getLastBid() {
+		return this.lastBid;
+	}
+
+	public Bid getPenultimateBid() {
+		return this.penultimateBid;
+	}
+
+	public int getNumberOfBids() {
+		return this.numberOfBids;
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder("OpponentTracker: agent=")
+			.append(this.agent)
+			.append(", bids=")
+			.append(this.numberOfBids)
+			.toString();
+	}
+}
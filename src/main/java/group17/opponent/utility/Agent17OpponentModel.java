@@ -22,4 +22,9 @@ public class Agent17OpponentModel extends UtilityOpponentModel<Agent17OpponentIs
 	protected Agent17OpponentIssue createUtilityOpponentIssue(final Issue issue) {
 		return new Agent17OpponentIssue(issue);
 	}
+	
+	@Override
+	protected byte getStateType() {
+		return AGENT17_STATE;
+	}
 }
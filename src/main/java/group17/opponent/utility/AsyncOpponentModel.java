@@ -0,0 +1,183 @@
+package group17.opponent.utility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.Bid;
+import genius.core.actions.Offer;
+import group17.opponent.EstimatedUtility;
+import group17.opponent.OpponentModel;
+
+/**
+ * An {@link OpponentModel} that applies updates to a {@link SnapshotModel}, such as a {@link UtilityOpponentModel} 
+ * or an {@link EnsembleOpponentModel}, on a single background thread, so that receiving an offer returns immediately.
+ * After each update the worker publishes an immutable {@link ModelSnapshot}; every estimate is read
+ * from the latest published snapshot, so readers always see a consistent model without locking.
+ * @param <S> Snapshot type
+ */
+public class AsyncOpponentModel<S extends ModelSnapshot> implements OpponentModel, AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AsyncOpponentModel.class);
+
+	private final SnapshotModel<S> model;
+	private final ExecutorService worker;
+	private volatile S snapshot;
+	
+	// Append-only bid history, only written by the worker. Published snapshots see a prefix of it that never changes.
+	private Bid[] history = new Bid[16];
+	private int historySize = 0;
+
+	/**
+	 * Wrap a model. The model must not be used directly once it has been wrapped.
+	 * @param model Opponent model, only ever updated by the worker thread
+	 */
+	public AsyncOpponentModel(final SnapshotModel<S> model) {
+		this.model = model;
+		for (final Bid bid : model.getAllPreviousBids()) {
+			this.appendToHistory(bid);
+		}
+		this.snapshot = model.snapshot(this.historyView());
+		this.worker = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "opponent-model-updater");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void update(final Offer offer, final boolean placedBid) {
+		if (offer != null) {
+			this.update(offer.getBid(), placedBid);
+		}
+	}
+
+	@Override
+	public void update(final Bid bid, final boolean placedBid) {
+		if (bid != null) {
+			this.worker.execute(() -> this.applyUpdate(bid, placedBid));
+		}
+	}
+
+	/**
+	 * Get the latest published snapshot.
+	 * @return Snapshot
+	 */
+	public S getSnapshot() {
+		return this.snapshot;
+	}
+
+	/**
+	 * Block until every update submitted so far has been applied and published.
+	 */
+	public void awaitUpdates() {
+		try {
+			this.worker.submit(() -> { }).get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ee) {
+			LOG.error("Error waiting for opponent model updates: ", ee);
+		}
+	}
+
+	/**
+	 * Stop the worker thread. Updates that are still queued are discarded.
+	 */
+	@Override
+	public void close() {
+		this.worker.shutdownNow();
+	}
+
+	@Override
+	public double calculateUtility(final Offer offer) {
+		return (offer != null) ? this.calculateUtility(offer.getBid()) : EstimatedUtility.NO_UTILITY;
+	}
+
+	@Override
+	public double calculateMeanUtility(final Offer offer) {
+		return (offer != null) ? this.calculateMeanUtility(offer.getBid()) : EstimatedUtility.NO_UTILITY;
+	}
+
+	@Override
+	public double calculateRecentUtility(final Offer offer) {
+		return (offer != null) ? this.calculateRecentUtility(offer.getBid()) : EstimatedUtility.NO_UTILITY;
+	}
+
+	@Override
+	public EstimatedUtility calculateEstimatedUtility(final Offer offer) {
+		return (offer != null) ? this.calculateEstimatedUtility(offer.getBid()) : EstimatedUtility.NO_MEANINGFUL_ESTIMATE;
+	}
+
+	@Override
+	public double calculateUtility(final Bid bid) {
+		return this.snapshot.calculateUtility(bid);
+	}
+
+	@Override
+	public double calculateRecentUtility(final Bid bid) {
+		return this.snapshot.calculateRecentUtility(bid);
+	}
+
+	@Override
+	public double calculateMeanUtility(final Bid bid) {
+		return this.snapshot.calculateMeanUtility(bid);
+	}
+
+	@Override
+	public EstimatedUtility calculateEstimatedUtility(final Bid bid) {
+		return this.snapshot.calculateEstimatedUtility(bid);
+	}
+
+	@Override
+	public List<Bid> getAllPreviousBids() {
+		return this.snapshot.getBids();
+	}
+
+	/**
+	 * Apply an update on the worker thread and publish the new state.
+	 * @param bid Bid
+	 * @param placedBid Have we placed a bid yet?
+	 */
+	private void applyUpdate(final Bid bid, final boolean placedBid) {
+		try {
+			this.model.update(bid, placedBid);
+			this.appendToHistory(bid);
+			this.snapshot = this.model.snapshot(this.historyView());
+		} catch (RuntimeException re) {
+			LOG.error("Error updating opponent model: ", re);
+		}
+	}
+
+	/**
+	 * Append a bid to the history, growing it by copying when it is full.
+	 * Snapshots that still refer to the old array are unaffected.
+	 * @param bid Bid
+	 */
+	private void appendToHistory(final Bid bid) {
+		if (this.historySize == this.history.length) {
+			this.history = Arrays.copyOf(this.history, this.historySize * 2);
+		}
+		this.history[this.historySize++] = bid;
+	}
+	
+	/**
+	 * An immutable view of the history received so far.
+	 * @return View of the history
+	 */
+	private List<Bid> historyView() {
+		return Collections.unmodifiableList(Arrays.asList(this.history).subList(0, this.historySize));
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("AsyncOpponentModel: ")
+			.append(this.snapshot)
+			.toString();
+	}
+}
@@ -0,0 +1,151 @@
+package group17.opponent.utility;
+
+/**
+ * Exponentially decayed value counts, by {@link group17.domain.BidEncoder} issue position and value code. Each
+ * new bid counts as one, and every earlier bid's contribution is multiplied by a decay factor, so the counts give a
+ * smooth recency signal without a window, and without keeping the bids that would have to leave it.
+ * <p>
+ * Rather than decaying every count on each bid, the counts are stored against a global scale that grows by the
+ * inverse of the decay factor, and new bids are added at the current scale; dividing by the scale gives the decayed
+ * count. An update is then O(issues). The stored counts are divided through by the scale, in O(values), only when it
+ * gets large. The sum of squared counts of each issue is kept alongside, for the "Jonny Black" issue weights.
+ */
+public final class DecayedCounts {
+
+	/** The scale at which the stored counts are renormalised; their squares stay well within a double. */
+	private static final double MAX_SCALE = 1e64;
+
+	private final double decay;
+	private final double growth;
+	private final double[][] counts;
+	private final double[] sumSquares;
+	private double scale = 1.0;
+	private double mass = 0.0;
+	private int updates = 0;
+
+	/**
+	 * Create counts, all zero.
+	 * @param numValues Number of values of each issue
+	 * @param decay Decay factor per bid, greater than zero and at most one (no decay)
+	 */
+	public DecayedCounts(final int[] numValues, final double decay) {
+		if (!(decay > 0.0 && decay <= 1.0)) {
+			throw new IllegalArgumentException("Decay must be in (0, 1], but was " + decay);
+		}
+		this.decay = decay;
+		this.growth = 1.0 / decay;
+		this.counts = new double[numValues.length][];
+		this.sumSquares = new double[numValues.length];
+		for (int i = 0; i < numValues.length; i++) {
+			this.counts[i] = new double[numValues[i]];
+		}
+	}
+
+	/**
+	 * The decay factor for a recent bid window: {@code 1 - 1/window}, so the decayed number of bids tends to the
+	 * window, as the number of bids in the window does.
+	 * @param recentBidWindow Recent bid window; windows below 2 are treated as 2
+	 * @return Decay factor
+	 */
+	public static double decayForWindow(final int recentBidWindow) {
+		return 1.0 - 1.0 / Math.max(recentBidWindow, 2);
+	}
+
+	public double getDecay() {
+		return this.decay;
+	}
+
+	public int getUpdates() {
+		return this.updates;
+	}
+
+	public int getNumberOfIssues() {
+		return this.counts.length;
+	}
+
+	/**
+	 * Count a bid, decaying every earlier bid.
+	 * @param codes Value codes; a negative code leaves its issue uncounted
+	 */
+	public void add(final int[] codes) {
+		this.scale *= this.growth;
+		if (this.scale > MAX_SCALE) {
+			this.renormalise();
+		}
+		for (int i = 0; i < this.counts.length; i++) {
+			final int code = codes[i];
+			if (code >= 0) {
+				final double count = this.counts[i][code];
+				this.counts[i][code] = count + this.scale;
+				this.sumSquares[i] += this.scale * (2.0 * count + this.scale);
+			}
+		}
+		this.mass += this.scale;
+		this.updates++;
+	}
+
+	/**
+	 * Get the decayed count of a value.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Count
+	 */
+	public double getCount(final int position, final int code) {
+		return this.counts[position][code] / this.scale;
+	}
+
+	/**
+	 * Get the decayed number of bids, i.e. the sum of the decay factor to the power of each bid's age.
+	 * @return Number of bids
+	 */
+	public double getMass() {
+		return this.mass / this.scale;
+	}
+
+	/**
+	 * Get the decayed frequency of a value: its count over the number of bids.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Frequency, or zero before any bid
+	 */
+	public double getFrequency(final int position, final int code) {
+		return (this.mass > 0.0) ? this.counts[position][code] / this.mass : 0.0;
+	}
+
+	/**
+	 * Get the sum of the squared decayed frequencies of an issue's values.
+	 * @param position Issue position
+	 * @return Sum of squares, or zero before any bid
+	 */
+	public double getSumOfSquaredFrequencies(final int position) {
+		return (this.mass > 0.0) ? this.sumSquares[position] / (this.mass * this.mass) : 0.0;
+	}
+
+	/**
+	 * Divide the stored counts through by the scale, and reset it to one.
+	 */
+	private void renormalise() {
+		final double inverse = 1.0 / this.scale;
+		for (int i = 0; i < this.counts.length; i++) {
+			double sumSquares = 0.0;
+			for (int v = 0; v < this.counts[i].length; v++) {
+				this.counts[i][v] *= inverse;
+				sumSquares += this.counts[i][v] * this.counts[i][v];
+			}
+			this.sumSquares[i] = sumSquares;
+		}
+		this.mass *= inverse;
+		this.scale = 1.0;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("DecayedCounts: decay=")
+			.append(this.decay)
+			.append(", updates=")
+			.append(this.updates)
+			.append(", mass=")
+			.append(this.getMass())
+			.toString();
+	}
+}
@@ -0,0 +1,180 @@
+package group17.opponent.utility;
+
+import java.util.Collections;
+import java.util.List;
+
+import genius.core.Bid;
+import genius.core.Domain;
+import group17.domain.BidEncoder;
+import group17.opponent.AbstractOpponentModel;
+import group17.opponent.AdditiveEstimate;
+import group17.opponent.EstimatedUtility;
+import group17.opponent.OpponentModel;
+
+/**
+ * A frequency based {@link OpponentModel}, as {@link Agent17OpponentModel}, whose recent estimate comes from
+ * {@link DecayedCounts} rather than a window of recent bids. The overall estimate matches the Agent 17 model.
+ * Recent preferences are the decayed frequency of each value, and the recent issue weights are the normalised sums
+ * of their squares, the decayed form of the "Jonny Black" weights.
+ * <p>
+ * Every estimate is kept up to date in O(issues) per bid, and no bids are stored, so the model's memory does not
+ * grow with the length of the session; {@link #getAllPreviousBids()} is always empty.
+ */
+public class DecayedOpponentModel extends AbstractOpponentModel implements AdditiveEstimate {
+
+	private static final double DEFAULT_CONFIDENCE_LEVEL = 1.0;
+
+	private final BidEncoder encoder;
+	private final int[] codes;
+	private final DecayedCounts recentCounts;
+	private final int[][] counts;
+	private final long[] sumSquares;
+	private final double[] weights;
+	private final double[] recentWeights;
+	private int bidUpdates = 0;
+
+	/**
+	 * Create a model whose decay matches a recent bid window, by {@link DecayedCounts#decayForWindow(int)}.
+	 * @param domain Negotiation domain
+	 * @param recentBidWindow Recent bid window
+	 */
+	public DecayedOpponentModel(final Domain domain, final int recentBidWindow) {
+		this(new BidEncoder(domain), DecayedCounts.decayForWindow(recentBidWindow));
+	}
+
+	/**
+	 * Create a model.
+	 * @param encoder Bid encoder for the domain
+	 * @param decay Decay factor per bid
+	 */
+	public DecayedOpponentModel(final BidEncoder encoder, final double decay) {
+		this.encoder = encoder;
+		final int numIssues = encoder.getNumberOfIssues();
+		final int[] numValues = new int[numIssues];
+		this.counts = new int[numIssues][];
+		for (int i = 0; i < numIssues; i++) {
+			numValues[i] = encoder.getNumberOfValues(i);
+			this.counts[i] = new int[numValues[i]];
+		}
+		this.codes = new int[numIssues];
+		this.recentCounts = new DecayedCounts(numValues, decay);
+		this.sumSquares = new long[numIssues];
+		this.weights = new double[numIssues];
+		this.recentWeights = new double[numIssues];
+	}
+
+	@Override
+	public void update(final Bid bid, final boolean placedBid) {
+		if (bid == null) {
+			return;
+		}
+		this.bidUpdates++;
+		this.encoder.encode(bid, this.codes);
+		for (int i = 0; i < this.codes.length; i++) {
+			final int code = this.codes[i];
+			if (code >= 0) {
+				this.sumSquares[i] += 2L * this.counts[i][code] + 1L;
+				this.counts[i][code]++;
+			}
+		}
+		this.recentCounts.add(this.codes);
+		this.recalculateWeights();
+	}
+
+	@Override
+	public List<Bid> getAllPreviousBids() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	@Override
+	public double getRecentWeight(final int position) {
+		return this.recentWeights[position];
+	}
+
+	@Override
+	public double getRecentPreference(final int position, final int code) {
+		return this.recentCounts.getFrequency(position, code);
+	}
+
+	public double getWeight(final int position) {
+		return this.weights[position];
+	}
+
+	/**
+	 * Get the overall preference for a value, its frequency across every offer received.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Preference value
+	 */
+	public double getPreference(final int position, final int code) {
+		return (this.bidUpdates > 0) ? (double) this.counts[position][code] / this.bidUpdates : 0.0;
+	}
+
+	public DecayedCounts getRecentCounts() {
+		return this.recentCounts;
+	}
+
+	public int getBidUpdates() {
+		return this.bidUpdates;
+	}
+
+	@Override
+	protected double calculateUtilityForBid(final Bid bid) {
+		final int[] codes = this.encoder.encode(bid);
+		double utility = 0.0;
+		for (int i = 0; i < codes.length; i++) {
+			if (codes[i] >= 0) {
+				utility += this.weights[i] * this.getPreference(i, codes[i]);
+			}
+		}
+		return utility;
+	}
+
+	@Override
+	protected double calculateRecentUtilityForBid(final Bid bid) {
+		final int[] codes = this.encoder.encode(bid);
+		double utility = 0.0;
+		for (int i = 0; i < codes.length; i++) {
+			if (codes[i] >= 0) {
+				utility += this.recentWeights[i] * this.getRecentPreference(i, codes[i]);
+			}
+		}
+		return utility;
+	}
+
+	@Override
+	protected EstimatedUtility calculateEstimatedUtilityForBid(final Bid bid) {
+		return new EstimatedUtility(this.calculateUtilityForBid(bid), DEFAULT_CONFIDENCE_LEVEL);
+	}
+
+	/**
+	 * Normalise the issue weights from the sums of squared counts. Every issue shares the same number of bids, so
+	 * the counts need not be divided by it first.
+	 */
+	private void recalculateWeights() {
+		double total = 0.0;
+		double recentTotal = 0.0;
+		for (int i = 0; i < this.weights.length; i++) {
+			total += this.sumSquares[i];
+			recentTotal += this.recentCounts.getSumOfSquaredFrequencies(i);
+		}
+		for (int i = 0; i < this.weights.length; i++) {
+			this.weights[i] = this.sumSquares[i] / total;
+			this.recentWeights[i] = this.recentCounts.getSumOfSquaredFrequencies(i) / recentTotal;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("DecayedOpponentModel: bidUpdates=")
+			.append(this.bidUpdates)
+			.append(", decay=")
+			.append(this.recentCounts.getDecay())
+			.toString();
+	}
+}
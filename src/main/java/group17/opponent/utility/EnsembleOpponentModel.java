@@ -0,0 +1,381 @@
+package group17.opponent.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import genius.core.Bid;
+import genius.core.Domain;
+import group17.domain.BidEncoder;
+import group17.opponent.AbstractOpponentModel;
+import group17.opponent.AdditiveEstimate;
+import group17.opponent.EstimatedUtility;
+import group17.opponent.OpponentModel;
+
+/**
+ * An {@link OpponentModel} that combines the {@link JonnyBlackOpponentModel} and {@link Agent17OpponentModel}.
+ * Both models count the same values over the same recent bid window, and share the same issue weights,
+ * so a single store of counts (indexed by {@link BidEncoder} issue position and value code) is kept.
+ * The rank based (via {@link RankBuckets}, as {@link JonnyBlackOpponentIssue}) and frequency based preference
+ * values are both derived from it, and a bid is scored against both models in one pass by {@link #evaluate(Bid)}.
+ * The recent weights and preferences of the reported estimate are exposed as an {@link AdditiveEstimate}, and
+ * the model can be updated asynchronously through its {@link EnsembleSnapshot}.
+ * <p>
+ * Optionally, a {@link PairSketch} tracks how often pairs of values are offered together, and its interaction
+ * score, times a weight, is added to every estimate.
+ */
+public class EnsembleOpponentModel extends AbstractOpponentModel implements AdditiveEstimate, SnapshotModel<EnsembleSnapshot> {
+
+	/**
+	 * Which estimate is reported through the {@link OpponentModel} methods.
+	 */
+	public enum Estimate {
+
+		/** Rank based preferences, as {@link JonnyBlackOpponentModel}. */
+		JONNY_BLACK,
+
+		/** Frequency based preferences, as {@link Agent17OpponentModel}. */
+		AGENT17,
+
+		/** Average of both models. */
+		AVERAGE;
+
+		/**
+		 * Select the estimate across every offer received.
+		 * @param utility Every estimate for a bid
+		 * @return Selected utility
+		 */
+		public double utility(final EnsembleUtility utility) {
+			return switch (this) {
+				case JONNY_BLACK -> utility.jonnyBlack();
+				case AGENT17 -> utility.agent17();
+				default -> utility.average();
+			};
+		}
+
+		/**
+		 * Select the estimate from recent offers only.
+		 * @param utility Every estimate for a bid
+		 * @return Selected utility
+		 */
+		public double recentUtility(final EnsembleUtility utility) {
+			return switch (this) {
+				case JONNY_BLACK -> utility.recentJonnyBlack();
+				case AGENT17 -> utility.recentAgent17();
+				default -> utility.recentAverage();
+			};
+		}
+
+		/**
+		 * Select the preference for a value. Both models share their weights, so the average estimate is the 
+		 * weighted sum of the average preferences.
+		 * @param jonnyBlack Rank based preference
+		 * @param agent17 Frequency based preference
+		 * @return Selected preference
+		 */
+		public double preference(final double jonnyBlack, final double agent17) {
+			return switch (this) {
+				case JONNY_BLACK -> jonnyBlack;
+				case AGENT17 -> agent17;
+				default -> (jonnyBlack + agent17) / 2.0;
+			};
+		}
+	}
+
+	static final double DEFAULT_CONFIDENCE_LEVEL = 1.0;
+
+	private final BidEncoder encoder;
+	private final Estimate estimate;
+	private final int recentBidWindow;
+	private final List<int[]> encodedBids = new ArrayList<>();
+	private int bidUpdates = 0;
+
+	// Shared counts and ranks, by issue position and value code.
+	private final RankBuckets[] ranks;
+	private final RankBuckets[] recentRanks;
+
+	// Shared issue weights.
+	private final double[] weights;
+	private final double[] recentWeights;
+
+	// Preference values for each model.
+	private final double[][] jonnyBlackPreferences;
+	private final double[][] recentJonnyBlackPreferences;
+	private final double[][] agent17Preferences;
+	private final double[][] recentAgent17Preferences;
+
+	// Pair interaction, if any.
+	private PairSketch pairSketch;
+	private double interactionWeight = 0.0;
+
+	/**
+	 * Create an ensemble model that reports the average of both models.
+	 * @param domain Negotiation domain
+	 * @param recentBidWindow Recent bid window
+	 */
+	public EnsembleOpponentModel(final Domain domain, final int recentBidWindow) {
+		this(domain, recentBidWindow, Estimate.AVERAGE);
+	}
+
+	/**
+	 * Create an ensemble model.
+	 * @param domain Negotiation domain
+	 * @param recentBidWindow Recent bid window
+	 * @param estimate Which estimate to report through the {@link OpponentModel} methods
+	 */
+	public EnsembleOpponentModel(final Domain domain, final int recentBidWindow, final Estimate estimate) {
+		this.encoder = new BidEncoder(domain);
+		this.estimate = estimate;
+		this.recentBidWindow = recentBidWindow;
+		final int numIssues = this.encoder.getNumberOfIssues();
+		this.ranks = new RankBuckets[numIssues];
+		this.recentRanks = new RankBuckets[numIssues];
+		this.weights = new double[numIssues];
+		this.recentWeights = new double[numIssues];
+		this.jonnyBlackPreferences = new double[numIssues][];
+		this.recentJonnyBlackPreferences = new double[numIssues][];
+		this.agent17Preferences = new double[numIssues][];
+		this.recentAgent17Preferences = new double[numIssues][];
+		for (int i = 0; i < numIssues; i++) {
+			final int numValues = this.encoder.getNumberOfValues(i);
+			this.ranks[i] = new RankBuckets(numValues);
+			this.recentRanks[i] = new RankBuckets(numValues);
+			this.jonnyBlackPreferences[i] = new double[numValues];
+			this.recentJonnyBlackPreferences[i] = new double[numValues];
+			this.agent17Preferences[i] = new double[numValues];
+			this.recentAgent17Preferences[i] = new double[numValues];
+		}
+	}
+
+	@Override
+	public void update(final Bid bid, final boolean placedBid) {
+		if (bid == null) {
+			return;
+		}
+		super.update(bid, placedBid);
+		this.bidUpdates++;
+		final int[] codes = this.encoder.encode(bid);
+		this.encodedBids.add(codes);
+		for (int i = 0; i < codes.length; i++) {
+			if (codes[i] >= 0) {
+				this.ranks[i].increment(codes[i]);
+				this.recentRanks[i].increment(codes[i]);
+			}
+		}
+		final int size = this.encodedBids.size();
+		if (size > this.recentBidWindow) {
+			final int[] oldCodes = this.encodedBids.get(size - this.recentBidWindow - 1);
+			for (int i = 0; i < oldCodes.length; i++) {
+				if (oldCodes[i] >= 0) {
+					this.recentRanks[i].decrement(oldCodes[i]);
+				}
+			}
+		}
+		this.recalculateModelEstimates();
+		if (this.pairSketch != null) {
+			this.pairSketch.add(codes);
+		}
+	}
+
+	/**
+	 * Track how often pairs of values are offered together in a {@link PairSketch}, and add its interaction score
+	 * for a bid, times a weight, to every estimate. This should be set before any bids are received.
+	 * By default no sketch is kept.
+	 * @param sketch Pair sketch for this model's domain, or null to stop tracking pairs
+	 * @param weight Weight of the interaction score
+	 */
+	public void setPairInteraction(final PairSketch sketch, final double weight) {
+		this.pairSketch = sketch;
+		this.interactionWeight = weight;
+	}
+
+	/**
+	 * Score a bid against both models, in one pass over its issues.
+	 * @param bid Bid
+	 * @return Every estimate for the bid
+	 */
+	public EnsembleUtility evaluate(final Bid bid) {
+		return this.evaluate(this.encoder.encode(bid));
+	}
+
+	/**
+	 * Score an encoded bid against both models, in one pass over its issues.
+	 * @param codes Value codes
+	 * @return Every estimate for the bid
+	 */
+	public EnsembleUtility evaluate(final int[] codes) {
+		return evaluate(codes, this.weights, this.recentWeights, this.jonnyBlackPreferences, this.recentJonnyBlackPreferences, 
+			this.agent17Preferences, this.recentAgent17Preferences, this.getInteraction(codes));
+	}
+
+	/**
+	 * Score an encoded bid against both models' weights and preferences, as held by the model or a snapshot of it.
+	 * @param interaction Weighted pair interaction term, added to every estimate
+	 * @return Every estimate for the bid
+	 */
+	static EnsembleUtility evaluate(final int[] codes, final double[] weights, final double[] recentWeights, 
+			final double[][] jonnyBlackPreferences, final double[][] recentJonnyBlackPreferences, 
+			final double[][] agent17Preferences, final double[][] recentAgent17Preferences, final double interaction) {
+		double jonnyBlack = 0.0;
+		double recentJonnyBlack = 0.0;
+		double agent17 = 0.0;
+		double recentAgent17 = 0.0;
+		for (int i = 0; i < weights.length; i++) {
+			final int code = codes[i];
+			if (code >= 0) {
+				jonnyBlack += weights[i] * jonnyBlackPreferences[i][code];
+				recentJonnyBlack += recentWeights[i] * recentJonnyBlackPreferences[i][code];
+				agent17 += weights[i] * agent17Preferences[i][code];
+				recentAgent17 += recentWeights[i] * recentAgent17Preferences[i][code];
+			}
+		}
+		return new EnsembleUtility(jonnyBlack + interaction, recentJonnyBlack + interaction, agent17 + interaction, 
+			recentAgent17 + interaction);
+	}
+
+	@Override
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	@Override
+	public double getRecentWeight(final int position) {
+		return this.recentWeights[position];
+	}
+
+	/**
+	 * Get the recent preference for a value under the reported estimate.
+	 */
+	@Override
+	public double getRecentPreference(final int position, final int code) {
+		return this.estimate.preference(this.recentJonnyBlackPreferences[position][code], this.recentAgent17Preferences[position][code]);
+	}
+
+	@Override
+	public boolean hasInteraction() {
+		return this.pairSketch != null;
+	}
+
+	@Override
+	public double getInteraction(final int[] codes) {
+		return (this.pairSketch != null) ? this.interactionWeight * this.pairSketch.interaction(codes) : 0.0;
+	}
+
+	@Override
+	public EnsembleSnapshot snapshot(final List<Bid> bids) {
+		return new EnsembleSnapshot(this.encoder, this.estimate, this.weights.clone(), this.recentWeights.clone(), 
+			copy(this.jonnyBlackPreferences), copy(this.recentJonnyBlackPreferences), copy(this.agent17Preferences), 
+			copy(this.recentAgent17Preferences), (this.pairSketch != null) ? new PairSketch(this.pairSketch) : null, 
+			this.interactionWeight, bids);
+	}
+
+	/**
+	 * Copy preferences, by issue and value.
+	 */
+	private static double[][] copy(final double[][] preferences) {
+		final double[][] copy = new double[preferences.length][];
+		for (int i = 0; i < preferences.length; i++) {
+			copy[i] = Arrays.copyOf(preferences[i], preferences[i].length);
+		}
+		return copy;
+	}
+
+	public Estimate getEstimate() {
+		return this.estimate;
+	}
+
+	public int getBidUpdates() {
+		return this.bidUpdates;
+	}
+
+	@Override
+	protected double calculateUtilityForBid(final Bid bid) {
+		return this.estimate.utility(this.evaluate(bid));
+	}
+
+	@Override
+	protected double calculateRecentUtilityForBid(final Bid bid) {
+		return this.estimate.recentUtility(this.evaluate(bid));
+	}
+
+	@Override
+	public double calculateMeanUtility(final Bid bid) {
+		if (bid == null) {
+			return EstimatedUtility.NO_UTILITY;
+		}
+		final EnsembleUtility utility = this.evaluate(bid);
+		return (this.estimate.utility(utility) + this.estimate.recentUtility(utility)) / 2.0;
+	}
+
+	@Override
+	protected EstimatedUtility calculateEstimatedUtilityForBid(final Bid bid) {
+		return new EstimatedUtility(this.calculateUtilityForBid(bid), DEFAULT_CONFIDENCE_LEVEL);
+	}
+
+	/**
+	 * Recalculate the weights and both sets of preference values from the shared counts.
+	 * The formulae match {@link JonnyBlackOpponentValue} and {@link Agent17OpponentValue}.
+	 */
+	private void recalculateModelEstimates() {
+		double totalUnnormalized = 0.0;
+		double recentUnnormalized = 0.0;
+		for (int i = 0; i < this.ranks.length; i++) {
+			final int numValues = this.ranks[i].size();
+			double weight = 0.0;
+			double recentWeight = 0.0;
+			for (int v = 0; v < numValues; v++) {
+				final int count = this.ranks[i].getCount(v);
+				final int recentCount = this.recentRanks[i].getCount(v);
+				weight += this.weightFormula(count, this.bidUpdates);
+				recentWeight += this.weightFormula(recentCount, this.recentBidWindow);
+				this.agent17Preferences[i][v] = (double) count / this.bidUpdates;
+				this.recentAgent17Preferences[i][v] = (double) recentCount / this.recentBidWindow;
+				this.jonnyBlackPreferences[i][v] = this.rankPreference(this.ranks[i].rank(v), numValues);
+				this.recentJonnyBlackPreferences[i][v] = this.rankPreference(this.recentRanks[i].rank(v), numValues);
+			}
+			this.weights[i] = weight;
+			this.recentWeights[i] = recentWeight;
+			totalUnnormalized += weight;
+			recentUnnormalized += recentWeight;
+		}
+		for (int i = 0; i < this.weights.length; i++) {
+			this.weights[i] /= totalUnnormalized;
+			this.recentWeights[i] /= recentUnnormalized;
+		}
+	}
+
+	/**
+	 * Unnormalised value weight, based on the "Jonny Black" algorithm in Lab 3.
+	 * @param count The count to use (total or recent)
+	 * @param numBids Number of bids
+	 * @return Unnormalised value weight
+	 */
+	private double weightFormula(final int count, final int numBids) {
+		final double numerator = count * count;
+		final double denominator = numBids * numBids;
+		return numerator / denominator;
+	}
+
+	/**
+	 * Rank based preference value, based on the "Jonny Black" algorithm in Lab 3.
+	 * @param rank Relative rank (1 to n) of the value
+	 * @param numValues Number of values for the issue (n)
+	 * @return Preference value
+	 */
+	private double rankPreference(final int rank, final int numValues) {
+		final double numerator = (numValues - rank + 1);
+		final double denominator = numValues;
+		return numerator / denominator;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("EnsembleOpponentModel: estimate=")
+			.append(this.estimate)
+			.append(", bidUpdates=")
+			.append(this.bidUpdates)
+			.append(", recentBidWindow=")
+			.append(this.recentBidWindow)
+			.toString();
+	}
+}
@@ -0,0 +1,149 @@
+package group17.opponent.utility;
+
+import java.util.List;
+
+import genius.core.Bid;
+import group17.domain.BidEncoder;
+import group17.opponent.EstimatedUtility;
+
+/**
+ * An immutable copy of the shared weights and both sets of preference values of an {@link EnsembleOpponentModel},
+ * indexed by {@link BidEncoder} issue position and value code, and of its pair sketch if it keeps one. A bid is
+ * scored against both models in one pass, as by the model itself. A snapshot can be read from any thread without
+ * locking.
+ */
+public final class EnsembleSnapshot implements ModelSnapshot {
+
+	private final BidEncoder encoder;
+	private final EnsembleOpponentModel.Estimate estimate;
+	private final double[] weights;
+	private final double[] recentWeights;
+	private final double[][] jonnyBlackPreferences;
+	private final double[][] recentJonnyBlackPreferences;
+	private final double[][] agent17Preferences;
+	private final double[][] recentAgent17Preferences;
+	private final PairSketch pairSketch;
+	private final double interactionWeight;
+	private final List<Bid> bids;
+
+	/**
+	 * Create a snapshot. The arrays, sketch and list of bids are owned by the snapshot and must not be changed 
+	 * afterwards.
+	 * @param encoder Bid encoder for the domain
+	 * @param estimate Which estimate is reported
+	 * @param weights Normalized issue weights
+	 * @param recentWeights Normalized recent issue weights
+	 * @param jonnyBlackPreferences Rank based preferences, by issue and value
+	 * @param recentJonnyBlackPreferences Recent rank based preferences, by issue and value
+	 * @param agent17Preferences Frequency based preferences, by issue and value
+	 * @param recentAgent17Preferences Recent frequency based preferences, by issue and value
+	 * @param pairSketch Pair sketch, or null if the model keeps none
+	 * @param interactionWeight Weight of the pair interaction score
+	 * @param bids Bids received so far
+	 */
+	EnsembleSnapshot(final BidEncoder encoder, final EnsembleOpponentModel.Estimate estimate, final double[] weights,
+			final double[] recentWeights, final double[][] jonnyBlackPreferences, final double[][] recentJonnyBlackPreferences,
+			final double[][] agent17Preferences, final double[][] recentAgent17Preferences, final PairSketch pairSketch,
+			final double interactionWeight, final List<Bid> bids) {
+		this.encoder = encoder;
+		this.estimate = estimate;
+		this.weights = weights;
+		this.recentWeights = recentWeights;
+		this.jonnyBlackPreferences = jonnyBlackPreferences;
+		this.recentJonnyBlackPreferences = recentJonnyBlackPreferences;
+		this.agent17Preferences = agent17Preferences;
+		this.recentAgent17Preferences = recentAgent17Preferences;
+		this.pairSketch = pairSketch;
+		this.interactionWeight = interactionWeight;
+		this.bids = bids;
+	}
+
+	@Override
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	public EnsembleOpponentModel.Estimate getEstimate() {
+		return this.estimate;
+	}
+
+	@Override
+	public List<Bid> getBids() {
+		return this.bids;
+	}
+
+	@Override
+	public double getRecentWeight(final int position) {
+		return this.recentWeights[position];
+	}
+
+	@Override
+	public double getRecentPreference(final int position, final int code) {
+		return this.estimate.preference(this.recentJonnyBlackPreferences[position][code], this.recentAgent17Preferences[position][code]);
+	}
+
+	@Override
+	public boolean hasInteraction() {
+		return this.pairSketch != null;
+	}
+
+	@Override
+	public double getInteraction(final int[] codes) {
+		return (this.pairSketch != null) ? this.interactionWeight * this.pairSketch.interaction(codes) : 0.0;
+	}
+
+	/**
+	 * Score a bid against both models, in one pass over its issues.
+	 * @param bid Bid
+	 * @return Every estimate for the bid
+	 */
+	public EnsembleUtility evaluate(final Bid bid) {
+		return this.evaluate(this.encoder.encode(bid));
+	}
+
+	/**
+	 * Score an encoded bid against both models, in one pass over its issues.
+	 * @param codes Value codes
+	 * @return Every estimate for the bid
+	 */
+	public EnsembleUtility evaluate(final int[] codes) {
+		return EnsembleOpponentModel.evaluate(codes, this.weights, this.recentWeights, this.jonnyBlackPreferences,
+			this.recentJonnyBlackPreferences, this.agent17Preferences, this.recentAgent17Preferences, this.getInteraction(codes));
+	}
+
+	@Override
+	public double calculateUtility(final Bid bid) {
+		return (bid != null) ? this.estimate.utility(this.evaluate(bid)) : EstimatedUtility.NO_UTILITY;
+	}
+
+	@Override
+	public double calculateRecentUtility(final Bid bid) {
+		return (bid != null) ? this.estimate.recentUtility(this.evaluate(bid)) : EstimatedUtility.NO_UTILITY;
+	}
+
+	@Override
+	public double calculateMeanUtility(final Bid bid) {
+		if (bid == null) {
+			return EstimatedUtility.NO_UTILITY;
+		}
+		final EnsembleUtility utility = this.evaluate(bid);
+		return (this.estimate.utility(utility) + this.estimate.recentUtility(utility)) / 2.0;
+	}
+
+	@Override
+	public EstimatedUtility calculateEstimatedUtility(final Bid bid) {
+		if (bid == null) {
+			return EstimatedUtility.NO_MEANINGFUL_ESTIMATE;
+		}
+		return new EstimatedUtility(this.calculateUtility(bid), EnsembleOpponentModel.DEFAULT_CONFIDENCE_LEVEL);
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("EnsembleSnapshot: estimate=")
+			.append(this.estimate)
+			.append(", bids=")
+			.append(this.bids.size())
+			.toString();
+	}
+}
@@ -0,0 +1,51 @@
+package group17.opponent.utility;
+
+/**
+ * Every opponent utility estimate for one bid, as calculated in a single pass by an {@link EnsembleOpponentModel}.
+ * @param jonnyBlack Utility from the "Jonny Black" rank based preferences, across every offer received
+ * @param recentJonnyBlack Utility from the "Jonny Black" rank based preferences, from recent offers only
+ * @param agent17 Utility from the Agent 17 frequency based preferences, across every offer received
+ * @param recentAgent17 Utility from the Agent 17 frequency based preferences, from recent offers only
+ */
+public record EnsembleUtility(double jonnyBlack, double recentJonnyBlack, double agent17, double recentAgent17) {
+
+	/**
+	 * Mean of the total and recent "Jonny Black" utility.
+	 * @return Utility
+	 */
+	public double meanJonnyBlack() {
+		return (this.jonnyBlack + this.recentJonnyBlack) / 2.0;
+	}
+
+	/**
+	 * Mean of the total and recent Agent 17 utility.
+	 * @return Utility
+	 */
+	public double meanAgent17() {
+		return (this.agent17 + this.recentAgent17) / 2.0;
+	}
+
+	/**
+	 * Average of both models, across every offer received.
+	 * @return Utility
+	 */
+	public double average() {
+		return (this.jonnyBlack + this.agent17) / 2.0;
+	}
+
+	/**
+	 * Average of both models, from recent offers only.
+	 * @return Utility
+	 */
+	public double recentAverage() {
+		return (this.recentJonnyBlack + this.recentAgent17) / 2.0;
+	}
+
+	/**
+	 * Average of both models' mean (total and recent) utility.
+	 * @return Utility
+	 */
+	public double meanAverage() {
+		return (this.meanJonnyBlack() + this.meanAgent17()) / 2.0;
+	}
+}
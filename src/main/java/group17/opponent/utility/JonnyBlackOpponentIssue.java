@@ -1,6 +1,10 @@
 package group17.opponent.utility;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import genius.core.issue.Issue;
 
@@ -9,6 +13,12 @@ import genius.core.issue.Issue;
  * @author Martin Ingram
  */
 public class JonnyBlackOpponentIssue extends UtilityOpponentIssue<JonnyBlackOpponentValue> {
+	
+	// Values in issue order, so they can be ranked by index.
+	private final Map<String, Integer> valueIndices = new HashMap<>();
+	private final List<JonnyBlackOpponentValue> indexedValues = new ArrayList<>();
+	private final RankBuckets ranks;
+	private final RankBuckets recentRanks;
 		
 	/**
 	 * Construct an Opponent Issue based on an {@link Issue} in the current domain.
@@ -16,10 +26,48 @@ public class JonnyBlackOpponentIssue extends UtilityOpponentIssue<JonnyBlackOppo
 	 */
 	public JonnyBlackOpponentIssue(final Issue issue) {
 		super(issue);
+		this.indexValues();
+		this.ranks = new RankBuckets(this.numValues);
+		this.recentRanks = new RankBuckets(this.numValues);
 	}
 	
 	protected JonnyBlackOpponentIssue(final int issueNo, final String issueName, final String... valueNames) {
 		super(issueNo, issueName, valueNames);
+		this.indexValues();
+		this.ranks = new RankBuckets(this.numValues);
+		this.recentRanks = new RankBuckets(this.numValues);
+	}
+	
+	@Override
+	public void incrementValueCount(final String valueName) {
+		super.incrementValueCount(valueName);
+		final Integer index = this.valueIndices.get(valueName);
+		if (index != null) {
+			this.ranks.increment(index);
+			this.recentRanks.increment(index);
+		}
+	}
+	
+	@Override
+	public void decrementValueRecentCount(final String valueName) {
+		super.decrementValueRecentCount(valueName);
+		final Integer index = this.valueIndices.get(valueName);
+		if (index != null) {
+			this.recentRanks.decrement(index);
+		}
+	}
+	
+	@Override
+	public void readState(final ByteBuffer buffer, final String[] valueNames) {
+		super.readState(buffer, valueNames);
+		final int[] counts = new int[this.numValues];
+		final int[] recentCounts = new int[this.numValues];
+		for (int i = 0; i < this.numValues; i++) {
+			counts[i] = this.indexedValues.get(i).getCount();
+			recentCounts[i] = this.indexedValues.get(i).getRecentCount();
+		}
+		this.ranks.reset(counts);
+		this.recentRanks.reset(recentCounts);
 	}
 
 	/**
@@ -55,21 +103,17 @@ public class JonnyBlackOpponentIssue extends UtilityOpponentIssue<JonnyBlackOppo
 	
 	/**
 	 * Update the relative preference values of each opponent value for this issue, based
-	 * on the "Jonny Black" algorithm from Lab 3.
+	 * on the "Jonny Black" algorithm from Lab 3. Ranks are maintained incrementally as counts
+	 * change, and a preference value depends only on its rank, so only the values whose rank
+	 * has changed since the last update are recalculated.
 	 * @param priorBids The total number of offers received
 	 * @param bidWindow The number of recent bids to consider
 	 */
 	public void updatePreferenceValues(final int priorBids, final int bidWindow) {
-		List<JonnyBlackOpponentValue> sortedValues = this.sortValuesByCount();
-		int rank = 1;
-		for (final JonnyBlackOpponentValue value : sortedValues) {
-			value.calculatePreferenceValue(rank++, this.numValues, priorBids);
-		}
-		sortedValues = this.sortRecentValuesByCount();
-		rank = 1;
-		for (final JonnyBlackOpponentValue value : sortedValues) {
-			value.calculateRecentPreferenceValue(rank++, this.numValues, bidWindow);
-		}
+		this.ranks.drainChanged(i -> this.indexedValues.get(i)
+			.calculatePreferenceValue(this.ranks.rank(i), this.numValues, priorBids));
+		this.recentRanks.drainChanged(i -> this.indexedValues.get(i)
+			.calculateRecentPreferenceValue(this.recentRanks.rank(i), this.numValues, bidWindow));
 	}
 	
 	/**
@@ -77,10 +121,7 @@ public class JonnyBlackOpponentIssue extends UtilityOpponentIssue<JonnyBlackOppo
 	 * @return Sorted list of values
 	 */
 	protected List<JonnyBlackOpponentValue> sortValuesByCount() {
-		return this.values.values()
-			.stream()
-            .sorted(($1, $2) -> Integer.compare($2.getCount(), $1.getCount()))
-            	.toList();
+		return this.rankedValues(this.ranks);
 	}
 	
 	/**
@@ -88,9 +129,29 @@ public class JonnyBlackOpponentIssue extends UtilityOpponentIssue<JonnyBlackOppo
 	 * @return Sorted list of values
 	 */
 	protected List<JonnyBlackOpponentValue> sortRecentValuesByCount() {
-		return this.values.values()
-			.stream()
-            .sorted(($1, $2) -> Integer.compare($2.getRecentCount(), $1.getRecentCount()))
-            	.toList();
+		return this.rankedValues(this.recentRanks);
+	}
+	
+	/**
+	 * List the values in rank order.
+	 * @param buckets Ranks to use
+	 * @return Values, highest rank first
+	 */
+	private List<JonnyBlackOpponentValue> rankedValues(final RankBuckets buckets) {
+		final List<JonnyBlackOpponentValue> ranked = new ArrayList<>(this.numValues);
+		for (int rank = 1; rank <= this.numValues; rank++) {
+			ranked.add(this.indexedValues.get(buckets.elementAtRank(rank)));
+		}
+		return ranked;
+	}
+	
+	/**
+	 * Index the values in issue order.
+	 */
+	private void indexValues() {
+		for (final JonnyBlackOpponentValue value : this.values.values()) {
+			this.valueIndices.put(value.getName(), this.indexedValues.size());
+			this.indexedValues.add(value);
+		}
 	}
 }
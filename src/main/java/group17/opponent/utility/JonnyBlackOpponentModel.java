@@ -22,4 +22,9 @@ public class JonnyBlackOpponentModel extends UtilityOpponentModel<JonnyBlackOppo
 	protected JonnyBlackOpponentIssue createUtilityOpponentIssue(final Issue issue) {
 		return new JonnyBlackOpponentIssue(issue);
 	}
+	
+	@Override
+	protected byte getStateType() {
+		return JONNY_BLACK_STATE;
+	}
 }
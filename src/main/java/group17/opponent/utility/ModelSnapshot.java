@@ -0,0 +1,48 @@
+package group17.opponent.utility;
+
+import java.util.List;
+
+import genius.core.Bid;
+import group17.opponent.AdditiveEstimate;
+import group17.opponent.EstimatedUtility;
+
+/**
+ * An immutable copy of the estimates of a {@link SnapshotModel}, which can be read from any thread without locking.
+ * Its recent estimate is additive, so candidate bids can be scored from it issue by issue.
+ */
+public interface ModelSnapshot extends AdditiveEstimate {
+
+	/**
+	 * Get the bids the model had received when this snapshot was taken.
+	 * @return Unmodifiable list of bids
+	 */
+	public List<Bid> getBids();
+
+	/**
+	 * Estimated opponent utility for a bid, from across every offer received.
+	 * @param bid Bid
+	 * @return Utility
+	 */
+	public double calculateUtility(final Bid bid);
+
+	/**
+	 * Estimated opponent utility for a bid, from recent offers only.
+	 * @param bid Bid
+	 * @return Utility
+	 */
+	public double calculateRecentUtility(final Bid bid);
+
+	/**
+	 * Mean of the total and recent estimated utility for a bid.
+	 * @param bid Bid
+	 * @return Utility
+	 */
+	public double calculateMeanUtility(final Bid bid);
+
+	/**
+	 * Estimated opponent utility for a bid, including confidence factor, as the model calculates it.
+	 * @param bid Bid
+	 * @return Estimated utility
+	 */
+	public EstimatedUtility calculateEstimatedUtility(final Bid bid);
+}
@@ -0,0 +1,213 @@
+package group17.opponent.utility;
+
+/**
+ * A count-min sketch of how often pairs of values, on different issues, are offered together. The opponent models
+ * treat issues independently; the sketch measures how far the opponent's offers depart from that, in fixed memory
+ * (depth x width counters) rather than a table over every pair of values of every pair of issues.
+ * <p>
+ * Each pair is counted in one counter per row, chosen by a different hash, and its estimated count is the smallest
+ * of them. Counts are only ever overestimated, by the other pairs sharing those counters; a conservative update
+ * (raising only the counters that hold the smallest count) keeps that to a minimum. Counting a bid hashes each of
+ * its issue pairs, O(issues^2) per row. Exact counts of the single values are kept alongside.
+ */
+public final class PairSketch {
+
+	public static final int DEFAULT_DEPTH = 4;
+	public static final int DEFAULT_WIDTH = 1024;
+
+	private static final long[] SEEDS = {
+		0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L, 0x94D049BB133111EBL, 0xD6E8FEB86659FD93L,
+		0xA0761D6478BD642FL, 0xE7037ED1A0B428DBL, 0x8EBC6AF09C88C6E3L, 0x589965CC75374CC3L
+	};
+
+	private final int numIssues;
+	private final int[][] valueCounts;
+	private final int[][] counters;
+	private final int depth;
+	private final int shift;
+	private final int[] slots;
+	private int bids = 0;
+
+	/**
+	 * Create a sketch with the default dimensions.
+	 * @param numValues Number of values of each issue
+	 */
+	public PairSketch(final int[] numValues) {
+		this(numValues, DEFAULT_DEPTH, DEFAULT_WIDTH);
+	}
+
+	/**
+	 * Create an empty sketch.
+	 * @param numValues Number of values of each issue
+	 * @param depth Number of rows (hashes), from 1 to 8
+	 * @param width Counters per row, rounded up to a power of two
+	 */
+	public PairSketch(final int[] numValues, final int depth, final int width) {
+		if (depth < 1 || depth > SEEDS.length) {
+			throw new IllegalArgumentException("Depth must be from 1 to " + SEEDS.length + ", but was " + depth);
+		}
+		this.numIssues = numValues.length;
+		this.valueCounts = new int[this.numIssues][];
+		for (int i = 0; i < this.numIssues; i++) {
+			this.valueCounts[i] = new int[numValues[i]];
+		}
+		final int bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(width, 2) - 1));
+		this.depth = depth;
+		this.shift = Long.SIZE - bits;
+		this.counters = new int[depth][1 << bits];
+		this.slots = new int[depth];
+	}
+
+	/**
+	 * Copy a sketch, e.g. for a snapshot that must not see later bids.
+	 * @param sketch Sketch to copy
+	 */
+	public PairSketch(final PairSketch sketch) {
+		this.numIssues = sketch.numIssues;
+		this.valueCounts = new int[this.numIssues][];
+		for (int i = 0; i < this.numIssues; i++) {
+			this.valueCounts[i] = sketch.valueCounts[i].clone();
+		}
+		this.counters = new int[sketch.depth][];
+		for (int row = 0; row < sketch.depth; row++) {
+			this.counters[row] = sketch.counters[row].clone();
+		}
+		this.depth = sketch.depth;
+		this.shift = sketch.shift;
+		this.slots = new int[sketch.depth];
+		this.bids = sketch.bids;
+	}
+
+	public int getDepth() {
+		return this.depth;
+	}
+
+	public int getWidth() {
+		return this.counters[0].length;
+	}
+
+	public int getBids() {
+		return this.bids;
+	}
+
+	/**
+	 * Count a bid: each of its values, and each pair of values on different issues.
+	 * @param codes Value codes; an issue with a negative code is left out
+	 */
+	public void add(final int[] codes) {
+		this.bids++;
+		for (int i = 0; i < this.numIssues; i++) {
+			if (codes[i] < 0) {
+				continue;
+			}
+			this.valueCounts[i][codes[i]]++;
+			for (int j = i + 1; j < this.numIssues; j++) {
+				if (codes[j] >= 0) {
+					this.increment(this.key(i, codes[i], j, codes[j]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Estimate how many bids included a pair of values. This is never less than the true count.
+	 * @param first First issue position
+	 * @param firstCode Value code on the first issue
+	 * @param second Second issue position, different from the first
+	 * @param secondCode Value code on the second issue
+	 * @return Estimated count
+	 */
+	public int estimate(final int first, final int firstCode, final int second, final int secondCode) {
+		final long key = (first < second) ? this.key(first, firstCode, second, secondCode)
+			: this.key(second, secondCode, first, firstCode);
+		return this.estimate(key);
+	}
+
+	/**
+	 * Get how many bids included a value.
+	 * @param position Issue position
+	 * @param code Value code
+	 * @return Count
+	 */
+	public int getCount(final int position, final int code) {
+		return this.valueCounts[position][code];
+	}
+
+	/**
+	 * Score how much more often the opponent offers the combinations of values in a bid than independent issues
+	 * would predict: the mean, over every pair of issues, of the pair's estimated frequency less the product of the
+	 * two values' frequencies. Positive scores mean the values tend to be offered together, negative that they
+	 * tend to be offered apart.
+	 * @param codes Value codes; an issue with a negative code is left out
+	 * @return Interaction score, from -0.25 to 1, or zero before any bid
+	 */
+	public double interaction(final int[] codes) {
+		if (this.bids == 0) {
+			return 0.0;
+		}
+		final double bids = this.bids;
+		double score = 0.0;
+		int pairs = 0;
+		for (int i = 0; i < this.numIssues; i++) {
+			if (codes[i] < 0) {
+				continue;
+			}
+			final double first = this.valueCounts[i][codes[i]] / bids;
+			for (int j = i + 1; j < this.numIssues; j++) {
+				if (codes[j] >= 0) {
+					final double pair = this.estimate(this.key(i, codes[i], j, codes[j])) / bids;
+					score += pair - first * (this.valueCounts[j][codes[j]] / bids);
+					pairs++;
+				}
+			}
+		}
+		return (pairs > 0) ? score / pairs : 0.0;
+	}
+
+	/**
+	 * Pack a pair of values, with the first issue before the second, into a key.
+	 */
+	private long key(final int first, final int firstCode, final int second, final int secondCode) {
+		return ((long) (first * this.numIssues + second) << 32) | ((long) firstCode << 16) | secondCode;
+	}
+
+	private int slot(final int row, final long key) {
+		final long mixed = (key ^ SEEDS[row]) * 0x9E3779B97F4A7C15L;
+		return (int) ((mixed ^ (mixed >>> 29)) * SEEDS[row] >>> this.shift);
+	}
+
+	/**
+	 * Conservative update: raise only the counters holding the smallest count.
+	 */
+	private void increment(final long key) {
+		int min = Integer.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++) {
+			this.slots[row] = this.slot(row, key);
+			min = Math.min(min, this.counters[row][this.slots[row]]);
+		}
+		for (int row = 0; row < this.depth; row++) {
+			if (this.counters[row][this.slots[row]] == min) {
+				this.counters[row][this.slots[row]]++;
+			}
+		}
+	}
+
+	private int estimate(final long key) {
+		int min = Integer.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++) {
+			min = Math.min(min, this.counters[row][this.slot(row, key)]);
+		}
+		return min;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("PairSketch: depth=")
+			.append(this.depth)
+			.append(", width=")
+			.append(this.getWidth())
+			.append(", bids=")
+			.append(this.bids)
+			.toString();
+	}
+}
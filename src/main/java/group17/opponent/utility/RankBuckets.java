@@ -0,0 +1,188 @@
+package group17.opponent.utility;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ranks a fixed set of elements (value codes 0 to n-1) by count, highest count first, as the counts change by one.
+ * Elements are held in an array in ascending order of count, with the elements of each count forming a contiguous
+ * bucket. Incrementing an element swaps it with the last element of its bucket, and then moves the bucket boundary
+ * so it becomes the first element of the next bucket up; decrementing does the opposite. Both are O(1), with no
+ * sorting or allocation, and every rank can be read in O(1). A change alters at most two ranks, those of the element
+ * and the one it swapped with, and {@link #drainChanged(IntConsumer)} visits just the elements whose rank changed.
+ * <p>
+ * Initially, and after {@link #reset(int[])}, ties are ranked by element, lowest first. After that the order of tied
+ * elements is arbitrary, as a swap can reorder them.
+ */
+public final class RankBuckets {
+
+	private final int size;
+	private final int[] counts;
+	private final int[] elements;
+	private final int[] positions;
+	private int[] bucketStart;
+	private final boolean[] changed;
+	private final int[] changedElements;
+	private int numChanged = 0;
+
+	/**
+	 * Create buckets for a number of elements, all with a count of zero.
+	 * @param size Number of elements
+	 */
+	public RankBuckets(final int size) {
+		this.size = size;
+		this.counts = new int[size];
+		this.elements = new int[size];
+		this.positions = new int[size];
+		this.bucketStart = new int[2];
+		this.changed = new boolean[size];
+		this.changedElements = new int[size];
+		this.reset(this.counts);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public int getCount(final int element) {
+		return this.counts[element];
+	}
+
+	/**
+	 * Increment the count of an element.
+	 * @param element Element
+	 */
+	public void increment(final int element) {
+		final int count = this.counts[element];
+		this.ensureBucket(count + 2);
+		final int last = this.bucketStart[count + 1] - 1;
+		this.swap(element, this.elements[last]);
+		this.bucketStart[count + 1]--;
+		this.counts[element]++;
+	}
+
+	/**
+	 * Decrement the count of an element. Counts never go below zero.
+	 * @param element Element
+	 */
+	public void decrement(final int element) {
+		final int count = this.counts[element];
+		if (count > 0) {
+			final int first = this.bucketStart[count];
+			this.swap(element, this.elements[first]);
+			this.bucketStart[count]++;
+			this.counts[element]--;
+		}
+	}
+
+	/**
+	 * Get the rank of an element.
+	 * @param element Element
+	 * @return Rank, from 1 (highest count) to n
+	 */
+	public int rank(final int element) {
+		return this.size - this.positions[element];
+	}
+
+	/**
+	 * Get the element with a rank.
+	 * @param rank Rank, from 1 (highest count) to n
+	 * @return Element
+	 */
+	public int elementAtRank(final int rank) {
+		return this.elements[this.size - rank];
+	}
+
+	/**
+	 * Visit each element whose rank has changed since the last call, or since the buckets were created or reset,
+	 * and forget them.
+	 * @param action Action for each element
+	 */
+	public void drainChanged(final IntConsumer action) {
+		for (int i = 0; i < this.numChanged; i++) {
+			final int element = this.changedElements[i];
+			this.changed[element] = false;
+			action.accept(element);
+		}
+		this.numChanged = 0;
+	}
+
+	/**
+	 * Replace every count, e.g. after restoring state. Ties are ranked by element, lowest first. Every element
+	 * counts as changed. Negative counts are treated as zero.
+	 * @param newCounts Counts, by element
+	 */
+	public void reset(final int[] newCounts) {
+		final long[] keys = new long[this.size];
+		int maxCount = 0;
+		for (int e = 0; e < this.size; e++) {
+			final int count = Math.max(0, newCounts[e]);
+			this.counts[e] = count;
+			maxCount = Math.max(maxCount, count);
+			keys[e] = ((long) count * this.size) + (this.size - 1 - e);
+		}
+		Arrays.sort(keys);
+		this.bucketStart = new int[maxCount + 2];
+		Arrays.fill(this.bucketStart, this.size);
+		for (int p = this.size - 1; p >= 0; p--) {
+			final int element = this.size - 1 - (int) (keys[p] % this.size);
+			this.elements[p] = element;
+			this.positions[element] = p;
+			this.bucketStart[this.counts[element]] = p;
+			this.markChanged(element);
+		}
+		for (int c = maxCount; c >= 0; c--) {
+			if (this.bucketStart[c] == this.size) {
+				this.bucketStart[c] = this.bucketStart[c + 1];
+			}
+		}
+	}
+
+	/**
+	 * Make sure the bucket start array covers a count, with every new (empty) bucket starting at the end.
+	 */
+	private void ensureBucket(final int count) {
+		if (count >= this.bucketStart.length) {
+			final int oldLength = this.bucketStart.length;
+			this.bucketStart = Arrays.copyOf(this.bucketStart, Math.max(oldLength * 2, count + 1));
+			Arrays.fill(this.bucketStart, oldLength, this.bucketStart.length, this.size);
+		}
+	}
+
+	/**
+	 * Swap the positions of two elements, marking both as changed unless they are the same element.
+	 */
+	private void swap(final int first, final int second) {
+		if (first == second) {
+			return;
+		}
+		final int firstPosition = this.positions[first];
+		final int secondPosition = this.positions[second];
+		this.elements[firstPosition] = second;
+		this.elements[secondPosition] = first;
+		this.positions[first] = secondPosition;
+		this.positions[second] = firstPosition;
+		this.markChanged(first);
+		this.markChanged(second);
+	}
+
+	private void markChanged(final int element) {
+		if (!this.changed[element]) {
+			this.changed[element] = true;
+			this.changedElements[this.numChanged++] = element;
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("RankBuckets: [");
+		for (int rank = 1; rank <= this.size; rank++) {
+			final int element = this.elementAtRank(rank);
+			builder.append(element).append("=").append(this.counts[element]);
+			if (rank < this.size) {
+				builder.append(", ");
+			}
+		}
+		return builder.append("]").toString();
+	}
+}
@@ -0,0 +1,21 @@
+package group17.opponent.utility;
+
+import java.util.List;
+
+import genius.core.Bid;
+import group17.opponent.OpponentModel;
+
+/**
+ * An {@link OpponentModel} whose estimates can be copied into an immutable {@link ModelSnapshot}, so that it can be
+ * updated on a background thread by an {@link AsyncOpponentModel}.
+ * @param <S> Snapshot type
+ */
+public interface SnapshotModel<S extends ModelSnapshot> extends OpponentModel {
+
+	/**
+	 * Take an immutable copy of the current estimates.
+	 * @param bids Immutable view of the bids received so far, which the snapshot keeps
+	 * @return Snapshot of this model
+	 */
+	public S snapshot(final List<Bid> bids);
+}
@@ -0,0 +1,179 @@
+package group17.opponent.utility;
+
+import java.util.List;
+
+import genius.core.Bid;
+import group17.domain.BidEncoder;
+import group17.opponent.EstimatedUtility;
+
+/**
+ * An immutable copy of the primitive state of a {@link UtilityOpponentModel}: issue weights and value
+ * preferences, indexed by {@link BidEncoder} issue position and value code, and its pair sketch if it keeps one.
+ * A snapshot can be read from any thread without locking.
+ */
+public final class UtilityModelSnapshot implements ModelSnapshot {
+
+	private final BidEncoder encoder;
+	private final int bidUpdates;
+	private final double[] weights;
+	private final double[] recentWeights;
+	private final double[] weightVariances;
+	private final double[][] preferences;
+	private final double[][] recentPreferences;
+	private final PairSketch pairSketch;
+	private final double interactionWeight;
+	private final List<Bid> bids;
+
+	/**
+	 * Create a snapshot. The arrays, sketch and list of bids are owned by the snapshot and must not be changed 
+	 * afterwards.
+	 * @param encoder Bid encoder for the domain
+	 * @param bidUpdates Number of bid updates applied to the model
+	 * @param weights Normalized issue weights
+	 * @param recentWeights Normalized recent issue weights
+	 * @param weightVariances Variance of each normalized issue weight
+	 * @param preferences Value preferences, by issue and value
+	 * @param recentPreferences Recent value preferences, by issue and value
+	 * @param pairSketch Pair sketch, or null if the model keeps none
+	 * @param interactionWeight Weight of the pair interaction score
+	 * @param bids Bids received so far
+	 */
+	UtilityModelSnapshot(final BidEncoder encoder, final int bidUpdates, final double[] weights, final double[] recentWeights,
+			final double[] weightVariances, final double[][] preferences, final double[][] recentPreferences, 
+			final PairSketch pairSketch, final double interactionWeight, final List<Bid> bids) {
+		this.encoder = encoder;
+		this.bidUpdates = bidUpdates;
+		this.weights = weights;
+		this.recentWeights = recentWeights;
+		this.weightVariances = weightVariances;
+		this.preferences = preferences;
+		this.recentPreferences = recentPreferences;
+		this.pairSketch = pairSketch;
+		this.interactionWeight = interactionWeight;
+		this.bids = bids;
+	}
+
+	@Override
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+
+	public int getBidUpdates() {
+		return this.bidUpdates;
+	}
+
+	@Override
+	public List<Bid> getBids() {
+		return this.bids;
+	}
+
+	public double getWeight(final int position) {
+		return this.weights[position];
+	}
+
+	@Override
+	public double getRecentWeight(final int position) {
+		return this.recentWeights[position];
+	}
+
+	public double getPreference(final int position, final int code) {
+		return this.preferences[position][code];
+	}
+
+	@Override
+	public double getRecentPreference(final int position, final int code) {
+		return this.recentPreferences[position][code];
+	}
+
+	@Override
+	public boolean hasInteraction() {
+		return this.pairSketch != null;
+	}
+
+	@Override
+	public double getInteraction(final int[] codes) {
+		return (this.pairSketch != null) ? this.interactionWeight * this.pairSketch.interaction(codes) : 0.0;
+	}
+
+	@Override
+	public double calculateUtility(final Bid bid) {
+		return (bid != null) ? this.calculateUtility(this.encoder.encode(bid)) : EstimatedUtility.NO_UTILITY;
+	}
+
+	/**
+	 * Estimated opponent utility for an encoded bid, from across every offer received.
+	 * @param codes Value codes
+	 * @return Utility
+	 */
+	public double calculateUtility(final int[] codes) {
+		return this.sum(this.weights, this.preferences, codes) + this.getInteraction(codes);
+	}
+
+	@Override
+	public double calculateRecentUtility(final Bid bid) {
+		return (bid != null) ? this.calculateRecentUtility(this.encoder.encode(bid)) : EstimatedUtility.NO_UTILITY;
+	}
+
+	/**
+	 * Estimated opponent utility for an encoded bid, from recent offers only.
+	 * @param codes Value codes
+	 * @return Utility
+	 */
+	public double calculateRecentUtility(final int[] codes) {
+		return this.sum(this.recentWeights, this.recentPreferences, codes) + this.getInteraction(codes);
+	}
+
+	@Override
+	public double calculateMeanUtility(final Bid bid) {
+		if (bid == null) {
+			return EstimatedUtility.NO_UTILITY;
+		}
+		final int[] codes = this.encoder.encode(bid);
+		return (this.calculateUtility(codes) + this.calculateRecentUtility(codes)) / 2.0;
+	}
+
+	@Override
+	public EstimatedUtility calculateEstimatedUtility(final Bid bid) {
+		if (bid == null) {
+			return EstimatedUtility.NO_MEANINGFUL_ESTIMATE;
+		}
+		final int[] codes = this.encoder.encode(bid);
+		if (this.bidUpdates == 0) {
+			return new EstimatedUtility(this.calculateUtility(codes), EstimatedUtility.NO_CONFIDENCE);
+		}
+		double utility = 0.0;
+		double variance = 0.0;
+		for (int i = 0; i < this.weights.length; i++) {
+			final int code = codes[i];
+			if (code >= 0) {
+				utility += this.weights[i] * this.preferences[i][code];
+				variance += UtilityOpponentModel.termVariance(this.weights[i], this.weightVariances[i], 
+					this.preferences[i][code], this.bidUpdates);
+			}
+		}
+		return EstimatedUtility.fromVariance(utility + this.getInteraction(codes), variance);
+	}
+
+	/**
+	 * Weighted sum of preferences, skipping any values we don't recognise.
+	 */
+	private double sum(final double[] issueWeights, final double[][] valuePreferences, final int[] codes) {
+		double utility = 0.0;
+		for (int i = 0; i < issueWeights.length; i++) {
+			final int code = codes[i];
+			if (code >= 0) {
+				utility += issueWeights[i] * valuePreferences[i][code];
+			}
+		}
+		return utility;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("UtilityModelSnapshot: bidUpdates=")
+			.append(this.bidUpdates)
+			.append(", issues=")
+			.append(this.weights.length)
+			.toString();
+	}
+}
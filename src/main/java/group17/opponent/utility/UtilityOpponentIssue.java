@@ -3,9 +3,10 @@
  */
 package group17.opponent.utility;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +27,11 @@ public abstract class UtilityOpponentIssue<UOV extends UtilityOpponentValue> ext
 	protected double unnormalizedWeight = 0.0;
 	protected double unnormalizedRecentWeight = 0.0;
 	
+	// Running mean and sum of squared deviations of the normalized weight across updates (Welford).
+	protected int weightSamples = 0;
+	protected double weightMean = 0.0;
+	protected double weightM2 = 0.0;
+	
 	protected Map<String, UOV> values;
 		
 	protected UtilityOpponentIssue(int issueNo, String issueName, String[] valueNames) {
@@ -64,6 +70,36 @@ public abstract class UtilityOpponentIssue<UOV extends UtilityOpponentValue> ext
 		return unnormalizedRecentWeight;
 	}
 
+	/**
+	 * Variance of this issue's normalized weight as an estimate: the spread of the weight across updates, over
+	 * the number of updates. Until there are two samples, the largest variance of a weight, 0.25, is assumed.
+	 * @return Weight variance
+	 */
+	public double getWeightVariance() {
+		if (this.weightSamples < 2) {
+			return UtilityOpponentModel.MAX_VARIANCE;
+		}
+		return this.weightM2 / ((this.weightSamples - 1) * (double) this.weightSamples);
+	}
+	
+	public int getWeightSamples() {
+		return this.weightSamples;
+	}
+	
+	/**
+	 * Add the current normalized weight to the running weight statistics, in O(1) (Welford's algorithm).
+	 * An undefined weight, before any bids, is skipped.
+	 */
+	public void recordWeightSample() {
+		if (Double.isNaN(this.normalizedWeight)) {
+			return;
+		}
+		this.weightSamples++;
+		final double delta = this.normalizedWeight - this.weightMean;
+		this.weightMean += delta / this.weightSamples;
+		this.weightM2 += delta * (this.normalizedWeight - this.weightMean);
+	}
+
 	public UOV getValue(final String valueName) {
 		return this.values.get(valueName);
 	}
@@ -94,6 +130,56 @@ public abstract class UtilityOpponentIssue<UOV extends UtilityOpponentValue> ext
 		}
 	}
 	
+	/**
+	 * Number of bytes written by {@link #writeState(ByteBuffer, String[])}.
+	 * @return State size in bytes
+	 */
+	public int stateBytes() {
+		return Short.BYTES + 6 * Double.BYTES + Integer.BYTES + this.values.size() * UtilityOpponentValue.STATE_BYTES;
+	}
+	
+	/**
+	 * Write the weights of this issue, followed by the state of each value, to a buffer.
+	 * @param buffer Buffer with at least {@link #stateBytes()} remaining
+	 * @param valueNames Value names, in the order they should be written
+	 */
+	public void writeState(final ByteBuffer buffer, final String[] valueNames) {
+		buffer.putShort((short) valueNames.length)
+			.putDouble(this.normalizedWeight)
+			.putDouble(this.normalizedRecentWeight)
+			.putDouble(this.unnormalizedWeight)
+			.putDouble(this.unnormalizedRecentWeight)
+			.putInt(this.weightSamples)
+			.putDouble(this.weightMean)
+			.putDouble(this.weightM2);
+		for (final String valueName : valueNames) {
+			this.values.get(valueName).writeState(buffer);
+		}
+	}
+	
+	/**
+	 * Restore the weights of this issue and the state of each value from a buffer.
+	 * @param buffer Buffer written by {@link #writeState(ByteBuffer, String[])}
+	 * @param valueNames Value names, in the order they were written
+	 */
+	public void readState(final ByteBuffer buffer, final String[] valueNames) {
+		final int numValues = buffer.getShort();
+		if (numValues != valueNames.length) {
+			throw new IllegalArgumentException("Issue " + this.name + " has " + valueNames.length 
+				+ " values, but the snapshot has " + numValues);
+		}
+		this.normalizedWeight = buffer.getDouble();
+		this.normalizedRecentWeight = buffer.getDouble();
+		this.unnormalizedWeight = buffer.getDouble();
+		this.unnormalizedRecentWeight = buffer.getDouble();
+		this.weightSamples = buffer.getInt();
+		this.weightMean = buffer.getDouble();
+		this.weightM2 = buffer.getDouble();
+		for (final String valueName : valueNames) {
+			this.values.get(valueName).readState(buffer);
+		}
+	}
+	
 	/**
 	 * (Re)calculate the overall normalized weight of this issue.
 	 * @param totalUnnormalizedWeight Total unnormalized weight across all issues.
@@ -116,7 +202,7 @@ public abstract class UtilityOpponentIssue<UOV extends UtilityOpponentValue> ext
 		
 	@Override
 	protected int createOpponentValues(final Issue issue) {
-		this.values = new HashMap<>();
+		this.values = new LinkedHashMap<>();
 		if (issue instanceof IssueDiscrete) {
 			final IssueDiscrete discrete = (IssueDiscrete) issue;
 			for (final Value value : discrete.getValues()) {
@@ -130,7 +216,7 @@ public abstract class UtilityOpponentIssue<UOV extends UtilityOpponentValue> ext
 	
 	@Override
 	protected int createOpponentValues(final String... valueNames) {
-		this.values = new HashMap<>();
+		this.values = new LinkedHashMap<>();
 		for (final String valueName : valueNames) {
 			UOV value = this.createUtilityOpponentValue(valueName);
 			this.values.put(valueName, value);
@@ -1,6 +1,11 @@
 package group17.opponent.utility;
 
-import java.util.HashMap;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -10,7 +15,7 @@ import genius.core.Bid;
 import genius.core.Domain;
 import genius.core.issue.Issue;
 import genius.core.issue.Value;
-import group17.domain.BidValue;
+import group17.domain.BidEncoder;
 import group17.domain.DomainTranslator;
 import group17.opponent.AbstractOpponentModel;
 import group17.opponent.EstimatedUtility;
@@ -20,18 +25,34 @@ import group17.opponent.OpponentModel;
  * Generic {@link OpponentModel} that handles preference values, weights and utilities.
  */
 public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>, UOV extends UtilityOpponentValue> 
-    extends AbstractOpponentModel {
+    extends AbstractOpponentModel implements SnapshotModel<UtilityModelSnapshot> {
 
 	// TODO Remove or replace all logging before release!
 	private static final Logger LOG = LoggerFactory.getLogger(UtilityOpponentModel.class);
 	
-	private static final double DEFAULT_CONFIDENCE_LEVEL = 1.0;
+	/** The largest variance of an estimate from 0 to 1, assumed when there is nothing to go on. */
+	static final double MAX_VARIANCE = 0.25;
 	
-	private Map<String, UOI> issues = new HashMap<>();
+	// Binary state format.
+	public static final int STATE_MAGIC = 0x41313753; // "A17S"
+	public static final byte STATE_VERSION = 4;
+	private static final int STATE_HEADER_BYTES = Integer.BYTES + 2 * Byte.BYTES + 2 * Integer.BYTES + 2 * Double.BYTES 
+		+ Short.BYTES + Double.BYTES + Byte.BYTES + Integer.BYTES;
+	// Largest pair sketch width accepted from a state, so a corrupt state can't allocate without limit.
+	private static final int MAX_STATE_SKETCH_WIDTH = 1 << 20;
+	// Model types in the binary state format; these are part of the format, so must never be reused.
+	public static final byte JONNY_BLACK_STATE = 0;
+	public static final byte AGENT17_STATE = 1;
+	
+	private Map<String, UOI> issues = new LinkedHashMap<>();
+	private BidEncoder encoder;
+	private int[] codes;
 	private int bidUpdates = 0;
 	private int recentBidWindow = 10; // Safe default
 	private double totalUnnormalized = 0.0;
 	private double recentUnnormalized = 0.0;
+	private PairSketch pairSketch;
+	private double interactionWeight = 0.0;
 	
 	/**
 	 * Create an initial {@link OpponentModel} from the domain.
@@ -40,6 +61,8 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 	public UtilityOpponentModel(final Domain domain) {
 		if (domain != null) {
 			this.createIssueMap(domain);
+			this.encoder = new BidEncoder(domain);
+			this.codes = new int[this.encoder.getNumberOfIssues()];
 		} else {
 			LOG.error("No issues processed: the domain was null.");
 		}
@@ -62,20 +85,250 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 		this.updateIssuesFromBid(bid);
 		this.removeOldBidFromRecentCounts();
 		this.recalculateModelEstimates();
-		this.generateAnalytics(bid, placedBid);
+		if (this.pairSketch != null) {
+			this.pairSketch.add(this.encoder.encode(bid, this.codes));
+		}
 	}
 	
 	/**
-	 * Dump a CSV representation of the bid to the log file.
+	 * Track how often pairs of values are offered together in a {@link PairSketch}, and add its interaction score
+	 * for a bid, times a weight, to every utility estimate. This should be set before any bids are received.
+	 * By default no sketch is kept.
+	 * @param sketch Pair sketch for this model's domain, or null to stop tracking pairs
+	 * @param weight Weight of the interaction score
+	 */
+	public void setPairInteraction(final PairSketch sketch, final double weight) {
+		this.pairSketch = sketch;
+		this.interactionWeight = weight;
+	}
+
+	/**
+	 * Get the interaction score of a bid from the pair sketch.
+	 * @param bid Bid
+	 * @return Interaction score, or zero if no sketch is kept
+	 */
+	public double calculateInteraction(final Bid bid) {
+		return (this.pairSketch != null && bid != null) ? this.pairSketch.interaction(this.encoder.encode(bid, this.codes)) : 0.0;
+	}
+
+	/**
+	 * Get the weighted interaction term for a bid.
 	 * @param bid Bid
+	 * @return Interaction score times its weight, or zero if no sketch is kept
+	 */
+	private double weightedInteraction(final Bid bid) {
+		return (this.pairSketch != null) ? this.interactionWeight * this.calculateInteraction(bid) : 0.0;
+	}
+
+	/**
+	 * Take an immutable copy of the current weights and preference values.
+	 * @return Snapshot of this model
+	 */
+	public UtilityModelSnapshot snapshot() {
+		return this.snapshot(Collections.unmodifiableList(new ArrayList<>(this.bids)));
+	}
+	
+	/**
+	 * Take an immutable copy of the current weights and preference values.
+	 * @param bids Immutable view of the bids received so far
+	 * @return Snapshot of this model
+	 */
+	@Override
+	public UtilityModelSnapshot snapshot(final List<Bid> bids) {
+		final int numIssues = this.numberOfEncodedIssues();
+		final double[] weights = new double[numIssues];
+		final double[] recentWeights = new double[numIssues];
+		final double[] weightVariances = new double[numIssues];
+		final double[][] preferences = new double[numIssues][];
+		final double[][] recentPreferences = new double[numIssues][];
+		for (int i = 0; i < numIssues; i++) {
+			final UOI issue = this.issues.get(this.encoder.getIssueName(i));
+			weights[i] = issue.getNormalizedWeight();
+			recentWeights[i] = issue.getNormalizedRecentWeight();
+			weightVariances[i] = issue.getWeightVariance();
+			final int numValues = this.encoder.getNumberOfValues(i);
+			preferences[i] = new double[numValues];
+			recentPreferences[i] = new double[numValues];
+			for (int v = 0; v < numValues; v++) {
+				final UtilityOpponentValue value = issue.getValue(this.encoder.getValueName(i, v));
+				preferences[i][v] = value.getPreferenceValue();
+				recentPreferences[i][v] = value.getRecentPreferenceValue();
+			}
+		}
+		return new UtilityModelSnapshot(this.encoder, this.bidUpdates, weights, recentWeights, weightVariances, preferences, 
+			recentPreferences, (this.pairSketch != null) ? new PairSketch(this.pairSketch) : null, this.interactionWeight, bids);
+	}
+	
+	/**
+	 * Get the encoder used for bids in this model's domain.
+	 * @return Bid encoder
 	 */
-	private void generateAnalytics(final Bid bid, final boolean placedBid) {
-		final double utility = this.calculateUtility(bid);
-		final BidValue bidValue = BidValue.createOpponentBidValue(bid, utility);
-		if (!placedBid && this.bidUpdates == 1) {
-			LOG.debug("{}", bidValue.toStringLabels());
+	public BidEncoder getEncoder() {
+		return this.encoder;
+	}
+	
+	/**
+	 * Export the full state of this model - counts, recent counts, preference values, weights, the pair interaction
+	 * weight and sketch dimensions, and the encoded bid history - in a compact, versioned binary format. The sketch
+	 * counters are not exported, as they are rebuilt from the bid history.
+	 * @return Buffer containing the state, ready for reading
+	 * @throws IllegalStateException If a bid received has a value outside the domain, which cannot be encoded
+	 */
+	public ByteBuffer exportState() {
+		final int numIssues = this.numberOfEncodedIssues();
+		final int codeBytes = this.codeBytes();
+		int size = STATE_HEADER_BYTES + Integer.BYTES + Byte.BYTES + this.bids.size() * numIssues * codeBytes;
+		for (int i = 0; i < numIssues; i++) {
+			size += this.issues.get(this.encoder.getIssueName(i)).stateBytes();
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putInt(STATE_MAGIC)
+			.put(STATE_VERSION)
+			.put(this.getStateType())
+			.putInt(this.bidUpdates)
+			.putInt(this.recentBidWindow)
+			.putDouble(this.totalUnnormalized)
+			.putDouble(this.recentUnnormalized)
+			.putShort((short) numIssues)
+			.putDouble(this.interactionWeight)
+			.put((byte) ((this.pairSketch != null) ? this.pairSketch.getDepth() : 0))
+			.putInt((this.pairSketch != null) ? this.pairSketch.getWidth() : 0);
+		for (int i = 0; i < numIssues; i++) {
+			final UOI issue = this.issues.get(this.encoder.getIssueName(i));
+			issue.writeState(buffer, this.valueNames(i));
+		}
+		buffer.putInt(this.bids.size()).put((byte) codeBytes);
+		final int[] codes = new int[numIssues];
+		for (final Bid bid : this.bids) {
+			this.encoder.encode(bid, codes);
+			for (final int code : codes) {
+				if (code == BidEncoder.NO_CODE) {
+					throw new IllegalStateException("Cannot export a bid with a value outside the domain: " + bid);
+				}
+				if (codeBytes == Byte.BYTES) {
+					buffer.put((byte) code);
+				} else {
+					buffer.putChar((char) code);
+				}
+			}
+		}
+		return buffer.flip();
+	}
+	
+	/**
+	 * Replace the state of this model with one previously exported by {@link #exportState()}.
+	 * The model must have been created from the same domain, and be of the same type. The whole state is parsed
+	 * and checked before any of it is applied, so a state that is rejected leaves this model unchanged. If the state
+	 * had a pair sketch, a new one is rebuilt from the bid history, replacing any this model had.
+	 * @param buffer Buffer containing the exported state
+	 * @throws IllegalArgumentException If the state is not valid for this model, or is truncated
+	 */
+	public void importState(final ByteBuffer buffer) {
+		final ByteBuffer state = buffer.duplicate();
+		final int bidUpdates;
+		final int recentBidWindow;
+		final double totalUnnormalized;
+		final double recentUnnormalized;
+		final int[] issueStates;
+		final double interactionWeight;
+		final int sketchDepth;
+		final int sketchWidth;
+		final List<Bid> bids;
+		try {
+			if (state.getInt() != STATE_MAGIC) {
+				throw new IllegalArgumentException("Not an opponent model state.");
+			}
+			final byte version = state.get();
+			if (version != STATE_VERSION) {
+				throw new IllegalArgumentException("Unsupported opponent model state version " + version);
+			}
+			if (state.get() != this.getStateType()) {
+				throw new IllegalArgumentException("Opponent model state was not exported from a " + this.getClass().getSimpleName());
+			}
+			bidUpdates = state.getInt();
+			recentBidWindow = state.getInt();
+			totalUnnormalized = state.getDouble();
+			recentUnnormalized = state.getDouble();
+			final int numIssues = state.getShort();
+			if (numIssues != this.numberOfEncodedIssues()) {
+				throw new IllegalArgumentException("Domain has " + this.numberOfEncodedIssues() + " issues, but the state has " + numIssues);
+			}
+			interactionWeight = state.getDouble();
+			sketchDepth = state.get();
+			sketchWidth = state.getInt();
+			if (sketchDepth != 0 && (sketchWidth < 2 || sketchWidth > MAX_STATE_SKETCH_WIDTH || Integer.bitCount(sketchWidth) != 1)) {
+				throw new IllegalArgumentException("Opponent model state has an invalid pair sketch width " + sketchWidth);
+			}
+			// Each issue's state has a fixed size, so it is only located and checked here, and read when applied.
+			issueStates = new int[numIssues];
+			for (int i = 0; i < numIssues; i++) {
+				final UOI issue = this.issues.get(this.encoder.getIssueName(i));
+				issueStates[i] = state.position();
+				final int numValues = state.getShort(issueStates[i]);
+				if (numValues != this.encoder.getNumberOfValues(i)) {
+					throw new IllegalArgumentException("Issue " + this.encoder.getIssueName(i) + " has " 
+						+ this.encoder.getNumberOfValues(i) + " values, but the state has " + numValues);
+				}
+				if (state.remaining() < issue.stateBytes()) {
+					throw new BufferUnderflowException();
+				}
+				state.position(issueStates[i] + issue.stateBytes());
+			}
+			bids = this.readBids(state, numIssues);
+		} catch (BufferUnderflowException bue) {
+			throw new IllegalArgumentException("Opponent model state is truncated.", bue);
+		}
+		final PairSketch sketch = (sketchDepth != 0) ? new PairSketch(this.numberOfValues(), sketchDepth, sketchWidth) : null;
+		this.bidUpdates = bidUpdates;
+		this.recentBidWindow = recentBidWindow;
+		this.totalUnnormalized = totalUnnormalized;
+		this.recentUnnormalized = recentUnnormalized;
+		final int end = state.position();
+		for (int i = 0; i < issueStates.length; i++) {
+			this.issues.get(this.encoder.getIssueName(i)).readState(state.position(issueStates[i]), this.valueNames(i));
+		}
+		this.bids.clear();
+		this.bids.addAll(bids);
+		this.pairSketch = sketch;
+		this.interactionWeight = interactionWeight;
+		if (sketch != null) {
+			for (final Bid bid : bids) {
+				sketch.add(this.encoder.encode(bid, this.codes));
+			}
+		}
+		buffer.position(end);
+	}
+	
+	/**
+	 * Read and decode the bid history of an exported state.
+	 * @param state Buffer positioned at the bid history
+	 * @param numIssues Number of issues
+	 * @return Bids
+	 * @throws IllegalArgumentException If a value code is not valid for the domain
+	 */
+	private List<Bid> readBids(final ByteBuffer state, final int numIssues) {
+		final int numBids = state.getInt();
+		final int codeBytes = state.get();
+		if (numBids < 0 || (codeBytes != Byte.BYTES && codeBytes != Character.BYTES)) {
+			throw new IllegalArgumentException("Opponent model state has an invalid bid history.");
+		}
+		if (state.remaining() < (long) numBids * numIssues * codeBytes) {
+			throw new BufferUnderflowException();
 		}
-		LOG.debug("{}", bidValue);
+		final List<Bid> bids = new ArrayList<>(numBids);
+		final int[] codes = new int[numIssues];
+		for (int b = 0; b < numBids; b++) {
+			for (int i = 0; i < numIssues; i++) {
+				codes[i] = (codeBytes == Byte.BYTES) ? Byte.toUnsignedInt(state.get()) : state.getChar();
+				if (codes[i] >= this.encoder.getNumberOfValues(i)) {
+					throw new IllegalArgumentException("Opponent model state has value code " + codes[i] 
+						+ " for issue " + this.encoder.getIssueName(i) + ", which has " 
+						+ this.encoder.getNumberOfValues(i) + " values");
+				}
+			}
+			bids.add(this.encoder.decode(codes));
+		}
+		return bids;
 	}
 	
 	@Override
@@ -91,30 +344,69 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 	protected double calculateUtilityForBid(final Bid bid) {
 		double utility = 0.0;
 		for (final Issue issue : bid.getIssues()) {
-			final Value value = bid.getValue(issue);
-			final String issueName = DomainTranslator.issueName(issue);
-			final String valueName = DomainTranslator.valueName(value);
-			utility += getIssueValueUtility(issueName, valueName); 
+			if (issue != null) {
+				final Value value = bid.getValue(issue);
+				final String issueName = DomainTranslator.issueName(issue);
+				final String valueName = DomainTranslator.valueName(value);
+				utility += getIssueValueUtility(issueName, valueName); 
+			}
 		}
-		return utility;
+		return utility + this.weightedInteraction(bid);
 	}
 	
 	@Override
 	protected double calculateRecentUtilityForBid(final Bid bid) {
 		double utility = 0.0;
 		for (final Issue issue : bid.getIssues()) {
-			final Value value = bid.getValue(issue);
-			final String issueName = DomainTranslator.issueName(issue);
-			final String valueName = DomainTranslator.valueName(value);
-			utility += getRecentIssueValueUtility(issueName, valueName); 
+			if (issue != null) {
+				final Value value = bid.getValue(issue);
+				final String issueName = DomainTranslator.issueName(issue);
+				final String valueName = DomainTranslator.valueName(value);
+				utility += getRecentIssueValueUtility(issueName, valueName); 
+			}
 		}
-		return utility;
+		return utility + this.weightedInteraction(bid);
 	}
 
+	/**
+	 * Estimate the utility of a bid, and its variance in the same pass over the issues. Each issue contributes
+	 * the variance of a product of its weight and the value's preference, treated as independent, with the
+	 * preference taken as a frequency over the bids received. The pair interaction, if any, is taken as exact.
+	 */
 	@Override
 	protected EstimatedUtility calculateEstimatedUtilityForBid(final Bid bid) {
-		final double utility = this.calculateUtilityForBid(bid);
-		return new EstimatedUtility(utility, DEFAULT_CONFIDENCE_LEVEL);
+		if (this.bidUpdates == 0) {
+			return new EstimatedUtility(this.calculateUtilityForBid(bid), EstimatedUtility.NO_CONFIDENCE);
+		}
+		double utility = 0.0;
+		double variance = 0.0;
+		for (final Issue issue : bid.getIssues()) {
+			if (issue != null) {
+				final UOI opponentIssue = this.issues.get(DomainTranslator.issueName(issue));
+				final UtilityOpponentValue value = opponentIssue.getValue(DomainTranslator.valueName(bid.getValue(issue)));
+				final double weight = opponentIssue.getNormalizedWeight();
+				final double preference = value.getPreferenceValue();
+				utility += weight * preference;
+				variance += termVariance(weight, opponentIssue.getWeightVariance(), preference, this.bidUpdates);
+			}
+		}
+		return EstimatedUtility.fromVariance(utility + this.weightedInteraction(bid), variance);
+	}
+	
+	/**
+	 * Variance of one issue's term of the utility, weight times preference, with the two independent: the
+	 * preference is treated as a proportion over a number of samples, with variance p(1 - p) / n.
+	 * @param weight Issue weight
+	 * @param weightVariance Variance of the weight
+	 * @param preference Value preference
+	 * @param samples Number of bids behind the preference
+	 * @return Variance of the term
+	 */
+	static double termVariance(final double weight, final double weightVariance, final double preference, final int samples) {
+		final double proportion = Math.min(Math.max(preference, 0.0), 1.0);
+		final double preferenceVariance = (samples > 0) ? proportion * (1.0 - proportion) / samples : MAX_VARIANCE;
+		return weight * weight * preferenceVariance + preference * preference * weightVariance 
+			+ weightVariance * preferenceVariance;
 	}
 	
 	/**
@@ -229,6 +521,54 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 	}
 	
 	protected abstract UOI createUtilityOpponentIssue(final Issue issue);
+	
+	/**
+	 * The type of this model in the binary state format, so a state is only imported into the same type of model.
+	 * @return Model type, e.g. {@link #JONNY_BLACK_STATE}
+	 */
+	protected abstract byte getStateType();
+	
+	/**
+	 * Number of issues covered by the bid encoding.
+	 * @return Number of issues
+	 */
+	private int numberOfEncodedIssues() {
+		return (this.encoder != null) ? this.encoder.getNumberOfIssues() : 0;
+	}
+	
+	/**
+	 * Number of bytes used to store each value code in the bid history.
+	 * @return 1 if every value code fits in an unsigned byte, otherwise 2
+	 */
+	private int codeBytes() {
+		final int maxValues = (this.encoder != null) ? this.encoder.getMaxNumberOfValues() : 0;
+		return (maxValues <= 256) ? Byte.BYTES : Character.BYTES;
+	}
+	
+	/**
+	 * Number of values of each issue, in encoding order.
+	 * @return Number of values, by issue position
+	 */
+	private int[] numberOfValues() {
+		final int[] numValues = new int[this.numberOfEncodedIssues()];
+		for (int i = 0; i < numValues.length; i++) {
+			numValues[i] = this.encoder.getNumberOfValues(i);
+		}
+		return numValues;
+	}
+	
+	/**
+	 * Value names for an issue, in encoding order.
+	 * @param position Issue position
+	 * @return Value names
+	 */
+	private String[] valueNames(final int position) {
+		final String[] names = new String[this.encoder.getNumberOfValues(position)];
+		for (int v = 0; v < names.length; v++) {
+			names[v] = this.encoder.getValueName(position, v);
+		}
+		return names;
+	}
 
 	/**
 	 * Update the issues from a received bid.
@@ -236,10 +576,12 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 	 */
 	private void updateIssuesFromBid(final Bid bid) {
 		for (final Issue issue : bid.getIssues()) {
-			final Value value = bid.getValue(issue);
-			final String issueName = DomainTranslator.issueName(issue);
-			final String valueName = DomainTranslator.valueName(value);
-			this.updateIssue(issueName, valueName);
+			if (issue != null) {
+				final Value value = bid.getValue(issue);
+				final String issueName = DomainTranslator.issueName(issue);
+				final String valueName = DomainTranslator.valueName(value);
+				this.updateIssue(issueName, valueName);
+			}
 		}
 	}
 	
@@ -250,10 +592,12 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 	protected void decreaseRecentIssueCountsFromOldBid(final Bid bid) {
 		if (bid != null) {
 			for (final Issue issue : bid.getIssues()) {
-				final Value value = bid.getValue(issue);
-				final String issueName = DomainTranslator.issueName(issue);
-				final String valueName = DomainTranslator.valueName(value);
-				this.decrementIssue(issueName, valueName);
+				if (issue != null) {
+					final Value value = bid.getValue(issue);
+					final String issueName = DomainTranslator.issueName(issue);
+					final String valueName = DomainTranslator.valueName(value);
+					this.decrementIssue(issueName, valueName);
+				}
 			}
 		}
 	}
@@ -273,6 +617,7 @@ public abstract class UtilityOpponentModel<UOI extends UtilityOpponentIssue<?>,
 			if (issue != null) {
 				issue.calculateNormalizedWeight(this.totalUnnormalized);
 				issue.calculateNormalizedRecentWeight(this.recentUnnormalized);
+				issue.recordWeightSample();
 			}
 		}
 	}
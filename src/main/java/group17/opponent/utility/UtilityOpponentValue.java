@@ -3,6 +3,8 @@
  */
 package group17.opponent.utility;
 
+import java.nio.ByteBuffer;
+
 import group17.opponent.OpponentValue;
 
 /**
@@ -10,6 +12,11 @@ import group17.opponent.OpponentValue;
  */
 public abstract class UtilityOpponentValue extends OpponentValue {
 	
+	/**
+	 * Number of bytes written by {@link #writeState(ByteBuffer)}.
+	 */
+	public static final int STATE_BYTES = 2 * Integer.BYTES + 4 * Double.BYTES;
+	
 	protected double preferenceValue = 0.0;
 	protected int recentCount = 0;
 	protected double recentPreferenceValue = 0.0;
@@ -82,6 +89,32 @@ public abstract class UtilityOpponentValue extends OpponentValue {
 	 */
 	public abstract double calculateRecentWeight(final int bidWindow);
 
+	/**
+	 * Write the counts, preference values and weights of this value to a buffer.
+	 * @param buffer Buffer with at least {@link #STATE_BYTES} remaining
+	 */
+	public void writeState(final ByteBuffer buffer) {
+		buffer.putInt(this.count)
+			.putInt(this.recentCount)
+			.putDouble(this.preferenceValue)
+			.putDouble(this.recentPreferenceValue)
+			.putDouble(this.weight)
+			.putDouble(this.recentWeight);
+	}
+	
+	/**
+	 * Restore the counts, preference values and weights of this value from a buffer.
+	 * @param buffer Buffer written by {@link #writeState(ByteBuffer)}
+	 */
+	public void readState(final ByteBuffer buffer) {
+		this.count = buffer.getInt();
+		this.recentCount = buffer.getInt();
+		this.preferenceValue = buffer.getDouble();
+		this.recentPreferenceValue = buffer.getDouble();
+		this.weight = buffer.getDouble();
+		this.recentWeight = buffer.getDouble();
+	}
+
 	@Override
 	public String toString() {
 		return new StringBuilder(super.toString())
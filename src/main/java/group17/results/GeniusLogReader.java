@@ -0,0 +1,209 @@
+package group17.results;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the semicolon separated tournament logs Genius writes, as {@code hp_tuning.py} and {@code results.sql} do,
+ * one {@link ResultRecord} per session. Columns are found by header, ignoring case, spaces and punctuation, so both
+ * the Genius headers (e.g. {@code Dist. to Pareto}, {@code Utility 1}) and the {@code tournament_import} column names
+ * are understood; any lines before the header are skipped. Missing or empty values are read as NaN.
+ */
+public final class GeniusLogReader implements AutoCloseable {
+
+	private static final String SEPARATOR = ";";
+	private static final Pattern PARTY_HEADER = Pattern.compile("([a-z]+?)(\\d+)");
+	private static final Map<String, SessionColumn> SESSION_HEADERS = new HashMap<>();
+	private static final Map<String, PartyColumn> PARTY_HEADERS = new HashMap<>();
+
+	static {
+		SESSION_HEADERS.put("runtimes", SessionColumn.RUN_TIME);
+		SESSION_HEADERS.put("runtime", SessionColumn.RUN_TIME);
+		SESSION_HEADERS.put("round", SessionColumn.ROUND);
+		SESSION_HEADERS.put("agreement", SessionColumn.AGREEMENT);
+		SESSION_HEADERS.put("agreeing", SessionColumn.AGREEING);
+		SESSION_HEADERS.put("minutil", SessionColumn.MIN_UTILITY);
+		SESSION_HEADERS.put("minutility", SessionColumn.MIN_UTILITY);
+		SESSION_HEADERS.put("maxutil", SessionColumn.MAX_UTILITY);
+		SESSION_HEADERS.put("maxutility", SessionColumn.MAX_UTILITY);
+		SESSION_HEADERS.put("disttopareto", SessionColumn.DISTANCE_PARETO);
+		SESSION_HEADERS.put("distancepareto", SessionColumn.DISTANCE_PARETO);
+		SESSION_HEADERS.put("disttonash", SessionColumn.DISTANCE_NASH);
+		SESSION_HEADERS.put("distancenash", SessionColumn.DISTANCE_NASH);
+		SESSION_HEADERS.put("socialwelfare", SessionColumn.SOCIAL_WELFARE);
+		PARTY_HEADERS.put("agent", PartyColumn.AGENT);
+		PARTY_HEADERS.put("profile", PartyColumn.PROFILE);
+		PARTY_HEADERS.put("utility", PartyColumn.UTILITY);
+		PARTY_HEADERS.put("discutil", PartyColumn.DISC_UTILITY);
+		PARTY_HEADERS.put("discutility", PartyColumn.DISC_UTILITY);
+		PARTY_HEADERS.put("perceivedutil", PartyColumn.PERC_UTILITY);
+		PARTY_HEADERS.put("percutility", PartyColumn.PERC_UTILITY);
+		PARTY_HEADERS.put("userbother", PartyColumn.USER_BOTHER);
+		PARTY_HEADERS.put("userutil", PartyColumn.USER_UTILITY);
+		PARTY_HEADERS.put("userutility", PartyColumn.USER_UTILITY);
+	}
+
+	private final Path path;
+	private final BufferedReader reader;
+	private final int[] sessionIndexes = new int[SessionColumn.values().length];
+	private final int[][] partyIndexes;
+	private final int parties;
+	private int line = 0;
+
+	/**
+	 * Open a log and read its header.
+	 * @param path Log file
+	 * @throws IOException If the file can't be read or has no header
+	 */
+	public GeniusLogReader(final Path path) throws IOException {
+		this.path = path;
+		this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+		try {
+			final List<String> header = this.readHeader();
+			Arrays.fill(this.sessionIndexes, -1);
+			final Map<PartyColumn, Map<Integer, Integer>> partyHeaders = new HashMap<>();
+			int maxParty = 0;
+			for (int i = 0; i < header.size(); i++) {
+				final String name = normalise(header.get(i));
+				final SessionColumn session = SESSION_HEADERS.get(name);
+				final Matcher matcher = PARTY_HEADER.matcher(name);
+				if (session != null) {
+					this.sessionIndexes[session.ordinal()] = i;
+				} else if (matcher.matches() && PARTY_HEADERS.containsKey(matcher.group(1))) {
+					final int party = Integer.parseInt(matcher.group(2));
+					partyHeaders.computeIfAbsent(PARTY_HEADERS.get(matcher.group(1)), column -> new HashMap<>()).put(party, i);
+					maxParty = Math.max(maxParty, party);
+				}
+			}
+			if (maxParty == 0) {
+				throw new IOException("No party columns in " + path);
+			}
+			this.parties = maxParty;
+			this.partyIndexes = new int[PartyColumn.values().length][maxParty];
+			for (final PartyColumn column : PartyColumn.values()) {
+				for (int p = 0; p < maxParty; p++) {
+					this.partyIndexes[column.ordinal()][p] = partyHeaders.getOrDefault(column, Map.of()).getOrDefault(p + 1, -1);
+				}
+			}
+		} catch (IOException ioe) {
+			this.reader.close();
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Number of parties in each session, from the highest party number in the header.
+	 * @return Number of parties
+	 */
+	public int getParties() {
+		return this.parties;
+	}
+
+	/**
+	 * Read the next session.
+	 * @return Session outcome, or null at the end of the log
+	 * @throws IOException If the log can't be read, or a value isn't a number
+	 */
+	public ResultRecord next() throws IOException {
+		String text;
+		do {
+			text = this.reader.readLine();
+			this.line++;
+			if (text == null) {
+				return null;
+			}
+		} while (text.isBlank());
+		final String[] fields = text.split(SEPARATOR, -1);
+		try {
+			final List<PartyRecord> records = new ArrayList<>();
+			for (int p = 0; p < this.parties; p++) {
+				records.add(new PartyRecord(this.field(fields, PartyColumn.AGENT, p), this.field(fields, PartyColumn.PROFILE, p), 
+					this.number(fields, PartyColumn.UTILITY, p), this.number(fields, PartyColumn.DISC_UTILITY, p), 
+					this.number(fields, PartyColumn.PERC_UTILITY, p), this.number(fields, PartyColumn.USER_BOTHER, p), 
+					this.number(fields, PartyColumn.USER_UTILITY, p)));
+			}
+			final String agreement = this.field(fields, this.sessionIndexes[SessionColumn.AGREEMENT.ordinal()]);
+			final double round = this.number(fields, SessionColumn.ROUND);
+			final double agreeing = this.number(fields, SessionColumn.AGREEING);
+			return new ResultRecord(this.number(fields, SessionColumn.RUN_TIME), Double.isNaN(round) ? 0 : (int) round, 
+				"yes".equalsIgnoreCase(agreement) || "true".equalsIgnoreCase(agreement) || "1".equals(agreement), 
+				Double.isNaN(agreeing) ? 0 : (int) agreeing, this.number(fields, SessionColumn.MIN_UTILITY), 
+				this.number(fields, SessionColumn.MAX_UTILITY), this.number(fields, SessionColumn.DISTANCE_PARETO), 
+				this.number(fields, SessionColumn.DISTANCE_NASH), this.number(fields, SessionColumn.SOCIAL_WELFARE), records);
+		} catch (NumberFormatException nfe) {
+			throw new IOException("Invalid number at line " + this.line + " of " + this.path, nfe);
+		}
+	}
+
+	/**
+	 * Import every session in a log into a store.
+	 * @param path Log file
+	 * @param store Store, with the same number of parties as the log
+	 * @return Number of sessions imported
+	 * @throws IOException If the log can't be read or the store written
+	 */
+	public static int importLog(final Path path, final ResultsStore store) throws IOException {
+		int count = 0;
+		try (GeniusLogReader reader = new GeniusLogReader(path)) {
+			for (ResultRecord record = reader.next(); record != null; record = reader.next()) {
+				store.append(record);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private List<String> readHeader() throws IOException {
+		for (String text = this.reader.readLine(); text != null; text = this.reader.readLine()) {
+			this.line++;
+			final String[] fields = text.split(SEPARATOR, -1);
+			if (SESSION_HEADERS.get(normalise(fields[0])) == SessionColumn.RUN_TIME) {
+				return List.of(fields);
+			}
+		}
+		throw new IOException("No header found in " + this.path);
+	}
+
+	private double number(final String[] fields, final SessionColumn column) {
+		return parse(this.field(fields, this.sessionIndexes[column.ordinal()]));
+	}
+
+	private double number(final String[] fields, final PartyColumn column, final int party) {
+		return parse(this.field(fields, column, party));
+	}
+
+	private String field(final String[] fields, final PartyColumn column, final int party) {
+		return this.field(fields, this.partyIndexes[column.ordinal()][party]);
+	}
+
+	private String field(final String[] fields, final int index) {
+		if (index < 0 || index >= fields.length) {
+			return "";
+		}
+		final String field = fields[index].trim();
+		return (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) ? field.substring(1, field.length() - 1) : field;
+	}
+
+	private static double parse(final String value) {
+		return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+	}
+
+	private static String normalise(final String header) {
+		return header.toLowerCase().replaceAll("[^a-z0-9]", "");
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+}
@@ -0,0 +1,98 @@
+package group17.results;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed width primitive values, one per row, mapped into memory. When writable, the file grows by
+ * doubling its capacity, so it is usually longer than the number of rows; the row count is kept by the
+ * {@link ResultsStore}. A column holds at most {@code Integer.MAX_VALUE} bytes.
+ */
+final class MappedColumn implements AutoCloseable {
+
+	/** Width of an int value, in bytes. */
+	static final int INT_WIDTH = Integer.BYTES;
+
+	/** Width of a double value, in bytes. */
+	static final int DOUBLE_WIDTH = Double.BYTES;
+
+	private static final int INITIAL_ROWS = 1024;
+
+	private final FileChannel channel;
+	private final int width;
+	private final boolean readOnly;
+	private MappedByteBuffer buffer;
+	private int capacity;
+
+	/**
+	 * Open a column file, creating it if it is writable and doesn't exist.
+	 * @param path Column file
+	 * @param width Value width, in bytes
+	 * @param rows Number of rows already written
+	 * @param readOnly Whether to map the existing rows only
+	 * @throws IOException If the file can't be opened or mapped
+	 */
+	MappedColumn(final Path path, final int width, final int rows, final boolean readOnly) throws IOException {
+		this.channel = readOnly ? FileChannel.open(path, StandardOpenOption.READ) 
+			: FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+		this.width = width;
+		this.readOnly = readOnly;
+		this.capacity = readOnly ? rows : Math.max(INITIAL_ROWS, Math.max(rows, (int) (this.channel.size() / width)));
+		this.map();
+	}
+
+	/**
+	 * Make sure there is space for a number of rows, growing the file if necessary.
+	 * @param rows Number of rows
+	 * @throws IOException If the file can't be grown
+	 */
+	void ensureCapacity(final int rows) throws IOException {
+		if (rows > this.capacity) {
+			final long bytes = Math.max((long) this.capacity * 2, rows) * this.width;
+			this.capacity = (int) (Math.min(bytes, Integer.MAX_VALUE) / this.width);
+			if (rows > this.capacity) {
+				throw new IOException("Column is full at " + this.capacity + " rows");
+			}
+			this.map();
+		}
+	}
+
+	int getInt(final int row) {
+		return this.buffer.getInt(row * this.width);
+	}
+
+	double getDouble(final int row) {
+		return this.buffer.getDouble(row * this.width);
+	}
+
+	void putInt(final int row, final int value) {
+		this.buffer.putInt(row * this.width, value);
+	}
+
+	void putDouble(final int row, final double value) {
+		this.buffer.putDouble(row * this.width, value);
+	}
+
+	/**
+	 * Write any changes to the file.
+	 */
+	void force() {
+		if (!this.readOnly) {
+			this.buffer.force();
+		}
+	}
+
+	private void map() throws IOException {
+		this.buffer = this.channel.map(this.readOnly ? MapMode.READ_ONLY : MapMode.READ_WRITE, 0, (long) this.capacity * this.width);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.force();
+		this.channel.close();
+	}
+}
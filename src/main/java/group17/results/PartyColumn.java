@@ -0,0 +1,48 @@
+package group17.results;
+
+/**
+ * A column with one value per party in each session, named as in the {@code tournament_import} table
+ * with the party number (from 1) as a suffix.
+ */
+public enum PartyColumn {
+
+	/** Agent name, stored as a dictionary code. */
+	AGENT(true),
+
+	/** Profile name, stored as a dictionary code. */
+	PROFILE(true),
+
+	/** Utility of the outcome. */
+	UTILITY(false),
+
+	/** Discounted utility of the outcome. */
+	DISC_UTILITY(false),
+
+	/** Utility of the outcome in the agent's estimated utility space. */
+	PERC_UTILITY(false),
+
+	/** Elicitation cost the agent incurred. */
+	USER_BOTHER(false),
+
+	/** Utility less the user bother. */
+	USER_UTILITY(false);
+
+	private final boolean string;
+
+	PartyColumn(final boolean string) {
+		this.string = string;
+	}
+
+	public boolean isString() {
+		return this.string;
+	}
+
+	/**
+	 * Name of the column for a party, and its file.
+	 * @param party Party index, from 0
+	 * @return Column name
+	 */
+	public String columnName(final int party) {
+		return this.name().toLowerCase() + "_" + (party + 1);
+	}
+}
@@ -0,0 +1,31 @@
+package group17.results;
+
+/**
+ * The outcome of a session for one party. Metrics that weren't measured are NaN.
+ * @param agent Agent name
+ * @param profile Profile name
+ * @param utility Utility of the outcome
+ * @param discountedUtility Discounted utility of the outcome
+ * @param perceivedUtility Utility of the outcome in the agent's estimated utility space
+ * @param userBother Elicitation cost the agent incurred
+ * @param userUtility Utility less the user bother
+ */
+public record PartyRecord(String agent, String profile, double utility, double discountedUtility, double perceivedUtility, 
+	double userBother, double userUtility) {
+
+	/**
+	 * Get a numeric metric.
+	 * @param column Column, which must not be a string column
+	 * @return Value
+	 */
+	public double get(final PartyColumn column) {
+		return switch (column) {
+			case UTILITY -> this.utility;
+			case DISC_UTILITY -> this.discountedUtility;
+			case PERC_UTILITY -> this.perceivedUtility;
+			case USER_BOTHER -> this.userBother;
+			case USER_UTILITY -> this.userUtility;
+			default -> throw new IllegalArgumentException(column + " is not numeric");
+		};
+	}
+}
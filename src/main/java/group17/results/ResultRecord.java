@@ -0,0 +1,78 @@
+package group17.results;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import group17.simulation.PartyResult;
+import group17.simulation.SessionResult;
+import group17.simulation.TournamentSessionResult;
+
+/**
+ * The outcome of one session, as a row of a {@link ResultsStore}. Metrics that weren't measured are NaN.
+ * @param runTime Run time, in seconds
+ * @param round Round the session ended in
+ * @param agreement Whether the session ended in agreement
+ * @param agreeing Number of parties that agreed
+ * @param minUtility Lowest party utility
+ * @param maxUtility Highest party utility
+ * @param distancePareto Distance to the Pareto frontier
+ * @param distanceNash Distance to the Nash point
+ * @param socialWelfare Sum of the party utilities
+ * @param parties Outcome for each party, in turn order
+ */
+public record ResultRecord(double runTime, int round, boolean agreement, int agreeing, double minUtility, double maxUtility, 
+	double distancePareto, double distanceNash, double socialWelfare, List<PartyRecord> parties) {
+
+	public ResultRecord {
+		parties = List.copyOf(parties);
+	}
+
+	/**
+	 * Convert a simulated tournament session. The simulator doesn't measure distances, discounting or user bother.
+	 * @param session Session result
+	 * @return Record
+	 */
+	public static ResultRecord of(final TournamentSessionResult session) {
+		final SessionResult result = session.result();
+		final List<PartyRecord> parties = new ArrayList<>();
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int p = 0; p < result.parties().size(); p++) {
+			final PartyResult party = result.parties().get(p);
+			parties.add(new PartyRecord(party.name(), profileName(session.session().profiles().get(p)), party.utility(), 
+				Double.NaN, Double.NaN, Double.NaN, Double.NaN));
+			min = Math.min(min, party.utility());
+			max = Math.max(max, party.utility());
+		}
+		return new ResultRecord(result.nanos() / 1e9, result.rounds(), result.isAgreement(), 
+			result.isAgreement() ? parties.size() : 0, min, max, Double.NaN, Double.NaN, result.socialWelfare(), parties);
+	}
+
+	/**
+	 * Get a numeric metric.
+	 * @param column Column
+	 * @return Value, with agreement as 1 or 0
+	 */
+	public double get(final SessionColumn column) {
+		return switch (column) {
+			case RUN_TIME -> this.runTime;
+			case ROUND -> this.round;
+			case AGREEMENT -> this.agreement ? 1 : 0;
+			case AGREEING -> this.agreeing;
+			case MIN_UTILITY -> this.minUtility;
+			case MAX_UTILITY -> this.maxUtility;
+			case DISTANCE_PARETO -> this.distancePareto;
+			case DISTANCE_NASH -> this.distanceNash;
+			case SOCIAL_WELFARE -> this.socialWelfare;
+		};
+	}
+
+	/**
+	 * Profile name from its URL, i.e. the file name without its extension, as Genius logs it.
+	 */
+	private static String profileName(final String url) {
+		final String file = url.substring(Math.max(url.lastIndexOf('/'), url.lastIndexOf('\\')) + 1);
+		final int dot = file.lastIndexOf('.');
+		return (dot > 0) ? file.substring(0, dot) : file;
+	}
+}
@@ -0,0 +1,89 @@
+package group17.results;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line entry point for a {@link ResultsStore}: imports Genius tournament logs, then prints a summary of a
+ * metric for each agent or profile, in place of {@code results.sql}.
+ * <p>
+ * Usage: {@code ResultsCli store [--import log.csv]... [--by agent|profile] [--metric utility] [--agent name]}.
+ * The metric is a party or session column name, e.g. {@code user_utility} or {@code social_welfare}.
+ */
+public final class ResultsCli {
+
+	private ResultsCli() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Usage: ResultsCli store [options]");
+		}
+		final Path directory = Paths.get(args[0]);
+		final List<Path> logs = new ArrayList<>();
+		PartyColumn key = PartyColumn.AGENT;
+		String metric = "utility";
+		String agent = null;
+		for (int a = 1; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--import" -> logs.add(Paths.get(value));
+				case "--by" -> key = "profile".equals(value) ? PartyColumn.PROFILE : PartyColumn.AGENT;
+				case "--metric" -> metric = value;
+				case "--agent" -> agent = value;
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		for (final Path log : logs) {
+			final int parties;
+			try (GeniusLogReader reader = new GeniusLogReader(log)) {
+				parties = reader.getParties();
+			}
+			try (ResultsStore store = ResultsStore.open(directory, parties)) {
+				System.out.printf("Imported %d sessions from %s%n", GeniusLogReader.importLog(log, store), log);
+			}
+		}
+		if (!Files.exists(directory.resolve(ResultsStore.METADATA_FILE))) {
+			throw new IllegalArgumentException("No results store in " + directory);
+		}
+
+		try (ResultsStore store = ResultsStore.openReadOnly(directory)) {
+			ResultsQuery query = store.query();
+			if (agent != null) {
+				query = query.withAgent(agent);
+			}
+			final String upperMetric = metric.toUpperCase(Locale.ROOT);
+			final Map<String, Statistics> groups = isSessionColumn(upperMetric) 
+				? query.groupBy(key, SessionColumn.valueOf(upperMetric)) : query.groupBy(key, PartyColumn.valueOf(upperMetric));
+			final Map<String, Statistics> agreements = query.groupBy(key, SessionColumn.AGREEMENT);
+			System.out.printf("%d sessions, %s by %s%n", query.count(), metric, key.name().toLowerCase());
+			System.out.println("Name,Count,Mean,SD,Min,Max,Agreement Rate");
+			for (final Map.Entry<String, Statistics> group : groups.entrySet()) {
+				final Statistics statistics = group.getValue();
+				System.out.printf("%s,%d,%.5f,%.5f,%.5f,%.5f,%.3f%n", group.getKey(), statistics.getCount(), statistics.getMean(), 
+					statistics.getStandardDeviation(), statistics.getMin(), statistics.getMax(), agreements.get(group.getKey()).getMean());
+			}
+		}
+	}
+
+	private static boolean isSessionColumn(final String name) {
+		for (final SessionColumn column : SessionColumn.values()) {
+			if (column.name().equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,173 @@
+package group17.results;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+
+/**
+ * Aggregates over the rows of a {@link ResultsStore} that match a filter, scanning only the columns needed.
+ * Queries are immutable; {@code where} methods return a narrower query.
+ * <p>
+ * Agents are grouped by name without any {@code @} suffix, so e.g. {@code Agent17@0} and {@code Agent17@1}
+ * are both {@code Agent17}, as in the {@code successful} view of {@code results.sql}.
+ */
+public final class ResultsQuery {
+
+	private final ResultsStore store;
+	private final IntPredicate filter;
+
+	ResultsQuery(final ResultsStore store, final IntPredicate filter) {
+		this.store = store;
+		this.filter = filter;
+	}
+
+	/**
+	 * Only include rows that match a predicate as well.
+	 * @param rows Row predicate
+	 * @return Query
+	 */
+	public ResultsQuery where(final IntPredicate rows) {
+		return new ResultsQuery(this.store, this.filter.and(rows));
+	}
+
+	/**
+	 * Only include sessions with a metric that matches a predicate as well.
+	 * @param column Column
+	 * @param predicate Value predicate
+	 * @return Query
+	 */
+	public ResultsQuery where(final SessionColumn column, final DoublePredicate predicate) {
+		return this.where(row -> predicate.test(this.store.get(column, row)));
+	}
+
+	/**
+	 * Only include sessions an agent took part in as well.
+	 * @param agent Agent name, without any {@code @} suffix
+	 * @return Query
+	 */
+	public ResultsQuery withAgent(final String agent) {
+		final List<String> dictionary = this.store.getDictionary();
+		final boolean[] matches = new boolean[dictionary.size()];
+		for (int code = 0; code < matches.length; code++) {
+			matches[code] = agent.equals(agentName(dictionary.get(code)));
+		}
+		return this.where(row -> {
+			for (int p = 0; p < this.store.getParties(); p++) {
+				if (matches[this.store.getCode(PartyColumn.AGENT, p, row)]) {
+					return true;
+				}
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Count the matching sessions.
+	 * @return Number of sessions
+	 */
+	public int count() {
+		int count = 0;
+		for (int row = 0; row < this.store.size(); row++) {
+			count += this.filter.test(row) ? 1 : 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Summarise a session metric.
+	 * @param column Column
+	 * @return Statistics
+	 */
+	public Statistics summarise(final SessionColumn column) {
+		final Statistics statistics = new Statistics();
+		for (int row = 0; row < this.store.size(); row++) {
+			if (this.filter.test(row)) {
+				statistics.add(this.store.get(column, row));
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Summarise a party metric across every party.
+	 * @param column Numeric column
+	 * @return Statistics
+	 */
+	public Statistics summarise(final PartyColumn column) {
+		final Statistics statistics = new Statistics();
+		for (int row = 0; row < this.store.size(); row++) {
+			if (this.filter.test(row)) {
+				for (int p = 0; p < this.store.getParties(); p++) {
+					statistics.add(this.store.get(column, p, row));
+				}
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Summarise a party metric for each agent or profile.
+	 * @param key {@link PartyColumn#AGENT} or {@link PartyColumn#PROFILE}
+	 * @param column Numeric column
+	 * @return Statistics, by agent or profile name
+	 */
+	public Map<String, Statistics> groupBy(final PartyColumn key, final PartyColumn column) {
+		final Statistics[] byCode = this.createStatistics();
+		for (int row = 0; row < this.store.size(); row++) {
+			if (this.filter.test(row)) {
+				for (int p = 0; p < this.store.getParties(); p++) {
+					byCode[this.store.getCode(key, p, row)].add(this.store.get(column, p, row));
+				}
+			}
+		}
+		return this.merge(key, byCode);
+	}
+
+	/**
+	 * Summarise a session metric for each agent or profile, counting each session once for every party in it.
+	 * @param key {@link PartyColumn#AGENT} or {@link PartyColumn#PROFILE}
+	 * @param column Column
+	 * @return Statistics, by agent or profile name
+	 */
+	public Map<String, Statistics> groupBy(final PartyColumn key, final SessionColumn column) {
+		final Statistics[] byCode = this.createStatistics();
+		for (int row = 0; row < this.store.size(); row++) {
+			if (this.filter.test(row)) {
+				final double value = this.store.get(column, row);
+				for (int p = 0; p < this.store.getParties(); p++) {
+					byCode[this.store.getCode(key, p, row)].add(value);
+				}
+			}
+		}
+		return this.merge(key, byCode);
+	}
+
+	private Statistics[] createStatistics() {
+		final Statistics[] byCode = new Statistics[this.store.getDictionary().size()];
+		for (int code = 0; code < byCode.length; code++) {
+			byCode[code] = new Statistics();
+		}
+		return byCode;
+	}
+
+	/**
+	 * Merge the statistics for every dictionary code with the same name, leaving out names with no values.
+	 */
+	private Map<String, Statistics> merge(final PartyColumn key, final Statistics[] byCode) {
+		final Map<String, Statistics> groups = new TreeMap<>();
+		for (int code = 0; code < byCode.length; code++) {
+			if (byCode[code].getCount() > 0) {
+				final String name = this.store.getDictionary().get(code);
+				groups.computeIfAbsent((key == PartyColumn.AGENT) ? agentName(name) : name, group -> new Statistics()).merge(byCode[code]);
+			}
+		}
+		return groups;
+	}
+
+	private static String agentName(final String name) {
+		final int at = name.indexOf('@');
+		return (at >= 0) ? name.substring(0, at) : name;
+	}
+}
@@ -0,0 +1,350 @@
+package group17.results;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * An append-only columnar store of session outcomes, so millions of sessions can be analysed in the JVM
+ * (see {@link #query()}) rather than through Genius logs and a database. The store is a directory with one
+ * memory-mapped file of primitive values per column (e.g. {@code utility_1.col}), a dictionary of agent and
+ * profile names, and a metadata file holding the row count. Rows only become visible to new readers when
+ * the store is {@link #flush() flushed}, so a store interrupted while writing keeps every flushed row.
+ * <p>
+ * A store is not thread safe, and should only be open for writing by one instance at a time.
+ */
+public final class ResultsStore implements AutoCloseable {
+
+	public static final String METADATA_FILE = "store.properties";
+	public static final String DICTIONARY_FILE = "dictionary.txt";
+	public static final String COLUMN_EXTENSION = ".col";
+
+	private static final String ROWS = "rows";
+	private static final String PARTIES = "parties";
+
+	private final Path directory;
+	private final int parties;
+	private final boolean readOnly;
+	private final MappedColumn[] sessionColumns;
+	private final MappedColumn[][] partyColumns;
+	private final List<String> dictionary;
+	private final Map<String, Integer> codes = new HashMap<>();
+	private int flushedStrings;
+	private int rows;
+
+	private ResultsStore(final Path directory, final int parties, final int rows, final boolean readOnly) throws IOException {
+		this.directory = directory;
+		this.parties = parties;
+		this.rows = rows;
+		this.readOnly = readOnly;
+		final Path dictionaryFile = directory.resolve(DICTIONARY_FILE);
+		this.dictionary = Files.exists(dictionaryFile) ? new ArrayList<>(Files.readAllLines(dictionaryFile, StandardCharsets.UTF_8)) 
+			: new ArrayList<>();
+		this.flushedStrings = this.dictionary.size();
+		for (int code = 0; code < this.dictionary.size(); code++) {
+			this.codes.put(this.dictionary.get(code), code);
+		}
+		this.sessionColumns = new MappedColumn[SessionColumn.values().length];
+		this.partyColumns = new MappedColumn[PartyColumn.values().length][parties];
+		try {
+			for (final SessionColumn column : SessionColumn.values()) {
+				this.sessionColumns[column.ordinal()] = this.openColumn(column.columnName(), 
+					column.isInteger() ? MappedColumn.INT_WIDTH : MappedColumn.DOUBLE_WIDTH);
+			}
+			for (final PartyColumn column : PartyColumn.values()) {
+				for (int p = 0; p < parties; p++) {
+					this.partyColumns[column.ordinal()][p] = this.openColumn(column.columnName(p), 
+						column.isString() ? MappedColumn.INT_WIDTH : MappedColumn.DOUBLE_WIDTH);
+				}
+			}
+		} catch (IOException ioe) {
+			this.closeColumns();
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Open a store for appending, creating it if it doesn't exist.
+	 * @param directory Store directory
+	 * @param parties Number of parties in each session
+	 * @return Store
+	 * @throws IOException If the store can't be opened, or has a different number of parties
+	 */
+	public static ResultsStore open(final Path directory, final int parties) throws IOException {
+		if (parties < 1) {
+			throw new IllegalArgumentException("A store needs at least one party, not " + parties);
+		}
+		Files.createDirectories(directory);
+		int rows = 0;
+		if (Files.exists(directory.resolve(METADATA_FILE))) {
+			final Properties metadata = readMetadata(directory);
+			final int storedParties = Integer.parseInt(metadata.getProperty(PARTIES));
+			if (storedParties != parties) {
+				throw new IOException("Store " + directory + " has " + storedParties + " parties per session, not " + parties);
+			}
+			rows = Integer.parseInt(metadata.getProperty(ROWS));
+		}
+		final ResultsStore store = new ResultsStore(directory, parties, rows, false);
+		store.writeMetadata();
+		return store;
+	}
+
+	/**
+	 * Open an existing store for reading. Rows appended after it is opened aren't visible.
+	 * @param directory Store directory
+	 * @return Store
+	 * @throws IOException If the store can't be read
+	 */
+	public static ResultsStore openReadOnly(final Path directory) throws IOException {
+		final Properties metadata = readMetadata(directory);
+		return new ResultsStore(directory, Integer.parseInt(metadata.getProperty(PARTIES)), 
+			Integer.parseInt(metadata.getProperty(ROWS)), true);
+	}
+
+	/**
+	 * Append a session.
+	 * @param record Session outcome
+	 * @throws IOException If the columns can't be grown
+	 */
+	public void append(final ResultRecord record) throws IOException {
+		if (this.readOnly) {
+			throw new IllegalStateException("Store " + this.directory + " is read only");
+		}
+		if (record.parties().size() != this.parties) {
+			throw new IllegalArgumentException("Store has " + this.parties + " parties per session, not " + record.parties().size());
+		}
+		final int row = this.rows;
+		for (final SessionColumn column : SessionColumn.values()) {
+			final MappedColumn mapped = this.sessionColumns[column.ordinal()];
+			mapped.ensureCapacity(row + 1);
+			if (column.isInteger()) {
+				mapped.putInt(row, (int) record.get(column));
+			} else {
+				mapped.putDouble(row, record.get(column));
+			}
+		}
+		for (final PartyColumn column : PartyColumn.values()) {
+			for (int p = 0; p < this.parties; p++) {
+				final PartyRecord party = record.parties().get(p);
+				final MappedColumn mapped = this.partyColumns[column.ordinal()][p];
+				mapped.ensureCapacity(row + 1);
+				switch (column) {
+					case AGENT -> mapped.putInt(row, this.encode(party.agent()));
+					case PROFILE -> mapped.putInt(row, this.encode(party.profile()));
+					default -> mapped.putDouble(row, party.get(column));
+				}
+			}
+		}
+		this.rows++;
+	}
+
+	/**
+	 * Write every appended row to disk, and make them visible to new readers.
+	 * @throws IOException If the store can't be written
+	 */
+	public void flush() throws IOException {
+		if (this.readOnly) {
+			return;
+		}
+		for (final MappedColumn column : this.sessionColumns) {
+			column.force();
+		}
+		for (final MappedColumn[] columns : this.partyColumns) {
+			for (final MappedColumn column : columns) {
+				column.force();
+			}
+		}
+		if (this.flushedStrings < this.dictionary.size()) {
+			Files.write(this.directory.resolve(DICTIONARY_FILE), this.dictionary.subList(this.flushedStrings, this.dictionary.size()), 
+				StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			this.flushedStrings = this.dictionary.size();
+		}
+		this.writeMetadata();
+	}
+
+	/**
+	 * Start a query over every row.
+	 * @return Query
+	 */
+	public ResultsQuery query() {
+		return new ResultsQuery(this, row -> true);
+	}
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	public int getParties() {
+		return this.parties;
+	}
+
+	public int size() {
+		return this.rows;
+	}
+
+	/**
+	 * Get a session metric.
+	 * @param column Column
+	 * @param row Row
+	 * @return Value
+	 */
+	public double get(final SessionColumn column, final int row) {
+		this.checkRow(row);
+		final MappedColumn mapped = this.sessionColumns[column.ordinal()];
+		return column.isInteger() ? mapped.getInt(row) : mapped.getDouble(row);
+	}
+
+	/**
+	 * Get a numeric party metric.
+	 * @param column Column, which must not be a string column
+	 * @param party Party index, from 0
+	 * @param row Row
+	 * @return Value
+	 */
+	public double get(final PartyColumn column, final int party, final int row) {
+		if (column.isString()) {
+			throw new IllegalArgumentException(column + " is not numeric");
+		}
+		this.checkRow(row);
+		return this.partyColumns[column.ordinal()][party].getDouble(row);
+	}
+
+	/**
+	 * Get a party name.
+	 * @param column Column, which must be a string column
+	 * @param party Party index, from 0
+	 * @param row Row
+	 * @return Name
+	 */
+	public String getString(final PartyColumn column, final int party, final int row) {
+		return this.dictionary.get(this.getCode(column, party, row));
+	}
+
+	/**
+	 * Read a whole row back.
+	 * @param row Row
+	 * @return Session outcome
+	 */
+	public ResultRecord getRecord(final int row) {
+		final List<PartyRecord> records = new ArrayList<>();
+		for (int p = 0; p < this.parties; p++) {
+			records.add(new PartyRecord(this.getString(PartyColumn.AGENT, p, row), this.getString(PartyColumn.PROFILE, p, row), 
+				this.get(PartyColumn.UTILITY, p, row), this.get(PartyColumn.DISC_UTILITY, p, row), 
+				this.get(PartyColumn.PERC_UTILITY, p, row), this.get(PartyColumn.USER_BOTHER, p, row), 
+				this.get(PartyColumn.USER_UTILITY, p, row)));
+		}
+		return new ResultRecord(this.get(SessionColumn.RUN_TIME, row), (int) this.get(SessionColumn.ROUND, row), 
+			this.get(SessionColumn.AGREEMENT, row) != 0.0, (int) this.get(SessionColumn.AGREEING, row), 
+			this.get(SessionColumn.MIN_UTILITY, row), this.get(SessionColumn.MAX_UTILITY, row), 
+			this.get(SessionColumn.DISTANCE_PARETO, row), this.get(SessionColumn.DISTANCE_NASH, row), 
+			this.get(SessionColumn.SOCIAL_WELFARE, row), records);
+	}
+
+	/**
+	 * Get the dictionary code of a party name.
+	 */
+	int getCode(final PartyColumn column, final int party, final int row) {
+		if (!column.isString()) {
+			throw new IllegalArgumentException(column + " is not a string column");
+		}
+		this.checkRow(row);
+		return this.partyColumns[column.ordinal()][party].getInt(row);
+	}
+
+	/**
+	 * Get every name in the dictionary, by code.
+	 */
+	List<String> getDictionary() {
+		return this.dictionary;
+	}
+
+	private int encode(final String value) {
+		final String name = (value == null) ? "" : value;
+		Integer code = this.codes.get(name);
+		if (code == null) {
+			if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+				throw new IllegalArgumentException("Names can't contain line breaks: " + name);
+			}
+			code = this.dictionary.size();
+			this.dictionary.add(name);
+			this.codes.put(name, code);
+		}
+		return code;
+	}
+
+	private void checkRow(final int row) {
+		if (row < 0 || row >= this.rows) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + this.rows);
+		}
+	}
+
+	private MappedColumn openColumn(final String name, final int width) throws IOException {
+		return new MappedColumn(this.directory.resolve(name + COLUMN_EXTENSION), width, this.rows, this.readOnly);
+	}
+
+	private static Properties readMetadata(final Path directory) throws IOException {
+		final Properties metadata = new Properties();
+		try (Reader reader = Files.newBufferedReader(directory.resolve(METADATA_FILE), StandardCharsets.UTF_8)) {
+			metadata.load(reader);
+		}
+		return metadata;
+	}
+
+	private void writeMetadata() throws IOException {
+		final Properties metadata = new Properties();
+		metadata.setProperty(PARTIES, String.valueOf(this.parties));
+		metadata.setProperty(ROWS, String.valueOf(this.rows));
+		final Path temporary = this.directory.resolve(METADATA_FILE + ".tmp");
+		try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+			metadata.store(writer, "Results store");
+		}
+		Files.move(temporary, this.directory.resolve(METADATA_FILE), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private void closeColumns() throws IOException {
+		for (final MappedColumn column : this.sessionColumns) {
+			if (column != null) {
+				column.close();
+			}
+		}
+		for (final MappedColumn[] columns : this.partyColumns) {
+			for (final MappedColumn column : columns) {
+				if (column != null) {
+					column.close();
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			this.closeColumns();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("ResultsStore: directory=")
+			.append(this.directory)
+			.append(", parties=")
+			.append(this.parties)
+			.append(", rows=")
+			.append(this.rows)
+			.append(", readOnly=")
+			.append(this.readOnly)
+			.toString();
+	}
+}
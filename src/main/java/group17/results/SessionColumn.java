@@ -0,0 +1,52 @@
+package group17.results;
+
+/**
+ * A column with one value per session, named as in the {@code tournament_import} table.
+ */
+public enum SessionColumn {
+
+	/** Run time, in seconds. */
+	RUN_TIME(false),
+
+	/** Round the session ended in. */
+	ROUND(true),
+
+	/** 1 if the session ended in agreement, otherwise 0. */
+	AGREEMENT(true),
+
+	/** Number of parties that agreed. */
+	AGREEING(true),
+
+	/** Lowest party utility. */
+	MIN_UTILITY(false),
+
+	/** Highest party utility. */
+	MAX_UTILITY(false),
+
+	/** Distance to the Pareto frontier. */
+	DISTANCE_PARETO(false),
+
+	/** Distance to the Nash point. */
+	DISTANCE_NASH(false),
+
+	/** Sum of the party utilities. */
+	SOCIAL_WELFARE(false);
+
+	private final boolean integer;
+
+	SessionColumn(final boolean integer) {
+		this.integer = integer;
+	}
+
+	public boolean isInteger() {
+		return this.integer;
+	}
+
+	/**
+	 * Name of the column, and its file.
+	 * @return Column name
+	 */
+	public String columnName() {
+		return this.name().toLowerCase();
+	}
+}
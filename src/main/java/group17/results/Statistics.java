@@ -0,0 +1,97 @@
+package group17.results;
+
+/**
+ * Running count, mean, variance (by Welford's method), minimum and maximum of a metric. NaN values are ignored.
+ */
+public final class Statistics {
+
+	private long count = 0;
+	private double mean = 0.0;
+	private double squares = 0.0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * Add a value.
+	 * @param value Value
+	 */
+	public void add(final double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		this.count++;
+		final double delta = value - this.mean;
+		this.mean += delta / this.count;
+		this.squares += delta * (value - this.mean);
+		this.min = (this.count == 1) ? value : Math.min(this.min, value);
+		this.max = (this.count == 1) ? value : Math.max(this.max, value);
+	}
+
+	/**
+	 * Add every value from other statistics.
+	 * @param other Other statistics
+	 */
+	public void merge(final Statistics other) {
+		if (other.count == 0) {
+			return;
+		}
+		if (this.count == 0) {
+			this.count = other.count;
+			this.mean = other.mean;
+			this.squares = other.squares;
+			this.min = other.min;
+			this.max = other.max;
+			return;
+		}
+		final long total = this.count + other.count;
+		final double delta = other.mean - this.mean;
+		this.mean += delta * other.count / total;
+		this.squares += other.squares + delta * delta * this.count * other.count / total;
+		this.count = total;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getMean() {
+		return (this.count > 0) ? this.mean : Double.NaN;
+	}
+
+	public double getSum() {
+		return this.mean * this.count;
+	}
+
+	/**
+	 * Sample standard deviation.
+	 * @return Standard deviation, or NaN for fewer than two values
+	 */
+	public double getStandardDeviation() {
+		return (this.count > 1) ? Math.sqrt(this.squares / (this.count - 1)) : Double.NaN;
+	}
+
+	public double getMin() {
+		return this.min;
+	}
+
+	public double getMax() {
+		return this.max;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("Statistics: count=")
+			.append(this.count)
+			.append(", mean=")
+			.append(this.getMean())
+			.append(", sd=")
+			.append(this.getStandardDeviation())
+			.append(", min=")
+			.append(this.min)
+			.append(", max=")
+			.append(this.max)
+			.toString();
+	}
+}
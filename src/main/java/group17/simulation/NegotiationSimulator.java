@@ -0,0 +1,205 @@
+package group17.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+import genius.core.actions.Accept;
+import genius.core.actions.Action;
+import genius.core.actions.EndNegotiation;
+import genius.core.actions.Offer;
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.parties.NegotiationInfo;
+import group17.simulation.SessionResult.Outcome;
+
+/**
+ * A lightweight in-process negotiation simulator, for fast self-play without launching Genius.
+ * Sessions follow the stacked alternating offers protocol with a round based deadline: parties act in turn, every
+ * action is sent to every other party, and an offer is agreed once every other party has accepted it in succession.
+ * Each session creates fresh parties, so sessions are independent and can be run back to back on a warm JVM.
+ * Outcomes are scored with each party's real, undiscounted preferences.
+ */
+public class NegotiationSimulator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NegotiationSimulator.class);
+
+	public static final int DEFAULT_DEADLINE = 200;
+
+	private static final List<Class<? extends Action>> POSSIBLE_ACTIONS = List.of(Accept.class, Offer.class, EndNegotiation.class);
+
+	private final int deadline;
+
+	/**
+	 * Create a simulator with the default deadline, as used in our tournaments.
+	 */
+	public NegotiationSimulator() {
+		this(DEFAULT_DEADLINE);
+	}
+
+	/**
+	 * Create a simulator.
+	 * @param deadline Deadline, in rounds
+	 */
+	public NegotiationSimulator(final int deadline) {
+		if (deadline < 1) {
+			throw new IllegalArgumentException("The deadline must be at least one round, not " + deadline);
+		}
+		this.deadline = deadline;
+	}
+
+	public int getDeadline() {
+		return this.deadline;
+	}
+
+	/**
+	 * Run a number of sessions, seeding each party in session s with {@code seed + s}.
+	 * @param participants Participants, in turn order
+	 * @param sessions Number of sessions
+	 * @param seed Base random seed
+	 * @return Results, in session order
+	 */
+	public List<SessionResult> run(final List<SimulationParticipant> participants, final int sessions, final long seed) {
+		final List<SessionResult> results = new ArrayList<>(sessions);
+		for (int s = 0; s < sessions; s++) {
+			results.add(this.run(participants, seed + s));
+		}
+		return results;
+	}
+
+	/**
+	 * Run a single session.
+	 * @param participants At least two participants, in turn order
+	 * @param seed Random seed given to every party
+	 * @return Result
+	 */
+	public SessionResult run(final List<SimulationParticipant> participants, final long seed) {
+		if (participants.size() < 2) {
+			throw new IllegalArgumentException("A session needs at least two participants, not " + participants.size());
+		}
+		final long start = System.nanoTime();
+		final SimulationTimeLine timeline = new SimulationTimeLine(this.deadline);
+		final Session session = new Session(participants);
+		Outcome outcome = Outcome.DEADLINE;
+		Bid agreement = null;
+		int rounds = 0;
+		try {
+			session.init(timeline, seed);
+			Bid standingOffer = null;
+			int accepts = 0;
+			final int turns = this.deadline * session.size();
+			for (int turn = 0; turn < turns && outcome == Outcome.DEADLINE; turn++) {
+				final int p = turn % session.size();
+				if (p == 0) {
+					timeline.setRound(turn / session.size());
+					rounds++;
+				}
+				final Action action = session.chooseAction(p);
+				if (action instanceof Offer offer) {
+					standingOffer = offer.getBid();
+					accepts = 0;
+					session.offers[p]++;
+				} else if (action instanceof Accept && standingOffer != null) {
+					accepts++;
+				} else if (action instanceof EndNegotiation) {
+					outcome = Outcome.BROKEN_OFF;
+				} else {
+					LOG.warn("{} broke the protocol with {}", participants.get(p).name(), action);
+					outcome = Outcome.FAILED;
+				}
+				session.broadcast(p, action);
+				if (accepts == session.size() - 1) {
+					outcome = Outcome.AGREEMENT;
+					agreement = standingOffer;
+				}
+			}
+		} catch (RuntimeException re) {
+			LOG.warn("Session failed", re);
+			outcome = Outcome.FAILED;
+			agreement = null;
+		}
+		return session.end(outcome, agreement, rounds, System.nanoTime() - start);
+	}
+
+	@Override
+	public String toString() {
+		return "NegotiationSimulator: deadline=" + this.deadline;
+	}
+
+	/**
+	 * The parties and timings for one session.
+	 */
+	private static final class Session {
+
+		private final List<SimulationParticipant> participants;
+		private final AbstractNegotiationParty[] parties;
+		private final AgentID[] ids;
+		private final int[] offers;
+		private final long[] initNanos;
+		private final long[] actionNanos;
+
+		private Session(final List<SimulationParticipant> participants) {
+			this.participants = participants;
+			final int size = participants.size();
+			this.parties = new AbstractNegotiationParty[size];
+			this.ids = new AgentID[size];
+			this.offers = new int[size];
+			this.initNanos = new long[size];
+			this.actionNanos = new long[size];
+		}
+
+		private int size() {
+			return this.parties.length;
+		}
+
+		private void init(final SimulationTimeLine timeline, final long seed) {
+			for (int p = 0; p < this.parties.length; p++) {
+				final SimulationParticipant participant = this.participants.get(p);
+				final long start = System.nanoTime();
+				this.ids[p] = new AgentID(participant.name());
+				this.parties[p] = participant.factory().get();
+				this.parties[p].init(new NegotiationInfo(participant.utilitySpace(), participant.userModel(), participant.user(), 
+					null, timeline, seed, this.ids[p], null));
+				this.initNanos[p] = System.nanoTime() - start;
+			}
+		}
+
+		private Action chooseAction(final int p) {
+			final long start = System.nanoTime();
+			final Action action = this.parties[p].chooseAction(POSSIBLE_ACTIONS);
+			this.actionNanos[p] += System.nanoTime() - start;
+			return action;
+		}
+
+		private void broadcast(final int sender, final Action action) {
+			for (int p = 0; p < this.parties.length; p++) {
+				if (p != sender) {
+					final long start = System.nanoTime();
+					this.parties[p].receiveMessage(this.ids[sender], action);
+					this.actionNanos[p] += System.nanoTime() - start;
+				}
+			}
+		}
+
+		private SessionResult end(final Outcome outcome, final Bid agreement, final int rounds, final long nanos) {
+			final List<PartyResult> results = new ArrayList<>(this.parties.length);
+			for (int p = 0; p < this.parties.length; p++) {
+				final SimulationParticipant participant = this.participants.get(p);
+				if (this.parties[p] != null) {
+					try {
+						this.parties[p].negotiationEnded(agreement);
+					} catch (RuntimeException re) {
+						LOG.warn("{} failed to end the negotiation", participant.name(), re);
+					}
+				}
+				final double utility = (agreement != null) ? participant.utilitySpace().getUtility(agreement) 
+					: participant.utilitySpace().getReservationValue();
+				results.add(new PartyResult(participant.name(), utility, this.offers[p], this.initNanos[p], this.actionNanos[p]));
+			}
+			return new SessionResult(outcome, agreement, rounds, results, nanos);
+		}
+	}
+}
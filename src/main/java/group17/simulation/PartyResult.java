@@ -0,0 +1,12 @@
+package group17.simulation;
+
+/**
+ * The result of a simulated session for one party.
+ * @param name Party name
+ * @param utility Real utility of the agreement, or the reservation value if there was none
+ * @param offers Number of offers the party made
+ * @param initNanos Time spent initialising the party
+ * @param actionNanos Time spent choosing actions and receiving messages
+ */
+public record PartyResult(String name, double utility, int offers, long initNanos, long actionNanos) {
+}
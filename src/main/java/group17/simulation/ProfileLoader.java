@@ -0,0 +1,139 @@
+package group17.simulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import genius.core.issue.IssueDiscrete;
+import genius.core.uncertainty.AdditiveUtilitySpaceFactory;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.domain.DiscreteDomain;
+
+/**
+ * Loads additive Genius preference profiles (utility space XML with discrete issues) for simulated sessions.
+ * The domain is built from the issues and values listed in the profile itself.
+ */
+public class ProfileLoader {
+
+	private static final String FILE_SCHEME = "file:";
+
+	private final Path baseDirectory;
+
+	/**
+	 * Create a loader.
+	 * @param baseDirectory Directory that relative profile paths (e.g. {@code file:etc/...} in tournament files) 
+	 *   are resolved against, normally the Genius installation directory
+	 */
+	public ProfileLoader(final Path baseDirectory) {
+		this.baseDirectory = baseDirectory;
+	}
+
+	/**
+	 * Resolve a profile URL or path against the base directory.
+	 * @param url Profile URL, e.g. {@code file:etc/templates/partydomain/party1_utility.xml}
+	 * @return Profile path
+	 */
+	public Path resolve(final String url) {
+		final String path = url.startsWith(FILE_SCHEME) ? url.substring(FILE_SCHEME.length()) : url;
+		return this.baseDirectory.resolve(path);
+	}
+
+	/**
+	 * Load a profile from a URL or path.
+	 * @param url Profile URL
+	 * @return Utility space
+	 * @throws IOException If the profile can't be read or isn't an additive profile of discrete issues
+	 */
+	public AdditiveUtilitySpace load(final String url) throws IOException {
+		return this.load(this.resolve(url));
+	}
+
+	/**
+	 * Load a profile.
+	 * @param path Profile file
+	 * @return Utility space
+	 * @throws IOException If the profile can't be read or isn't an additive profile of discrete issues
+	 */
+	public AdditiveUtilitySpace load(final Path path) throws IOException {
+		final Document document;
+		try (InputStream input = Files.newInputStream(path)) {
+			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException("Failed to parse profile " + path, e);
+		}
+
+		final NodeList issueElements = document.getElementsByTagName("issue");
+		final List<IssueDiscrete> issues = new ArrayList<>(issueElements.getLength());
+		final List<double[]> evaluations = new ArrayList<>(issueElements.getLength());
+		for (int i = 0; i < issueElements.getLength(); i++) {
+			final Element issue = (Element) issueElements.item(i);
+			final NodeList items = issue.getElementsByTagName("item");
+			if (items.getLength() == 0) {
+				throw new IOException("Issue " + issue.getAttribute("name") + " in " + path + " isn't discrete");
+			}
+			final String[] values = new String[items.getLength()];
+			final double[] issueEvaluations = new double[items.getLength()];
+			double max = 0.0;
+			for (int v = 0; v < items.getLength(); v++) {
+				final Element item = (Element) items.item(v);
+				values[v] = item.getAttribute("value");
+				issueEvaluations[v] = this.parseDouble(item.getAttribute("evaluation"), 0.0);
+				max = Math.max(max, issueEvaluations[v]);
+			}
+			// Genius evaluations are often integers, normalised by the best value.
+			for (int v = 0; v < issueEvaluations.length && max > 0.0; v++) {
+				issueEvaluations[v] /= max;
+			}
+			issues.add(new IssueDiscrete(issue.getAttribute("name"), Integer.parseInt(issue.getAttribute("index")), values));
+			evaluations.add(issueEvaluations);
+		}
+		if (issues.isEmpty()) {
+			throw new IOException("No issues in profile " + path);
+		}
+
+		final Map<Integer, Double> weights = new HashMap<>();
+		final NodeList weightElements = document.getElementsByTagName("weight");
+		for (int w = 0; w < weightElements.getLength(); w++) {
+			final Element weight = (Element) weightElements.item(w);
+			weights.put(Integer.parseInt(weight.getAttribute("index")), this.parseDouble(weight.getAttribute("value"), 0.0));
+		}
+
+		final DiscreteDomain domain = new DiscreteDomain(path.getFileName().toString(), issues);
+		final AdditiveUtilitySpaceFactory factory = new AdditiveUtilitySpaceFactory(domain);
+		for (int i = 0; i < issues.size(); i++) {
+			final IssueDiscrete issue = issues.get(i);
+			factory.setWeight(issue, weights.getOrDefault(issue.getNumber(), 1.0 / issues.size()));
+			for (int v = 0; v < issue.getNumberOfValues(); v++) {
+				factory.setUtility(issue, issue.getValue(v), evaluations.get(i)[v]);
+			}
+		}
+		final AdditiveUtilitySpace space = factory.getUtilitySpace();
+		final NodeList reservation = document.getElementsByTagName("reservation");
+		if (reservation.getLength() > 0) {
+			space.setReservationValue(this.parseDouble(((Element) reservation.item(0)).getAttribute("value"), 0.0));
+		}
+		return space;
+	}
+
+	private double parseDouble(final String value, final double defaultValue) {
+		return value.isEmpty() ? defaultValue : Double.parseDouble(value);
+	}
+
+	@Override
+	public String toString() {
+		return "ProfileLoader: baseDirectory=" + this.baseDirectory;
+	}
+}
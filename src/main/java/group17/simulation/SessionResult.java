@@ -0,0 +1,92 @@
+package group17.simulation;
+
+import java.util.List;
+
+import genius.core.Bid;
+
+/**
+ * The result of a simulated session.
+ * @param outcome How the session ended
+ * @param agreement Agreed bid, or null
+ * @param rounds Number of rounds started
+ * @param parties Result for each party, in turn order
+ * @param nanos Total session time, including initialising the parties
+ */
+public record SessionResult(Outcome outcome, Bid agreement, int rounds, List<PartyResult> parties, long nanos) {
+
+	/**
+	 * How a session ended.
+	 */
+	public enum Outcome {
+
+		/** Every other party accepted an offer. */
+		AGREEMENT,
+
+		/** A party ended the negotiation. */
+		BROKEN_OFF,
+
+		/** The deadline passed without agreement. */
+		DEADLINE,
+
+		/** A party failed, or broke the protocol. */
+		FAILED
+	}
+
+	public boolean isAgreement() {
+		return this.outcome == Outcome.AGREEMENT;
+	}
+
+	/**
+	 * Get the utility for a party.
+	 * @param index Party index, in turn order
+	 * @return Utility
+	 */
+	public double getUtility(final int index) {
+		return this.parties.get(index).utility();
+	}
+
+	/**
+	 * Sum of every party's utility.
+	 * @return Social welfare
+	 */
+	public double socialWelfare() {
+		double welfare = 0.0;
+		for (final PartyResult party : this.parties) {
+			welfare += party.utility();
+		}
+		return welfare;
+	}
+
+	/**
+	 * CSV representation of the field names.
+	 * @return CSV representation
+	 */
+	public String toCSVLabels() {
+		final StringBuilder builder = new StringBuilder("Outcome,Rounds,Nanos");
+		for (final PartyResult party : this.parties) {
+			builder.append(",").append(party.name()).append(" Utility")
+				.append(",").append(party.name()).append(" Offers")
+				.append(",").append(party.name()).append(" Init Nanos")
+				.append(",").append(party.name()).append(" Action Nanos");
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * CSV representation of the field values.
+	 * @return CSV representation
+	 */
+	public String toCSV() {
+		final StringBuilder builder = new StringBuilder()
+			.append(this.outcome).append(",")
+			.append(this.rounds).append(",")
+			.append(this.nanos);
+		for (final PartyResult party : this.parties) {
+			builder.append(",").append(party.utility())
+				.append(",").append(party.offers())
+				.append(",").append(party.initNanos())
+				.append(",").append(party.actionNanos());
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,91 @@
+package group17.simulation;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.uncertainty.UserModel;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.Agent17;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticProfile;
+
+/**
+ * Command line self-play: {@link Agent17} against a scripted or Agent 17 opponent on a new synthetic domain for
+ * every session. Prints a CSV line per session, followed by a summary.
+ * <p>
+ * Usage: {@code SimulationCli [--sessions n] [--deadline rounds] [--issues n] [--values n] [--ranking n]
+ * [--opponent boulware|conceder|agent17] [--seed n]}. A ranking length of 0 gives Agent 17 full preference information.
+ */
+public final class SimulationCli {
+
+	private static final long OPPONENT_PROFILE_STREAM = 0x2545F4914F6CDD1DL;
+
+	private SimulationCli() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) {
+		int sessions = 100;
+		int deadline = NegotiationSimulator.DEFAULT_DEADLINE;
+		int issues = SyntheticDomainSpec.DEFAULT_ISSUES;
+		int values = SyntheticDomainSpec.DEFAULT_VALUES;
+		int ranking = 0;
+		String opponent = "boulware";
+		long seed = SyntheticDomainSpec.DEFAULT_SEED;
+		for (int a = 0; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--sessions" -> sessions = Integer.parseInt(value);
+				case "--deadline" -> deadline = Integer.parseInt(value);
+				case "--issues" -> issues = Integer.parseInt(value);
+				case "--values" -> values = Integer.parseInt(value);
+				case "--ranking" -> ranking = Integer.parseInt(value);
+				case "--opponent" -> opponent = value;
+				case "--seed" -> seed = Long.parseLong(value);
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+		final Supplier<? extends AbstractNegotiationParty> opponentFactory = switch (opponent) {
+			case "boulware" -> () -> new TimeDependentParty(TimeDependentParty.BOULWARE);
+			case "conceder" -> () -> new TimeDependentParty(TimeDependentParty.CONCEDER);
+			case "agent17" -> Agent17::new;
+			default -> throw new IllegalArgumentException("Unknown opponent " + opponent);
+		};
+
+		final NegotiationSimulator simulator = new NegotiationSimulator(deadline);
+		final long start = System.nanoTime();
+		double totalUtility = 0.0;
+		int agreements = 0;
+		for (int s = 0; s < sessions; s++) {
+			final SyntheticDomainSpec spec = new SyntheticDomainSpec(issues, values, SyntheticDomainSpec.DEFAULT_WEIGHT_SKEW, 
+				SyntheticDomainSpec.DEFAULT_RANKING_NOISE, Math.max(ranking, 1), seed + s);
+			final SyntheticDomainGenerator generator = new SyntheticDomainGenerator(spec);
+			final SyntheticDomain domain = generator.generateDomain();
+			final SyntheticProfile profile = generator.generateProfile(domain);
+			final AdditiveUtilitySpace opponentSpace = new SyntheticDomainGenerator(spec.withSeed((seed + s) ^ OPPONENT_PROFILE_STREAM))
+				.generateProfile(domain).toUtilitySpace();
+			final SimulationParticipant agent = (ranking > 0) 
+				? SimulationParticipant.uncertain("Agent17", Agent17::new, profile.toUtilitySpace(), 
+					new UserModel(generator.generateRanking(profile)))
+				: SimulationParticipant.of("Agent17", Agent17::new, profile.toUtilitySpace());
+
+			final SessionResult result = simulator.run(List.of(agent, SimulationParticipant.of("Opponent", opponentFactory, opponentSpace)), seed + s);
+			if (s == 0) {
+				System.out.println(result.toCSVLabels());
+			}
+			System.out.println(result.toCSV());
+			totalUtility += result.getUtility(0);
+			agreements += result.isAgreement() ? 1 : 0;
+		}
+		final double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Sessions: %d in %.2fs (%.0f per minute), agreements: %d, mean Agent17 utility: %.4f%n", 
+			sessions, seconds, sessions * 60.0 / seconds, agreements, totalUtility / sessions);
+	}
+}
@@ -0,0 +1,50 @@
+package group17.simulation;
+
+import java.util.function.Supplier;
+
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.uncertainty.User;
+import genius.core.uncertainty.UserModel;
+import genius.core.utility.AbstractUtilitySpace;
+import genius.core.utility.AdditiveUtilitySpace;
+
+/**
+ * A party taking part in simulated sessions. A new party is created for every session.
+ * @param name Party name, also used as its agent ID
+ * @param factory Creates the party
+ * @param utilitySpace The party's real preferences, used to score the outcome
+ * @param userModel User model given to the party, or null for full preference information
+ * @param user User to elicit further rankings from, or null
+ */
+public record SimulationParticipant(String name, Supplier<? extends AbstractNegotiationParty> factory, 
+	AbstractUtilitySpace utilitySpace, UserModel userModel, User user) {
+
+	/**
+	 * A participant with full preference information.
+	 * @param name Party name
+	 * @param factory Creates the party
+	 * @param utilitySpace Preferences
+	 * @return Participant
+	 */
+	public static SimulationParticipant of(final String name, final Supplier<? extends AbstractNegotiationParty> factory, 
+			final AbstractUtilitySpace utilitySpace) {
+		return new SimulationParticipant(name, factory, utilitySpace, null, null);
+	}
+
+	/**
+	 * A participant with preference uncertainty, which can elicit rankings from a user with the real preferences.
+	 * @param name Party name
+	 * @param factory Creates the party
+	 * @param utilitySpace Real preferences
+	 * @param userModel User model given to the party
+	 * @return Participant
+	 */
+	public static SimulationParticipant uncertain(final String name, final Supplier<? extends AbstractNegotiationParty> factory, 
+			final AdditiveUtilitySpace utilitySpace, final UserModel userModel) {
+		return new SimulationParticipant(name, factory, utilitySpace, userModel, new User(utilitySpace));
+	}
+
+	public boolean hasPreferenceUncertainty() {
+		return this.userModel != null;
+	}
+}
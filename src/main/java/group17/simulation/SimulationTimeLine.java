@@ -0,0 +1,57 @@
+package group17.simulation;
+
+import genius.core.timeline.TimeLineInfo;
+import genius.core.timeline.Timeline.Type;
+
+/**
+ * A round based {@link TimeLineInfo} driven by the {@link NegotiationSimulator}, rather than a clock.
+ * Normalised time is the number of completed rounds over the deadline, as in a Genius round based session.
+ */
+public class SimulationTimeLine implements TimeLineInfo {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int totalRounds;
+	private int round = 0;
+
+	/**
+	 * Create a time line.
+	 * @param totalRounds Deadline, in rounds
+	 */
+	public SimulationTimeLine(final int totalRounds) {
+		this.totalRounds = totalRounds;
+	}
+
+	/**
+	 * Move to a round.
+	 * @param newRound Round, from 0
+	 */
+	void setRound(final int newRound) {
+		this.round = newRound;
+	}
+
+	@Override
+	public Type getType() {
+		return Type.Rounds;
+	}
+
+	@Override
+	public double getTime() {
+		return (double) this.round / this.totalRounds;
+	}
+
+	@Override
+	public double getTotalTime() {
+		return this.totalRounds;
+	}
+
+	@Override
+	public double getCurrentTime() {
+		return this.round;
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationTimeLine: round=" + this.round + ", totalRounds=" + this.totalRounds;
+	}
+}
@@ -0,0 +1,136 @@
+package group17.simulation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+import genius.core.actions.Accept;
+import genius.core.actions.Action;
+import genius.core.actions.Offer;
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.parties.NegotiationInfo;
+
+/**
+ * A scripted time dependent opponent for simulated sessions. The target utility falls from the best of a random 
+ * sample of bids to a floor as target(t) = max - (max - floor) * t^(1/e), so e &lt; 1 is Boulware and e &gt; 1 is 
+ * a conceder. The floor is the highest of the worst sampled bid, the reservation value and a minimum utility.
+ * It offers the sampled bid closest to (but above) the target, and accepts any offer at least as good.
+ */
+public class TimeDependentParty extends AbstractNegotiationParty {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final double BOULWARE = 0.2;
+	public static final double CONCEDER = 2.0;
+	public static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+	private final double concession;
+	private final int sampleSize;
+	private final double minimumUtility;
+	private final List<Bid> bids = new ArrayList<>();
+	private double[] utilities;
+	private double floor;
+	private Bid lastOffer;
+
+	/**
+	 * Create a Boulware party.
+	 */
+	public TimeDependentParty() {
+		this(BOULWARE);
+	}
+
+	/**
+	 * Create a party with a concession exponent.
+	 * @param concession Concession exponent (e)
+	 */
+	public TimeDependentParty(final double concession) {
+		this(concession, DEFAULT_SAMPLE_SIZE);
+	}
+
+	/**
+	 * Create a party with a concession exponent and bid sample size.
+	 * @param concession Concession exponent (e)
+	 * @param sampleSize Number of random bids to choose offers from
+	 */
+	public TimeDependentParty(final double concession, final int sampleSize) {
+		this(concession, sampleSize, 0.0);
+	}
+
+	/**
+	 * Create a party that never concedes below a minimum utility.
+	 * @param concession Concession exponent (e)
+	 * @param sampleSize Number of random bids to choose offers from
+	 * @param minimumUtility Minimum utility
+	 */
+	public TimeDependentParty(final double concession, final int sampleSize, final double minimumUtility) {
+		this.concession = concession;
+		this.sampleSize = sampleSize;
+		this.minimumUtility = minimumUtility;
+	}
+
+	@Override
+	public void init(final NegotiationInfo info) {
+		super.init(info);
+		for (int i = 0; i < this.sampleSize; i++) {
+			this.bids.add(this.generateRandomBid());
+		}
+		this.bids.sort(Comparator.comparingDouble(this::getUtility));
+		this.utilities = new double[this.bids.size()];
+		for (int i = 0; i < this.utilities.length; i++) {
+			this.utilities[i] = this.getUtility(this.bids.get(i));
+		}
+		final double max = this.utilities[this.utilities.length - 1];
+		this.floor = Math.min(max, Math.max(this.utilities[0], Math.max(this.utilitySpace.getReservationValue(), this.minimumUtility)));
+	}
+
+	@Override
+	public Action chooseAction(final List<Class<? extends Action>> possibleActions) {
+		final double target = this.getTarget();
+		if (this.lastOffer != null && this.getUtility(this.lastOffer) >= target) {
+			return new Accept(this.getPartyId(), this.lastOffer);
+		}
+		return new Offer(this.getPartyId(), this.bids.get(this.indexAbove(target)));
+	}
+
+	@Override
+	public void receiveMessage(final AgentID sender, final Action action) {
+		if (action instanceof Offer offer) {
+			this.lastOffer = offer.getBid();
+		}
+	}
+
+	/**
+	 * Current target utility.
+	 * @return Target utility
+	 */
+	public double getTarget() {
+		final double max = this.utilities[this.utilities.length - 1];
+		return max - (max - this.floor) * Math.pow(this.getTimeLine().getTime(), 1.0 / this.concession);
+	}
+
+	/**
+	 * Find the lowest utility sampled bid at or above a target.
+	 * @param target Target utility
+	 * @return Index of the bid, or of the best bid if none meet the target
+	 */
+	private int indexAbove(final double target) {
+		int low = 0;
+		int high = this.utilities.length - 1;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.utilities[middle] >= target) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public String getDescription() {
+		return "Time Dependent (e=" + this.concession + ")";
+	}
+}
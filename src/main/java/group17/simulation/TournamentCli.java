@@ -0,0 +1,86 @@
+package group17.simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import genius.core.parties.AbstractNegotiationParty;
+import group17.results.ResultRecord;
+import group17.results.ResultsStore;
+
+/**
+ * Command line entry point for the {@link TournamentRunner}. Runs every tournament in a Genius tournament file,
+ * printing a CSV line per session and the total utility for a party, as {@code hp_tuning.py} does from Genius logs.
+ * <p>
+ * Usage: {@code TournamentCli tournament.xml [--genius dir] [--threads n] [--seed n] [--party name] 
+ * [--substitute boulware|conceder] [--results dir]}. Profiles are resolved against the Genius directory; with a
+ * substitute, parties that aren't on the class path are replaced by a {@link TimeDependentParty}. With a results
+ * directory, every session is also appended to a {@link ResultsStore} there.
+ */
+public final class TournamentCli {
+
+	private TournamentCli() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Usage: TournamentCli tournament.xml [options]");
+		}
+		final Path tournamentFile = Paths.get(args[0]);
+		Path genius = Paths.get(".");
+		int threads = Runtime.getRuntime().availableProcessors();
+		long seed = 0L;
+		String party = "Agent17";
+		Double substitute = null;
+		Path results = null;
+		for (int a = 1; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--genius" -> genius = Paths.get(value);
+				case "--threads" -> threads = Integer.parseInt(value);
+				case "--seed" -> seed = Long.parseLong(value);
+				case "--party" -> party = value;
+				case "--substitute" -> substitute = "conceder".equals(value) ? TimeDependentParty.CONCEDER : TimeDependentParty.BOULWARE;
+				case "--results" -> results = Paths.get(value);
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		final Double concession = substitute;
+		final Function<String, Supplier<? extends AbstractNegotiationParty>> factory = className -> {
+			try {
+				return TournamentRunner.reflectiveFactory(className);
+			} catch (IllegalArgumentException iae) {
+				if (concession == null) {
+					throw iae;
+				}
+				return () -> new TimeDependentParty(concession);
+			}
+		};
+		try (TournamentRunner runner = new TournamentRunner(new ProfileLoader(genius), threads, factory)) {
+			for (final TournamentConfiguration tournament : TournamentConfiguration.load(tournamentFile)) {
+				final TournamentResult result = runner.run(tournament, seed);
+				for (final TournamentSessionResult session : result.sessions()) {
+					System.out.println(session.session().index() + "," + session.result().toCSV());
+				}
+				if (results != null) {
+					try (ResultsStore store = ResultsStore.open(results, tournament.partiesPerSession())) {
+						for (final TournamentSessionResult session : result.sessions()) {
+							store.append(ResultRecord.of(session));
+						}
+					}
+				}
+				System.out.printf("Sessions: %d on %d threads in %.2fs, agreements: %.1f%%, %s total utility: %.4f%n", 
+					result.sessions().size(), threads, result.nanos() / 1e9, result.agreementRate() * 100.0, party, 
+					result.totalUtility(party));
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package group17.simulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * A tournament, as described by a Genius multilateral tournament file such as {@code multilateraltournament.xml}.
+ * @param deadline Deadline, in rounds
+ * @param parties Party class names
+ * @param profiles Profile URLs
+ * @param repeats Number of times every session is repeated
+ * @param partiesPerSession Number of parties in each session
+ * @param repetitionAllowed Whether a party can negotiate against itself
+ */
+public record TournamentConfiguration(int deadline, List<String> parties, List<String> profiles, int repeats, 
+	int partiesPerSession, boolean repetitionAllowed) {
+
+	private static final String ROUND = "ROUND";
+
+	public TournamentConfiguration {
+		if (profiles.size() < partiesPerSession) {
+			throw new IllegalArgumentException("A tournament with " + partiesPerSession + " parties per session needs at least " 
+				+ partiesPerSession + " profiles, not " + profiles.size());
+		}
+		parties = List.copyOf(parties);
+		profiles = List.copyOf(profiles);
+	}
+
+	/**
+	 * Load every tournament in a Genius tournament file.
+	 * @param path Tournament file
+	 * @return Tournaments, in file order
+	 * @throws IOException If the file can't be read, or describes something the simulator can't run
+	 */
+	public static List<TournamentConfiguration> load(final Path path) throws IOException {
+		final Document document;
+		try (InputStream input = Files.newInputStream(path)) {
+			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(input);
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IOException("Failed to parse tournament " + path, e);
+		}
+		final List<TournamentConfiguration> tournaments = new ArrayList<>();
+		final NodeList elements = document.getElementsByTagName("tournament");
+		for (int t = 0; t < elements.getLength(); t++) {
+			tournaments.add(parse((Element) elements.item(t), path));
+		}
+		return tournaments;
+	}
+
+	private static TournamentConfiguration parse(final Element tournament, final Path path) throws IOException {
+		final Element deadline = child(tournament, "deadline");
+		final String type = text(deadline, "type");
+		if (!ROUND.equals(type)) {
+			throw new IOException("Only " + ROUND + " deadlines can be simulated, not " + type + " in " + path);
+		}
+		final List<String> parties = new ArrayList<>();
+		final NodeList partyElements = child(tournament, "partyRepItems").getElementsByTagName("party");
+		for (int p = 0; p < partyElements.getLength(); p++) {
+			parties.add(((Element) partyElements.item(p)).getAttribute("classPath"));
+		}
+		final List<String> profiles = new ArrayList<>();
+		final NodeList profileElements = child(tournament, "partyProfileItems").getElementsByTagName("item");
+		for (int p = 0; p < profileElements.getLength(); p++) {
+			profiles.add(((Element) profileElements.item(p)).getAttribute("url"));
+		}
+		return new TournamentConfiguration(Integer.parseInt(text(deadline, "value")), parties, profiles, 
+			Integer.parseInt(text(tournament, "repeats")), Integer.parseInt(text(tournament, "numberOfPartiesPerSession")), 
+			Boolean.parseBoolean(text(tournament, "repetitionAllowed")));
+	}
+
+	private static Element child(final Element parent, final String name) throws IOException {
+		final NodeList children = parent.getElementsByTagName(name);
+		if (children.getLength() == 0) {
+			throw new IOException("Missing " + name + " in tournament");
+		}
+		return (Element) children.item(0);
+	}
+
+	private static String text(final Element parent, final String name) throws IOException {
+		return child(parent, name).getTextContent().trim();
+	}
+
+	/**
+	 * Generate every session in the tournament, as Genius does: each combination of parties negotiates with each 
+	 * permutation of profiles, and every session is repeated.
+	 * @return Sessions, numbered from 0
+	 */
+	public List<TournamentSession> sessions() {
+		final List<List<String>> partyGroups = new ArrayList<>();
+		this.combinations(new ArrayList<>(), 0, partyGroups);
+		final List<List<String>> profileGroups = new ArrayList<>();
+		this.permutations(new ArrayList<>(), new boolean[this.profiles.size()], profileGroups);
+
+		final List<TournamentSession> sessions = new ArrayList<>();
+		for (int repeat = 0; repeat < this.repeats; repeat++) {
+			for (final List<String> partyGroup : partyGroups) {
+				for (final List<String> profileGroup : profileGroups) {
+					sessions.add(new TournamentSession(sessions.size(), repeat, partyGroup, profileGroup));
+				}
+			}
+		}
+		return sessions;
+	}
+
+	/**
+	 * Choose parties for a session, in the order they are listed. With repetition, a party can be chosen again.
+	 */
+	private void combinations(final List<String> chosen, final int from, final List<List<String>> groups) {
+		if (chosen.size() == this.partiesPerSession) {
+			groups.add(List.copyOf(chosen));
+			return;
+		}
+		for (int p = from; p < this.parties.size(); p++) {
+			chosen.add(this.parties.get(p));
+			this.combinations(chosen, this.repetitionAllowed ? p : p + 1, groups);
+			chosen.remove(chosen.size() - 1);
+		}
+	}
+
+	/**
+	 * Assign distinct profiles to the parties in a session, in every order.
+	 */
+	private void permutations(final List<String> chosen, final boolean[] used, final List<List<String>> groups) {
+		if (chosen.size() == this.partiesPerSession) {
+			groups.add(List.copyOf(chosen));
+			return;
+		}
+		for (int p = 0; p < this.profiles.size(); p++) {
+			if (!used[p]) {
+				used[p] = true;
+				chosen.add(this.profiles.get(p));
+				this.permutations(chosen, used, groups);
+				chosen.remove(chosen.size() - 1);
+				used[p] = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package group17.simulation;
+
+import java.util.List;
+
+/**
+ * The results of every session in a tournament.
+ * @param configuration Tournament
+ * @param sessions Session results, in session order
+ * @param nanos Total time taken
+ */
+public record TournamentResult(TournamentConfiguration configuration, List<TournamentSessionResult> sessions, long nanos) {
+
+	/**
+	 * Total utility for a party across every session it took part in, as reported for tuning.
+	 * @param party Party class name, or simple class name
+	 * @return Total utility
+	 */
+	public double totalUtility(final String party) {
+		double total = 0.0;
+		for (final TournamentSessionResult session : this.sessions) {
+			final int index = session.indexOf(party);
+			if (index >= 0) {
+				total += session.result().getUtility(index);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Mean utility for a party across every session it took part in.
+	 * @param party Party class name, or simple class name
+	 * @return Mean utility, or zero if the party took part in no sessions
+	 */
+	public double meanUtility(final String party) {
+		int count = 0;
+		for (final TournamentSessionResult session : this.sessions) {
+			count += (session.indexOf(party) >= 0) ? 1 : 0;
+		}
+		return (count > 0) ? this.totalUtility(party) / count : 0.0;
+	}
+
+	/**
+	 * Proportion of sessions that ended in agreement.
+	 * @return Agreement rate
+	 */
+	public double agreementRate() {
+		long agreements = this.sessions.stream().filter(session -> session.result().isAgreement()).count();
+		return this.sessions.isEmpty() ? 0.0 : (double) agreements / this.sessions.size();
+	}
+}
@@ -0,0 +1,132 @@
+package group17.simulation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.utility.AbstractUtilitySpace;
+
+/**
+ * Runs every session in a tournament on a work-stealing pool. Sessions are independent: each creates its own party
+ * instances and is seeded from the session number, so results don't depend on the number of threads or the order 
+ * sessions run in. Profiles are loaded once and shared read-only between sessions.
+ */
+public class TournamentRunner implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TournamentRunner.class);
+
+	private final ProfileLoader profileLoader;
+	private final Function<String, Supplier<? extends AbstractNegotiationParty>> partyFactory;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Create a runner that creates parties by class name, using one thread per core.
+	 * @param profileLoader Profile loader
+	 */
+	public TournamentRunner(final ProfileLoader profileLoader) {
+		this(profileLoader, Runtime.getRuntime().availableProcessors(), TournamentRunner::reflectiveFactory);
+	}
+
+	/**
+	 * Create a runner.
+	 * @param profileLoader Profile loader
+	 * @param parallelism Number of threads
+	 * @param partyFactory Maps a party class name to a factory, e.g. to substitute parties that aren't available
+	 */
+	public TournamentRunner(final ProfileLoader profileLoader, final int parallelism, 
+			final Function<String, Supplier<? extends AbstractNegotiationParty>> partyFactory) {
+		this.profileLoader = profileLoader;
+		this.partyFactory = partyFactory;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Create parties by calling the no-argument constructor of a class.
+	 * @param className Party class name
+	 * @return Factory
+	 */
+	public static Supplier<? extends AbstractNegotiationParty> reflectiveFactory(final String className) {
+		final Class<? extends AbstractNegotiationParty> type;
+		try {
+			type = Class.forName(className).asSubclass(AbstractNegotiationParty.class);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IllegalArgumentException("Unknown party " + className, e);
+		}
+		return () -> {
+			try {
+				return type.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException roe) {
+				throw new IllegalStateException("Failed to create party " + className, roe);
+			}
+		};
+	}
+
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * Run every session in a tournament.
+	 * @param tournament Tournament
+	 * @param seed Base random seed; session n is seeded with {@code seed + n}
+	 * @return Results, in session order
+	 * @throws IOException If a profile can't be loaded
+	 */
+	public TournamentResult run(final TournamentConfiguration tournament, final long seed) throws IOException {
+		final long start = System.nanoTime();
+		final Map<String, AbstractUtilitySpace> profiles = new HashMap<>();
+		for (final String profile : tournament.profiles()) {
+			profiles.put(profile, this.profileLoader.load(profile));
+		}
+		final Map<String, Supplier<? extends AbstractNegotiationParty>> factories = new HashMap<>();
+		for (final String party : tournament.parties()) {
+			factories.put(party, this.partyFactory.apply(party));
+		}
+		final NegotiationSimulator simulator = new NegotiationSimulator(tournament.deadline());
+
+		final List<TournamentSession> sessions = tournament.sessions();
+		final List<ForkJoinTask<TournamentSessionResult>> tasks = new ArrayList<>(sessions.size());
+		for (final TournamentSession session : sessions) {
+			tasks.add(this.pool.submit(() -> this.run(simulator, session, profiles, factories, seed)));
+		}
+		final List<TournamentSessionResult> results = new ArrayList<>(sessions.size());
+		for (final ForkJoinTask<TournamentSessionResult> task : tasks) {
+			results.add(task.join());
+		}
+		final long nanos = System.nanoTime() - start;
+		LOG.info("Ran {} sessions on {} threads in {} ms", sessions.size(), this.getParallelism(), nanos / 1_000_000L);
+		return new TournamentResult(tournament, results, nanos);
+	}
+
+	private TournamentSessionResult run(final NegotiationSimulator simulator, final TournamentSession session, 
+			final Map<String, AbstractUtilitySpace> profiles, final Map<String, Supplier<? extends AbstractNegotiationParty>> factories, 
+			final long seed) {
+		final List<SimulationParticipant> participants = new ArrayList<>(session.parties().size());
+		for (int p = 0; p < session.parties().size(); p++) {
+			final String party = session.parties().get(p);
+			final String name = party.substring(party.lastIndexOf('.') + 1) + "@" + p;
+			participants.add(SimulationParticipant.of(name, factories.get(party), profiles.get(session.profiles().get(p))));
+		}
+		return new TournamentSessionResult(session, simulator.run(participants, seed + session.index()));
+	}
+
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+
+	@Override
+	public String toString() {
+		return "TournamentRunner: parallelism=" + this.getParallelism() + ", " + this.profileLoader;
+	}
+}
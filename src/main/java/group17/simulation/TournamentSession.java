@@ -0,0 +1,13 @@
+package group17.simulation;
+
+import java.util.List;
+
+/**
+ * One session in a tournament.
+ * @param index Session number, from 0; also used to seed the session
+ * @param repeat Repeat number, from 0
+ * @param parties Party class names, in turn order
+ * @param profiles Profile URL for each party
+ */
+public record TournamentSession(int index, int repeat, List<String> parties, List<String> profiles) {
+}
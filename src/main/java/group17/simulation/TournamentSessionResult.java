@@ -0,0 +1,24 @@
+package group17.simulation;
+
+/**
+ * The result of one session in a tournament.
+ * @param session Session
+ * @param result Result
+ */
+public record TournamentSessionResult(TournamentSession session, SessionResult result) {
+
+	/**
+	 * Find a party in the session.
+	 * @param party Party class name, or simple class name
+	 * @return Index of the first matching party, or -1 if it didn't take part
+	 */
+	public int indexOf(final String party) {
+		for (int p = 0; p < this.session.parties().size(); p++) {
+			final String className = this.session.parties().get(p);
+			if (className.equals(party) || className.endsWith("." + party)) {
+				return p;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,29 @@
+package group17.tuning;
+
+import group17.domain.HyperparameterProperties;
+
+/**
+ * A scored candidate.
+ * @param point Point in the unit hypercube
+ * @param properties Hyperparameters for the point
+ * @param budget Budget the candidate was evaluated with
+ * @param score Score
+ */
+public record Evaluation(double[] point, HyperparameterProperties properties, int budget, double score) {
+
+	/**
+	 * CSV representation of the field names.
+	 * @return CSV representation
+	 */
+	public String toCSVLabels() {
+		return this.properties.toCSVLabels() + ",budget,score";
+	}
+
+	/**
+	 * CSV representation of the field values.
+	 * @return CSV representation
+	 */
+	public String toCSV() {
+		return this.properties.toCSV() + "," + this.budget + "," + this.score;
+	}
+}
@@ -0,0 +1,179 @@
+package group17.tuning;
+
+import java.util.List;
+
+/**
+ * A Gaussian process regression model with a squared exponential kernel, for Bayesian optimisation over the unit 
+ * hypercube. Observations are standardised, and the length scale is chosen from a small grid by marginal likelihood.
+ */
+final class GaussianProcess {
+
+	private static final double[] LENGTH_SCALES = { 0.05, 0.1, 0.2, 0.3, 0.5, 1.0 };
+
+	private final double noise;
+	private double lengthScale;
+	private double[][] points;
+	private double[][] cholesky;
+	private double[] alpha;
+	private double mean;
+	private double scale;
+
+	/**
+	 * Create a model.
+	 * @param noise Observation noise variance, relative to the standardised observations
+	 */
+	GaussianProcess(final double noise) {
+		this.noise = noise;
+	}
+
+	/**
+	 * Fit the model to observations.
+	 * @param observed Observed points
+	 * @param values Observed values
+	 */
+	void fit(final List<double[]> observed, final double[] values) {
+		this.points = observed.toArray(new double[0][]);
+		final int n = values.length;
+		double sum = 0.0;
+		for (final double value : values) {
+			sum += value;
+		}
+		this.mean = sum / n;
+		double variance = 0.0;
+		for (final double value : values) {
+			variance += (value - this.mean) * (value - this.mean);
+		}
+		this.scale = (variance > 0.0) ? Math.sqrt(variance / n) : 1.0;
+		final double[] standardised = new double[n];
+		for (int i = 0; i < n; i++) {
+			standardised[i] = (values[i] - this.mean) / this.scale;
+		}
+
+		double bestLikelihood = Double.NEGATIVE_INFINITY;
+		for (final double candidate : LENGTH_SCALES) {
+			final double[][] factor = this.factorise(candidate);
+			final double[] weights = solve(factor, standardised);
+			double likelihood = 0.0;
+			for (int i = 0; i < n; i++) {
+				likelihood -= 0.5 * standardised[i] * weights[i] + Math.log(factor[i][i]);
+			}
+			if (likelihood > bestLikelihood) {
+				bestLikelihood = likelihood;
+				this.lengthScale = candidate;
+				this.cholesky = factor;
+				this.alpha = weights;
+			}
+		}
+	}
+
+	/**
+	 * Predict the value at a point.
+	 * @param point Point
+	 * @return Mean and standard deviation
+	 */
+	double[] predict(final double[] point) {
+		final int n = this.points.length;
+		final double[] k = new double[n];
+		double mu = 0.0;
+		for (int i = 0; i < n; i++) {
+			k[i] = this.kernel(this.points[i], point, this.lengthScale);
+			mu += k[i] * this.alpha[i];
+		}
+		final double[] v = forward(this.cholesky, k);
+		double variance = 1.0;
+		for (int i = 0; i < n; i++) {
+			variance -= v[i] * v[i];
+		}
+		return new double[] { this.mean + mu * this.scale, Math.sqrt(Math.max(variance, 1e-12)) * this.scale };
+	}
+
+	/**
+	 * Expected improvement over the best value so far, for maximisation.
+	 * @param point Point
+	 * @param best Best observed value
+	 * @return Expected improvement
+	 */
+	double expectedImprovement(final double[] point, final double best) {
+		final double[] prediction = this.predict(point);
+		final double improvement = prediction[0] - best;
+		final double z = improvement / prediction[1];
+		return improvement * cumulative(z) + prediction[1] * density(z);
+	}
+
+	double getLengthScale() {
+		return this.lengthScale;
+	}
+
+	private double kernel(final double[] first, final double[] second, final double length) {
+		double distance = 0.0;
+		for (int d = 0; d < first.length; d++) {
+			final double delta = first[d] - second[d];
+			distance += delta * delta;
+		}
+		return Math.exp(-0.5 * distance / (length * length));
+	}
+
+	/**
+	 * Cholesky factorisation of the kernel matrix plus noise.
+	 */
+	private double[][] factorise(final double length) {
+		final int n = this.points.length;
+		final double[][] factor = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double sum = this.kernel(this.points[i], this.points[j], length) + ((i == j) ? this.noise : 0.0);
+				for (int k = 0; k < j; k++) {
+					sum -= factor[i][k] * factor[j][k];
+				}
+				factor[i][j] = (i == j) ? Math.sqrt(Math.max(sum, 1e-12)) : sum / factor[j][j];
+			}
+		}
+		return factor;
+	}
+
+	/**
+	 * Solve L y = b.
+	 */
+	private static double[] forward(final double[][] factor, final double[] b) {
+		final double[] y = new double[b.length];
+		for (int i = 0; i < b.length; i++) {
+			double sum = b[i];
+			for (int k = 0; k < i; k++) {
+				sum -= factor[i][k] * y[k];
+			}
+			y[i] = sum / factor[i][i];
+		}
+		return y;
+	}
+
+	/**
+	 * Solve L L' x = b.
+	 */
+	private static double[] solve(final double[][] factor, final double[] b) {
+		final double[] y = forward(factor, b);
+		final double[] x = new double[b.length];
+		for (int i = b.length - 1; i >= 0; i--) {
+			double sum = y[i];
+			for (int k = i + 1; k < b.length; k++) {
+				sum -= factor[k][i] * x[k];
+			}
+			x[i] = sum / factor[i][i];
+		}
+		return x;
+	}
+
+	private static double density(final double z) {
+		return Math.exp(-0.5 * z * z) / Math.sqrt(2.0 * Math.PI);
+	}
+
+	/**
+	 * Standard normal distribution function (Abramowitz and Stegun 7.1.26, error below 1.5e-7).
+	 */
+	private static double cumulative(final double z) {
+		final double x = Math.abs(z) / Math.sqrt(2.0);
+		final double t = 1.0 / (1.0 + 0.3275911 * x);
+		final double erf = 1.0 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592) 
+			* t * Math.exp(-x * x);
+		return (z >= 0.0) ? 0.5 * (1.0 + erf) : 0.5 * (1.0 - erf);
+	}
+}
@@ -0,0 +1,36 @@
+package group17.tuning;
+
+/**
+ * A tunable hyperparameter and its range. Optimizers work in the unit interval, which is mapped onto the range.
+ * @param name Property name, as in the properties file
+ * @param min Lowest value
+ * @param max Highest value
+ * @param integer Whether values are rounded to integers
+ */
+public record Hyperparameter(String name, double min, double max, boolean integer) {
+
+	public Hyperparameter {
+		if (max < min) {
+			throw new IllegalArgumentException("The range for " + name + " is empty: " + min + " to " + max);
+		}
+	}
+
+	/**
+	 * Map a point in the unit interval onto the range.
+	 * @param unit Point, from 0 to 1
+	 * @return Value
+	 */
+	public double value(final double unit) {
+		final double value = this.min + (Math.min(1.0, Math.max(0.0, unit)) * (this.max - this.min));
+		return this.integer ? Math.round(value) : value;
+	}
+
+	/**
+	 * Map a value onto the unit interval.
+	 * @param value Value
+	 * @return Point, from 0 to 1
+	 */
+	public double unit(final double value) {
+		return (this.max > this.min) ? (value - this.min) / (this.max - this.min) : 0.0;
+	}
+}
@@ -0,0 +1,226 @@
+package group17.tuning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import group17.domain.HyperparameterProperties;
+
+/**
+ * Tunes hyperparameters in-process, replacing {@code hp_tuning.py}'s rewrite-and-relaunch loop. Candidates are 
+ * created in memory and scored by a {@link TuningObjective} in parallel batches. Three strategies are supported:
+ * random search, successive halving (many candidates on a small budget, keeping the best 1/eta on an eta times 
+ * larger budget each rung) and Bayesian optimisation (a Gaussian process with expected improvement, choosing each 
+ * batch by "kriging believer": chosen points are added with their predicted value before choosing the next).
+ * Every evaluation is kept in the history.
+ */
+public class HyperparameterOptimizer implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(HyperparameterOptimizer.class);
+
+	private static final int ACQUISITION_SAMPLES = 2000;
+	private static final double LOCAL_STEP = 0.05;
+	private static final double GP_NOISE = 1e-2;
+
+	private final SearchSpace space;
+	private final TuningObjective objective;
+	private final Random random;
+	private final ForkJoinPool pool;
+	private final List<Evaluation> history = new ArrayList<>();
+
+	/**
+	 * Create an optimizer.
+	 * @param space Search space
+	 * @param objective Objective to maximise
+	 * @param parallelism Number of candidates evaluated at once
+	 * @param seed Random seed
+	 */
+	public HyperparameterOptimizer(final SearchSpace space, final TuningObjective objective, final int parallelism, final long seed) {
+		this.space = space;
+		this.objective = objective;
+		this.random = new Random(seed);
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	public List<Evaluation> getHistory() {
+		return Collections.unmodifiableList(this.history);
+	}
+
+	/**
+	 * Best evaluation so far, preferring those evaluated on the largest budget.
+	 * @return Best evaluation, or null if nothing has been evaluated
+	 */
+	public Evaluation best() {
+		return this.history.stream()
+			.max(Comparator.comparingInt(Evaluation::budget).thenComparingDouble(Evaluation::score))
+			.orElse(null);
+	}
+
+	/**
+	 * Score a batch of points in parallel.
+	 * @param points Points in the unit hypercube
+	 * @param budget Budget for each
+	 * @return Evaluations, in the same order
+	 */
+	public List<Evaluation> evaluate(final List<double[]> points, final int budget) {
+		final List<ForkJoinTask<Evaluation>> tasks = new ArrayList<>(points.size());
+		for (final double[] point : points) {
+			final HyperparameterProperties properties = this.space.toProperties(point);
+			tasks.add(this.pool.submit(() -> new Evaluation(point, properties, budget, this.objective.evaluate(properties, budget))));
+		}
+		final List<Evaluation> evaluations = new ArrayList<>(tasks.size());
+		for (final ForkJoinTask<Evaluation> task : tasks) {
+			evaluations.add(task.join());
+		}
+		this.history.addAll(evaluations);
+		return evaluations;
+	}
+
+	/**
+	 * Random search.
+	 * @param evaluations Number of candidates
+	 * @param budget Budget for each
+	 * @return Best evaluation
+	 */
+	public Evaluation randomSearch(final int evaluations, final int budget) {
+		final List<double[]> points = new ArrayList<>(evaluations);
+		for (int e = 0; e < evaluations; e++) {
+			points.add(this.space.sample(this.random));
+		}
+		final Evaluation best = bestOf(this.evaluate(points, budget));
+		LOG.info("Random search: best of {} = {}", evaluations, best.score());
+		return best;
+	}
+
+	/**
+	 * Successive halving.
+	 * @param candidates Number of candidates in the first rung
+	 * @param minBudget Budget for the first rung
+	 * @param eta Reduction factor, at least 2
+	 * @return Best evaluation from the last rung
+	 */
+	public Evaluation successiveHalving(final int candidates, final int minBudget, final int eta) {
+		if (eta < 2) {
+			throw new IllegalArgumentException("The reduction factor must be at least 2, not " + eta);
+		}
+		List<double[]> points = new ArrayList<>(candidates);
+		for (int c = 0; c < candidates; c++) {
+			points.add(this.space.sample(this.random));
+		}
+		int budget = minBudget;
+		while (true) {
+			final List<Evaluation> rung = new ArrayList<>(this.evaluate(points, budget));
+			rung.sort(Comparator.comparingDouble(Evaluation::score).reversed());
+			LOG.info("Successive halving: {} candidates on budget {}, best = {}", rung.size(), budget, rung.get(0).score());
+			final int keep = rung.size() / eta;
+			if (keep < 1) {
+				return rung.get(0);
+			}
+			points = new ArrayList<>(keep);
+			for (int c = 0; c < keep; c++) {
+				points.add(rung.get(c).point());
+			}
+			budget *= eta;
+		}
+	}
+
+	/**
+	 * Bayesian optimisation, seeded with random candidates. Batches are as large as the parallelism.
+	 * @param initialPoints Number of random candidates to start with
+	 * @param iterations Number of candidates chosen by the model
+	 * @param budget Budget for each
+	 * @return Best evaluation
+	 */
+	public Evaluation bayesianOptimization(final int initialPoints, final int iterations, final int budget) {
+		final List<double[]> observed = new ArrayList<>();
+		final List<Double> values = new ArrayList<>();
+		final List<double[]> initial = new ArrayList<>(initialPoints);
+		for (int i = 0; i < Math.max(initialPoints, 2); i++) {
+			initial.add(this.space.sample(this.random));
+		}
+		for (final Evaluation evaluation : this.evaluate(initial, budget)) {
+			observed.add(evaluation.point());
+			values.add(evaluation.score());
+		}
+
+		final int batchSize = this.pool.getParallelism();
+		for (int done = 0; done < iterations; done += batchSize) {
+			final List<double[]> believed = new ArrayList<>(observed);
+			final List<Double> believedValues = new ArrayList<>(values);
+			final List<double[]> batch = new ArrayList<>(batchSize);
+			for (int b = 0; b < Math.min(batchSize, iterations - done); b++) {
+				final GaussianProcess model = new GaussianProcess(GP_NOISE);
+				model.fit(believed, believedValues.stream().mapToDouble(Double::doubleValue).toArray());
+				final double[] next = this.maximiseExpectedImprovement(model, believed, believedValues);
+				batch.add(next);
+				believed.add(next);
+				believedValues.add(model.predict(next)[0]);
+			}
+			for (final Evaluation evaluation : this.evaluate(batch, budget)) {
+				observed.add(evaluation.point());
+				values.add(evaluation.score());
+			}
+		}
+		final Evaluation best = this.history.stream()
+			.filter(evaluation -> evaluation.budget() == budget)
+			.max(Comparator.comparingDouble(Evaluation::score))
+			.orElseThrow();
+		LOG.info("Bayesian optimisation: best of {} = {}", observed.size(), best.score());
+		return best;
+	}
+
+	/**
+	 * Choose the point with the highest expected improvement from random samples, and from small steps around the 
+	 * best point so far.
+	 */
+	private double[] maximiseExpectedImprovement(final GaussianProcess model, final List<double[]> observed, final List<Double> values) {
+		int bestIndex = 0;
+		for (int i = 1; i < values.size(); i++) {
+			if (values.get(i) > values.get(bestIndex)) {
+				bestIndex = i;
+			}
+		}
+		final double[] incumbent = observed.get(bestIndex);
+		final double bestValue = values.get(bestIndex);
+		double[] bestPoint = null;
+		double bestImprovement = Double.NEGATIVE_INFINITY;
+		for (int s = 0; s < ACQUISITION_SAMPLES; s++) {
+			final double[] point = (s % 2 == 0) ? this.space.sample(this.random) : this.perturb(incumbent);
+			final double improvement = model.expectedImprovement(point, bestValue);
+			if (improvement > bestImprovement) {
+				bestImprovement = improvement;
+				bestPoint = point;
+			}
+		}
+		return bestPoint;
+	}
+
+	private double[] perturb(final double[] point) {
+		final double[] perturbed = new double[point.length];
+		for (int d = 0; d < point.length; d++) {
+			perturbed[d] = Math.min(1.0, Math.max(0.0, point[d] + LOCAL_STEP * this.random.nextGaussian()));
+		}
+		return perturbed;
+	}
+
+	private static Evaluation bestOf(final List<Evaluation> evaluations) {
+		return evaluations.stream().max(Comparator.comparingDouble(Evaluation::score)).orElseThrow();
+	}
+
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+
+	@Override
+	public String toString() {
+		return "HyperparameterOptimizer: evaluations=" + this.history.size() + ", parallelism=" + this.pool.getParallelism();
+	}
+}
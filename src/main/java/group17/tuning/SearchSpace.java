@@ -0,0 +1,80 @@
+package group17.tuning;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import group17.domain.HyperparameterProperties;
+
+/**
+ * The hyperparameters being tuned. Candidates are points in the unit hypercube, one coordinate per hyperparameter,
+ * and are turned into in-memory {@link HyperparameterProperties}; anything not tuned takes its default.
+ */
+public class SearchSpace {
+
+	private final List<Hyperparameter> hyperparameters;
+
+	/**
+	 * Create a search space.
+	 * @param hyperparameters Hyperparameters to tune
+	 */
+	public SearchSpace(final List<Hyperparameter> hyperparameters) {
+		this.hyperparameters = List.copyOf(hyperparameters);
+	}
+
+	/**
+	 * Every Agent 17 hyperparameter, over the ranges searched by {@code hp_tuning.py}.
+	 * @return Search space
+	 */
+	public static SearchSpace agent17() {
+		return new SearchSpace(List.of(
+			new Hyperparameter(HyperparameterProperties.BOULWARE_BETA, 0.0, 1.0, false),
+			new Hyperparameter(HyperparameterProperties.FINISH_TIME, 0.0, 1.0, false),
+			new Hyperparameter(HyperparameterProperties.GIVE_UP_TIME, 0.0, 1.0, false),
+			new Hyperparameter(HyperparameterProperties.MAX_LIST_SIZE, 50.0, 500.0, true),
+			new Hyperparameter(HyperparameterProperties.RECENT_BID_WINDOW, 1.0, 50.0, true),
+			new Hyperparameter(HyperparameterProperties.TRANSITION_TIME, 0.0, 1.0, false),
+			new Hyperparameter(HyperparameterProperties.MAX_ELICITATION_PENALTY, 0.0, 0.2, false)));
+	}
+
+	public List<Hyperparameter> getHyperparameters() {
+		return this.hyperparameters;
+	}
+
+	public int dimensions() {
+		return this.hyperparameters.size();
+	}
+
+	/**
+	 * Sample a point uniformly.
+	 * @param random Random number generator
+	 * @return Point in the unit hypercube
+	 */
+	public double[] sample(final Random random) {
+		final double[] point = new double[this.hyperparameters.size()];
+		for (int d = 0; d < point.length; d++) {
+			point[d] = random.nextDouble();
+		}
+		return point;
+	}
+
+	/**
+	 * Create the properties for a point.
+	 * @param point Point in the unit hypercube
+	 * @return Properties
+	 */
+	public HyperparameterProperties toProperties(final double[] point) {
+		final Properties properties = new Properties();
+		for (int d = 0; d < point.length; d++) {
+			final Hyperparameter hyperparameter = this.hyperparameters.get(d);
+			final double value = hyperparameter.value(point[d]);
+			properties.setProperty(hyperparameter.name(), hyperparameter.integer() ? String.valueOf((long) value) : String.valueOf(value));
+		}
+		return new HyperparameterProperties(properties);
+	}
+
+	@Override
+	public String toString() {
+		return "SearchSpace: " + this.hyperparameters;
+	}
+}
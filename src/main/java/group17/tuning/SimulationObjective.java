@@ -0,0 +1,113 @@
+package group17.tuning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.uncertainty.UserModel;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.Agent17;
+import group17.domain.HyperparameterProperties;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticProfile;
+import group17.simulation.NegotiationSimulator;
+import group17.simulation.SimulationParticipant;
+import group17.simulation.TimeDependentParty;
+
+/**
+ * Scores hyperparameters by the mean utility {@link Agent17} gets in simulated sessions. The budget is the number of
+ * sessions: session s uses scenario s mod n against opponent (s / n) mod m, seeded with s, so every candidate
+ * faces the same sessions and scores can be compared directly.
+ */
+public class SimulationObjective implements TuningObjective {
+
+	/**
+	 * Preferences for one side of a session each.
+	 * @param agentSpace Agent 17's preferences
+	 * @param userModel Agent 17's user model, or null for full preference information
+	 * @param opponentSpace The opponent's preferences
+	 */
+	public record Scenario(AdditiveUtilitySpace agentSpace, UserModel userModel, AdditiveUtilitySpace opponentSpace) {
+	}
+
+	private static final long OPPONENT_PROFILE_STREAM = 0x2545F4914F6CDD1DL;
+	private static final double OPPONENT_MINIMUM_UTILITY = 0.6;
+
+	private final List<Scenario> scenarios;
+	private final List<Supplier<? extends AbstractNegotiationParty>> opponents;
+	private final NegotiationSimulator simulator;
+
+	/**
+	 * Create an objective.
+	 * @param scenarios Scenarios
+	 * @param opponents Opponent factories
+	 * @param deadline Deadline, in rounds
+	 */
+	public SimulationObjective(final List<Scenario> scenarios, final List<Supplier<? extends AbstractNegotiationParty>> opponents, 
+			final int deadline) {
+		if (scenarios.isEmpty() || opponents.isEmpty()) {
+			throw new IllegalArgumentException("An objective needs at least one scenario and one opponent");
+		}
+		this.scenarios = List.copyOf(scenarios);
+		this.opponents = List.copyOf(opponents);
+		this.simulator = new NegotiationSimulator(deadline);
+	}
+
+	/**
+	 * Generate synthetic scenarios, each on its own domain.
+	 * @param count Number of scenarios
+	 * @param issues Number of issues
+	 * @param values Number of values per issue
+	 * @param rankingLength Length of Agent 17's bid ranking, or 0 for full preference information
+	 * @param seed Random seed
+	 * @return Scenarios
+	 */
+	public static List<Scenario> syntheticScenarios(final int count, final int issues, final int values, final int rankingLength, 
+			final long seed) {
+		final List<Scenario> scenarios = new ArrayList<>(count);
+		for (int s = 0; s < count; s++) {
+			final SyntheticDomainSpec spec = SyntheticDomainSpec.of(issues, values).withRankingLength(Math.max(rankingLength, 1)).withSeed(seed + s);
+			final SyntheticDomainGenerator generator = new SyntheticDomainGenerator(spec);
+			final SyntheticDomain domain = generator.generateDomain();
+			final SyntheticProfile profile = generator.generateProfile(domain);
+			final SyntheticProfile opponent = new SyntheticDomainGenerator(spec.withSeed((seed + s) ^ OPPONENT_PROFILE_STREAM)).generateProfile(domain);
+			final UserModel userModel = (rankingLength > 0) ? new UserModel(generator.generateRanking(profile)) : null;
+			scenarios.add(new Scenario(profile.toUtilitySpace(), userModel, opponent.toUtilitySpace()));
+		}
+		return scenarios;
+	}
+
+	/**
+	 * Boulware and conceder opponents that won't concede below a utility of 0.6, so they can't simply be outlasted,
+	 * and Agent 17 with the hyperparameters from the properties file.
+	 * @return Opponent factories
+	 */
+	public static List<Supplier<? extends AbstractNegotiationParty>> defaultOpponents() {
+		return List.of(
+			() -> new TimeDependentParty(TimeDependentParty.BOULWARE, TimeDependentParty.DEFAULT_SAMPLE_SIZE, OPPONENT_MINIMUM_UTILITY), 
+			() -> new TimeDependentParty(TimeDependentParty.CONCEDER, TimeDependentParty.DEFAULT_SAMPLE_SIZE, OPPONENT_MINIMUM_UTILITY),
+			Agent17::new);
+	}
+
+	@Override
+	public double evaluate(final HyperparameterProperties candidate, final int budget) {
+		double total = 0.0;
+		for (int s = 0; s < budget; s++) {
+			final Scenario scenario = this.scenarios.get(s % this.scenarios.size());
+			final Supplier<? extends AbstractNegotiationParty> opponent = this.opponents.get((s / this.scenarios.size()) % this.opponents.size());
+			final SimulationParticipant agent = (scenario.userModel() != null) 
+				? SimulationParticipant.uncertain("Agent17", () -> new Agent17(candidate), scenario.agentSpace(), scenario.userModel())
+				: SimulationParticipant.of("Agent17", () -> new Agent17(candidate), scenario.agentSpace());
+			total += this.simulator.run(List.of(agent, SimulationParticipant.of("Opponent", opponent, scenario.opponentSpace())), s).getUtility(0);
+		}
+		return total / budget;
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationObjective: scenarios=" + this.scenarios.size() + ", opponents=" + this.opponents.size() + ", " + this.simulator;
+	}
+}
@@ -0,0 +1,85 @@
+package group17.tuning;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import group17.simulation.NegotiationSimulator;
+
+/**
+ * Command line entry point for the {@link HyperparameterOptimizer}, tuning Agent 17 against the default opponents
+ * on synthetic domains. Prints every evaluation as CSV, and optionally saves the best hyperparameters as a 
+ * properties file.
+ * <p>
+ * Usage: {@code TuningCli [--strategy random|halving|bayes] [--evaluations n] [--budget sessions] [--threads n]
+ * [--scenarios n] [--issues n] [--values n] [--ranking n] [--deadline rounds] [--seed n] [--out file]}
+ */
+public final class TuningCli {
+
+	private TuningCli() {
+		// Entry point only.
+	}
+
+	public static void main(final String[] args) throws IOException {
+		String strategy = "bayes";
+		int evaluations = 100;
+		int budget = 20;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int scenarios = 10;
+		int issues = 5;
+		int values = 5;
+		int ranking = 0;
+		int deadline = NegotiationSimulator.DEFAULT_DEADLINE;
+		long seed = 17L;
+		Path out = null;
+		for (int a = 0; a < args.length; a += 2) {
+			final String option = args[a];
+			if (a + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + option);
+			}
+			final String value = args[a + 1];
+			switch (option) {
+				case "--strategy" -> strategy = value;
+				case "--evaluations" -> evaluations = Integer.parseInt(value);
+				case "--budget" -> budget = Integer.parseInt(value);
+				case "--threads" -> threads = Integer.parseInt(value);
+				case "--scenarios" -> scenarios = Integer.parseInt(value);
+				case "--issues" -> issues = Integer.parseInt(value);
+				case "--values" -> values = Integer.parseInt(value);
+				case "--ranking" -> ranking = Integer.parseInt(value);
+				case "--deadline" -> deadline = Integer.parseInt(value);
+				case "--seed" -> seed = Long.parseLong(value);
+				case "--out" -> out = Paths.get(value);
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		final SimulationObjective objective = new SimulationObjective(
+			SimulationObjective.syntheticScenarios(scenarios, issues, values, ranking, seed), 
+			SimulationObjective.defaultOpponents(), deadline);
+		final long start = System.nanoTime();
+		try (HyperparameterOptimizer optimizer = new HyperparameterOptimizer(SearchSpace.agent17(), objective, threads, seed)) {
+			final Evaluation best = switch (strategy) {
+				case "random" -> optimizer.randomSearch(evaluations, budget);
+				// Start with enough candidates that halving by 3 ends on the full budget.
+				case "halving" -> optimizer.successiveHalving(evaluations, Math.max(1, budget / 9), 3);
+				case "bayes" -> optimizer.bayesianOptimization(Math.max(2, evaluations / 5), evaluations - Math.max(2, evaluations / 5), budget);
+				default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+			};
+			System.out.println(best.toCSVLabels());
+			for (final Evaluation evaluation : optimizer.getHistory()) {
+				System.out.println(evaluation.toCSV());
+			}
+			System.out.printf("%d evaluations in %.1fs; best score %.4f: %s%n", optimizer.getHistory().size(), 
+				(System.nanoTime() - start) / 1e9, best.score(), best.properties());
+			if (out != null) {
+				try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+					best.properties().toProperties().store(writer, "Tuned by " + strategy + ", score " + best.score());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package group17.tuning;
+
+import group17.domain.HyperparameterProperties;
+
+/**
+ * Scores candidate hyperparameters; higher is better. Objectives are called from several threads at once.
+ */
+@FunctionalInterface
+public interface TuningObjective {
+
+	/**
+	 * Score a candidate.
+	 * @param candidate Hyperparameters
+	 * @param budget Evaluation budget, e.g. number of sessions; larger budgets give less noisy scores
+	 * @return Score
+	 */
+	double evaluate(HyperparameterProperties candidate, int budget);
+}
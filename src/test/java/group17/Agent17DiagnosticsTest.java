@@ -0,0 +1,161 @@
+package group17;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import genius.core.AgentID;
+import genius.core.Bid;
+import genius.core.Deadline;
+import genius.core.actions.Offer;
+import genius.core.parties.NegotiationInfo;
+import group17.analytics.AnalyticsChannel;
+import group17.analytics.AnalyticsRingBuffer;
+import group17.domain.HyperparameterProperties;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.mock.MockPersistentDataContainer;
+import group17.mock.MockTimeLineInfo;
+import group17.opponent.OpponentTracker;
+import group17.opponent.utility.EnsembleOpponentModel;
+
+/**
+ * Checks that analytics and diagnostic logging cost nothing in production mode.
+ */
+public class Agent17DiagnosticsTest {
+
+	private static final int CALLS = 10000;
+	
+	// Offers exchanged per round of the negotiation test. Diagnostics log every one, so there are few.
+	private static final int EXCHANGES = 20;
+	
+	// Rounds of calls. Class loading and JIT compilation can allocate once, in any round, so the test checks that
+	// at least one whole round allocated nothing.
+	private static final int ROUNDS = 5;
+
+	/**
+	 * The recording methods return before touching the bid in production mode.
+	 */
+	@Test
+	public void testAnalyticsAllocateNothingInProductionMode() {
+		final com.sun.management.ThreadMXBean threads = this.threads();
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 3)).generate();
+		final Agent17 agent = new Agent17(HyperparameterProperties.builder().diagnostics(false).build());
+		agent.init(new NegotiationInfo(scenario.utilitySpace(), null, null, new Deadline(), new MockTimeLineInfo(), 0L, 
+			new AgentID("Agent17"), new MockPersistentDataContainer()));
+		final Bid bid = scenario.ranking().getMaximalBid();
+		final OpponentTracker tracker = new OpponentTracker(new AgentID("Opponent"), 
+			new EnsembleOpponentModel(scenario.domain(), 5));
+
+		long minimum = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			final long before = threads.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < CALLS; i++) {
+				agent.generateAnalytics(bid);
+				agent.generateOpponentAnalytics(tracker, bid);
+			}
+			minimum = Math.min(minimum, threads.getCurrentThreadAllocatedBytes() - before);
+		}
+		assertEquals(0L, minimum);
+	}
+
+	/**
+	 * Drive warmed agents through the same negotiation, through both the Boulware and tit-for-tat targets, with
+	 * diagnostics on and off. Negotiating allocates either way, but in production mode the logging and analytics
+	 * must add nothing, so the agent allocates less than with diagnostics on.
+	 */
+	@Test
+	public void testProductionModeAllocatesLessWhenNegotiating() {
+		final com.sun.management.ThreadMXBean threads = this.threads();
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 3)).generate();
+		final long production = this.negotiationAllocation(threads, scenario, false);
+		final long diagnostics = this.negotiationAllocation(threads, scenario, true);
+		assertTrue(production + " bytes in production mode, " + diagnostics + " with diagnostics", 
+			production < diagnostics);
+	}
+
+	/**
+	 * Publishing to an enabled channel only copies primitives into preallocated slots.
+	 */
+	@Test
+	public void testRingBufferAllocatesNothing() {
+		final com.sun.management.ThreadMXBean threads = this.threads();
+		final AnalyticsRingBuffer buffer = new AnalyticsRingBuffer(64);
+		final int[] codes = { 1, 2, 0, 1 };
+		final AnalyticsRingBuffer.EventHandler handler = (channel, type, round, time, own, opponent, bidCodes, issues) -> { };
+		long minimum = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			final long before = threads.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < CALLS; i++) {
+				buffer.offer(0, AnalyticsChannel.AGENT, i, 0.5, 0.5, 0.5, codes);
+				buffer.drain(handler, 1);
+			}
+			minimum = Math.min(minimum, threads.getCurrentThreadAllocatedBytes() - before);
+		}
+		assertEquals(0L, minimum);
+	}
+
+	/**
+	 * Warm an agent up, then measure what it allocates receiving offers and choosing actions.
+	 * @param threads Thread allocation counter
+	 * @param scenario Scenario
+	 * @param diagnostics Diagnostics mode
+	 * @return Fewest bytes allocated in any round
+	 */
+	private long negotiationAllocation(final com.sun.management.ThreadMXBean threads, final SyntheticScenario scenario,
+			final boolean diagnostics) {
+		final ClockTimeLine timeline = new ClockTimeLine();
+		final Agent17 agent = new Agent17(HyperparameterProperties.builder().diagnostics(diagnostics).build());
+		agent.init(new NegotiationInfo(scenario.utilitySpace(), null, null, new Deadline(), timeline, 0L, 
+			new AgentID("Agent17"), new MockPersistentDataContainer()));
+		final AgentID opponent = new AgentID("Opponent");
+		final Offer offer = new Offer(opponent, scenario.ranking().getMinimalBid());
+		try {
+			long minimum = Long.MAX_VALUE;
+			for (int round = 0; round <= ROUNDS; round++) {
+				final long before = threads.getCurrentThreadAllocatedBytes();
+				for (int i = 0; i < EXCHANGES; i++) {
+					timeline.time = (i % 2 == 0) ? 0.2 : 0.7;
+					agent.receiveMessage(opponent, offer);
+					agent.chooseAction(Collections.emptyList());
+				}
+				// The first round warms the agent up.
+				if (round > 0) {
+					minimum = Math.min(minimum, threads.getCurrentThreadAllocatedBytes() - before);
+				}
+			}
+			return minimum;
+		} finally {
+			agent.negotiationEnded(null);
+		}
+	}
+
+	private com.sun.management.ThreadMXBean threads() {
+		final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+		final com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+		assumeTrue(allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled());
+		return allocation;
+	}
+
+	/**
+	 * A timeline whose time is set by the test.
+	 */
+	private static final class ClockTimeLine extends MockTimeLineInfo {
+
+		private static final long serialVersionUID = 1L;
+
+		private double time;
+
+		@Override
+		public double getTime() {
+			return this.time;
+		}
+	}
+}
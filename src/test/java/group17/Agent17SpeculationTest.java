@@ -0,0 +1,102 @@
+package group17;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import genius.core.AgentID;
+import genius.core.Deadline;
+import genius.core.actions.Accept;
+import genius.core.actions.Offer;
+import genius.core.parties.NegotiationInfo;
+import group17.domain.HyperparameterProperties;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.mock.MockPersistentDataContainer;
+import group17.mock.MockTimeLineInfo;
+
+/**
+ * Checks that the speculative precompute, prepared after each of our actions, is used unless the models change.
+ */
+public class Agent17SpeculationTest {
+
+	private final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 3)).generate();
+	private final AgentID opponent = new AgentID("Opponent");
+
+	/**
+	 * Actions that are not offers leave the models unchanged, so what we prepared is still valid.
+	 */
+	@Test
+	public void testUsedWhenModelsUnchanged() {
+		final Agent17 agent = this.createAgent(HyperparameterProperties.builder().speculativePrecompute(true).build());
+		try {
+			assertTrue(agent.chooseAction(Collections.emptyList()) instanceof Offer);
+			for (int round = 1; round <= 3; round++) {
+				agent.receiveMessage(this.opponent, new Accept(this.opponent, this.scenario.ranking().getMinimalBid()));
+				assertTrue(agent.chooseAction(Collections.emptyList()) instanceof Offer);
+				assertEquals(round, agent.getSpeculation().getUsed());
+				assertEquals(0, agent.getSpeculation().getDiscarded());
+			}
+		} finally {
+			agent.negotiationEnded(null);
+		}
+	}
+
+	/**
+	 * An offer changes the sender's model, so the candidates are rescored and what we prepared is discarded.
+	 */
+	@Test
+	public void testDiscardedWhenOfferChangesModels() {
+		final Agent17 agent = this.createAgent(HyperparameterProperties.builder().speculativePrecompute(true).build());
+		try {
+			assertTrue(agent.chooseAction(Collections.emptyList()) instanceof Offer);
+			this.offer(agent);
+			assertEquals(0, agent.getSpeculation().getUsed());
+			assertEquals(1, agent.getSpeculation().getDiscarded());
+			for (int round = 2; round <= 3; round++) {
+				this.offer(agent);
+				assertEquals(round, agent.getSpeculation().getUsed() + agent.getSpeculation().getDiscarded());
+			}
+		} finally {
+			agent.negotiationEnded(null);
+		}
+	}
+
+	/**
+	 * Trade-off search does not use the best candidate, so none is prepared, and none is wasted.
+	 */
+	@Test
+	public void testNothingTakenWithTradeOffSearch() {
+		final Agent17 agent = this.createAgent(
+			HyperparameterProperties.builder().speculativePrecompute(true).tradeOffSearch(true).build());
+		try {
+			assertTrue(agent.chooseAction(Collections.emptyList()) instanceof Offer);
+			for (int round = 1; round <= 3; round++) {
+				this.offer(agent);
+			}
+			assertEquals(0, agent.getSpeculation().getUsed());
+			assertEquals(0, agent.getSpeculation().getDiscarded());
+		} finally {
+			agent.negotiationEnded(null);
+		}
+	}
+
+	private Agent17 createAgent(final HyperparameterProperties hyperparameters) {
+		final Agent17 agent = new Agent17(hyperparameters);
+		agent.init(new NegotiationInfo(this.scenario.utilitySpace(), null, null, new Deadline(), new MockTimeLineInfo(), 
+			0L, new AgentID("Agent17"), new MockPersistentDataContainer()));
+		return agent;
+	}
+
+	/**
+	 * The opponent offers its worst bid for us, and we respond with an offer of our own.
+	 */
+	private void offer(final Agent17 agent) {
+		agent.receiveMessage(this.opponent, new Offer(this.opponent, this.scenario.ranking().getMinimalBid()));
+		assertTrue(agent.chooseAction(Collections.emptyList()) instanceof Offer);
+	}
+}
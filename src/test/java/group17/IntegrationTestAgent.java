@@ -141,7 +141,7 @@ public class IntegrationTestAgent extends AbstractNegotiationParty {
 	}
 	
 	private void hyperparameters() {
-		final HyperparameterProperties hyperparameters = new HyperparameterProperties();
+		final HyperparameterProperties hyperparameters = HyperparameterProperties.fromClasspath();
 		hyperparameters.diagnostics();
 		this.boulwareBeta = hyperparameters.getBoulwareBeta();
 		this.finishTime = hyperparameters.getFinishTime();
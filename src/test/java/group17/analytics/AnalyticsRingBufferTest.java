@@ -0,0 +1,117 @@
+package group17.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AnalyticsRingBuffer}.
+ */
+public class AnalyticsRingBufferTest {
+
+	@Test
+	public void testCapacity() {
+		assertEquals(1, new AnalyticsRingBuffer(1).capacity());
+		assertEquals(8, new AnalyticsRingBuffer(5).capacity());
+		assertEquals(8, new AnalyticsRingBuffer(8).capacity());
+	}
+
+	/**
+	 * Events are drained in order, and dropped rather than overwritten when the buffer is full.
+	 */
+	@Test
+	public void testDrainAndDrop() {
+		final AnalyticsRingBuffer buffer = new AnalyticsRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(7, AnalyticsChannel.AGENT, i, i / 10.0, 0.5, 0.25, new int[] { i, -1 }));
+		}
+		assertFalse(buffer.offer(7, AnalyticsChannel.AGENT, 4, 0.4, 0.5, 0.25, new int[] { 4, -1 }));
+		assertEquals(1, buffer.getDropped());
+		assertEquals(4, buffer.size());
+
+		final List<Integer> rounds = new ArrayList<>();
+		assertEquals(3, buffer.drain((channel, type, round, time, own, opponent, codes, issues) -> {
+			assertEquals(7, channel);
+			assertEquals(2, issues);
+			assertEquals(round, codes[0]);
+			assertEquals(-1, codes[1]);
+			rounds.add(round);
+		}, 3));
+		// The drained slots can be reused, with bids of a different size.
+		assertTrue(buffer.offer(8, AnalyticsChannel.OPPONENT, 5, 0.5, 0.5, 0.25, new int[] { 1, 2, 3 }));
+		buffer.drain((channel, type, round, time, own, opponent, codes, issues) -> rounds.add(round * 10 + issues), 10);
+		assertEquals(List.of(0, 1, 2, 32, 53), rounds);
+		assertEquals(0, buffer.size());
+	}
+
+	/**
+	 * Every event from several producers is drained exactly once, in each producer's order.
+	 */
+	@Test
+	public void testConcurrentProducers() throws InterruptedException {
+		final int producers = 4;
+		final int events = 20000;
+		final AnalyticsRingBuffer buffer = new AnalyticsRingBuffer(256);
+		final Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			final int producer = p;
+			threads[p] = new Thread(() -> {
+				final int[] codes = new int[1];
+				for (int i = 0; i < events; i++) {
+					codes[0] = i;
+					while (!buffer.offer(producer, AnalyticsChannel.AGENT, i, 0.0, 0.0, 0.0, codes)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads[p].start();
+		}
+		final int[] next = new int[producers];
+		int drained = 0;
+		while (drained < producers * events) {
+			final int batch = buffer.drain((channel, type, round, time, own, opponent, codes, issues) -> {
+				assertEquals(next[channel], round);
+				assertEquals(round, codes[0]);
+				next[channel]++;
+			}, 64);
+			if (batch == 0) {
+				buffer.awaitEvent();
+			}
+			drained += batch;
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		for (int p = 0; p < producers; p++) {
+			assertEquals(events, next[p]);
+		}
+	}
+
+	/**
+	 * An idle consumer blocks without a timeout, and the next event wakes it.
+	 */
+	@Test
+	public void testAwaitEvent() throws InterruptedException {
+		final AnalyticsRingBuffer buffer = new AnalyticsRingBuffer(4);
+		final List<Integer> rounds = new ArrayList<>();
+		final Thread consumer = new Thread(() -> {
+			while (buffer.drain((channel, type, round, time, own, opponent, codes, issues) -> rounds.add(round), 1) == 0) {
+				buffer.awaitEvent();
+			}
+		});
+		consumer.start();
+		for (int i = 0; i < 500 && consumer.getState() != Thread.State.WAITING; i++) {
+			Thread.sleep(10L);
+		}
+		assertEquals(Thread.State.WAITING, consumer.getState());
+		assertTrue(buffer.offer(0, AnalyticsChannel.AGENT, 7, 0.0, 0.0, 0.0, new int[0]));
+		consumer.join(5000L);
+		assertFalse(consumer.isAlive());
+		assertEquals(List.of(7), rounds);
+	}
+}
@@ -0,0 +1,71 @@
+package group17.analytics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import genius.core.Bid;
+import group17.domain.BidEncoder;
+import group17.domain.BidValue;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+
+/**
+ * Unit tests for {@link AnalyticsSink}, {@link AnalyticsReader} and {@link AnalyticsConverter}.
+ */
+public class AnalyticsSinkTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final SyntheticDomain domain = new SyntheticDomainGenerator(SyntheticDomainSpec.of(3, 2)).generateDomain();
+		final BidEncoder encoder = new BidEncoder(domain);
+		final Bid bid = encoder.decode(new int[] { 1, 0, 1 });
+		final Path file = this.folder.getRoot().toPath().resolve("analytics.bin");
+		try (AnalyticsSink sink = new AnalyticsSink(file, 16)) {
+			final AnalyticsChannel channel = AnalyticsChannel.open(sink, "Agent17@0", encoder);
+			assertTrue(channel.isEnabled());
+			channel.record(AnalyticsChannel.AGENT, 1, 0.1, 0.9, Double.NaN, encoder.encode(bid));
+			channel.record(AnalyticsChannel.OPPONENT, 2, 0.2, 0.4, 0.7, encoder.encode(bid));
+		}
+
+		try (AnalyticsReader reader = new AnalyticsReader(file)) {
+			final AnalyticsEvent first = reader.next();
+			assertEquals("Agent17@0", first.channel().name());
+			assertEquals(AnalyticsChannel.AGENT, first.type());
+			assertEquals(1, first.round());
+			assertEquals(0.9, first.ownUtility(), 0.0);
+			assertTrue(Double.isNaN(first.opponentUtility()));
+			assertEquals(encoder.getValueName(0, 1), first.getValueName(0));
+			final AnalyticsEvent second = reader.next();
+			assertEquals(0.7, second.opponentUtility(), 0.0);
+			assertNull(reader.next());
+		}
+
+		final StringWriter csv = new StringWriter();
+		assertEquals(2, new AnalyticsConverter(false).convert(file, csv));
+		final String[] lines = csv.toString().split(System.lineSeparator());
+		final BidValue bidValue = BidValue.createAgentBidValue(bid, 0.9);
+		assertEquals(bidValue.toStringLabels(), lines[0]);
+		assertEquals(bidValue.toString(), lines[1]);
+		assertEquals(BidValue.createOpponentBidValue(bid, 0.7).toString(), lines[2]);
+	}
+
+	@Test
+	public void testDisabled() {
+		AnalyticsChannel.DISABLED.record(AnalyticsChannel.AGENT, 1, 0.0, 0.0, 0.0, new int[0]);
+		assertFalse(AnalyticsChannel.DISABLED.isEnabled());
+	}
+}
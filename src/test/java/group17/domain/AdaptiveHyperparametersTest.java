@@ -0,0 +1,116 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import genius.core.AgentID;
+import genius.core.Deadline;
+import genius.core.parties.NegotiationInfo;
+import genius.core.uncertainty.User;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.mock.MockPersistentDataContainer;
+import group17.mock.MockTimeLineInfo;
+
+/**
+ * Unit tests for {@link AdaptiveHyperparameters}.
+ */
+public class AdaptiveHyperparametersTest {
+
+	private static final double TOLERANCE = 1e-9;
+
+	@Test
+	public void testFromProperties() {
+		final AdaptiveHyperparameters adaptive = AdaptiveHyperparameters.fromProperties(this.createProperties());
+		assertEquals(2, adaptive.getProfiles().size());
+		assertEquals(200, adaptive.getDefaults().getMaxListSize());
+		final HyperparameterProfile large = adaptive.getProfiles().get(0);
+		assertEquals("large", large.name());
+		assertEquals(1000000L, large.possibleBids());
+		assertEquals(-1, large.issues());
+		assertEquals(Boolean.TRUE, large.uncertainty());
+		assertEquals(100, large.hyperparameters().getMaxListSize());
+		// Unset hyperparameters come from the top level.
+		assertEquals(0.3, large.hyperparameters().getBoulwareBeta(), TOLERANCE);
+	}
+
+	@Test
+	public void testExactProfile() {
+		final AdaptiveHyperparameters adaptive = AdaptiveHyperparameters.fromProperties(this.createProperties());
+		final HyperparameterProperties small = adaptive.resolve(new DomainFeatures(3, 100, false, 0.0));
+		assertSame(adaptive.getProfiles().get(1).hyperparameters(), small);
+		assertEquals(1000, small.getMaxListSize());
+	}
+
+	/**
+	 * Halfway between the profiles, by order of magnitude, gets the mean of their hyperparameters.
+	 */
+	@Test
+	public void testInterpolation() {
+		final AdaptiveHyperparameters adaptive = AdaptiveHyperparameters.fromProperties(this.createProperties());
+		final HyperparameterProperties medium = adaptive.resolve(new DomainFeatures(3, 10000, true, 0.01));
+		assertEquals(550, medium.getMaxListSize());
+		assertEquals(8, medium.getRecentBidWindow());
+		assertEquals(0.3, medium.getBoulwareBeta(), TOLERANCE);
+
+		final HyperparameterProperties nearSmall = adaptive.resolve(new DomainFeatures(3, 1000, true, 0.01));
+		assertTrue(nearSmall.getMaxListSize() > medium.getMaxListSize());
+	}
+
+	/**
+	 * Profiles for preference uncertainty don't apply without it.
+	 */
+	@Test
+	public void testUncertainty() {
+		final AdaptiveHyperparameters adaptive = AdaptiveHyperparameters.fromProperties(this.createProperties());
+		final HyperparameterProperties hyperparameters = adaptive.resolve(new DomainFeatures(10, 1000000, false, 0.0));
+		assertEquals(1000, hyperparameters.getMaxListSize());
+	}
+
+	@Test
+	public void testNoProfiles() {
+		final Properties properties = new Properties();
+		properties.setProperty(HyperparameterProperties.MAX_LIST_SIZE, "42");
+		final AdaptiveHyperparameters adaptive = AdaptiveHyperparameters.fromProperties(properties);
+		assertTrue(adaptive.getProfiles().isEmpty());
+		assertEquals(42, adaptive.getHyperparameters(null).getMaxListSize());
+		assertEquals(42, adaptive.resolve(new DomainFeatures(4, 256, false, 0.0)).getMaxListSize());
+	}
+
+	@Test
+	public void testDomainFeatures() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 3)).generate();
+		final User user = new User(scenario.utilitySpace());
+		final NegotiationInfo info = new NegotiationInfo(null, scenario.userModel(), user, new Deadline(), 
+			new MockTimeLineInfo(), 0L, new AgentID("Unit Test"), new MockPersistentDataContainer());
+		final DomainFeatures features = DomainFeatures.of(info);
+		assertEquals(new DomainFeatures(4, 81, true, user.getElicitationCost()), features);
+
+		final NegotiationInfo certain = new NegotiationInfo(scenario.utilitySpace(), null, null, new Deadline(), 
+			new MockTimeLineInfo(), 0L, new AgentID("Unit Test"), new MockPersistentDataContainer());
+		assertEquals(new DomainFeatures(4, 81, false, 0.0), DomainFeatures.of(certain));
+		assertEquals(List.of(), AdaptiveHyperparameters.fromProperties(new Properties()).getProfiles());
+	}
+
+	private Properties createProperties() {
+		final Properties properties = new Properties();
+		properties.setProperty(HyperparameterProperties.MAX_LIST_SIZE, "200");
+		properties.setProperty(HyperparameterProperties.BOULWARE_BETA, "0.3");
+		properties.setProperty("profile.small.possibleBids", "100");
+		properties.setProperty("profile.small.issues", "3");
+		properties.setProperty("profile.small.maxListSize", "1000");
+		properties.setProperty("profile.small.recentBidWindow", "10");
+		properties.setProperty("profile.large.possibleBids", "1e6");
+		properties.setProperty("profile.large.uncertainty", "true");
+		properties.setProperty("profile.large.maxListSize", "100");
+		properties.setProperty("profile.large.recentBidWindow", "5");
+		return properties;
+	}
+}
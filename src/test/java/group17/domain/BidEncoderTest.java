@@ -0,0 +1,61 @@
+package group17.domain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.Bid;
+import genius.core.issue.ValueDiscrete;
+import group17.TestFramework;
+import group17.mock.MockBid;
+import group17.mock.MockDomain;
+
+/**
+ * Unit tests for {@link BidEncoder}.
+ */
+public class BidEncoderTest extends TestFramework {
+	
+	private MockDomain domain;
+	private BidEncoder encoder;
+	
+	@Before
+	public void setup() {
+		this.domain = this.createMockDomainWithIssues();
+		this.encoder = new BidEncoder(this.domain);
+	}
+	
+	@Test
+	public void testLayout() {
+		assertEquals(2, this.encoder.getNumberOfIssues());
+		assertEquals(MENU_ITEM, this.encoder.getIssueName(0));
+		assertEquals(ITEM_SIZE, this.encoder.getIssueName(1));
+		assertEquals(4, this.encoder.getNumberOfValues(0));
+		assertEquals(3, this.encoder.getNumberOfValues(1));
+		assertEquals(4, this.encoder.getMaxNumberOfValues());
+		assertEquals(12L, this.encoder.getNumberOfOutcomes());
+		assertEquals(1, this.encoder.issuePosition(ITEM_SIZE));
+		assertEquals(BidEncoder.NO_CODE, this.encoder.issuePosition("Drink"));
+		assertEquals(2, this.encoder.valueCode(0, MENU_OPTION_3));
+		assertEquals(BidEncoder.NO_CODE, this.encoder.valueCode(1, MENU_OPTION_3));
+	}
+	
+	@Test
+	public void testEncode() {
+		final MockBid bid = this.createBidWithUtility(MENU_OPTION_3, SIZE_2, 0.5);
+		assertArrayEquals(new int[] { 2, 1 }, this.encoder.encode(bid));
+		assertEquals(2L + 1L * 4L, this.encoder.index(bid));
+	}
+	
+	@Test
+	public void testDecode() {
+		for (long index = 0; index < this.encoder.getNumberOfOutcomes(); index++) {
+			final Bid bid = this.encoder.decode(index);
+			assertEquals(index, this.encoder.index(bid));
+		}
+		final Bid bid = this.encoder.decode(new int[] { 3, 0 });
+		assertEquals(MENU_OPTION_4, ((ValueDiscrete) bid.getValue(this.encoder.getIssue(0))).getValue());
+		assertEquals(SIZE_1, ((ValueDiscrete) bid.getValue(this.encoder.getIssue(1))).getValue());
+	}
+}
@@ -0,0 +1,69 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import genius.core.Bid;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Unit tests for {@link BidPool}.
+ */
+public class BidPoolTest {
+
+	private final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 5)).generate();
+	private final BidEncoder encoder = new BidEncoder(this.scenario.domain());
+
+	/**
+	 * Equal bids share one canonical instance and id, and ids are dense in the order bids are first seen.
+	 */
+	@Test
+	public void testIntern() {
+		final BidPool pool = new BidPool(this.encoder);
+		final Bid first = this.encoder.decode(17L);
+		final Bid copy = new Bid(first);
+		assertSame(first, pool.intern(first));
+		assertSame(first, pool.intern(copy));
+		assertEquals(0, pool.idOf(copy));
+		final Bid second = this.encoder.decode(18L);
+		assertEquals(1, pool.idOf(second));
+		assertSame(second, pool.getBid(1));
+		assertEquals(2, pool.size());
+		assertEquals(BidPool.NO_ID, pool.idOf((Bid) null));
+		assertNull(pool.intern(null));
+	}
+
+	/**
+	 * Every outcome keeps its id as the pool grows, whether added by bid or by codes.
+	 */
+	@Test
+	public void testEveryOutcome() {
+		final BidPool pool = new BidPool(this.encoder);
+		final int outcomes = (int) this.encoder.getNumberOfOutcomes();
+		final int[] ids = new int[outcomes];
+		final int[] codes = new int[this.encoder.getNumberOfIssues()];
+		final Random random = new Random(17);
+		Arrays.fill(ids, BidPool.NO_ID);
+		for (int i = 0; i < outcomes * 3; i++) {
+			final int index = random.nextInt(outcomes);
+			final int id = (i % 2 == 0) ? pool.idOf(this.encoder.decode(index)) : pool.idOf(this.encoder.codes(index, codes));
+			if (ids[index] == BidPool.NO_ID) {
+				ids[index] = id;
+			}
+			assertEquals(ids[index], id);
+			assertEquals(this.encoder.decode(index), pool.getBid(id));
+		}
+		for (int index = 0; index < outcomes; index++) {
+			pool.idOf(this.encoder.decode(index));
+		}
+		assertEquals(outcomes, pool.size());
+	}
+}
@@ -2,7 +2,10 @@ package group17.domain;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -41,7 +44,7 @@ public class BidSelectorTest extends TestFramework {
 		 final NegotiationInfo info = this.createInfo(this.space, this.userModel);
 		 final BidSelector selector = new BidSelector(info, 10, 0.5);
 		 final List<Bid> bids = selector.getBids();
-		 assertEquals(9, bids.size());
+		 assertEquals(this.countOutcomesAbove(0.5), bids.size());
 	 }
 	 
 	 @Test
@@ -50,7 +53,7 @@ public class BidSelectorTest extends TestFramework {
 		 final BidSelector selector = new BidSelector(info, 10, 0.5);
 		 selector.expandList(5, 0.4);
 		 final List<Bid> bids = selector.getBids();
-		 assertEquals(11, bids.size());
+		 assertEquals(this.countOutcomesAbove(0.4), bids.size());
 	 }
 	 
 	 @Test
@@ -70,6 +73,100 @@ public class BidSelectorTest extends TestFramework {
 		 assertEquals(12, bids.size());
 	 }
 	 
+	 /**
+	  * Random bids are drawn from a domain of 12 outcomes far more often than that, so most are drawn again; each
+	  * outcome is listed once, as the pool's instance.
+	  */
+	 @Test
+	 public void testDuplicateBidsArePooled() {
+		 final NegotiationInfo info = this.createInfo(this.space, null);
+		 final BidPool pool = new BidPool(new BidEncoder(this.space.getDomain()));
+		 final BidSelector selector = new BidSelector(info, 50, 0.0, pool);
+		 final List<Bid> bids = selector.getBids();
+		 assertEquals(12, bids.size());
+		 final Set<Integer> ids = new HashSet<>();
+		 for (final Bid bid : bids) {
+			 final int id = pool.idOf(bid);
+			 assertTrue(ids.add(id));
+			 assertSame(pool.getBid(id), bid);
+		 }
+	 }
+	 
+	 @Test
+	 public void testExpandListKeepsInsertionOrder() {
+		 final NegotiationInfo info = this.createInfo(this.space, null);
+		 final BidSelector selector = new BidSelector(info, 5, 0.5);
+		 final List<Bid> initial = new ArrayList<>(selector.getBids());
+		 selector.expandList(5, 0.0);
+		 final List<Bid> bids = selector.getBids();
+		 assertTrue(bids.size() > initial.size());
+		 for (int i = 0; i < initial.size(); i++) {
+			 assertSame(initial.get(i), bids.get(i));
+		 }
+	 }
+	 
+	 /**
+	  * Bids from the ranking are listed in ranking order, and expanding the list appends the newly eligible ones,
+	  * again in ranking order.
+	  */
+	 @Test
+	 public void testRankingOrderIsKept() {
+		 final NegotiationInfo info = this.createInfo(this.space, this.userModel);
+		 final List<Bid> order = this.userModel.getBidRanking().getBidOrder();
+		 final BidSelector selector = new BidSelector(info, 20, 0.5);
+		 final List<Bid> initial = new ArrayList<>(selector.getBids());
+		 this.assertRankingOrder(order, initial);
+		 selector.expandList(20, 0.2);
+		 final List<Bid> bids = selector.getBids();
+		 assertTrue(bids.size() > initial.size());
+		 assertEquals(initial, bids.subList(0, initial.size()));
+		 this.assertRankingOrder(order, bids.subList(initial.size(), bids.size()));
+	 }
+	 
+	 /**
+	  * A ranking can hold several bids for the same outcome; it is listed once, as the pool's instance.
+	  */
+	 @Test
+	 public void testDuplicateRankingBidsArePooled() {
+		 final List<Bid> order = new ArrayList<>();
+		 order.add(this.createBidWithUtility(MENU_OPTION_1, SIZE_1, 0.6));
+		 order.add(this.createBidWithUtility(MENU_OPTION_2, SIZE_2, 0.7));
+		 order.add(this.createBidWithUtility(MENU_OPTION_1, SIZE_1, 0.8));
+		 final NegotiationInfo info = this.createInfo(this.space, new UserModel(new MockBidRanking(order)));
+		 final BidPool pool = new BidPool(new BidEncoder(this.space.getDomain()));
+		 final BidSelector selector = new BidSelector(info, 10, 0.5, pool);
+		 final List<Bid> bids = selector.getBids();
+		 assertEquals(2, bids.size());
+		 for (final Bid bid : bids) {
+			 assertSame(pool.getBid(pool.idOf(bid)), bid);
+		 }
+	 }
+	 
+	 /**
+	  * Count the distinct outcomes in the ranking with at least a given utility.
+	  * @param minimumUtility Minimum utility
+	  * @return Number of outcomes
+	  */
+	 private int countOutcomesAbove(final double minimumUtility) {
+		 final BidPool pool = new BidPool(new BidEncoder(this.space.getDomain()));
+		 final Set<Integer> ids = new HashSet<>();
+		 for (final Bid bid : this.userModel.getBidRanking().getBidOrder()) {
+			 if (this.space.getUtility(bid) >= minimumUtility) {
+				 ids.add(pool.idOf(bid));
+			 }
+		 }
+		 return ids.size();
+	 }
+	 
+	 private void assertRankingOrder(final List<Bid> order, final List<Bid> bids) {
+		 int previous = -1;
+		 for (final Bid bid : bids) {
+			 final int position = order.indexOf(bid);
+			 assertTrue(position > previous);
+			 previous = position;
+		 }
+	 }
+	 
 	 private NegotiationInfo createInfo(final AbstractUtilitySpace utilitySpace, final UserModel userModel) {
 		 final User user = new User(null);
 		 final Deadline deadline = new Deadline();
@@ -0,0 +1,80 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import genius.core.Bid;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Unit tests for {@link CandidateIndex}.
+ */
+public class CandidateIndexTest {
+
+	/**
+	 * Every threshold query matches a linear scan, for every size of index and after rebuilding.
+	 */
+	@Test
+	public void testMatchesLinearScan() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 4)).generate();
+		final BidEncoder encoder = new BidEncoder(scenario.domain());
+		final Random random = new Random(17);
+		for (int size = 0; size <= 40; size++) {
+			final List<Bid> bids = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				bids.add(encoder.decode(random.nextInt((int) encoder.getNumberOfOutcomes())));
+			}
+			final CandidateIndex index = new CandidateIndex(bids, scenario.profile()::getUtility);
+			for (int rebuild = 0; rebuild < 3; rebuild++) {
+				final Map<Bid, Double> opponent = new HashMap<>();
+				for (final Bid bid : bids) {
+					opponent.computeIfAbsent(bid, b -> (double) random.nextInt(5));
+				}
+				index.rebuild(opponent::get);
+				for (int t = 0; t <= 20; t++) {
+					final double threshold = t / 20.0;
+					final int best = index.bestAbove(threshold);
+					double expected = Double.NEGATIVE_INFINITY;
+					for (final Bid bid : bids) {
+						if (scenario.profile().getUtility(bid) > threshold) {
+							expected = Math.max(expected, opponent.get(bid));
+						}
+					}
+					if (expected == Double.NEGATIVE_INFINITY) {
+						assertEquals(CandidateIndex.NONE, best);
+					} else {
+						assertTrue(index.getOwnUtility(best) > threshold);
+						assertEquals(expected, index.getOpponentUtility(best), 0.0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOrderAndTies() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(3, 3)).generate();
+		final List<Bid> bids = scenario.ranking().getBidOrder();
+		final CandidateIndex index = new CandidateIndex(bids, scenario.profile()::getUtility);
+		for (int i = 1; i < index.size(); i++) {
+			assertTrue(index.getOwnUtility(i - 1) <= index.getOwnUtility(i));
+		}
+		assertEquals(0, index.firstAbove(-1.0));
+		assertEquals(index.size(), index.firstAbove(1.5));
+		// With equal opponent utilities, the best candidate is the one we like most.
+		index.rebuild(bid -> 0.5);
+		assertEquals(index.size() - 1, index.bestAbove(0.0));
+		assertEquals(2, index.argmax(0, 3));
+		assertEquals(CandidateIndex.NONE, index.argmax(3, 3));
+	}
+}
@@ -0,0 +1,111 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.Bid;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Unit tests for {@link CandidateValueIndex}.
+ */
+public class CandidateValueIndexTest {
+
+	private BidEncoder encoder;
+	private CandidateIndex candidates;
+	private CandidateValueIndex index;
+	private int[][] codes;
+
+	@Before
+	public void setup() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(5, 4)).generate();
+		this.encoder = new BidEncoder(scenario.domain());
+		final Random random = new Random(17);
+		final List<Bid> bids = new ArrayList<>();
+		// Not a multiple of 64, so the last word is partly used.
+		for (int i = 0; i < 150; i++) {
+			bids.add(this.encoder.decode(random.nextInt((int) this.encoder.getNumberOfOutcomes())));
+		}
+		this.candidates = new CandidateIndex(bids, scenario.profile()::getUtility);
+		this.index = new CandidateValueIndex(this.candidates, this.encoder);
+		this.codes = new int[this.candidates.size()][];
+		for (int c = 0; c < this.candidates.size(); c++) {
+			this.codes[c] = this.encoder.encode(this.candidates.getBid(c));
+		}
+	}
+
+	/**
+	 * Every value's set holds exactly the candidates that include it.
+	 */
+	@Test
+	public void testValueSets() {
+		assertEquals(150, this.index.size());
+		assertEquals(3, this.index.words());
+		assertEquals(150, CandidateValueIndex.count(this.index.allCandidates()));
+		assertEquals(0, CandidateValueIndex.count(this.index.emptySet()));
+		for (int i = 0; i < this.encoder.getNumberOfIssues(); i++) {
+			int total = 0;
+			for (int v = 0; v < this.encoder.getNumberOfValues(i); v++) {
+				int expected = 0;
+				for (int c = 0; c < this.codes.length; c++) {
+					final boolean includes = this.codes[c][i] == v;
+					assertEquals(includes, this.index.includes(i, v, c));
+					expected += includes ? 1 : 0;
+				}
+				assertEquals(expected, this.index.countWith(i, v));
+				total += expected;
+			}
+			assertEquals(150, total);
+		}
+	}
+
+	/**
+	 * Matching an offer on some issues, above a threshold, gives the same candidates as comparing each in turn.
+	 */
+	@Test
+	public void testRetainMatchingAboveThreshold() {
+		final int[] offer = this.codes[7];
+		final double threshold = this.candidates.getOwnUtility(40);
+		final int from = this.candidates.firstAbove(threshold);
+		final long[] set = this.index.retainFrom(this.index.retainMatching(this.index.allCandidates(), offer, 0, 2), from);
+		int expected = 0;
+		for (int c = 0; c < this.codes.length; c++) {
+			final boolean matches = c >= from && this.codes[c][0] == offer[0] && this.codes[c][2] == offer[2];
+			assertEquals(matches, CandidateValueIndex.contains(set, c));
+			expected += matches ? 1 : 0;
+		}
+		assertEquals(expected, CandidateValueIndex.count(set));
+		int found = 0;
+		for (int c = CandidateValueIndex.nextCandidate(set, 0); c != CandidateIndex.NONE; c = CandidateValueIndex.nextCandidate(set, c + 1)) {
+			assertTrue(CandidateValueIndex.contains(set, c));
+			found++;
+		}
+		assertEquals(expected, found);
+	}
+
+	/**
+	 * Adding every value of an issue gives every candidate; a missing value matches nothing.
+	 */
+	@Test
+	public void testAddWith() {
+		final long[] set = this.index.emptySet();
+		for (int v = 0; v < this.encoder.getNumberOfValues(3); v++) {
+			this.index.addWith(set, 3, v);
+		}
+		this.index.addWith(set, 3, -1);
+		assertEquals(150, CandidateValueIndex.count(set));
+		assertEquals(0, CandidateValueIndex.count(this.index.retainWith(set, 1, -1)));
+		assertEquals(CandidateIndex.NONE, CandidateValueIndex.nextCandidate(set, 0));
+		assertEquals(0, CandidateValueIndex.count(this.index.retainFrom(this.index.allCandidates(), 150)));
+		assertEquals(CandidateIndex.NONE, CandidateValueIndex.nextCandidate(this.index.allCandidates(), 150));
+	}
+}
@@ -5,6 +5,8 @@ package group17.domain;
 
 import static org.junit.Assert.*;
 
+import java.util.Properties;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -35,6 +37,8 @@ public class HyperparameterPropertiesTest {
 		assertEquals(Double.valueOf(0.5), Double.valueOf(this.hyperparameters.getTransitionTime()));
 		assertEquals(1000, this.hyperparameters.getMaxListSize());
 		assertEquals(Double.valueOf(0.05), Double.valueOf(this.hyperparameters.getMaxElicitationPenalty()));
+		assertFalse(this.hyperparameters.isAsyncOpponentModel());
+		assertEquals(Double.valueOf(0.0), Double.valueOf(this.hyperparameters.getPairInteractionWeight()));
 	}
 	
 	@Test
@@ -43,4 +47,51 @@ public class HyperparameterPropertiesTest {
 			this.hyperparameters.toCSVLabels());
 		assertEquals("0.4,0.99,0.95,1000,10,0.5,0.05", this.hyperparameters.toCSV());
 	}
+
+	/**
+	 * Properties created in memory round trip, with defaults for anything missing.
+	 */
+	@Test
+	public void testInMemory() {
+		final Properties properties = new Properties();
+		properties.setProperty(HyperparameterProperties.BOULWARE_BETA, "0.25");
+		properties.setProperty(HyperparameterProperties.MAX_LIST_SIZE, "120");
+		final HyperparameterProperties inMemory = new HyperparameterProperties(properties);
+		assertEquals(Double.valueOf(0.25), Double.valueOf(inMemory.getBoulwareBeta()));
+		assertEquals(120, inMemory.getMaxListSize());
+		assertEquals(10, inMemory.getRecentBidWindow());
+		assertEquals(this.hyperparameters.toCSV(), new HyperparameterProperties(this.hyperparameters.toProperties()).toCSV());
+	}
+
+	@Test
+	public void testBuilder() {
+		final HyperparameterProperties defaults = HyperparameterProperties.builder().build();
+		assertEquals(new HyperparameterProperties(new Properties()).toCSV(), defaults.toCSV());
+		final HyperparameterProperties built = this.hyperparameters.toBuilder()
+			.boulwareBeta(0.3)
+			.maxListSize(50)
+			.asyncOpponentModel(true)
+			.build();
+		assertEquals("0.3,0.99,0.95,50,10,0.5,0.05", built.toCSV());
+		assertTrue(built.isAsyncOpponentModel());
+		assertEquals("0.4,0.99,0.95,1000,10,0.5,0.05", this.hyperparameters.toCSV());
+	}
+
+	/**
+	 * The classpath file is only read once, and shared.
+	 */
+	@Test
+	public void testFromClasspath() {
+		assertSame(HyperparameterProperties.fromClasspath(), HyperparameterProperties.fromClasspath());
+		assertEquals(HyperparameterProperties.fromClasspath().toCSV(), new HyperparameterProperties().toCSV());
+	}
+
+	/**
+	 * The shipped file runs in production mode; diagnostics are opt-in.
+	 */
+	@Test
+	public void testClasspathDefaultsToProduction() {
+		assertFalse(HyperparameterProperties.fromClasspath().isDiagnostics());
+		assertFalse(new HyperparameterProperties().isDiagnostics());
+	}
 }
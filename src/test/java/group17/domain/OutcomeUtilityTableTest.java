@@ -0,0 +1,132 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.mock.MockUtilitySpace;
+
+/**
+ * Unit tests for {@link OutcomeUtilityTable}.
+ */
+public class OutcomeUtilityTableTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 5)).generate();
+
+	/**
+	 * Every utility matches the utility space, and the outcomes are sorted by descending utility.
+	 */
+	@Test
+	public void testTabulate() throws Exception {
+		final AdditiveUtilitySpace space = this.scenario.utilitySpace();
+		final BidEncoder encoder = new BidEncoder(space.getDomain());
+		final OutcomeUtilityTable table = OutcomeUtilityTable.load(space, this.folder.getRoot().toPath());
+		assertFalse(table.isCached());
+		assertEquals(encoder.getNumberOfOutcomes(), table.size());
+		for (int index = 0; index < table.size(); index++) {
+			assertEquals(space.getUtility(encoder.decode(index)), table.getUtility(index), 1e-6);
+		}
+		for (int rank = 1; rank < table.size(); rank++) {
+			final float previous = table.getUtility(table.getIndexAtRank(rank - 1));
+			final float utility = table.getUtility(table.getIndexAtRank(rank));
+			assertTrue(previous > utility || (previous == utility && table.getIndexAtRank(rank - 1) < table.getIndexAtRank(rank)));
+		}
+		assertEquals(space.getUtility(space.getMaxUtilityBid()), space.getUtility(table.getMaxUtilityBid()), 1e-6);
+		for (final double threshold : new double[] { 0.0, 0.25, 0.5, 0.75, 1.0, 1.5 }) {
+			int expected = 0;
+			for (int index = 0; index < table.size(); index++) {
+				expected += (table.getUtility(index) >= threshold) ? 1 : 0;
+			}
+			assertEquals(expected, table.countAtLeast(threshold));
+		}
+	}
+
+	/**
+	 * A second load maps the cached file; a different profile gets its own file.
+	 */
+	@Test
+	public void testCache() throws IOException {
+		final Path directory = this.folder.getRoot().toPath();
+		final OutcomeUtilityTable first = OutcomeUtilityTable.load(this.scenario.utilitySpace(), directory);
+		final OutcomeUtilityTable second = OutcomeUtilityTable.load(this.scenario.utilitySpace(), directory);
+		assertTrue(second.isCached());
+		assertEquals(first.getKey(), second.getKey());
+		assertEquals(first.getIndexAtRank(0), second.getIndexAtRank(0));
+		assertEquals(1, this.files(directory).size());
+
+		final SyntheticScenario other = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 5).withSeed(99L)).generate();
+		final OutcomeUtilityTable third = OutcomeUtilityTable.load(other.utilitySpace(), directory);
+		assertFalse(third.isCached());
+		assertNotEquals(first.getKey(), third.getKey());
+		assertEquals(2, this.files(directory).size());
+	}
+
+	/**
+	 * A damaged cache file is replaced.
+	 */
+	@Test
+	public void testInvalidFileReplaced() throws IOException {
+		final Path directory = this.folder.getRoot().toPath();
+		final int best = OutcomeUtilityTable.load(this.scenario.utilitySpace(), directory).getIndexAtRank(0);
+		// Files are replaced rather than rewritten in place, as a mapped file must never shrink.
+		final Path file = this.files(directory).get(0);
+		final Path damaged = Files.write(directory.resolve("damaged.tmp"), new byte[] { 1, 2, 3 });
+		Files.move(damaged, file, StandardCopyOption.REPLACE_EXISTING);
+		final OutcomeUtilityTable reloaded = OutcomeUtilityTable.load(this.scenario.utilitySpace(), directory);
+		assertFalse(reloaded.isCached());
+		assertEquals(best, reloaded.getIndexAtRank(0));
+		assertTrue(OutcomeUtilityTable.load(this.scenario.utilitySpace(), directory).isCached());
+	}
+
+	/**
+	 * Only an additive profile is identified by the key, so no other kind of space is tabulated.
+	 */
+	@Test
+	public void testNonAdditiveSpaceNotTabulated() throws IOException {
+		final Path directory = this.folder.getRoot().toPath();
+		assertNull(OutcomeUtilityTable.load(new MockUtilitySpace(this.scenario.domain()), directory));
+		assertTrue(this.files(directory).isEmpty());
+	}
+
+	/**
+	 * Nothing is written unless the cache is turned on.
+	 */
+	@Test
+	public void testOffByDefault() {
+		final String enabled = System.clearProperty(OutcomeUtilityTable.ENABLED_PROPERTY);
+		try {
+			assertNull(OutcomeUtilityTable.load(this.scenario.utilitySpace()));
+		} finally {
+			if (enabled != null) {
+				System.setProperty(OutcomeUtilityTable.ENABLED_PROPERTY, enabled);
+			}
+		}
+	}
+
+	private List<Path> files(final Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package group17.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Speculation}.
+ */
+public class SpeculationTest {
+
+	@Test
+	public void testTakeValidResult() {
+		try (final Speculation<Long> speculation = new Speculation<>("test-speculation")) {
+			speculation.submit(() -> 3L);
+			assertEquals(Long.valueOf(3L), speculation.take(version -> version == 3L));
+			// A result can only be taken once.
+			assertNull(speculation.take(version -> true));
+			assertEquals(1, speculation.getUsed());
+			assertEquals(0, speculation.getDiscarded());
+		}
+	}
+
+	@Test
+	public void testDiscardOutOfDateResult() {
+		try (final Speculation<Long> speculation = new Speculation<>("test-speculation")) {
+			speculation.submit(() -> 3L);
+			assertNull(speculation.take(version -> version == 4L));
+			assertEquals(0, speculation.getUsed());
+			assertEquals(1, speculation.getDiscarded());
+		}
+	}
+
+	/**
+	 * Tasks run one at a time, and their writes are visible once joined.
+	 */
+	@Test
+	public void testJoinSeesWrites() {
+		final AtomicInteger runs = new AtomicInteger();
+		final int[] state = new int[1];
+		try (final Speculation<Integer> speculation = new Speculation<>("test-speculation")) {
+			for (int i = 0; i < 100; i++) {
+				speculation.submit(() -> {
+					runs.incrementAndGet();
+					return ++state[0];
+				});
+			}
+			speculation.join();
+			assertEquals(100, state[0]);
+			assertEquals(Integer.valueOf(100), speculation.take(value -> true));
+		}
+		assertEquals(100, runs.get());
+	}
+
+	@Test
+	public void testFailedTaskLeavesNoResult() {
+		try (final Speculation<Long> speculation = new Speculation<>("test-speculation")) {
+			speculation.submit(() -> {
+				throw new IllegalStateException("Expected by test");
+			});
+			assertNull(speculation.take(version -> true));
+			assertEquals(0, speculation.getDiscarded());
+		}
+	}
+}
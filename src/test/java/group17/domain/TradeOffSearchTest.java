@@ -0,0 +1,114 @@
+package group17.domain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.Bid;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+
+/**
+ * Unit tests for {@link TradeOffSearch}.
+ */
+public class TradeOffSearchTest {
+
+	private BidEncoder encoder;
+	private CandidateIndex candidates;
+	private TradeOffSearch search;
+
+	@Before
+	public void setup() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(6, 5)).generate();
+		this.encoder = new BidEncoder(scenario.domain());
+		final Random random = new Random(17);
+		final List<Bid> bids = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			bids.add(this.encoder.decode(random.nextInt((int) this.encoder.getNumberOfOutcomes())));
+		}
+		this.candidates = new CandidateIndex(bids, scenario.profile()::getUtility);
+		this.search = new TradeOffSearch(this.candidates, new CandidateValueIndex(this.candidates, this.encoder));
+	}
+
+	/**
+	 * The search finds the same candidates, in the same order, as sorting every candidate above the threshold
+	 * by distance, then by descending utility for us.
+	 */
+	@Test
+	public void testMatchesBruteForce() {
+		final Random random = new Random(42);
+		for (int trial = 0; trial < 50; trial++) {
+			final int[] offer = this.encoder.codes(random.nextInt((int) this.encoder.getNumberOfOutcomes()), 
+				new int[this.encoder.getNumberOfIssues()]);
+			final double[] weights = new double[offer.length];
+			for (int i = 0; i < weights.length; i++) {
+				// Some equal weights, so there are ties on distance.
+				weights[i] = (trial % 2 == 0) ? random.nextDouble() : 1.0 + random.nextInt(2);
+			}
+			final double threshold = random.nextDouble() * 0.8;
+			final int k = 1 + random.nextInt(10);
+			final int from = this.candidates.firstAbove(threshold);
+			final int[] expected = IntStream.range(from, this.candidates.size()).boxed()
+				.sorted(Comparator.comparingDouble((Integer c) -> this.bruteForceDistance(c, offer, weights))
+					.thenComparing(Comparator.reverseOrder()))
+				.limit(k)
+				.mapToInt(Integer::intValue)
+				.toArray();
+			final int[] actual = this.search.nearest(offer, weights, threshold, k);
+			assertArrayEquals(expected, actual);
+			for (final int candidate : actual) {
+				assertEquals(this.bruteForceDistance(candidate, offer, weights), this.search.distance(candidate, offer, weights), 1e-12);
+			}
+		}
+	}
+
+	/**
+	 * An offer that is itself a candidate is found first, after expanding only the sets along its path.
+	 */
+	@Test
+	public void testExactMatchExpandsFewSets() {
+		final int candidate = this.candidates.size() - 3;
+		final int[] offer = this.encoder.encode(this.candidates.getBid(candidate));
+		final double[] weights = { 0.3, 0.25, 0.2, 0.1, 0.1, 0.05 };
+		final int[] nearest = this.search.nearest(offer, weights, 0.0, 1);
+		assertEquals(candidate, nearest[0]);
+		assertEquals(0.0, this.search.distance(candidate, offer, weights), 0.0);
+		assertTrue(this.search.getExpanded() < 100);
+	}
+
+	/**
+	 * Fewer candidates are returned when there are fewer above the threshold.
+	 */
+	@Test
+	public void testFewCandidatesAboveThreshold() {
+		final int[] offer = new int[this.encoder.getNumberOfIssues()];
+		final double[] weights = { 1.0, 1.0, 1.0, 1.0, 1.0, 1.0 };
+		final double threshold = this.candidates.getOwnUtility(this.candidates.size() - 3);
+		final int[] nearest = this.search.nearest(offer, weights, threshold, 5);
+		assertEquals(this.candidates.size() - this.candidates.firstAbove(threshold), nearest.length);
+		assertTrue(nearest.length < 5);
+		assertEquals(0, this.search.nearest(offer, weights, 1.0, 5).length);
+		assertEquals(0, this.search.nearest(offer, weights, 0.0, 0).length);
+	}
+
+	private double bruteForceDistance(final int candidate, final int[] offer, final double[] weights) {
+		final int[] codes = this.encoder.encode(this.candidates.getBid(candidate));
+		double distance = 0.0;
+		for (int i = 0; i < codes.length; i++) {
+			if (codes[i] != offer[i]) {
+				distance += weights[i];
+			}
+		}
+		return distance;
+	}
+}
@@ -0,0 +1,95 @@
+package group17.domain.synthetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import genius.core.Bid;
+import genius.core.utility.AdditiveUtilitySpace;
+
+/**
+ * Unit tests for {@link SyntheticDomainGenerator}.
+ */
+public class SyntheticDomainGeneratorTest {
+
+	private static final double TOLERANCE = 1e-9;
+
+	@Test
+	public void testReproducible() {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(6, 4).withRankingNoise(0.1);
+		final SyntheticScenario first = new SyntheticDomainGenerator(spec).generate();
+		final SyntheticScenario second = new SyntheticDomainGenerator(spec).generate();
+		for (int i = 0; i < 6; i++) {
+			assertEquals(first.profile().getWeight(i), second.profile().getWeight(i), 0.0);
+		}
+		assertEquals(first.ranking().getBidOrder(), second.ranking().getBidOrder());
+
+		final SyntheticScenario other = new SyntheticDomainGenerator(spec.withSeed(18L)).generate();
+		assertNotEquals(first.ranking().getBidOrder(), other.ranking().getBidOrder());
+	}
+
+	@Test
+	public void testProfile() {
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(5, 3)).generate();
+		final SyntheticProfile profile = scenario.profile();
+		double total = 0.0;
+		for (int i = 0; i < 5; i++) {
+			total += profile.getWeight(i);
+			double max = 0.0;
+			for (int v = 0; v < 3; v++) {
+				max = Math.max(max, profile.getEvaluation(i, v));
+			}
+			assertEquals(1.0, max, TOLERANCE);
+		}
+		assertEquals(1.0, total, TOLERANCE);
+
+		final AdditiveUtilitySpace space = scenario.utilitySpace();
+		for (final Bid bid : scenario.ranking()) {
+			assertEquals(profile.getUtility(bid), space.getUtility(bid), TOLERANCE);
+		}
+	}
+
+	@Test
+	public void testWeightSkew() {
+		final SyntheticProfile equal = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 2).withWeightSkew(0.0)).generate().profile();
+		final SyntheticProfile skewed = new SyntheticDomainGenerator(SyntheticDomainSpec.of(4, 2).withWeightSkew(2.0)).generate().profile();
+		double maxSkewed = 0.0;
+		for (int i = 0; i < 4; i++) {
+			assertEquals(0.25, equal.getWeight(i), TOLERANCE);
+			maxSkewed = Math.max(maxSkewed, skewed.getWeight(i));
+		}
+		// 1 / (1 + 1/4 + 1/9 + 1/16)
+		assertEquals(1.0 / 1.4236111111111112, maxSkewed, TOLERANCE);
+	}
+
+	/**
+	 * Without noise the ranking is exactly ordered by utility; every outcome can be ranked in a small domain.
+	 */
+	@Test
+	public void testRankingWithoutNoise() {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(3, 3).withRankingLength(100);
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(spec).generate();
+		final List<Bid> bids = scenario.ranking().getBidOrder();
+		assertEquals(27, bids.size());
+		assertEquals(27, new HashSet<>(bids).size());
+		for (int k = 1; k < bids.size(); k++) {
+			assertTrue(scenario.profile().getUtility(bids.get(k - 1)) <= scenario.profile().getUtility(bids.get(k)));
+		}
+		assertEquals(scenario.profile().getUtility(bids.get(0)), scenario.ranking().getLowUtility(), 0.0);
+		assertEquals(scenario.profile().getUtility(bids.get(26)), scenario.ranking().getHighUtility(), 0.0);
+		assertEquals(27, scenario.userModel().getBidRanking().getSize());
+	}
+
+	@Test
+	public void testLargeDomain() {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(12, 8).withRankingLength(500).withRankingNoise(0.05);
+		final SyntheticScenario scenario = new SyntheticDomainGenerator(spec).generate();
+		assertEquals(68719476736L, scenario.domain().getNumberOfPossibleBids());
+		assertEquals(500, new HashSet<>(scenario.ranking().getBidOrder()).size());
+	}
+}
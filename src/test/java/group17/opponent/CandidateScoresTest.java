@@ -0,0 +1,152 @@
+package group17.opponent;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.Bid;
+import group17.domain.BidEncoder;
+import group17.domain.CandidateIndex;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.opponent.utility.EnsembleOpponentModel;
+import group17.opponent.utility.PairSketch;
+
+/**
+ * Unit tests for {@link CandidateScores}.
+ */
+public class CandidateScoresTest {
+
+	private static final double TOLERANCE = 1e-12;
+
+	private SyntheticScenario scenario;
+	private BidEncoder encoder;
+	private CandidateIndex candidates;
+
+	@Before
+	public void setup() {
+		this.scenario = new SyntheticDomainGenerator(SyntheticDomainSpec.of(5, 4)).generate();
+		this.encoder = new BidEncoder(this.scenario.domain());
+		final Random random = new Random(17);
+		final List<Bid> bids = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			bids.add(this.encoder.decode(random.nextInt((int) this.encoder.getNumberOfOutcomes())));
+		}
+		this.candidates = new CandidateIndex(bids, this.scenario.profile()::getUtility);
+	}
+
+	/**
+	 * The cached scores match a full rescoring through the model after every offer, whether or not the
+	 * last update was a full recompute.
+	 */
+	@Test
+	public void testMatchesFullRescoring() {
+		for (final EnsembleOpponentModel.Estimate estimate : EnsembleOpponentModel.Estimate.values()) {
+			final EnsembleOpponentModel model = new EnsembleOpponentModel(this.scenario.domain(), 6, estimate);
+			final CandidateScores scores = new CandidateScores(this.candidates, model.getEncoder(), 5);
+			final Random random = new Random(42);
+			for (int round = 0; round < 40; round++) {
+				model.update(this.encoder.decode(random.nextInt((int) this.encoder.getNumberOfOutcomes())), true);
+				scores.update(model);
+				for (int c = 0; c < this.candidates.size(); c++) {
+					assertEquals(model.calculateRecentUtility(this.candidates.getBid(c)), scores.getScore(c), TOLERANCE);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A pair interaction term is added to the summed scores, so they still match the model, and dropped again
+	 * once the model stops tracking pairs.
+	 */
+	@Test
+	public void testMatchesPairInteraction() {
+		final EnsembleOpponentModel model = new EnsembleOpponentModel(this.scenario.domain(), 6, EnsembleOpponentModel.Estimate.AGENT17);
+		final int[] numValues = new int[this.encoder.getNumberOfIssues()];
+		for (int i = 0; i < numValues.length; i++) {
+			numValues[i] = this.encoder.getNumberOfValues(i);
+		}
+		model.setPairInteraction(new PairSketch(numValues), 0.5);
+		final CandidateScores scores = new CandidateScores(this.candidates, model.getEncoder(), 5);
+		final Random random = new Random(42);
+		for (int round = 0; round < 12; round++) {
+			model.update(this.encoder.decode(random.nextInt((int) this.encoder.getNumberOfOutcomes())), true);
+			scores.update(model);
+			this.assertScoresMatch(model, scores);
+		}
+		model.setPairInteraction(null, 0.0);
+		assertEquals(1, scores.update(model));
+		this.assertScoresMatch(model, scores);
+	}
+
+	private void assertScoresMatch(final EnsembleOpponentModel model, final CandidateScores scores) {
+		for (int c = 0; c < this.candidates.size(); c++) {
+			assertEquals(model.calculateRecentUtility(this.candidates.getBid(c)), scores.getScore(c), TOLERANCE);
+			assertEquals(scores.getScore(c), scores.getScores()[c], 0.0);
+		}
+	}
+
+	/**
+	 * Only the issues whose weight or preferences changed are rescored.
+	 */
+	@Test
+	public void testRescoresChangedIssuesOnly() {
+		final FixedEstimate estimate = new FixedEstimate(this.encoder);
+		final CandidateScores scores = new CandidateScores(this.candidates, this.encoder, 100);
+		assertEquals(0, scores.update(estimate));
+		estimate.weights[1] = 0.5;
+		estimate.preferences[1][2] = 1.0;
+		assertEquals(1, scores.update(estimate));
+		estimate.preferences[3][0] = 0.25;
+		assertEquals(1, scores.update(estimate));
+		estimate.weights[3] = 0.5;
+		assertEquals(1, scores.update(estimate));
+		assertEquals(0, scores.update(estimate));
+		final int[] codes = new int[this.encoder.getNumberOfIssues()];
+		for (int c = 0; c < this.candidates.size(); c++) {
+			this.encoder.encode(this.candidates.getBid(c), codes);
+			final double expected = ((codes[1] == 2) ? 0.5 : 0.0) + ((codes[3] == 0) ? 0.125 : 0.0);
+			assertEquals(expected, scores.getScore(c), TOLERANCE);
+		}
+	}
+
+	/**
+	 * An additive estimate whose weights and preferences are set directly.
+	 */
+	private static final class FixedEstimate implements AdditiveEstimate {
+
+		private final BidEncoder encoder;
+		private final double[] weights;
+		private final double[][] preferences;
+
+		FixedEstimate(final BidEncoder encoder) {
+			this.encoder = encoder;
+			this.weights = new double[encoder.getNumberOfIssues()];
+			this.preferences = new double[this.weights.length][];
+			for (int i = 0; i < this.weights.length; i++) {
+				this.preferences[i] = new double[encoder.getNumberOfValues(i)];
+			}
+		}
+
+		@Override
+		public BidEncoder getEncoder() {
+			return this.encoder;
+		}
+
+		@Override
+		public double getRecentWeight(final int position) {
+			return this.weights[position];
+		}
+
+		@Override
+		public double getRecentPreference(final int position, final int code) {
+			return this.preferences[position][code];
+		}
+	}
+}
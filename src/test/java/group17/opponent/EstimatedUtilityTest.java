@@ -64,4 +64,13 @@ public class EstimatedUtilityTest {
 	public void testMeaningful() {		
 		assertTrue(this.estimate.isMeaningful());
 	}
+	
+	@Test
+	public void testFromVariance() {
+		assertEquals(1.0, EstimatedUtility.fromVariance(UTILITY, 0.0).getConfidenceLevel(), 0.0);
+		assertEquals(0.9, EstimatedUtility.fromVariance(UTILITY, 0.0025).getConfidenceLevel(), 1e-12);
+		assertEquals(EstimatedUtility.NO_CONFIDENCE, EstimatedUtility.fromVariance(UTILITY, 0.25).getConfidenceLevel(), 0.0);
+		assertEquals(EstimatedUtility.NO_CONFIDENCE, EstimatedUtility.fromVariance(UTILITY, 1.0).getConfidenceLevel(), 0.0);
+		assertEquals(UTILITY, EstimatedUtility.fromVariance(UTILITY, 0.01).getUtility(), 0.0);
+	}
 }
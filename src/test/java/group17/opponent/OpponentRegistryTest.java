@@ -0,0 +1,95 @@
+package group17.opponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.AgentID;
+import group17.TestFramework;
+import group17.mock.MockBid;
+import group17.mock.MockDomain;
+import group17.opponent.OpponentRegistry.Combination;
+import group17.opponent.utility.Agent17OpponentModel;
+
+/**
+ * Unit tests for {@link OpponentRegistry}.
+ */
+public class OpponentRegistryTest extends TestFramework {
+	
+	private static final AgentID FIRST = new AgentID("First");
+	private static final AgentID SECOND = new AgentID("Second");
+	
+	private MockDomain domain;
+	private MockBid fishBid;
+	private MockBid pieBid;
+	
+	@Before
+	public void setup() {
+		this.domain = this.createMockDomainWithIssues();
+		this.fishBid = this.createBidWithUtility(MENU_OPTION_1, SIZE_1, 0.5);
+		this.pieBid = this.createBidWithUtility(MENU_OPTION_4, SIZE_3, 0.5);
+	}
+	
+	@Test
+	public void testModelsArePerSender() {
+		final OpponentRegistry registry = this.createRegistry(Combination.MIN);
+		registry.update(FIRST, this.fishBid, true);
+		registry.update(SECOND, this.pieBid, true);
+		registry.update(FIRST, this.fishBid, true);
+		assertEquals(2, registry.size());
+		assertEquals(2, registry.getTracker(FIRST).getModel().getAllPreviousBids().size());
+		assertEquals(1, registry.getTracker(SECOND).getModel().getAllPreviousBids().size());
+		assertEquals(1.0, registry.getTracker(FIRST).getModel().calculateUtility(this.fishBid), 1e-9);
+		assertEquals(0.0, registry.getTracker(FIRST).getModel().calculateUtility(this.pieBid), 1e-9);
+		assertNull(registry.getTracker(new AgentID("Unknown")));
+	}
+	
+	@Test
+	public void testBidTracking() {
+		final OpponentRegistry registry = this.createRegistry(Combination.MIN);
+		final OpponentTracker tracker = registry.update(FIRST, this.fishBid, true);
+		assertSame(this.fishBid, tracker.getLastBid());
+		assertNull(tracker.getPenultimateBid());
+		registry.update(SECOND, this.fishBid, true);
+		registry.update(FIRST, this.pieBid, true);
+		assertSame(this.pieBid, tracker.getLastBid());
+		assertSame(this.fishBid, tracker.getPenultimateBid());
+		assertEquals(2, tracker.getNumberOfBids());
+	}
+	
+	@Test
+	public void testMinCombination() {
+		final OpponentRegistry registry = this.createRegistry(Combination.MIN);
+		assertEquals(EstimatedUtility.NO_UTILITY, registry.calculateUtility(this.fishBid), 0.0);
+		registry.update(FIRST, this.fishBid, true);
+		registry.update(SECOND, this.pieBid, true);
+		assertEquals(0.0, registry.calculateUtility(this.fishBid), 1e-9);
+		assertEquals(0.0, registry.calculateRecentUtility(this.pieBid), 1e-9);
+		final MockBid mixedBid = this.createBidWithUtility(MENU_OPTION_1, SIZE_3, 0.5);
+		assertEquals(0.5, registry.calculateUtility(mixedBid), 1e-9);
+		final OpponentModel first = registry.getTracker(FIRST).getModel();
+		final OpponentModel second = registry.getTracker(SECOND).getModel();
+		assertEquals(Math.min(first.calculateMeanUtility(mixedBid), second.calculateMeanUtility(mixedBid)), 
+			registry.calculateMeanUtility(mixedBid), 1e-9);
+	}
+	
+	@Test
+	public void testProductCombination() {
+		final OpponentRegistry registry = this.createRegistry(Combination.PRODUCT);
+		registry.update(FIRST, this.fishBid, true);
+		registry.update(SECOND, this.pieBid, true);
+		final MockBid mixedBid = this.createBidWithUtility(MENU_OPTION_1, SIZE_3, 0.5);
+		assertEquals(0.25, registry.calculateUtility(mixedBid), 1e-9);
+		final OpponentModel first = registry.getTracker(FIRST).getModel();
+		final OpponentModel second = registry.getTracker(SECOND).getModel();
+		assertEquals(first.calculateRecentUtility(mixedBid) * second.calculateRecentUtility(mixedBid), 
+			registry.calculateRecentUtility(mixedBid), 1e-9);
+	}
+	
+	private OpponentRegistry createRegistry(final Combination combination) {
+		return new OpponentRegistry(() -> new Agent17OpponentModel(this.domain), combination);
+	}
+}
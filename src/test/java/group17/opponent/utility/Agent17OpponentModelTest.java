@@ -1,9 +1,11 @@
 package group17.opponent.utility;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -13,11 +15,14 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import genius.core.Bid;
 import genius.core.issue.IssueDiscrete;
+import group17.domain.BidEncoder;
 import group17.TestFramework;
 import group17.mock.MockBid;
 import group17.mock.MockDomain;
 import group17.mock.MockIssueValue;
+import group17.opponent.EstimatedUtility;
 
 public class Agent17OpponentModelTest extends TestFramework {
 	
@@ -155,6 +160,128 @@ public class Agent17OpponentModelTest extends TestFramework {
 		assertEquals(0, itemSize3.getRecentCount());
 	}
 	
+	@Test
+	public void testExportAndImportState() {
+		final MockBid bid = this.createBid();
+		final MockBid other = this.createOtherBid();
+		this.opponentModel.update(bid, true);
+		for (int i = 0; i < 10; i++) {
+			this.opponentModel.update(other, true);
+		}
+		final ByteBuffer state = this.opponentModel.exportState();
+		assertTrue(state.remaining() < this.opponentModel.toString().length());
+		final Agent17OpponentModel restored = new Agent17OpponentModel(this.domain);
+		restored.importState(state);
+		assertEquals(0, state.remaining());
+		this.checkModelsMatch(restored, bid, other);
+		// The restored history must age out of the recent window exactly as the original does.
+		this.opponentModel.update(bid, true);
+		restored.update(bid, true);
+		this.checkModelsMatch(restored, bid, other);
+		final BidEncoder encoder = new BidEncoder(this.domain);
+		final List<Bid> originalBids = this.opponentModel.getAllPreviousBids();
+		final List<Bid> restoredBids = restored.getAllPreviousBids();
+		assertEquals(originalBids.size(), restoredBids.size());
+		for (int i = 0; i < originalBids.size(); i++) {
+			assertEquals(encoder.index(originalBids.get(i)), encoder.index(restoredBids.get(i)));
+		}
+	}
+	
+	/**
+	 * Confidence starts at none, and grows as consistent bids arrive and the weights settle.
+	 */
+	@Test
+	public void testConfidenceLevel() {
+		final MockBid bid = this.createBid();
+		assertEquals(EstimatedUtility.NO_CONFIDENCE, this.opponentModel.calculateEstimatedUtility(bid).getConfidenceLevel(), 0.0);
+		double previous = EstimatedUtility.NO_CONFIDENCE;
+		for (int i = 1; i <= 50; i++) {
+			this.opponentModel.update((i % 5 == 0) ? this.createOtherBid() : bid, true);
+			final EstimatedUtility estimate = this.opponentModel.calculateEstimatedUtility(bid);
+			assertEquals(this.opponentModel.calculateUtility(bid), estimate.getUtility(), 1e-12);
+			assertTrue(estimate.getConfidenceLevel() >= 0.0 && estimate.getConfidenceLevel() <= 1.0);
+			if (i % 10 == 0) {
+				assertTrue(estimate.getConfidenceLevel() > previous);
+				previous = estimate.getConfidenceLevel();
+			}
+		}
+		assertTrue(previous > 0.8);
+		for (final Map.Entry<String, Agent17OpponentIssue> issue : this.opponentModel.getIssues().entrySet()) {
+			assertEquals(50, issue.getValue().getWeightSamples());
+		}
+	}
+	
+	/**
+	 * The pair sketch's interaction score is added to every utility estimate: values offered together score above
+	 * the independent estimate, and values offered apart below it.
+	 */
+	@Test
+	public void testPairInteraction() {
+		final BidEncoder encoder = new BidEncoder(this.domain);
+		final int[] numValues = { encoder.getNumberOfValues(0), encoder.getNumberOfValues(1) };
+		final Agent17OpponentModel withPairs = new Agent17OpponentModel(this.domain);
+		withPairs.setPairInteraction(new PairSketch(numValues), 0.5);
+		final MockBid bid = this.createBid();
+		final MockBid other = this.createOtherBid();
+		for (int i = 0; i < 10; i++) {
+			final MockBid offered = (i % 3 == 0) ? bid : other;
+			this.opponentModel.update(offered, true);
+			withPairs.update(offered, true);
+		}
+		final MockBid mixed = this.createBidWithRandomUtility(MENU_OPTION_1, SIZE_2);
+		assertEquals(0.0, this.opponentModel.calculateInteraction(bid), 0.0);
+		assertEquals(0.4 - 0.4 * 0.4, withPairs.calculateInteraction(bid), 1e-12);
+		assertEquals(0.0 - 0.4 * 0.6, withPairs.calculateInteraction(mixed), 1e-12);
+		for (final MockBid scored : List.of(bid, other, mixed)) {
+			assertEquals(this.opponentModel.calculateUtility(scored) + 0.5 * withPairs.calculateInteraction(scored), 
+				withPairs.calculateUtility(scored), 1e-12);
+			assertEquals(this.opponentModel.calculateRecentUtility(scored) + 0.5 * withPairs.calculateInteraction(scored), 
+				withPairs.calculateRecentUtility(scored), 1e-12);
+		}
+	}
+	
+	/**
+	 * The interaction weight and sketch dimensions are exported, and the sketch is rebuilt from the bid history,
+	 * so the restored model and a snapshot of it score bids the same.
+	 */
+	@Test
+	public void testExportAndImportPairInteraction() {
+		final BidEncoder encoder = new BidEncoder(this.domain);
+		final int[] numValues = { encoder.getNumberOfValues(0), encoder.getNumberOfValues(1) };
+		this.opponentModel.setPairInteraction(new PairSketch(numValues, 2, 64), 0.5);
+		final MockBid bid = this.createBid();
+		final MockBid other = this.createOtherBid();
+		for (int i = 0; i < 10; i++) {
+			this.opponentModel.update((i % 3 == 0) ? bid : other, true);
+		}
+		final Agent17OpponentModel restored = new Agent17OpponentModel(this.domain);
+		restored.importState(this.opponentModel.exportState());
+		final UtilityModelSnapshot snapshot = restored.snapshot();
+		for (final MockBid scored : List.of(bid, other, this.createBidWithRandomUtility(MENU_OPTION_1, SIZE_2))) {
+			assertEquals(this.opponentModel.calculateInteraction(scored), restored.calculateInteraction(scored), 0.0);
+			assertEquals(this.opponentModel.calculateUtility(scored), restored.calculateUtility(scored), 1e-12);
+			assertEquals(this.opponentModel.calculateRecentUtility(scored), snapshot.calculateRecentUtility(scored), 1e-12);
+			assertEquals(this.opponentModel.calculateEstimatedUtility(scored).getUtility(), 
+				snapshot.calculateEstimatedUtility(scored).getUtility(), 1e-12);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testImportStateFromOtherModelType() {
+		this.opponentModel.update(this.createBid(), true);
+		final ByteBuffer state = this.opponentModel.exportState();
+		new JonnyBlackOpponentModel(this.domain).importState(state);
+	}
+	
+	private void checkModelsMatch(final Agent17OpponentModel restored, final MockBid... bids) {
+		for (final MockBid bid : bids) {
+			assertEquals(this.opponentModel.calculateUtility(bid), restored.calculateUtility(bid), 0.0);
+			assertEquals(this.opponentModel.calculateRecentUtility(bid), restored.calculateRecentUtility(bid), 0.0);
+			assertEquals(this.opponentModel.calculateEstimatedUtility(bid), restored.calculateEstimatedUtility(bid));
+		}
+		assertEquals(this.opponentModel.toString(), restored.toString());
+	}
+	
 	private MockBid loadBids() {
 		final MockBid bid = this.createBid();
 		final MockBid other = this.createOtherBid();
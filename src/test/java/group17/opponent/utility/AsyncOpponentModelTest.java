@@ -0,0 +1,131 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import group17.TestFramework;
+import group17.mock.MockBid;
+import group17.mock.MockDomain;
+
+/**
+ * Unit tests for {@link AsyncOpponentModel}.
+ */
+public class AsyncOpponentModelTest extends TestFramework {
+
+	private static final int RECENT_BID_WINDOW = 4;
+
+	private MockDomain domain;
+	private MockBid fishBid;
+	private MockBid pieBid;
+	private Agent17OpponentModel syncModel;
+	private AsyncOpponentModel<UtilityModelSnapshot> asyncModel;
+
+	@Before
+	public void setup() {
+		this.domain = this.createMockDomainWithIssues();
+		this.fishBid = this.createBidWithUtility(MENU_OPTION_1, SIZE_1, 0.5);
+		this.pieBid = this.createBidWithUtility(MENU_OPTION_4, SIZE_3, 0.5);
+		this.syncModel = new Agent17OpponentModel(this.domain, RECENT_BID_WINDOW);
+		this.asyncModel = new AsyncOpponentModel<>(new Agent17OpponentModel(this.domain, RECENT_BID_WINDOW));
+	}
+
+	@After
+	public void tearDown() {
+		this.asyncModel.close();
+	}
+
+	/**
+	 * Once the queue has drained, the async model gives the same estimates as the synchronous one.
+	 */
+	@Test
+	public void testMatchesSynchronousModel() {
+		for (int i = 0; i < 10; i++) {
+			final MockBid bid = (i % 3 == 0) ? this.pieBid : this.fishBid;
+			this.syncModel.update(bid, true);
+			this.asyncModel.update(bid, true);
+		}
+		this.asyncModel.awaitUpdates();
+		assertEquals(10, this.asyncModel.getAllPreviousBids().size());
+		for (final MockBid bid : new MockBid[] { this.fishBid, this.pieBid }) {
+			assertEquals(this.syncModel.calculateUtility(bid), this.asyncModel.calculateUtility(bid), 1e-12);
+			assertEquals(this.syncModel.calculateRecentUtility(bid), this.asyncModel.calculateRecentUtility(bid), 1e-12);
+			assertEquals(this.syncModel.calculateMeanUtility(bid), this.asyncModel.calculateMeanUtility(bid), 1e-12);
+		}
+	}
+
+	/**
+	 * An ensemble updated asynchronously gives the same estimates as one updated directly, and its snapshot still
+	 * scores both models in one pass.
+	 */
+	@Test
+	public void testWrapsEnsemble() {
+		final EnsembleOpponentModel syncEnsemble = new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, 
+			EnsembleOpponentModel.Estimate.AGENT17);
+		final AsyncOpponentModel<EnsembleSnapshot> asyncEnsemble = new AsyncOpponentModel<>(
+			new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, EnsembleOpponentModel.Estimate.AGENT17));
+		try {
+			for (int i = 0; i < 10; i++) {
+				final MockBid bid = (i % 3 == 0) ? this.pieBid : this.fishBid;
+				syncEnsemble.update(bid, true);
+				asyncEnsemble.update(bid, true);
+			}
+			asyncEnsemble.awaitUpdates();
+			final EnsembleSnapshot snapshot = asyncEnsemble.getSnapshot();
+			assertEquals(10, snapshot.getBids().size());
+			for (final MockBid bid : new MockBid[] { this.fishBid, this.pieBid }) {
+				assertEquals(syncEnsemble.evaluate(bid), snapshot.evaluate(bid));
+				assertEquals(syncEnsemble.calculateUtility(bid), asyncEnsemble.calculateUtility(bid), 1e-12);
+				assertEquals(syncEnsemble.calculateRecentUtility(bid), asyncEnsemble.calculateRecentUtility(bid), 1e-12);
+				assertEquals(syncEnsemble.calculateMeanUtility(bid), asyncEnsemble.calculateMeanUtility(bid), 1e-12);
+			}
+			final int[] codes = syncEnsemble.getEncoder().encode(this.pieBid);
+			for (int i = 0; i < codes.length; i++) {
+				assertEquals(syncEnsemble.getRecentWeight(i), snapshot.getRecentWeight(i), 0.0);
+				assertEquals(syncEnsemble.getRecentPreference(i, codes[i]), snapshot.getRecentPreference(i, codes[i]), 0.0);
+			}
+		} finally {
+			asyncEnsemble.close();
+		}
+	}
+
+	/**
+	 * A snapshot that has been handed out never changes, however many updates follow.
+	 */
+	@Test
+	public void testSnapshotIsImmutable() {
+		this.asyncModel.update(this.fishBid, true);
+		this.asyncModel.awaitUpdates();
+		final UtilityModelSnapshot snapshot = this.asyncModel.getSnapshot();
+		final double utility = snapshot.calculateUtility(this.fishBid);
+		for (int i = 0; i < 40; i++) {
+			this.asyncModel.update(this.pieBid, true);
+		}
+		this.asyncModel.awaitUpdates();
+		assertEquals(1, snapshot.getBidUpdates());
+		assertEquals(1, snapshot.getBids().size());
+		assertEquals(utility, snapshot.calculateUtility(this.fishBid), 0.0);
+		assertEquals(41, this.asyncModel.getSnapshot().getBids().size());
+		assertTrue(this.asyncModel.calculateUtility(this.pieBid) > this.asyncModel.calculateUtility(this.fishBid));
+	}
+
+	/**
+	 * A snapshot taken directly from a model gives the same estimates as the model itself.
+	 */
+	@Test
+	public void testSnapshotMatchesModel() {
+		this.syncModel.update(this.fishBid, true);
+		this.syncModel.update(this.fishBid, true);
+		this.syncModel.update(this.pieBid, true);
+		final UtilityModelSnapshot snapshot = this.syncModel.snapshot();
+		for (final MockBid bid : new MockBid[] { this.fishBid, this.pieBid }) {
+			assertEquals(this.syncModel.calculateUtility(bid), snapshot.calculateUtility(bid), 1e-12);
+			assertEquals(this.syncModel.calculateRecentUtility(bid), snapshot.calculateRecentUtility(bid), 1e-12);
+			assertEquals(this.syncModel.calculateEstimatedUtility(bid).getConfidenceLevel(), 
+				snapshot.calculateEstimatedUtility(bid).getConfidenceLevel(), 1e-12);
+		}
+	}
+}
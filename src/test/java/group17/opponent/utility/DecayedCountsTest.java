@@ -0,0 +1,108 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DecayedCounts}.
+ */
+public class DecayedCountsTest {
+
+	private static final int[] NUM_VALUES = { 3, 5, 2 };
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The counts match decaying every earlier bid explicitly, including across renormalisations of the scale.
+	 */
+	@Test
+	public void testMatchesBruteForce() {
+		final double decay = 0.7;
+		final DecayedCounts counts = new DecayedCounts(NUM_VALUES, decay);
+		final List<int[]> history = new ArrayList<>();
+		final Random random = new Random(17);
+		// 0.7^-1000 is far beyond the scale limit, so the counts are renormalised several times.
+		for (int b = 0; b < 1000; b++) {
+			final int[] codes = new int[NUM_VALUES.length];
+			for (int i = 0; i < codes.length; i++) {
+				codes[i] = (i == 2 && b % 7 == 0) ? -1 : random.nextInt(NUM_VALUES[i]);
+			}
+			counts.add(codes);
+			history.add(codes);
+			if (b < 20 || b % 97 == 0) {
+				this.checkMatches(counts, history, decay);
+			}
+		}
+		assertEquals(1000, counts.getUpdates());
+		assertEquals(1.0 / (1.0 - decay), counts.getMass(), TOLERANCE);
+	}
+
+	/**
+	 * With no decay, the counts are plain counts.
+	 */
+	@Test
+	public void testNoDecay() {
+		final DecayedCounts counts = new DecayedCounts(NUM_VALUES, 1.0);
+		counts.add(new int[] { 0, 1, 1 });
+		counts.add(new int[] { 0, 4, 1 });
+		counts.add(new int[] { 2, 4, 0 });
+		assertEquals(3.0, counts.getMass(), 0.0);
+		assertEquals(2.0, counts.getCount(0, 0), 0.0);
+		assertEquals(0.0, counts.getCount(0, 1), 0.0);
+		assertEquals(2.0 / 3.0, counts.getFrequency(1, 4), TOLERANCE);
+		assertEquals(5.0 / 9.0, counts.getSumOfSquaredFrequencies(2), TOLERANCE);
+	}
+
+	/**
+	 * The decay for a window keeps the decayed number of bids at the window, in the long run.
+	 */
+	@Test
+	public void testDecayForWindow() {
+		assertEquals(0.9, DecayedCounts.decayForWindow(10), TOLERANCE);
+		assertEquals(0.5, DecayedCounts.decayForWindow(1), TOLERANCE);
+		final DecayedCounts counts = new DecayedCounts(NUM_VALUES, DecayedCounts.decayForWindow(10));
+		assertEquals(0.0, counts.getFrequency(0, 0), 0.0);
+		assertEquals(0.0, counts.getSumOfSquaredFrequencies(0), 0.0);
+		for (int b = 0; b < 500; b++) {
+			counts.add(new int[] { 0, 0, 0 });
+		}
+		assertEquals(10.0, counts.getMass(), TOLERANCE);
+		assertEquals(1.0, counts.getFrequency(0, 0), TOLERANCE);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDecay() {
+		new DecayedCounts(NUM_VALUES, 0.0);
+	}
+
+	private void checkMatches(final DecayedCounts counts, final List<int[]> history, final double decay) {
+		double mass = 0.0;
+		final double[][] expected = new double[NUM_VALUES.length][];
+		for (int i = 0; i < NUM_VALUES.length; i++) {
+			expected[i] = new double[NUM_VALUES[i]];
+		}
+		for (int b = 0; b < history.size(); b++) {
+			final double factor = Math.pow(decay, history.size() - 1 - b);
+			mass += factor;
+			for (int i = 0; i < NUM_VALUES.length; i++) {
+				if (history.get(b)[i] >= 0) {
+					expected[i][history.get(b)[i]] += factor;
+				}
+			}
+		}
+		assertEquals(mass, counts.getMass(), TOLERANCE);
+		for (int i = 0; i < NUM_VALUES.length; i++) {
+			double sumSquares = 0.0;
+			for (int v = 0; v < NUM_VALUES[i]; v++) {
+				assertEquals(expected[i][v], counts.getCount(i, v), TOLERANCE);
+				assertEquals(expected[i][v] / mass, counts.getFrequency(i, v), TOLERANCE);
+				sumSquares += (expected[i][v] / mass) * (expected[i][v] / mass);
+			}
+			assertEquals(sumSquares, counts.getSumOfSquaredFrequencies(i), TOLERANCE);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import group17.TestFramework;
+import group17.mock.MockBid;
+import group17.mock.MockDomain;
+
+/**
+ * Unit tests for {@link DecayedOpponentModel}.
+ */
+public class DecayedOpponentModelTest extends TestFramework {
+
+	private static final int RECENT_BID_WINDOW = 5;
+	private static final double TOLERANCE = 1e-12;
+
+	private MockDomain domain;
+	private List<MockBid> allBids;
+	private Agent17OpponentModel agent17;
+	private DecayedOpponentModel decayed;
+
+	@Before
+	public void setup() {
+		this.domain = this.createMockDomainWithIssues();
+		this.allBids = new ArrayList<>();
+		for (final String menuOption : MENU_OPTIONS) {
+			for (final String sizeOption : SIZE_OPTIONS) {
+				this.allBids.add(this.createBidWithUtility(menuOption, sizeOption, 0.5));
+			}
+		}
+		this.agent17 = new Agent17OpponentModel(this.domain, RECENT_BID_WINDOW);
+		this.decayed = new DecayedOpponentModel(this.domain, RECENT_BID_WINDOW);
+	}
+
+	/**
+	 * The overall estimate matches the Agent 17 model, and no bids are kept.
+	 */
+	@Test
+	public void testOverallMatchesAgent17() {
+		final Random random = new Random(17);
+		for (int i = 0; i < 30; i++) {
+			final MockBid bid = this.allBids.get(random.nextInt(this.allBids.size()));
+			this.agent17.update(bid, true);
+			this.decayed.update(bid, true);
+			for (final MockBid other : this.allBids) {
+				assertEquals(this.agent17.calculateUtility(other), this.decayed.calculateUtility(other), TOLERANCE);
+			}
+		}
+		assertEquals(30, this.decayed.getBidUpdates());
+		assertEquals(30, this.decayed.getRecentCounts().getUpdates());
+		assertTrue(this.decayed.getAllPreviousBids().isEmpty());
+	}
+
+	/**
+	 * The recent estimate follows the opponent's latest offers, while the overall estimate remembers the old ones.
+	 */
+	@Test
+	public void testRecentEstimateFollowsLatestOffers() {
+		final MockBid old = this.allBids.get(0);
+		final MockBid latest = this.allBids.get(this.allBids.size() - 1);
+		for (int i = 0; i < 40; i++) {
+			this.decayed.update(old, true);
+		}
+		for (int i = 0; i < 10; i++) {
+			this.decayed.update(latest, true);
+		}
+		assertTrue(this.decayed.calculateUtility(old) > this.decayed.calculateUtility(latest));
+		assertTrue(this.decayed.calculateRecentUtility(latest) > this.decayed.calculateRecentUtility(old));
+		double weights = 0.0;
+		for (int i = 0; i < this.decayed.getEncoder().getNumberOfIssues(); i++) {
+			weights += this.decayed.getRecentWeight(i);
+		}
+		assertEquals(1.0, weights, TOLERANCE);
+	}
+}
@@ -0,0 +1,132 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import group17.TestFramework;
+import group17.domain.BidEncoder;
+import group17.mock.MockBid;
+import group17.mock.MockDomain;
+import group17.opponent.EstimatedUtility;
+import group17.opponent.utility.EnsembleOpponentModel.Estimate;
+
+/**
+ * Unit tests for {@link EnsembleOpponentModel}.
+ */
+public class EnsembleOpponentModelTest extends TestFramework {
+
+	private static final int RECENT_BID_WINDOW = 5;
+	private static final double TOLERANCE = 1e-12;
+
+	private MockDomain domain;
+	private List<MockBid> allBids;
+	private JonnyBlackOpponentModel jonnyBlack;
+	private Agent17OpponentModel agent17;
+	private EnsembleOpponentModel ensemble;
+
+	@Before
+	public void setup() {
+		this.domain = this.createMockDomainWithIssues();
+		this.allBids = new ArrayList<>();
+		for (final String menuOption : MENU_OPTIONS) {
+			for (final String sizeOption : SIZE_OPTIONS) {
+				this.allBids.add(this.createBidWithUtility(menuOption, sizeOption, 0.5));
+			}
+		}
+		this.jonnyBlack = new JonnyBlackOpponentModel(this.domain, RECENT_BID_WINDOW);
+		this.agent17 = new Agent17OpponentModel(this.domain, RECENT_BID_WINDOW);
+		this.ensemble = new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW);
+	}
+
+	/**
+	 * Every estimate matches the separate models, including once bids have aged out of the recent window.
+	 */
+	@Test
+	public void testMatchesSeparateModels() {
+		final Random random = new Random(17);
+		for (int i = 0; i < 30; i++) {
+			final MockBid bid = this.allBids.get((i % 2 == 0) ? random.nextInt(3) : random.nextInt(this.allBids.size()));
+			this.jonnyBlack.update(bid, true);
+			this.agent17.update(bid, true);
+			this.ensemble.update(bid, true);
+			for (final MockBid other : this.allBids) {
+				this.checkMatches(other);
+			}
+		}
+		assertEquals(30, this.ensemble.getBidUpdates());
+		assertEquals(30, this.ensemble.getAllPreviousBids().size());
+	}
+
+	/**
+	 * The {@link group17.opponent.OpponentModel} methods report the selected estimate.
+	 */
+	@Test
+	public void testReportedEstimate() {
+		final EnsembleOpponentModel agent17Only = new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, Estimate.AGENT17);
+		final EnsembleOpponentModel jonnyBlackOnly = new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW, Estimate.JONNY_BLACK);
+		for (int i = 0; i < 8; i++) {
+			final MockBid bid = this.allBids.get(i % 3);
+			this.jonnyBlack.update(bid, true);
+			this.agent17.update(bid, true);
+			this.ensemble.update(bid, true);
+			agent17Only.update(bid, true);
+			jonnyBlackOnly.update(bid, true);
+		}
+		for (final MockBid bid : this.allBids) {
+			assertEquals(this.agent17.calculateUtility(bid), agent17Only.calculateUtility(bid), TOLERANCE);
+			assertEquals(this.agent17.calculateMeanUtility(bid), agent17Only.calculateMeanUtility(bid), TOLERANCE);
+			assertEquals(this.jonnyBlack.calculateRecentUtility(bid), jonnyBlackOnly.calculateRecentUtility(bid), TOLERANCE);
+			final double average = (this.agent17.calculateUtility(bid) + this.jonnyBlack.calculateUtility(bid)) / 2.0;
+			assertEquals(average, this.ensemble.calculateUtility(bid), TOLERANCE);
+			assertEquals(average, this.ensemble.calculateEstimatedUtility(bid).getUtility(), TOLERANCE);
+		}
+		assertEquals(EstimatedUtility.NO_UTILITY, this.ensemble.calculateMeanUtility((MockBid) null), 0.0);
+	}
+
+	/**
+	 * The weighted interaction score is added to every estimate, and a snapshot keeps the sketch as it was.
+	 */
+	@Test
+	public void testPairInteraction() {
+		final BidEncoder encoder = this.ensemble.getEncoder();
+		final int[] numValues = { encoder.getNumberOfValues(0), encoder.getNumberOfValues(1) };
+		final EnsembleOpponentModel withPairs = new EnsembleOpponentModel(this.domain, RECENT_BID_WINDOW);
+		withPairs.setPairInteraction(new PairSketch(numValues), 0.5);
+		final PairSketch sketch = new PairSketch(numValues);
+		final Random random = new Random(17);
+		for (int i = 0; i < 12; i++) {
+			final MockBid bid = this.allBids.get(random.nextInt(this.allBids.size()));
+			this.ensemble.update(bid, true);
+			withPairs.update(bid, true);
+			sketch.add(encoder.encode(bid));
+		}
+		final EnsembleSnapshot snapshot = withPairs.snapshot(List.of());
+		withPairs.update(this.allBids.get(0), true);
+		for (final MockBid bid : this.allBids) {
+			final double interaction = 0.5 * sketch.interaction(encoder.encode(bid));
+			final EnsembleUtility expected = this.ensemble.evaluate(bid);
+			final EnsembleUtility utility = snapshot.evaluate(bid);
+			assertEquals(expected.jonnyBlack() + interaction, utility.jonnyBlack(), TOLERANCE);
+			assertEquals(expected.recentJonnyBlack() + interaction, utility.recentJonnyBlack(), TOLERANCE);
+			assertEquals(expected.agent17() + interaction, utility.agent17(), TOLERANCE);
+			assertEquals(expected.recentAgent17() + interaction, utility.recentAgent17(), TOLERANCE);
+			assertEquals(interaction, snapshot.getInteraction(encoder.encode(bid)), 0.0);
+		}
+	}
+
+	private void checkMatches(final MockBid bid) {
+		final EnsembleUtility utility = this.ensemble.evaluate(bid);
+		assertEquals(this.jonnyBlack.calculateUtility(bid), utility.jonnyBlack(), TOLERANCE);
+		assertEquals(this.jonnyBlack.calculateRecentUtility(bid), utility.recentJonnyBlack(), TOLERANCE);
+		assertEquals(this.jonnyBlack.calculateMeanUtility(bid), utility.meanJonnyBlack(), TOLERANCE);
+		assertEquals(this.agent17.calculateUtility(bid), utility.agent17(), TOLERANCE);
+		assertEquals(this.agent17.calculateRecentUtility(bid), utility.recentAgent17(), TOLERANCE);
+		assertEquals(this.agent17.calculateMeanUtility(bid), utility.meanAgent17(), TOLERANCE);
+	}
+}
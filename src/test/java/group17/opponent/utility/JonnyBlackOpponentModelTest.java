@@ -1,10 +1,14 @@
 package group17.opponent.utility;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,7 +17,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import genius.core.Bid;
 import genius.core.issue.IssueDiscrete;
+import genius.core.issue.Value;
+import genius.core.issue.ValueDiscrete;
+import group17.domain.BidEncoder;
 import group17.TestFramework;
 import group17.mock.MockBid;
 import group17.mock.MockDomain;
@@ -138,6 +146,100 @@ public class JonnyBlackOpponentModelTest extends TestFramework {
 		assertEquals(bid, oldBid);
 	}
 	
+	@Test
+	public void testExportAndImportState() {
+		final MockBid bid = this.createBid();
+		final MockBid other = this.createOtherBid();
+		this.opponentModel.update(bid, true);
+		for (int i = 0; i < 10; i++) {
+			this.opponentModel.update(other, true);
+		}
+		final ByteBuffer state = this.opponentModel.exportState();
+		assertTrue(state.remaining() < this.opponentModel.toString().length());
+		final JonnyBlackOpponentModel restored = new JonnyBlackOpponentModel(this.domain);
+		restored.importState(state);
+		assertEquals(0, state.remaining());
+		this.checkModelsMatch(restored, bid, other);
+		// The restored history must age out of the recent window exactly as the original does.
+		this.opponentModel.update(bid, true);
+		restored.update(bid, true);
+		this.checkModelsMatch(restored, bid, other);
+		final BidEncoder encoder = new BidEncoder(this.domain);
+		final List<Bid> originalBids = this.opponentModel.getAllPreviousBids();
+		final List<Bid> restoredBids = restored.getAllPreviousBids();
+		assertEquals(originalBids.size(), restoredBids.size());
+		for (int i = 0; i < originalBids.size(); i++) {
+			assertEquals(encoder.index(originalBids.get(i)), encoder.index(restoredBids.get(i)));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testImportStateFromOtherModelType() {
+		this.opponentModel.update(this.createBid(), true);
+		final ByteBuffer state = this.opponentModel.exportState();
+		new Agent17OpponentModel(this.domain).importState(state);
+	}
+	
+	@Test
+	public void testStateHeaderHasModelType() {
+		final ByteBuffer state = this.opponentModel.exportState();
+		assertEquals(UtilityOpponentModel.STATE_MAGIC, state.getInt(0));
+		assertEquals(UtilityOpponentModel.STATE_VERSION, state.get(Integer.BYTES));
+		assertEquals(UtilityOpponentModel.JONNY_BLACK_STATE, state.get(Integer.BYTES + Byte.BYTES));
+		assertEquals(UtilityOpponentModel.AGENT17_STATE, new Agent17OpponentModel(this.domain).exportState().get(Integer.BYTES + Byte.BYTES));
+	}
+	
+	@Test
+	public void testTruncatedStateLeavesModelUnchanged() {
+		this.opponentModel.update(this.createBid(), true);
+		final ByteBuffer state = this.opponentModel.exportState();
+		final JonnyBlackOpponentModel restored = this.modelWithOtherBids();
+		final String before = restored.toString();
+		state.limit(state.limit() - 1);
+		assertThrows(IllegalArgumentException.class, () -> restored.importState(state));
+		assertEquals(0, state.position());
+		assertEquals(before, restored.toString());
+		assertEquals(3, restored.getAllPreviousBids().size());
+	}
+	
+	@Test
+	public void testInvalidValueCodeLeavesModelUnchanged() {
+		this.opponentModel.update(this.createBid(), true);
+		final ByteBuffer state = this.opponentModel.exportState();
+		// One byte per value code; the last is the second issue's value in the last bid.
+		state.put(state.limit() - 1, (byte) 0xFF);
+		final JonnyBlackOpponentModel restored = this.modelWithOtherBids();
+		final String before = restored.toString();
+		assertThrows(IllegalArgumentException.class, () -> restored.importState(state));
+		assertEquals(before, restored.toString());
+		assertEquals(3, restored.getAllPreviousBids().size());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testExportBidOutsideDomain() {
+		final HashMap<Integer, Value> values = new HashMap<>();
+		values.put(this.firstIssue.getNumber(), new ValueDiscrete(MENU_OPTION_1));
+		values.put(this.secondIssue.getNumber(), new ValueDiscrete("Enormous"));
+		this.opponentModel.update(new Bid(this.domain, values), true);
+		this.opponentModel.exportState();
+	}
+	
+	private JonnyBlackOpponentModel modelWithOtherBids() {
+		final JonnyBlackOpponentModel model = new JonnyBlackOpponentModel(this.domain);
+		for (int i = 0; i < 3; i++) {
+			model.update(this.createOtherBid(), true);
+		}
+		return model;
+	}
+	
+	private void checkModelsMatch(final JonnyBlackOpponentModel restored, final MockBid... bids) {
+		for (final MockBid bid : bids) {
+			assertEquals(this.opponentModel.calculateUtility(bid), restored.calculateUtility(bid), 0.0);
+			assertEquals(this.opponentModel.calculateRecentUtility(bid), restored.calculateRecentUtility(bid), 0.0);
+		}
+		assertEquals(this.opponentModel.toString(), restored.toString());
+	}
+	
 	private void incrementIssueValueCountBy(final String issueName, final String valueName, final int increment) {
 		for (int i = 0; i < increment; i++) {
 			this.opponentModel.updateIssue(issueName, valueName);
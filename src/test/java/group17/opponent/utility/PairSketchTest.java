@@ -0,0 +1,94 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PairSketch}.
+ */
+public class PairSketchTest {
+
+	private static final int[] NUM_VALUES = { 4, 6, 3, 5, 4, 8 };
+
+	/**
+	 * Estimates are never below the true pair counts, and are exact when the sketch is wide enough.
+	 */
+	@Test
+	public void testEstimatesBoundTrueCounts() {
+		final PairSketch narrow = new PairSketch(NUM_VALUES, 4, 64);
+		final PairSketch wide = new PairSketch(NUM_VALUES, 4, 1 << 16);
+		final int[][][][] exact = new int[NUM_VALUES.length][][][];
+		for (int i = 0; i < NUM_VALUES.length; i++) {
+			exact[i] = new int[NUM_VALUES[i]][NUM_VALUES.length][];
+			for (int a = 0; a < NUM_VALUES[i]; a++) {
+				for (int j = 0; j < NUM_VALUES.length; j++) {
+					exact[i][a][j] = new int[NUM_VALUES[j]];
+				}
+			}
+		}
+		final Random random = new Random(17);
+		final int[] codes = new int[NUM_VALUES.length];
+		for (int b = 0; b < 300; b++) {
+			for (int i = 0; i < codes.length; i++) {
+				// Skew the first value of each issue, so some pairs are much more common than others.
+				codes[i] = random.nextBoolean() ? 0 : random.nextInt(NUM_VALUES[i]);
+			}
+			narrow.add(codes);
+			wide.add(codes);
+			for (int i = 0; i < codes.length; i++) {
+				for (int j = 0; j < codes.length; j++) {
+					exact[i][codes[i]][j][codes[j]]++;
+				}
+			}
+		}
+		int overestimated = 0;
+		for (int i = 0; i < NUM_VALUES.length; i++) {
+			for (int j = i + 1; j < NUM_VALUES.length; j++) {
+				for (int a = 0; a < NUM_VALUES[i]; a++) {
+					assertEquals(exact[i][a][i][a], wide.getCount(i, a));
+					for (int c = 0; c < NUM_VALUES[j]; c++) {
+						final int count = exact[i][a][j][c];
+						assertEquals(count, wide.estimate(i, a, j, c));
+						assertEquals(count, wide.estimate(j, c, i, a));
+						assertTrue(narrow.estimate(i, a, j, c) >= count);
+						overestimated += (narrow.estimate(i, a, j, c) > count) ? 1 : 0;
+					}
+				}
+			}
+		}
+		assertTrue(overestimated > 0);
+		assertEquals(300, narrow.getBids());
+		assertEquals(64, narrow.getWidth());
+	}
+
+	/**
+	 * Values always offered together have a positive interaction, and values never offered together a negative one.
+	 */
+	@Test
+	public void testInteraction() {
+		final int[] numValues = { 2, 2 };
+		final PairSketch sketch = new PairSketch(numValues);
+		assertEquals(0.0, sketch.interaction(new int[] { 0, 0 }), 0.0);
+		for (int b = 0; b < 10; b++) {
+			sketch.add(new int[] { b % 2, b % 2 });
+		}
+		assertEquals(0.25, sketch.interaction(new int[] { 0, 0 }), 1e-12);
+		assertEquals(-0.25, sketch.interaction(new int[] { 0, 1 }), 1e-12);
+		assertEquals(0.0, sketch.interaction(new int[] { 0, -1 }), 0.0);
+	}
+
+	@Test
+	public void testWidthRoundedUp() {
+		assertEquals(128, new PairSketch(NUM_VALUES, 2, 100).getWidth());
+		assertEquals(2, new PairSketch(NUM_VALUES, 1, 1).getWidth());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDepth() {
+		new PairSketch(NUM_VALUES, 0, 64);
+	}
+}
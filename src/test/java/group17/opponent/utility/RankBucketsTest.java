@@ -0,0 +1,157 @@
+package group17.opponent.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RankBuckets}.
+ */
+public class RankBucketsTest {
+
+	@Test
+	public void testInitialRanks() {
+		final RankBuckets buckets = new RankBuckets(4);
+		for (int element = 0; element < 4; element++) {
+			assertEquals(element + 1, buckets.rank(element));
+			assertEquals(element, buckets.elementAtRank(element + 1));
+		}
+	}
+
+	@Test
+	public void testIncrementAndDecrement() {
+		final RankBuckets buckets = new RankBuckets(4);
+		buckets.increment(2);
+		assertEquals(1, buckets.rank(2));
+		buckets.increment(3);
+		// Ties rank the element that reached the count first higher.
+		assertEquals(1, buckets.rank(2));
+		assertEquals(2, buckets.rank(3));
+		buckets.increment(3);
+		assertEquals(1, buckets.rank(3));
+		assertEquals(2, buckets.rank(2));
+		buckets.decrement(3);
+		buckets.decrement(3);
+		assertEquals(0, buckets.getCount(3));
+		assertEquals(1, buckets.rank(2));
+		buckets.decrement(0);
+		assertEquals(0, buckets.getCount(0));
+	}
+
+	/**
+	 * Random changes always leave the ranks ordered by descending count, consistent with each other.
+	 */
+	@Test
+	public void testRandomChangesKeepOrder() {
+		final int size = 7;
+		final Random random = new Random(42);
+		final RankBuckets buckets = new RankBuckets(size);
+		final int[] counts = new int[size];
+		for (int i = 0; i < 2000; i++) {
+			final int element = random.nextInt(size);
+			if (random.nextInt(3) == 0) {
+				buckets.decrement(element);
+				counts[element] = Math.max(0, counts[element] - 1);
+			} else {
+				buckets.increment(element);
+				counts[element]++;
+			}
+			for (int rank = 1; rank <= size; rank++) {
+				final int element1 = buckets.elementAtRank(rank);
+				assertEquals(rank, buckets.rank(element1));
+				assertEquals(counts[element1], buckets.getCount(element1));
+				if (rank < size) {
+					assertTrue(counts[element1] >= counts[buckets.elementAtRank(rank + 1)]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Each change alters at most two ranks, and exactly the elements whose rank changed are visited.
+	 */
+	@Test
+	public void testRandomChangesReportChangedRanks() {
+		final int size = 7;
+		final Random random = new Random(7);
+		final RankBuckets buckets = new RankBuckets(size);
+		this.drain(buckets);
+		final int[] before = new int[size];
+		for (int i = 0; i < 2000; i++) {
+			for (int element = 0; element < size; element++) {
+				before[element] = buckets.rank(element);
+			}
+			final int element = random.nextInt(size);
+			if (random.nextInt(3) == 0) {
+				buckets.decrement(element);
+			} else {
+				buckets.increment(element);
+			}
+			final List<Integer> expected = new ArrayList<>();
+			for (int e = 0; e < size; e++) {
+				if (buckets.rank(e) != before[e]) {
+					expected.add(e);
+				}
+			}
+			assertTrue(expected.size() <= 2);
+			assertEquals(expected, this.sortedDrain(buckets));
+		}
+	}
+
+	/**
+	 * Only the elements whose rank changed are visited, each once.
+	 */
+	@Test
+	public void testDrainChanged() {
+		final RankBuckets buckets = new RankBuckets(4);
+		assertEquals(List.of(0, 1, 2, 3), this.drain(buckets));
+		assertEquals(List.of(), this.drain(buckets));
+		buckets.increment(0);
+		assertEquals(List.of(), this.drain(buckets));
+		buckets.increment(2);
+		assertEquals(List.of(1, 2), this.sortedDrain(buckets));
+		buckets.increment(3);
+		buckets.increment(3);
+		assertEquals(List.of(0, 1, 3), this.sortedDrain(buckets));
+		// 3 is already first in its bucket, so it keeps its rank among those it is now tied with.
+		buckets.decrement(3);
+		assertEquals(List.of(), this.drain(buckets));
+	}
+
+	@Test
+	public void testReset() {
+		final RankBuckets buckets = new RankBuckets(5);
+		buckets.reset(new int[] { 2, 5, 2, 0, 7 });
+		assertEquals(4, buckets.elementAtRank(1));
+		assertEquals(1, buckets.elementAtRank(2));
+		assertEquals(0, buckets.elementAtRank(3));
+		assertEquals(2, buckets.elementAtRank(4));
+		assertEquals(3, buckets.elementAtRank(5));
+		// The buckets must still be consistent for further changes.
+		buckets.increment(3);
+		buckets.increment(3);
+		buckets.increment(3);
+		assertEquals(3, buckets.rank(3));
+		buckets.decrement(4);
+		buckets.decrement(4);
+		buckets.decrement(4);
+		assertEquals(2, buckets.rank(4));
+	}
+
+	private List<Integer> drain(final RankBuckets buckets) {
+		final List<Integer> changed = new ArrayList<>();
+		buckets.drainChanged(changed::add);
+		return changed;
+	}
+
+	private List<Integer> sortedDrain(final RankBuckets buckets) {
+		final List<Integer> changed = this.drain(buckets);
+		changed.sort(null);
+		return changed;
+	}
+}
@@ -0,0 +1,68 @@
+package group17.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link GeniusLogReader}.
+ */
+public class GeniusLogReaderTest {
+
+	private static final List<String> LOG = List.of(
+		"This file is generated by Genius",
+		"Run time (s);Round;Exception;deadline;Agreement;Discounted;#agreeing;min.util.;max.util.;Dist. to Pareto;"
+			+ "Dist. to Nash;Social Welfare;Agent 1;Agent 2;Utility 1;Utility 2;Disc. Util. 1;Disc. Util. 2;"
+			+ "Perceived. Util. 1;Perceived. Util. 2;User Bother 1;User Bother 2;User Util. 1;User Util. 2;Profile 1;Profile 2",
+		"1.5;120;;ROUND 180;Yes;No;2;0.6;0.8;0.0;0.1;1.4;Agent17@3;Boulware@4;0.8;0.6;0.8;0.6;0.75;0.6;0.02;0.0;0.78;0.6;"
+			+ "party1_utility;party2_utility",
+		"",
+		"0.9;180;;ROUND 180;No;No;0;0.0;0.0;;;0.0;Boulware@5;Agent17@6;0.0;0.0;0.0;0.0;0.0;0.0;0.0;0.01;0.0;-0.01;"
+			+ "party2_utility;party1_utility");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRead() throws IOException {
+		final Path log = this.folder.getRoot().toPath().resolve("log.csv");
+		Files.write(log, LOG);
+		try (GeniusLogReader reader = new GeniusLogReader(log)) {
+			assertEquals(2, reader.getParties());
+			final ResultRecord first = reader.next();
+			assertEquals(1.5, first.runTime(), 0.0);
+			assertEquals(120, first.round());
+			assertTrue(first.agreement());
+			assertEquals(2, first.agreeing());
+			assertEquals(0.1, first.distanceNash(), 0.0);
+			assertEquals(new PartyRecord("Agent17@3", "party1_utility", 0.8, 0.8, 0.75, 0.02, 0.78), first.parties().get(0));
+			final ResultRecord second = reader.next();
+			assertFalse(second.agreement());
+			assertTrue(Double.isNaN(second.distancePareto()));
+			assertEquals(-0.01, second.parties().get(1).userUtility(), 0.0);
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testImport() throws IOException {
+		final Path log = this.folder.getRoot().toPath().resolve("log.csv");
+		Files.write(log, LOG);
+		try (ResultsStore store = ResultsStore.open(this.folder.getRoot().toPath().resolve("store"), 2)) {
+			assertEquals(2, GeniusLogReader.importLog(log, store));
+			final Statistics agent17 = store.query().groupBy(PartyColumn.AGENT, PartyColumn.USER_UTILITY).get("Agent17");
+			assertEquals(2, agent17.getCount());
+			assertEquals((0.78 - 0.01) / 2, agent17.getMean(), 1e-9);
+		}
+	}
+}
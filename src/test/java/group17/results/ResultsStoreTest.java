@@ -0,0 +1,132 @@
+package group17.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ResultsStore} and {@link ResultsQuery}.
+ */
+public class ResultsStoreTest {
+
+	private static final double TOLERANCE = 1e-9;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final Path directory = this.folder.getRoot().toPath().resolve("store");
+		final ResultRecord first = this.createRecord(0);
+		try (ResultsStore store = ResultsStore.open(directory, 2)) {
+			store.append(first);
+			assertEquals(1, store.size());
+			assertEquals(first, store.getRecord(0));
+		}
+		try (ResultsStore store = ResultsStore.openReadOnly(directory)) {
+			assertEquals(1, store.size());
+			assertEquals(first, store.getRecord(0));
+			assertEquals("Agent17@0", store.getString(PartyColumn.AGENT, 0, 0));
+			assertEquals(0.8, store.get(PartyColumn.UTILITY, 0, 0), 0.0);
+			assertEquals(1.0, store.get(SessionColumn.AGREEMENT, 0), 0.0);
+		}
+	}
+
+	/**
+	 * Appending to an existing store grows the columns past their initial capacity, keeping every row.
+	 */
+	@Test
+	public void testAppend() throws IOException {
+		final Path directory = this.folder.getRoot().toPath();
+		try (ResultsStore store = ResultsStore.open(directory, 2)) {
+			for (int i = 0; i < 1000; i++) {
+				store.append(this.createRecord(i));
+			}
+		}
+		try (ResultsStore store = ResultsStore.open(directory, 2)) {
+			for (int i = 1000; i < 3000; i++) {
+				store.append(this.createRecord(i));
+			}
+		}
+		try (ResultsStore store = ResultsStore.openReadOnly(directory)) {
+			assertEquals(3000, store.size());
+			for (final int row : new int[] { 0, 999, 1000, 2047, 2999 }) {
+				assertEquals(this.createRecord(row), store.getRecord(row));
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testPartiesMismatch() throws IOException {
+		final Path directory = this.folder.getRoot().toPath();
+		try (ResultsStore store = ResultsStore.open(directory, 2)) {
+			store.append(this.createRecord(0));
+		}
+		ResultsStore.open(directory, 3).close();
+	}
+
+	@Test
+	public void testQuery() throws IOException {
+		try (ResultsStore store = ResultsStore.open(this.folder.getRoot().toPath(), 2)) {
+			for (int i = 0; i < 100; i++) {
+				store.append(this.createRecord(i));
+			}
+			final ResultsQuery query = store.query();
+			assertEquals(100, query.count());
+			assertEquals(0.5, query.summarise(SessionColumn.AGREEMENT).getMean(), TOLERANCE);
+
+			final Map<String, Statistics> byAgent = query.groupBy(PartyColumn.AGENT, PartyColumn.UTILITY);
+			assertEquals(List.of("Agent17", "Boulware"), List.copyOf(byAgent.keySet()));
+			assertEquals(100, byAgent.get("Agent17").getCount());
+			assertEquals((50 * 0.8 + 50 * 0.0) / 100, byAgent.get("Agent17").getMean(), TOLERANCE);
+			assertEquals(0.0, byAgent.get("Agent17").getMin(), 0.0);
+			assertEquals(0.8, byAgent.get("Agent17").getMax(), 0.0);
+
+			final Map<String, Statistics> byProfile = query.where(SessionColumn.AGREEMENT, value -> value == 1.0)
+				.groupBy(PartyColumn.PROFILE, SessionColumn.SOCIAL_WELFARE);
+			assertEquals(50, byProfile.get("party1_utility").getCount());
+			assertEquals(1.4, byProfile.get("party2_utility").getMean(), TOLERANCE);
+
+			assertEquals(100, query.withAgent("Boulware").count());
+			assertEquals(0, query.withAgent("Conceder").count());
+			assertTrue(Double.isNaN(query.summarise(PartyColumn.USER_BOTHER).getMean()));
+		}
+	}
+
+	@Test
+	public void testStatisticsMerge() {
+		final Statistics all = new Statistics();
+		final Statistics first = new Statistics();
+		final Statistics second = new Statistics();
+		for (int i = 0; i < 10; i++) {
+			all.add(i * i);
+			((i < 4) ? first : second).add(i * i);
+		}
+		first.merge(second);
+		assertEquals(all.getCount(), first.getCount());
+		assertEquals(all.getMean(), first.getMean(), TOLERANCE);
+		assertEquals(all.getStandardDeviation(), first.getStandardDeviation(), TOLERANCE);
+		assertEquals(81.0, first.getMax(), 0.0);
+	}
+
+	/**
+	 * Even sessions end in agreement, with Agent17 (at an alternating position) getting 0.8 and Boulware 0.6.
+	 */
+	private ResultRecord createRecord(final int i) {
+		final boolean agreement = i % 2 == 0;
+		final PartyRecord agent17 = new PartyRecord("Agent17@" + (i % 2), "party" + (1 + i % 2) + "_utility", agreement ? 0.8 : 0.0, 
+			Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		final PartyRecord boulware = new PartyRecord("Boulware@" + (1 - i % 2), "party" + (2 - i % 2) + "_utility", 
+			agreement ? 0.6 : 0.0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		return new ResultRecord(i / 10.0, i, agreement, agreement ? 2 : 0, agreement ? 0.6 : 0.0, agreement ? 0.8 : 0.0, 
+			Double.NaN, Double.NaN, agreement ? 1.4 : 0.0, (i % 2 == 0) ? List.of(agent17, boulware) : List.of(boulware, agent17));
+	}
+}
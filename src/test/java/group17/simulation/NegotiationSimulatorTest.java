@@ -0,0 +1,180 @@
+package group17.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import genius.core.AgentID;
+import genius.core.actions.Accept;
+import genius.core.actions.Action;
+import genius.core.actions.EndNegotiation;
+import genius.core.parties.AbstractNegotiationParty;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.Agent17;
+import group17.IntegrationTestAgent;
+import group17.domain.HyperparameterProperties;
+import group17.domain.HyperparameterProvider;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticScenario;
+import group17.simulation.SessionResult.Outcome;
+
+/**
+ * Unit tests for {@link NegotiationSimulator}.
+ */
+public class NegotiationSimulatorTest {
+
+	private static final int DEADLINE = 50;
+
+	private SyntheticScenario scenario;
+	private AdditiveUtilitySpace opponentSpace;
+	private NegotiationSimulator simulator;
+
+	@Before
+	public void setup() {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(3, 4).withRankingLength(10);
+		this.scenario = new SyntheticDomainGenerator(spec).generate();
+		final SyntheticDomain domain = this.scenario.domain();
+		this.opponentSpace = new SyntheticDomainGenerator(spec.withSeed(99L)).generateProfile(domain).toUtilitySpace();
+		this.simulator = new NegotiationSimulator(DEADLINE);
+	}
+
+	@Test
+	public void testAgreement() {
+		final List<SimulationParticipant> participants = List.of(
+			SimulationParticipant.of("Boulware", () -> new TimeDependentParty(TimeDependentParty.BOULWARE), this.scenario.utilitySpace()),
+			SimulationParticipant.of("Conceder", () -> new TimeDependentParty(TimeDependentParty.CONCEDER), this.opponentSpace));
+		final SessionResult result = this.simulator.run(participants, 17L);
+		assertEquals(Outcome.AGREEMENT, result.outcome());
+		assertNotNull(result.agreement());
+		assertTrue(result.rounds() > 0 && result.rounds() <= DEADLINE);
+		assertEquals(this.scenario.utilitySpace().getUtility(result.agreement()), result.getUtility(0), 0.0);
+		assertEquals(this.opponentSpace.getUtility(result.agreement()), result.getUtility(1), 0.0);
+		assertEquals(result.getUtility(0) + result.getUtility(1), result.socialWelfare(), 1e-12);
+		assertEquals(4 * 2 + 3, result.toCSV().split(",").length);
+		assertEquals(result.toCSV().split(",").length, result.toCSVLabels().split(",").length);
+
+		// Sessions are independent, so the same seed gives the same result.
+		final List<SessionResult> results = this.simulator.run(participants, 3, 17L);
+		assertEquals(result.agreement(), results.get(0).agreement());
+		assertEquals(result.rounds(), results.get(0).rounds());
+		assertEquals(result.parties().get(0).offers(), results.get(0).parties().get(0).offers());
+	}
+
+	@Test
+	public void testDeadline() {
+		final List<SimulationParticipant> participants = List.of(
+			SimulationParticipant.of("Hardhead 1", () -> new TimeDependentParty(0.001), this.scenario.utilitySpace()),
+			SimulationParticipant.of("Hardhead 2", () -> new TimeDependentParty(0.001), this.opponentSpace));
+		final SessionResult result = this.simulator.run(participants, 17L);
+		assertEquals(Outcome.DEADLINE, result.outcome());
+		assertEquals(DEADLINE, result.rounds());
+		assertEquals(DEADLINE, result.parties().get(1).offers());
+		assertEquals(0.0, result.getUtility(0), 0.0);
+	}
+
+	@Test
+	public void testBrokenOffAndFailed() {
+		final SimulationParticipant boulware = 
+			SimulationParticipant.of("Boulware", TimeDependentParty::new, this.scenario.utilitySpace());
+		final SessionResult brokenOff = this.simulator.run(List.of(boulware, 
+			SimulationParticipant.of("Walk away", () -> new ScriptedParty(new EndNegotiation(null)), this.opponentSpace)), 17L);
+		assertEquals(Outcome.BROKEN_OFF, brokenOff.outcome());
+		assertEquals(1, brokenOff.rounds());
+
+		// Accepting before any offer has been made breaks the protocol.
+		final SessionResult failed = this.simulator.run(List.of(
+			SimulationParticipant.of("Eager", () -> new ScriptedParty(new Accept(null, null)), this.opponentSpace), boulware), 17L);
+		assertEquals(Outcome.FAILED, failed.outcome());
+	}
+
+	@Test
+	public void testAgents() {
+		final SimulationParticipant opponent = 
+			SimulationParticipant.of("Conceder", () -> new TimeDependentParty(TimeDependentParty.CONCEDER), this.opponentSpace);
+		final List<SimulationParticipant> agents = List.of(
+			SimulationParticipant.of("Agent17", Agent17::new, this.scenario.utilitySpace()),
+			SimulationParticipant.uncertain("Agent17 uncertain", Agent17::new, this.scenario.utilitySpace(), this.scenario.userModel()),
+			SimulationParticipant.of("Agent17 decayed", () -> new Agent17(HyperparameterProperties.builder()
+				.decayedOpponentModel(true).build()), this.scenario.utilitySpace()),
+			SimulationParticipant.of("Agent17 trade-off", () -> new Agent17(HyperparameterProperties.builder()
+				.tradeOffSearch(true).build()), this.scenario.utilitySpace()),
+			SimulationParticipant.of("Agent17 pairs", () -> new Agent17(HyperparameterProperties.builder()
+				.pairInteractionWeight(0.5).asyncOpponentModel(true).build()), this.scenario.utilitySpace()),
+			SimulationParticipant.of("Integration", IntegrationTestAgent::new, this.scenario.utilitySpace()));
+		for (final SimulationParticipant agent : agents) {
+			final SessionResult result = this.simulator.run(List.of(agent, opponent), 17L);
+			assertNotEquals(agent.name(), Outcome.FAILED, result.outcome());
+			assertTrue(result.parties().get(0).offers() > 0);
+		}
+	}
+
+	/**
+	 * Preparing each round speculatively does not change any of Agent 17's decisions.
+	 */
+	@Test
+	public void testSpeculativePrecomputeMatches() {
+		final SimulationParticipant opponent = SimulationParticipant.of("Conceder", 
+			() -> new TimeDependentParty(TimeDependentParty.CONCEDER), this.opponentSpace);
+		final HyperparameterProperties properties = HyperparameterProperties.builder().build();
+		final SessionResult expected = this.simulator.run(List.of(
+			SimulationParticipant.of("Agent17", () -> new Agent17(properties), this.scenario.utilitySpace()), opponent), 17L);
+		final SessionResult speculative = this.simulator.run(List.of(
+			SimulationParticipant.of("Agent17", () -> new Agent17(properties.toBuilder().speculativePrecompute(true).build()), 
+				this.scenario.utilitySpace()), opponent), 17L);
+		assertEquals(expected.outcome(), speculative.outcome());
+		assertEquals(expected.agreement(), speculative.agreement());
+		assertEquals(expected.rounds(), speculative.rounds());
+		assertEquals(expected.parties().get(0).offers(), speculative.parties().get(0).offers());
+	}
+
+	/**
+	 * Agent 17 gets its hyperparameters from the provider at init, once per session.
+	 */
+	@Test
+	public void testHyperparameterProvider() {
+		final List<AgentID> initialised = new ArrayList<>();
+		final HyperparameterProperties hyperparameters = HyperparameterProperties.builder().maxListSize(20).build();
+		final HyperparameterProvider provider = info -> {
+			initialised.add(info.getAgentID());
+			return hyperparameters;
+		};
+		final SimulationParticipant agent = SimulationParticipant.of("Agent17", () -> new Agent17(provider), this.scenario.utilitySpace());
+		final SimulationParticipant opponent = SimulationParticipant.of("Conceder", 
+			() -> new TimeDependentParty(TimeDependentParty.CONCEDER), this.opponentSpace);
+		this.simulator.run(List.of(agent, opponent), 2, 17L);
+		assertEquals(List.of(new AgentID("Agent17"), new AgentID("Agent17")), initialised);
+	}
+
+	/**
+	 * A party that always takes the same action.
+	 */
+	private static class ScriptedParty extends AbstractNegotiationParty {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Action action;
+
+		ScriptedParty(final Action action) {
+			this.action = action;
+		}
+
+		@Override
+		public Action chooseAction(final List<Class<? extends Action>> possibleActions) {
+			return this.action;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Scripted";
+		}
+	}
+}
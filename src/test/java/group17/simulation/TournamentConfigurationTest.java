@@ -0,0 +1,51 @@
+package group17.simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TournamentConfiguration}.
+ */
+public class TournamentConfigurationTest {
+
+	@Test
+	public void testLoad() throws IOException {
+		final List<TournamentConfiguration> tournaments = TournamentConfiguration.load(Paths.get("multilateraltournament.xml"));
+		assertEquals(1, tournaments.size());
+		final TournamentConfiguration tournament = tournaments.get(0);
+		assertEquals(200, tournament.deadline());
+		assertEquals(4, tournament.parties().size());
+		assertEquals("group17.Agent17", tournament.parties().get(3));
+		assertEquals("file:etc/templates/partydomain/party1_utility.xml", tournament.profiles().get(0));
+		assertEquals(1, tournament.repeats());
+		assertEquals(2, tournament.partiesPerSession());
+		assertEquals(false, tournament.repetitionAllowed());
+	}
+
+	/**
+	 * Every pair of parties negotiates with both profile orders, for every repeat.
+	 */
+	@Test
+	public void testSessions() {
+		final List<String> parties = List.of("A", "B", "C");
+		final List<String> profiles = List.of("p1", "p2");
+		final List<TournamentSession> sessions = new TournamentConfiguration(10, parties, profiles, 2, 2, false).sessions();
+		assertEquals(3 * 2 * 2, sessions.size());
+		assertEquals(new TournamentSession(0, 0, List.of("A", "B"), List.of("p1", "p2")), sessions.get(0));
+		assertEquals(new TournamentSession(1, 0, List.of("A", "B"), List.of("p2", "p1")), sessions.get(1));
+		assertEquals(new TournamentSession(11, 1, List.of("B", "C"), List.of("p2", "p1")), sessions.get(11));
+
+		// With repetition, parties can also negotiate against themselves.
+		assertEquals(6 * 2, new TournamentConfiguration(10, parties, profiles, 1, 2, true).sessions().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFewProfiles() {
+		new TournamentConfiguration(10, List.of("A", "B"), List.of("p1"), 1, 2, false);
+	}
+}
@@ -0,0 +1,95 @@
+package group17.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import genius.core.Bid;
+import genius.core.utility.AdditiveUtilitySpace;
+import group17.domain.synthetic.SyntheticDomain;
+import group17.domain.synthetic.SyntheticDomainGenerator;
+import group17.domain.synthetic.SyntheticDomainSpec;
+import group17.domain.synthetic.SyntheticDomainWriter;
+import group17.domain.synthetic.SyntheticProfile;
+import group17.simulation.SessionResult.Outcome;
+
+/**
+ * Unit tests for {@link TournamentRunner} and {@link ProfileLoader}.
+ */
+public class TournamentRunnerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SyntheticProfile profile1;
+	private TournamentConfiguration tournament;
+
+	@Before
+	public void setup() throws IOException {
+		final SyntheticDomainSpec spec = SyntheticDomainSpec.of(3, 4);
+		final SyntheticDomainGenerator generator = new SyntheticDomainGenerator(spec);
+		final SyntheticDomain domain = generator.generateDomain();
+		this.profile1 = generator.generateProfile(domain);
+		final SyntheticProfile profile2 = new SyntheticDomainGenerator(spec.withSeed(99L)).generateProfile(domain);
+		new SyntheticDomainWriter(this.profile1).writeProfile(this.folder.getRoot().toPath().resolve("profile1.xml"));
+		new SyntheticDomainWriter(profile2).writeProfile(this.folder.getRoot().toPath().resolve("profile2.xml"));
+		this.tournament = new TournamentConfiguration(40, 
+			List.of("group17.Agent17", "group17.simulation.TimeDependentParty", "group17.IntegrationTestAgent"), 
+			List.of("file:profile1.xml", "file:profile2.xml"), 2, 2, false);
+	}
+
+	@Test
+	public void testProfileLoader() throws IOException {
+		final Path base = this.folder.getRoot().toPath();
+		final AdditiveUtilitySpace space = new ProfileLoader(base).load("file:profile1.xml");
+		assertEquals(3, space.getDomain().getIssues().size());
+		final SyntheticDomain domain = (SyntheticDomain) this.profile1.getEncoder().getDomain();
+		final Random random = new Random(17);
+		for (int i = 0; i < 20; i++) {
+			final Bid bid = domain.getRandomBid(random);
+			assertEquals(this.profile1.getUtility(bid), space.getUtility(bid), 1e-12);
+		}
+	}
+
+	/**
+	 * The results are the same, in the same order, however many threads run the sessions.
+	 */
+	@Test
+	public void testParallelResultsMatchSerial() throws IOException {
+		final ProfileLoader loader = new ProfileLoader(this.folder.getRoot().toPath());
+		final TournamentResult serial;
+		final TournamentResult parallel;
+		try (TournamentRunner runner = new TournamentRunner(loader, 1, TournamentRunner::reflectiveFactory)) {
+			serial = runner.run(this.tournament, 17L);
+		}
+		try (TournamentRunner runner = new TournamentRunner(loader, 4, TournamentRunner::reflectiveFactory)) {
+			parallel = runner.run(this.tournament, 17L);
+		}
+		assertEquals(3 * 2 * 2, serial.sessions().size());
+		for (int s = 0; s < serial.sessions().size(); s++) {
+			final TournamentSessionResult expected = serial.sessions().get(s);
+			final TournamentSessionResult actual = parallel.sessions().get(s);
+			assertEquals(expected.session(), actual.session());
+			assertNotEquals(Outcome.FAILED, actual.result().outcome());
+			assertEquals(expected.result().outcome(), actual.result().outcome());
+			assertEquals(expected.result().agreement(), actual.result().agreement());
+			assertEquals(expected.result().rounds(), actual.result().rounds());
+		}
+		assertEquals(serial.totalUtility("Agent17"), parallel.totalUtility("group17.Agent17"), 0.0);
+		assertEquals(serial.totalUtility("Agent17") / 8, serial.meanUtility("Agent17"), 1e-12);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownParty() {
+		TournamentRunner.reflectiveFactory("agents.Missing");
+	}
+}
@@ -0,0 +1,100 @@
+package group17.tuning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import group17.domain.HyperparameterProperties;
+
+/**
+ * Unit tests for {@link HyperparameterOptimizer}, {@link SearchSpace} and {@link SimulationObjective}.
+ */
+public class HyperparameterOptimizerTest {
+
+	private static final SearchSpace SPACE = new SearchSpace(List.of(
+		new Hyperparameter(HyperparameterProperties.BOULWARE_BETA, 0.0, 1.0, false),
+		new Hyperparameter(HyperparameterProperties.FINISH_TIME, 0.0, 1.0, false)));
+
+	/**
+	 * A smooth objective with its peak (of zero) at boulwareBeta = 0.3, finishTime = 0.7.
+	 */
+	private static final TuningObjective PEAK = (candidate, budget) -> {
+		final double beta = candidate.getBoulwareBeta() - 0.3;
+		final double finish = candidate.getFinishTime() - 0.7;
+		return -(beta * beta) - (finish * finish);
+	};
+
+	@Test
+	public void testSearchSpace() {
+		final SearchSpace space = SearchSpace.agent17();
+		assertEquals(7, space.dimensions());
+		final double[] point = new double[] { 0.5, 0.25, 1.0, 0.5, 0.0, 0.0, 0.5 };
+		final HyperparameterProperties properties = space.toProperties(point);
+		assertEquals(0.5, properties.getBoulwareBeta(), 0.0);
+		assertEquals(0.25, properties.getFinishTime(), 0.0);
+		assertEquals(275, properties.getMaxListSize());
+		assertEquals(1, properties.getRecentBidWindow());
+		assertEquals(0.1, properties.getMaxElicitationPenalty(), 1e-12);
+		final double[] sample = space.sample(new Random(17));
+		for (final double coordinate : sample) {
+			assertTrue(coordinate >= 0.0 && coordinate < 1.0);
+		}
+	}
+
+	@Test
+	public void testRandomSearch() {
+		try (HyperparameterOptimizer optimizer = new HyperparameterOptimizer(SPACE, PEAK, 4, 17L)) {
+			final Evaluation best = optimizer.randomSearch(50, 1);
+			assertEquals(50, optimizer.getHistory().size());
+			assertTrue(best.score() > -0.02);
+			assertEquals(best, optimizer.best());
+		}
+	}
+
+	/**
+	 * 27 candidates with a factor of 3 run rungs of 27, 9, 3 and 1 candidates on budgets of 1, 3, 9 and 27.
+	 */
+	@Test
+	public void testSuccessiveHalving() {
+		try (HyperparameterOptimizer optimizer = new HyperparameterOptimizer(SPACE, PEAK, 4, 17L)) {
+			final Evaluation best = optimizer.successiveHalving(27, 1, 3);
+			assertEquals(27 + 9 + 3 + 1, optimizer.getHistory().size());
+			assertEquals(27, best.budget());
+			final double bestFirstRung = optimizer.getHistory().subList(0, 27).stream().mapToDouble(Evaluation::score).max().orElseThrow();
+			assertEquals(bestFirstRung, best.score(), 0.0);
+		}
+	}
+
+	@Test
+	public void testBayesianOptimization() {
+		try (HyperparameterOptimizer optimizer = new HyperparameterOptimizer(SPACE, PEAK, 2, 17L)) {
+			final Evaluation best = optimizer.bayesianOptimization(5, 20, 1);
+			assertEquals(25, optimizer.getHistory().size());
+			assertTrue("Best score " + best.score(), best.score() > -0.001);
+		}
+	}
+
+	@Test
+	public void testGaussianProcess() {
+		final GaussianProcess model = new GaussianProcess(1e-6);
+		final List<double[]> points = List.of(new double[] { 0.1 }, new double[] { 0.5 }, new double[] { 0.9 });
+		model.fit(points, new double[] { 1.0, 3.0, 2.0 });
+		assertEquals(3.0, model.predict(new double[] { 0.5 })[0], 1e-3);
+		assertTrue(model.predict(new double[] { 0.5 })[1] < 0.01);
+		assertTrue(model.expectedImprovement(new double[] { 0.3 }, 3.0) > model.expectedImprovement(new double[] { 0.5 }, 3.0));
+	}
+
+	@Test
+	public void testSimulationObjective() {
+		final SimulationObjective objective = new SimulationObjective(SimulationObjective.syntheticScenarios(2, 3, 3, 0, 17L), 
+			SimulationObjective.defaultOpponents(), 30);
+		final HyperparameterProperties candidate = SearchSpace.agent17().toProperties(SearchSpace.agent17().sample(new Random(17)));
+		final double score = objective.evaluate(candidate, 4);
+		assertTrue(score >= 0.0 && score <= 1.0);
+		assertEquals(score, objective.evaluate(candidate, 4), 1e-9);
+	}
+}